@@ -28,6 +28,26 @@ public final class AlertConfig {
 
     private int waitTimeout;
 
+    /**
+     * The max number of alerts waiting to be sent by each alert plugin instance.
+     */
+    private int instanceQueueCapacity = 1000;
+
+    /**
+     * The number of threads sending alerts for each alert plugin instance.
+     */
+    private int instanceParallelism = 1;
+
+    /**
+     * Alerts of an alert plugin instance arriving within this window are sent as one digest, 0 means disabled.
+     */
+    private int digestWindow;
+
+    /**
+     * The max number of sent alerts whose status are written into database in one batch.
+     */
+    private int sendStatusBatchSize = 100;
+
     public int getPort() {
         return port;
     }
@@ -43,4 +63,36 @@ public final class AlertConfig {
     public void setWaitTimeout(final int waitTimeout) {
         this.waitTimeout = waitTimeout;
     }
+
+    public int getInstanceQueueCapacity() {
+        return instanceQueueCapacity;
+    }
+
+    public void setInstanceQueueCapacity(final int instanceQueueCapacity) {
+        this.instanceQueueCapacity = instanceQueueCapacity;
+    }
+
+    public int getInstanceParallelism() {
+        return instanceParallelism;
+    }
+
+    public void setInstanceParallelism(final int instanceParallelism) {
+        this.instanceParallelism = instanceParallelism;
+    }
+
+    public int getDigestWindow() {
+        return digestWindow;
+    }
+
+    public void setDigestWindow(final int digestWindow) {
+        this.digestWindow = digestWindow;
+    }
+
+    public int getSendStatusBatchSize() {
+        return sendStatusBatchSize;
+    }
+
+    public void setSendStatusBatchSize(final int sendStatusBatchSize) {
+        this.sendStatusBatchSize = sendStatusBatchSize;
+    }
 }
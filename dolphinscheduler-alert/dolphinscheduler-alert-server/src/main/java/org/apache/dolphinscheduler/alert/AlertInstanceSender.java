@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert;
+
+import org.apache.dolphinscheduler.alert.api.AlertData;
+import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Send alerts of one alert plugin instance, each instance has its own bounded queue and threads, so a slow channel
+ * will not delay the alerts of other channels.
+ */
+final class AlertInstanceSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertInstanceSender.class);
+
+    private static final int MAX_DIGEST_SIZE = 100;
+
+    private final int alertPluginInstanceId;
+
+    private final long digestWindow;
+
+    private final BlockingQueue<Entry> queue;
+
+    private final ExecutorService sendExecutor;
+
+    private final BiFunction<AlertPluginInstance, AlertData, AlertResult> alertResultHandler;
+
+    private final Consumer<AlertSendTask> sentCallback;
+
+    AlertInstanceSender(int alertPluginInstanceId,
+                        AlertConfig alertConfig,
+                        BiFunction<AlertPluginInstance, AlertData, AlertResult> alertResultHandler,
+                        Consumer<AlertSendTask> sentCallback) {
+        this.alertPluginInstanceId = alertPluginInstanceId;
+        this.digestWindow = Math.max(alertConfig.getDigestWindow(), 0);
+        this.queue = new LinkedBlockingQueue<>(Math.max(alertConfig.getInstanceQueueCapacity(), 1));
+        this.alertResultHandler = alertResultHandler;
+        this.sentCallback = sentCallback;
+        int parallelism = Math.max(alertConfig.getInstanceParallelism(), 1);
+        this.sendExecutor = ThreadUtils.newDaemonFixedThreadExecutor(
+                "AlertInstanceSender-" + alertPluginInstanceId + "-%d", parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            sendExecutor.execute(this::sendLoop);
+        }
+    }
+
+    boolean hasRemainingCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    boolean offer(AlertPluginInstance instance, AlertSendTask alertSendTask) {
+        return queue.offer(new Entry(instance, alertSendTask, System.currentTimeMillis()));
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    void close() {
+        sendExecutor.shutdownNow();
+    }
+
+    private void sendLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Entry entry = queue.take();
+                for (List<Entry> digest : takeDigests(entry)) {
+                    send(digest);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Alert plugin instance {} send alerts error", alertPluginInstanceId, e);
+            }
+        }
+        logger.info("Alert plugin instance {} sender stopped", alertPluginInstanceId);
+    }
+
+    /**
+     * Take the alerts arriving within the digest window of the first alert, and group them by the alert type and
+     * warning type, only the alerts whose content is json array can be digested.
+     */
+    private List<List<Entry>> takeDigests(Entry first) throws InterruptedException {
+        List<List<Entry>> digests = new ArrayList<>();
+        if (digestWindow == 0 || !isJsonArray(first.alertSendTask.getAlertData().getContent())) {
+            digests.add(Collections.singletonList(first));
+            return digests;
+        }
+        Map<String, List<Entry>> digestsByType = new LinkedHashMap<>();
+        digestsByType.computeIfAbsent(digestKey(first), key -> new ArrayList<>()).add(first);
+        long deadline = first.enqueueTime + digestWindow;
+        int size = 1;
+        while (size < MAX_DIGEST_SIZE) {
+            long waitTime = deadline - System.currentTimeMillis();
+            Entry entry = waitTime > 0 ? queue.poll(waitTime, TimeUnit.MILLISECONDS) : queue.poll();
+            if (entry == null || entry.enqueueTime > deadline) {
+                if (entry != null) {
+                    digests.add(Collections.singletonList(entry));
+                }
+                break;
+            }
+            size++;
+            if (isJsonArray(entry.alertSendTask.getAlertData().getContent())) {
+                digestsByType.computeIfAbsent(digestKey(entry), key -> new ArrayList<>()).add(entry);
+            } else {
+                digests.add(Collections.singletonList(entry));
+            }
+        }
+        digests.addAll(0, digestsByType.values());
+        return digests;
+    }
+
+    private void send(List<Entry> digest) {
+        // the latest instance has the latest plugin params
+        AlertPluginInstance instance = digest.get(digest.size() - 1).instance;
+        AlertData alertData = digest.size() == 1
+                ? digest.get(0).alertSendTask.getAlertData()
+                : mergeAlertData(digest);
+        AlertResult alertResult = alertResultHandler.apply(instance, alertData);
+        for (Entry entry : digest) {
+            if (entry.alertSendTask.addResult(instance, alertResult)) {
+                sentCallback.accept(entry.alertSendTask);
+            }
+        }
+    }
+
+    private AlertData mergeAlertData(List<Entry> digest) {
+        AlertData first = digest.get(0).alertSendTask.getAlertData();
+        ArrayNode content = JSONUtils.createArrayNode();
+        for (Entry entry : digest) {
+            content.addAll(JSONUtils.parseArray(entry.alertSendTask.getAlertData().getContent()));
+        }
+        return AlertData.builder()
+                .id(first.getId())
+                .title(String.format("%s (%d alerts)", first.getTitle(), digest.size()))
+                .content(JSONUtils.toJsonString(content))
+                .warnType(first.getWarnType())
+                .alertType(first.getAlertType())
+                .build();
+    }
+
+    private static String digestKey(Entry entry) {
+        AlertData alertData = entry.alertSendTask.getAlertData();
+        return alertData.getAlertType() + "-" + alertData.getWarnType();
+    }
+
+    private static boolean isJsonArray(String content) {
+        if (!StringUtils.startsWith(StringUtils.trim(content), "[")) {
+            return false;
+        }
+        try {
+            JSONUtils.parseArray(content);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static final class Entry {
+
+        private final AlertPluginInstance instance;
+
+        private final AlertSendTask alertSendTask;
+
+        private final long enqueueTime;
+
+        private Entry(AlertPluginInstance instance, AlertSendTask alertSendTask, long enqueueTime) {
+            this.instance = instance;
+            this.alertSendTask = alertSendTask;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+}
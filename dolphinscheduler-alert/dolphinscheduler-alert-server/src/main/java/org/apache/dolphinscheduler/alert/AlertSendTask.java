@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert;
+
+import org.apache.dolphinscheduler.alert.api.AlertData;
+import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The sending of one alert to all the alert plugin instances of its alert group.
+ */
+final class AlertSendTask {
+
+    private final AlertData alertData;
+
+    private final int instanceCount;
+
+    private final List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
+
+    private final List<AlertResult> alertResults = new ArrayList<>();
+
+    private int finishedCount;
+
+    private int sendSuccessCount;
+
+    AlertSendTask(AlertData alertData, int instanceCount) {
+        this.alertData = alertData;
+        this.instanceCount = instanceCount;
+    }
+
+    int getAlertId() {
+        return alertData.getId();
+    }
+
+    AlertData getAlertData() {
+        return alertData;
+    }
+
+    /**
+     * Record the result of one alert plugin instance.
+     *
+     * @return true if all the alert plugin instances have finished
+     */
+    synchronized boolean addResult(AlertPluginInstance instance, AlertResult alertResult) {
+        finishedCount++;
+        if (alertResult != null) {
+            AlertStatus sendStatus = Boolean.parseBoolean(alertResult.getStatus())
+                    ? AlertStatus.EXECUTION_SUCCESS
+                    : AlertStatus.EXECUTION_FAILURE;
+            AlertSendStatus alertSendStatus = AlertSendStatus.builder()
+                    .alertId(getAlertId())
+                    .alertPluginInstanceId(instance.getId())
+                    .sendStatus(sendStatus)
+                    .log(JSONUtils.toJsonString(alertResult))
+                    .createTime(new Date())
+                    .build();
+            alertSendStatuses.add(alertSendStatus);
+            if (AlertStatus.EXECUTION_SUCCESS.equals(sendStatus)) {
+                sendSuccessCount++;
+                AlertServerMetrics.incAlertSuccessCount();
+            } else {
+                AlertServerMetrics.incAlertFailCount();
+            }
+            alertResults.add(alertResult);
+        }
+        return finishedCount == instanceCount;
+    }
+
+    synchronized AlertStatus getAlertStatus() {
+        if (sendSuccessCount == 0) {
+            return AlertStatus.EXECUTION_FAILURE;
+        }
+        if (sendSuccessCount < instanceCount) {
+            return AlertStatus.EXECUTION_PARTIAL_SUCCESS;
+        }
+        return AlertStatus.EXECUTION_SUCCESS;
+    }
+
+    synchronized List<AlertSendStatus> getAlertSendStatuses() {
+        return new ArrayList<>(alertSendStatuses);
+    }
+
+    synchronized List<AlertResult> getAlertResults() {
+        return new ArrayList<>(alertResults);
+    }
+}
@@ -27,7 +27,6 @@ import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.enums.AlertType;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
@@ -39,13 +38,23 @@ import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseResult;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -60,10 +69,32 @@ public final class AlertSenderService extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(AlertSenderService.class);
 
+    private static final long FETCH_INTERVAL_MILLIS = Constants.SLEEP_TIME_MILLIS * 5L;
+
+    private static final int MAX_DEFERRED_ALERTS = 1000;
+
     private final AlertDao alertDao;
     private final AlertPluginManager alertPluginManager;
     private final AlertConfig alertConfig;
 
+    private final Map<Integer, AlertInstanceSender> alertInstanceSenders = new ConcurrentHashMap<>();
+
+    /**
+     * The alerts dispatched but not written into database yet.
+     */
+    private final Set<Integer> sendingAlertIds = ConcurrentHashMap.newKeySet();
+
+    private final BlockingQueue<AlertSendTask> sentAlertTasks = new LinkedBlockingQueue<>();
+
+    private final Semaphore sentAlertSignal = new Semaphore(0);
+
+    /**
+     * The alerts whose queues were full, in the order of id. Only accessed by the sender thread.
+     */
+    private final Deque<Alert> deferredAlerts = new ArrayDeque<>();
+
+    private int alertIdCursor;
+
     public AlertSenderService(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertConfig alertConfig) {
         this.alertDao = alertDao;
         this.alertPluginManager = alertPluginManager;
@@ -79,35 +110,91 @@ public final class AlertSenderService extends Thread {
     @Override
     public void run() {
         logger.info("Alert sender thread started");
+        AlertServerMetrics.registerPendingAlertGauge(sendingAlertIds::size);
+        long nextFetchTime = 0;
         while (!ServerLifeCycleManager.isStopped()) {
+            long now = System.currentTimeMillis();
             try {
-                List<Alert> alerts = alertDao.listPendingAlerts();
-                if (CollectionUtils.isEmpty(alerts)) {
-                    logger.debug("There is not waiting alerts");
-                    continue;
+                this.flushSentAlerts();
+                if (now >= nextFetchTime && deferredAlerts.size() < MAX_DEFERRED_ALERTS) {
+                    List<Alert> alerts = alertDao.listPendingAlerts(alertIdCursor);
+                    if (CollectionUtils.isEmpty(alerts)) {
+                        logger.debug("There is not waiting alerts");
+                        // fetch from the beginning next time, in case of the alerts committed with smaller ids
+                        alertIdCursor = 0;
+                        nextFetchTime = now + FETCH_INTERVAL_MILLIS;
+                    } else {
+                        // fetch again at once if there may be more waiting alerts
+                        nextFetchTime = this.send(alerts) > 0 ? now : now + FETCH_INTERVAL_MILLIS;
+                    }
+                } else if (!deferredAlerts.isEmpty()) {
+                    // the queues may have room again since some alerts were sent
+                    this.send(Collections.emptyList());
                 }
-                AlertServerMetrics.registerPendingAlertGauge(alerts::size);
-                this.send(alerts);
             } catch (Exception e) {
                 logger.error("Alert sender thread meet an exception", e);
+                nextFetchTime = now + FETCH_INTERVAL_MILLIS;
             } finally {
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS * 5L);
+                waitSentAlerts(nextFetchTime - System.currentTimeMillis());
             }
         }
+        alertInstanceSenders.values().forEach(AlertInstanceSender::close);
         logger.info("Alert sender thread stopped");
     }
 
-    public void send(List<Alert> alerts) {
+    /**
+     * Dispatch the deferred alerts and then the new alerts into the queues of their alert plugin instances, the
+     * alerts whose queues are full are deferred to the next time.
+     *
+     * @param alerts waiting alerts sorted by id
+     * @return the number of dispatched alerts
+     */
+    public int send(List<Alert> alerts) {
+        // the deferred alerts are older than the fetched ones, so they go first
+        List<Alert> candidates = new ArrayList<>(deferredAlerts);
+        deferredAlerts.clear();
+        Set<Integer> candidateIds = candidates.stream().map(Alert::getId).collect(Collectors.toSet());
+        int maxAlertId = alertIdCursor;
         for (Alert alert : alerts) {
+            maxAlertId = Math.max(maxAlertId, alert.getId());
+            if (candidateIds.add(alert.getId())) {
+                candidates.add(alert);
+            }
+        }
+
+        int dispatchedCount = 0;
+        Set<Integer> blockedInstanceIds = new HashSet<>();
+        List<Alert> failedAlerts = new ArrayList<>();
+        Map<Integer, List<AlertPluginInstance>> alertInstancesByGroupId = new HashMap<>();
+        for (Alert alert : candidates) {
             // get alert group from alert
             int alertId = alert.getId();
+            if (sendingAlertIds.contains(alertId)) {
+                continue;
+            }
             int alertGroupId = Optional.ofNullable(alert.getAlertGroupId()).orElse(0);
-            List<AlertPluginInstance> alertInstanceList = alertDao.listInstanceByAlertGroupId(alertGroupId);
+            List<AlertPluginInstance> alertInstanceList =
+                    alertInstancesByGroupId.computeIfAbsent(alertGroupId, alertDao::listInstanceByAlertGroupId);
             if (CollectionUtils.isEmpty(alertInstanceList)) {
                 logger.error("send alert msg fail,no bind plugin instance.");
                 List<AlertResult> alertResults = Lists.newArrayList(new AlertResult("false",
                         "no bind plugin instance"));
-                alertDao.updateAlert(AlertStatus.EXECUTION_FAILURE, JSONUtils.toJsonString(alertResults), alertId);
+                failedAlerts.add(alertStatusOf(alertId, AlertStatus.EXECUTION_FAILURE, alertResults));
+                continue;
+            }
+            List<AlertInstanceSender> instanceSenders = alertInstanceList.stream()
+                    .map(instance -> alertInstanceSenders.computeIfAbsent(instance.getId(),
+                            id -> new AlertInstanceSender(id, alertConfig, this::alertResultHandler,
+                                    this::onAlertSent)))
+                    .collect(Collectors.toList());
+            // a later alert must not overtake a deferred one of the same plugin instance
+            boolean blocked = alertInstanceList.stream()
+                    .anyMatch(instance -> blockedInstanceIds.contains(instance.getId()))
+                    || !instanceSenders.stream().allMatch(AlertInstanceSender::hasRemainingCapacity);
+            if (blocked) {
+                logger.warn("The queue of alert plugin instances is full, alert {} will be sent later", alertId);
+                deferredAlerts.add(alert);
+                alertInstanceList.forEach(instance -> blockedInstanceIds.add(instance.getId()));
                 continue;
             }
             AlertData alertData = AlertData.builder()
@@ -118,44 +205,71 @@ public final class AlertSenderService extends Thread {
                     .warnType(alert.getWarningType().getCode())
                     .alertType(alert.getAlertType().getCode())
                     .build();
+            AlertSendTask alertSendTask = new AlertSendTask(alertData, alertInstanceList.size());
+            sendingAlertIds.add(alertId);
+            for (int i = 0; i < alertInstanceList.size(); i++) {
+                // only this thread puts alerts into the queues, so there is still capacity here
+                instanceSenders.get(i).offer(alertInstanceList.get(i), alertSendTask);
+            }
+            dispatchedCount++;
+        }
+        alertDao.updateAlerts(failedAlerts);
+        // the deferred alerts are kept in memory, so the cursor always moves on
+        alertIdCursor = maxAlertId;
+        return dispatchedCount;
+    }
 
-            int sendSuccessCount = 0;
-            List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
-            List<AlertResult> alertResults = new ArrayList<>();
-            for (AlertPluginInstance instance : alertInstanceList) {
-                AlertResult alertResult = this.alertResultHandler(instance, alertData);
-                if (alertResult != null) {
-                    AlertStatus sendStatus = Boolean.parseBoolean(alertResult.getStatus())
-                            ? AlertStatus.EXECUTION_SUCCESS
-                            : AlertStatus.EXECUTION_FAILURE;
-                    AlertSendStatus alertSendStatus = AlertSendStatus.builder()
-                            .alertId(alertId)
-                            .alertPluginInstanceId(instance.getId())
-                            .sendStatus(sendStatus)
-                            .log(JSONUtils.toJsonString(alertResult))
-                            .createTime(new Date())
-                            .build();
-                    alertSendStatuses.add(alertSendStatus);
-                    if (AlertStatus.EXECUTION_SUCCESS.equals(sendStatus)) {
-                        sendSuccessCount++;
-                        AlertServerMetrics.incAlertSuccessCount();
-                    } else {
-                        AlertServerMetrics.incAlertFailCount();
-                    }
-                    alertResults.add(alertResult);
+    /**
+     * Write the status of sent alerts into database in batch.
+     */
+    public void flushSentAlerts() {
+        int batchSize = Math.max(alertConfig.getSendStatusBatchSize(), 1);
+        List<AlertSendTask> alertSendTasks = new ArrayList<>(batchSize);
+        while (sentAlertTasks.drainTo(alertSendTasks, batchSize) > 0) {
+            try {
+                List<Alert> alerts = new ArrayList<>(alertSendTasks.size());
+                List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
+                for (AlertSendTask alertSendTask : alertSendTasks) {
+                    alerts.add(alertStatusOf(alertSendTask.getAlertId(), alertSendTask.getAlertStatus(),
+                            alertSendTask.getAlertResults()));
+                    alertSendStatuses.addAll(alertSendTask.getAlertSendStatuses());
                 }
+                // we update the alerts first to avoid duplicate key in alertSendStatus
+                // this may loss the alertSendStatus if the server restart
+                // todo: use transaction to update these two table
+                alertDao.updateAlerts(alerts);
+                alertDao.insertAlertSendStatus(alertSendStatuses);
+            } finally {
+                // the alerts failed to update are still waiting, and will be sent again
+                alertSendTasks.forEach(alertSendTask -> sendingAlertIds.remove(alertSendTask.getAlertId()));
+                alertSendTasks.clear();
             }
-            AlertStatus alertStatus = AlertStatus.EXECUTION_SUCCESS;
-            if (sendSuccessCount == 0) {
-                alertStatus = AlertStatus.EXECUTION_FAILURE;
-            } else if (sendSuccessCount < alertInstanceList.size()) {
-                alertStatus = AlertStatus.EXECUTION_PARTIAL_SUCCESS;
+        }
+    }
+
+    private Alert alertStatusOf(int alertId, AlertStatus alertStatus, List<AlertResult> alertResults) {
+        Alert alert = new Alert();
+        alert.setId(alertId);
+        alert.setAlertStatus(alertStatus);
+        alert.setLog(JSONUtils.toJsonString(alertResults));
+        return alert;
+    }
+
+    private void onAlertSent(AlertSendTask alertSendTask) {
+        sentAlertTasks.add(alertSendTask);
+        sentAlertSignal.release();
+    }
+
+    private void waitSentAlerts(long waitTime) {
+        if (waitTime <= 0) {
+            return;
+        }
+        try {
+            if (sentAlertSignal.tryAcquire(waitTime, TimeUnit.MILLISECONDS)) {
+                sentAlertSignal.drainPermits();
             }
-            // we update the alert first to avoid duplicate key in alertSendStatus
-            // this may loss the alertSendStatus if the server restart
-            // todo: use transaction to update these two table
-            alertDao.updateAlert(alertStatus, JSONUtils.toJsonString(alertResults), alertId);
-            alertDao.insertAlertSendStatus(alertSendStatuses);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
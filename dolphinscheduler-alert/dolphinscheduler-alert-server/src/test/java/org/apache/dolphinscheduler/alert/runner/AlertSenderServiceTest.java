@@ -24,22 +24,34 @@ import org.apache.dolphinscheduler.alert.AlertConfig;
 import org.apache.dolphinscheduler.alert.AlertPluginManager;
 import org.apache.dolphinscheduler.alert.AlertSenderService;
 import org.apache.dolphinscheduler.alert.api.AlertChannel;
+import org.apache.dolphinscheduler.alert.api.AlertInfo;
 import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.enums.AlertType;
 import org.apache.dolphinscheduler.common.enums.WarningType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.PluginDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 import org.apache.dolphinscheduler.dao.entity.PluginDefine;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -47,6 +59,8 @@ import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.Lists;
+
 public class AlertSenderServiceTest {
 
     private static final Logger logger = LoggerFactory.getLogger(AlertSenderServiceTest.class);
@@ -186,4 +200,115 @@ public class AlertSenderServiceTest {
         when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(new ArrayList<>());
         alertSenderService.send(alertList);
     }
+
+    @Test
+    public void testSendDigest() {
+        int alertGroupId = 1;
+        List<Alert> alertList = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            Alert alert = new Alert();
+            alert.setId(i);
+            alert.setAlertGroupId(alertGroupId);
+            alert.setTitle("alert digest test title");
+            alert.setContent("[{\"task\":\"task-" + i + "\"}]");
+            alert.setWarningType(WarningType.FAILURE);
+            alert.setAlertType(AlertType.TASK_FAILURE);
+            alertList.add(alert);
+        }
+
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(
+                1, "alert-instance-mail-params", "alert-instance-mail");
+        alertPluginInstance.setId(1);
+        when(alertDao.listInstanceByAlertGroupId(alertGroupId)).thenReturn(Lists.newArrayList(alertPluginInstance));
+        when(alertConfig.getWaitTimeout()).thenReturn(0);
+        when(alertConfig.getInstanceQueueCapacity()).thenReturn(10);
+        when(alertConfig.getInstanceParallelism()).thenReturn(1);
+        when(alertConfig.getDigestWindow()).thenReturn(500);
+        when(alertConfig.getSendStatusBatchSize()).thenReturn(100);
+
+        AlertChannel alertChannelMock = mock(AlertChannel.class);
+        when(alertChannelMock.process(Mockito.any())).thenReturn(new AlertResult("true", "success"));
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(alertChannelMock));
+
+        AtomicReference<List<AlertSendStatus>> insertedSendStatuses = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            insertedSendStatuses.set(invocation.getArgument(0));
+            return 2;
+        }).when(alertDao).insertAlertSendStatus(Mockito.anyList());
+
+        Assertions.assertEquals(2, alertSenderService.send(alertList));
+        for (int i = 0; i < 50 && insertedSendStatuses.get() == null; i++) {
+            ThreadUtils.sleep(100);
+            alertSenderService.flushSentAlerts();
+        }
+
+        ArgumentCaptor<AlertInfo> alertInfoCaptor = ArgumentCaptor.forClass(AlertInfo.class);
+        Mockito.verify(alertChannelMock, Mockito.times(1)).process(alertInfoCaptor.capture());
+        Assertions.assertEquals(2, JSONUtils.parseArray(alertInfoCaptor.getValue().getAlertData().getContent()).size());
+        ArgumentCaptor<List<Alert>> updatedAlertsCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(alertDao).updateAlerts(updatedAlertsCaptor.capture());
+        List<Alert> updatedAlerts = updatedAlertsCaptor.getValue();
+        Assertions.assertEquals(Lists.newArrayList(1, 2),
+                updatedAlerts.stream().map(Alert::getId).sorted().collect(Collectors.toList()));
+        updatedAlerts.forEach(updatedAlert -> Assertions.assertEquals(AlertStatus.EXECUTION_SUCCESS,
+                updatedAlert.getAlertStatus()));
+        Mockito.verify(alertDao, Mockito.never()).updateAlert(Mockito.any(), Mockito.anyString(), Mockito.anyInt());
+        Assertions.assertEquals(2, insertedSendStatuses.get().size());
+    }
+
+    @Test
+    public void testSendDeferredAlertsInOrder() throws InterruptedException {
+        int alertGroupId = 1;
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(
+                1, "alert-instance-mail-params", "alert-instance-mail");
+        alertPluginInstance.setId(2);
+        when(alertDao.listInstanceByAlertGroupId(alertGroupId)).thenReturn(Lists.newArrayList(alertPluginInstance));
+        when(alertConfig.getWaitTimeout()).thenReturn(0);
+        when(alertConfig.getInstanceQueueCapacity()).thenReturn(1);
+        when(alertConfig.getInstanceParallelism()).thenReturn(1);
+        when(alertConfig.getDigestWindow()).thenReturn(0);
+        when(alertConfig.getSendStatusBatchSize()).thenReturn(100);
+
+        CountDownLatch firstSending = new CountDownLatch(1);
+        CountDownLatch channelReleased = new CountDownLatch(1);
+        List<Integer> sentAlertIds = new CopyOnWriteArrayList<>();
+        AlertChannel alertChannelMock = mock(AlertChannel.class);
+        when(alertChannelMock.process(Mockito.any())).thenAnswer(invocation -> {
+            AlertInfo alertInfo = invocation.getArgument(0);
+            sentAlertIds.add(alertInfo.getAlertData().getId());
+            firstSending.countDown();
+            channelReleased.await();
+            return new AlertResult("true", "success");
+        });
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(alertChannelMock));
+
+        Assertions.assertEquals(1, alertSenderService.send(createAlerts(alertGroupId, 1)));
+        Assertions.assertTrue(firstSending.await(5, TimeUnit.SECONDS));
+        // alert 2 fills the queue, alert 3 is deferred
+        Assertions.assertEquals(1, alertSenderService.send(createAlerts(alertGroupId, 2, 3)));
+        // alert 4 must wait behind the deferred alert 3
+        Assertions.assertEquals(0, alertSenderService.send(createAlerts(alertGroupId, 4)));
+
+        channelReleased.countDown();
+        for (int i = 0; i < 50 && sentAlertIds.size() < 4; i++) {
+            ThreadUtils.sleep(100);
+            alertSenderService.send(new ArrayList<>());
+        }
+        Assertions.assertEquals(Lists.newArrayList(1, 2, 3, 4), sentAlertIds);
+    }
+
+    private List<Alert> createAlerts(int alertGroupId, int... alertIds) {
+        List<Alert> alerts = new ArrayList<>();
+        for (int alertId : alertIds) {
+            Alert alert = new Alert();
+            alert.setId(alertId);
+            alert.setAlertGroupId(alertGroupId);
+            alert.setTitle("alert deferred test title");
+            alert.setContent("alert deferred test content");
+            alert.setWarningType(WarningType.FAILURE);
+            alert.setAlertType(AlertType.TASK_FAILURE);
+            alerts.add(alert);
+        }
+        return alerts;
+    }
 }
@@ -526,12 +526,14 @@ public class ProcessDefinitionController extends BaseController {
      * @param projectCode project code
      * @param code process definition code
      * @param limit limit
+     * @param changedSince only return the process instances changed since this time among the latest limit ones
      * @return tree view json data
      */
     @Operation(summary = "viewTree", description = "VIEW_TREE_NOTES")
     @Parameters({
             @Parameter(name = "code", description = "PROCESS_DEFINITION_CODE", required = true, schema = @Schema(implementation = long.class, example = "100")),
-            @Parameter(name = "limit", description = "LIMIT", required = true, schema = @Schema(implementation = int.class, example = "100"))
+            @Parameter(name = "limit", description = "LIMIT", required = true, schema = @Schema(implementation = int.class, example = "100")),
+            @Parameter(name = "changedSince", description = "CHANGED_SINCE", required = false, schema = @Schema(implementation = String.class, example = "2022-01-01 00:00:00"))
     })
     @GetMapping(value = "/{code}/view-tree")
     @ResponseStatus(HttpStatus.OK)
@@ -540,8 +542,10 @@ public class ProcessDefinitionController extends BaseController {
     public Result viewTree(@Parameter(hidden = true) @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                            @Parameter(name = "projectCode", description = "PROJECT_CODE", required = true) @PathVariable long projectCode,
                            @PathVariable("code") long code,
-                           @RequestParam("limit") Integer limit) {
-        Map<String, Object> result = processDefinitionService.viewTree(loginUser, projectCode, code, limit);
+                           @RequestParam("limit") Integer limit,
+                           @RequestParam(value = "changedSince", required = false) String changedSince) {
+        Map<String, Object> result =
+                processDefinitionService.viewTree(loginUser, projectCode, code, limit, changedSince);
         return returnDataList(result);
     }
 
@@ -349,11 +349,13 @@ public class ProcessInstanceController extends BaseController {
      * @param loginUser login user
      * @param projectCode project code
      * @param id process instance id
+     * @param changedSince only return the task instances changed since this time
      * @return gantt tree data
      */
     @Operation(summary = "vieGanttTree", description = "VIEW_GANTT_NOTES")
     @Parameters({
-            @Parameter(name = "id", description = "PROCESS_INSTANCE_ID", required = true, schema = @Schema(implementation = int.class, example = "100"))
+            @Parameter(name = "id", description = "PROCESS_INSTANCE_ID", required = true, schema = @Schema(implementation = int.class, example = "100")),
+            @Parameter(name = "changedSince", description = "CHANGED_SINCE", required = false, schema = @Schema(implementation = String.class, example = "2022-01-01 00:00:00"))
     })
     @GetMapping(value = "/{id}/view-gantt")
     @ResponseStatus(HttpStatus.OK)
@@ -361,8 +363,10 @@ public class ProcessInstanceController extends BaseController {
     @AccessLogAnnotation
     public Result viewTree(@Parameter(hidden = true) @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                            @Parameter(name = "projectCode", description = "PROJECT_CODE", required = true) @PathVariable long projectCode,
-                           @PathVariable("id") Integer id) throws Exception {
-        Map<String, Object> result = processInstanceService.viewGantt(projectCode, id);
+                           @PathVariable("id") Integer id,
+                           @RequestParam(value = "changedSince", required = false) String changedSince)
+            throws Exception {
+        Map<String, Object> result = processInstanceService.viewGantt(projectCode, id, changedSince);
         return returnDataList(result);
     }
 
@@ -365,9 +365,11 @@ public interface ProcessDefinitionService {
      * @param projectCode project code
      * @param code process definition code
      * @param limit limit
+     * @param changedSince only return the process instances which are running or finished after this time among the
+     *                     latest limit ones, return all of them if it is empty
      * @return tree view json data
      */
-    Map<String, Object> viewTree(User loginUser, long projectCode, long code, Integer limit);
+    Map<String, Object> viewTree(User loginUser, long projectCode, long code, Integer limit, String changedSince);
 
     /**
      * switch the defined process definition version
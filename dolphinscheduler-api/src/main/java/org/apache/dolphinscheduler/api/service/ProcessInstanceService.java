@@ -197,10 +197,12 @@ public interface ProcessInstanceService {
      *
      * @param projectCode project code
      * @param processInstanceId process instance id
+     * @param changedSince only return the task instances which are running or finished after this time, return all
+     *                     the task instances if it is empty
      * @return gantt tree data
      * @throws Exception exception when json parse
      */
-    Map<String, Object> viewGantt(long projectCode, Integer processInstanceId) throws Exception;
+    Map<String, Object> viewGantt(long projectCode, Integer processInstanceId, String changedSince) throws Exception;
 
     /**
      * query process instance by processDefinitionCode and stateArray
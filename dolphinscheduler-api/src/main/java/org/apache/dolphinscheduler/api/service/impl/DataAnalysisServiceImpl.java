@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.AuthorizationType;
 import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
 import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.TriFunction;
@@ -46,6 +47,7 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessTaskRelationMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -102,6 +104,10 @@ public class DataAnalysisServiceImpl extends BaseServiceImpl implements DataAnal
 
     @Autowired
     private ProcessTaskRelationMapper relationMapper;
+
+    @Autowired
+    private StateRollupDao stateRollupDao;
+
     /**
      * statistical task instance status data
      *
@@ -140,8 +146,10 @@ public class DataAnalysisServiceImpl extends BaseServiceImpl implements DataAnal
                 projectCode,
                 startDate,
                 endDate,
-                (start, end, projectCodes) -> this.processInstanceMapper.countInstanceStateByProjectCodes(start, end,
-                        projectCodes));
+                (start, end, projectCodes) -> stateRollupDao.countState(StateRollupType.WORKFLOW_INSTANCE_START_TIME,
+                        start, end, projectCodes, null,
+                        (rawStart, rawEnd) -> processInstanceMapper.countInstanceStateByProjectCodes(rawStart, rawEnd,
+                                projectCodes)));
 
         // process state count needs to remove state of forced success
         if (result.containsKey(Constants.STATUS) && result.get(Constants.STATUS).equals(Status.SUCCESS)) {
@@ -332,8 +340,10 @@ public class DataAnalysisServiceImpl extends BaseServiceImpl implements DataAnal
     @Override
     public List<ExecuteStatusCount> countTaskInstanceAllStatesByProjectCodes(Date startTime, Date endTime,
                                                                              Long[] projectCodes) {
-        Optional<List<ExecuteStatusCount>> startTimeStates = Optional.ofNullable(
-                this.taskInstanceMapper.countTaskInstanceStateByProjectCodes(startTime, endTime, projectCodes));
+        Optional<List<ExecuteStatusCount>> startTimeStates = Optional.ofNullable(stateRollupDao.countState(
+                StateRollupType.TASK_INSTANCE_START_TIME, startTime, endTime, projectCodes, null,
+                (rawStart, rawEnd) -> taskInstanceMapper.countTaskInstanceStateByProjectCodes(rawStart, rawEnd,
+                        projectCodes)));
 
         List<TaskExecutionStatus> allState = Arrays.stream(TaskExecutionStatus.values()).collect(Collectors.toList());
         List<TaskExecutionStatus> needRecountState;
@@ -352,9 +362,10 @@ public class DataAnalysisServiceImpl extends BaseServiceImpl implements DataAnal
 
         // use submit time to recount when 0
         // if have any issues with this code, should change to specified states 0 8 9 17 not state count is 0
-        List<ExecuteStatusCount> recounts = this.taskInstanceMapper
-                .countTaskInstanceStateByProjectCodesAndStatesBySubmitTime(startTime, endTime, projectCodes,
-                        needRecountState);
+        List<ExecuteStatusCount> recounts = stateRollupDao.countState(
+                StateRollupType.TASK_INSTANCE_SUBMIT_TIME, startTime, endTime, projectCodes, needRecountState,
+                (rawStart, rawEnd) -> taskInstanceMapper.countTaskInstanceStateByProjectCodesAndStatesBySubmitTime(
+                        rawStart, rawEnd, projectCodes, needRecountState));
         startTimeStates.orElseGet(ArrayList::new).addAll(recounts);
 
         return startTimeStates.orElse(null);
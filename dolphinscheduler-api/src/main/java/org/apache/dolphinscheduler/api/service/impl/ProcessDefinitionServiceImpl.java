@@ -1911,10 +1911,13 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * @param projectCode project code
      * @param code  process definition code
      * @param limit limit
+     * @param changedSince only keep the process instances running or finished after this time among the latest limit
+     *                     ones, the limit is applied before the filter so the instances are the same as a full refresh
      * @return tree view json data
      */
     @Override
-    public Map<String, Object> viewTree(User loginUser, long projectCode, long code, Integer limit) {
+    public Map<String, Object> viewTree(User loginUser, long projectCode, long code, Integer limit,
+                                        String changedSince) {
         Map<String, Object> result = new HashMap<>();
         Project project = projectMapper.queryByCode(projectCode);
         // check user access for project
@@ -1922,6 +1925,15 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         if (result.get(Constants.STATUS) != Status.SUCCESS) {
             return result;
         }
+        Date since = null;
+        if (StringUtils.isNotEmpty(changedSince)) {
+            since = DateUtils.stringToDate(changedSince);
+            if (since == null) {
+                logger.warn("Parameter changedSince is invalid, changedSince:{}.", changedSince);
+                putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "changedSince");
+                return result;
+            }
+        }
         ProcessDefinition processDefinition = processDefinitionMapper.queryByCode(code);
         if (null == processDefinition || projectCode != processDefinition.getProjectCode()) {
             logger.error("Process definition does not exist, code:{}.", code);
@@ -1935,21 +1947,39 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         // nodes that are waiting to run
         Map<String, List<TreeViewDto>> waitingRunningNodeMap = new ConcurrentHashMap<>();
 
-        // List of process instances
-        List<ProcessInstance> processInstanceList = processInstanceService.queryByProcessDefineCode(code, limit);
-        processInstanceList.forEach(processInstance -> processInstance
-                .setDuration(DateUtils.format2Duration(processInstance.getStartTime(), processInstance.getEndTime())));
-        List<TaskDefinitionLog> taskDefinitionList = taskDefinitionLogDao.getTaskDefineLogList(processTaskRelationMapper
-                .queryByProcessCode(processDefinition.getProjectCode(), processDefinition.getCode()));
-        Map<Long, TaskDefinitionLog> taskDefinitionMap = taskDefinitionList.stream()
-                .collect(Collectors.toMap(TaskDefinitionLog::getCode, taskDefinitionLog -> taskDefinitionLog));
-
         if (limit < 0) {
             putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR);
             return result;
         }
-        if (limit > processInstanceList.size()) {
-            limit = processInstanceList.size();
+
+        // List of the latest limit process instances
+        List<ProcessInstance> processInstanceList = processInstanceService.queryByProcessDefineCode(code, limit);
+        if (limit < processInstanceList.size()) {
+            processInstanceList = processInstanceList.subList(0, limit);
+        }
+        if (since != null) {
+            // then only return the running process instances and the ones finished after the last refresh
+            Date finalSince = since;
+            processInstanceList = processInstanceList.stream()
+                    .filter(processInstance -> processInstance.getEndTime() == null
+                            || processInstance.getEndTime().after(finalSince))
+                    .collect(Collectors.toList());
+        }
+        processInstanceList.forEach(processInstance -> processInstance
+                .setDuration(DateUtils.format2Duration(processInstance.getStartTime(), processInstance.getEndTime())));
+        limit = processInstanceList.size();
+
+        // load the task instances of all the process instances at once, and join them to the nodes by task code
+        Map<Integer, Map<Long, TaskInstance>> taskInstanceMap = new HashMap<>();
+        if (limit > 0) {
+            List<Integer> processInstanceIds = processInstanceList.subList(0, limit).stream()
+                    .map(ProcessInstance::getId)
+                    .collect(Collectors.toList());
+            for (TaskInstance taskInstance : taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(
+                    processInstanceIds, null)) {
+                taskInstanceMap.computeIfAbsent(taskInstance.getProcessInstanceId(), k -> new HashMap<>())
+                        .putIfAbsent(taskInstance.getTaskCode(), taskInstance);
+            }
         }
 
         TreeViewDto parentTreeViewDto = new TreeViewDto();
@@ -1991,8 +2021,9 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                 // set treeViewDto instances
                 for (int i = limit - 1; i >= 0; i--) {
                     ProcessInstance processInstance = processInstanceList.get(i);
-                    TaskInstance taskInstance = taskInstanceMapper.queryByInstanceIdAndCode(processInstance.getId(),
-                            Long.parseLong(nodeCode));
+                    TaskInstance taskInstance = taskInstanceMap
+                            .getOrDefault(processInstance.getId(), Collections.emptyMap())
+                            .get(taskNode.getCode());
                     if (taskInstance == null) {
                         treeViewDto.getInstances().add(new Instance(-1, "not running", 0, "null"));
                     } else {
@@ -2002,9 +2033,8 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                         long subProcessCode = 0L;
                         // if process is sub process, the return sub id, or sub id=0
                         if (taskInstance.isSubProcess()) {
-                            TaskDefinition taskDefinition = taskDefinitionMap.get(taskInstance.getTaskCode());
                             subProcessCode = Long.parseLong(JSONUtils.parseObject(
-                                    taskDefinition.getTaskParams()).path(CMD_PARAM_SUB_PROCESS_DEFINE_CODE).asText());
+                                    taskNode.getParams()).path(CMD_PARAM_SUB_PROCESS_DEFINE_CODE).asText());
                         }
                         treeViewDto.getInstances().add(new Instance(taskInstance.getId(), taskInstance.getName(),
                                 taskInstance.getTaskCode(),
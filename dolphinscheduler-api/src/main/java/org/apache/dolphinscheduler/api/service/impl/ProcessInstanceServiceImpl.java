@@ -44,6 +44,7 @@ import org.apache.dolphinscheduler.api.service.UsersService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.enums.CacheType;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.common.graph.DAG;
@@ -73,6 +74,7 @@ import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceMapDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
 import org.apache.dolphinscheduler.dao.utils.WorkflowUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
@@ -80,6 +82,8 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.ParametersNode;
 import org.apache.dolphinscheduler.plugin.task.api.utils.ParameterUtils;
+import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 import org.apache.dolphinscheduler.service.expand.CuringParamsService;
 import org.apache.dolphinscheduler.service.model.TaskNode;
 import org.apache.dolphinscheduler.service.process.ProcessService;
@@ -188,9 +192,15 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
     @Autowired
     private AlertDao alertDao;
 
+    @Autowired
+    private StateRollupDao stateRollupDao;
+
     @Autowired
     private CuringParamsService curingGlobalParamsService;
 
+    @Autowired
+    private CacheNotifyService cacheNotifyService;
+
     /**
      * return top n SUCCESS process instance order by running time which started between startTime and endTime
      */
@@ -932,8 +942,18 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
      * @throws Exception exception when json parse
      */
     @Override
-    public Map<String, Object> viewGantt(long projectCode, Integer processInstanceId) throws Exception {
+    public Map<String, Object> viewGantt(long projectCode, Integer processInstanceId,
+                                         String changedSince) throws Exception {
         Map<String, Object> result = new HashMap<>();
+        Date since = null;
+        if (StringUtils.isNotEmpty(changedSince)) {
+            since = DateUtils.stringToDate(changedSince);
+            if (since == null) {
+                logger.warn("Parameter changedSince is invalid, changedSince:{}.", changedSince);
+                putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "changedSince");
+                return result;
+            }
+        }
         ProcessInstance processInstance = processInstanceMapper.queryDetailById(processInstanceId);
 
         if (processInstance == null) {
@@ -962,20 +982,21 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
         List<Task> taskList = new ArrayList<>();
         if (CollectionUtils.isNotEmpty(nodeList)) {
             List<Long> taskCodes = nodeList.stream().map(Long::parseLong).collect(Collectors.toList());
-            List<TaskInstance> taskInstances = taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(
-                    Collections.singletonList(processInstanceId), taskCodes);
-            for (String node : nodeList) {
-                TaskInstance taskInstance = null;
-                for (TaskInstance instance : taskInstances) {
-                    if (instance.getProcessInstanceId() == processInstanceId
-                            && instance.getTaskCode() == Long.parseLong(node)) {
-                        taskInstance = instance;
-                        break;
-                    }
-                }
+            // join the task instances to the nodes by task code
+            Map<Long, TaskInstance> taskInstanceMap = taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(
+                    Collections.singletonList(processInstanceId), taskCodes)
+                    .stream()
+                    .collect(Collectors.toMap(TaskInstance::getTaskCode, Function.identity(),
+                            (first, second) -> first));
+            for (Long taskCode : taskCodes) {
+                TaskInstance taskInstance = taskInstanceMap.get(taskCode);
                 if (taskInstance == null) {
                     continue;
                 }
+                // only return the running task instances and the ones finished after the last refresh
+                if (since != null && taskInstance.getEndTime() != null && !taskInstance.getEndTime().after(since)) {
+                    continue;
+                }
                 Date startTime = taskInstance.getStartTime() == null ? new Date() : taskInstance.getStartTime();
                 Date endTime = taskInstance.getEndTime() == null ? new Date() : taskInstance.getEndTime();
                 Task task = new Task();
@@ -1053,7 +1074,14 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
         // delete alert
         alertDao.deleteByWorkflowInstanceId(workflowInstanceId);
         // delete process instance
+        ProcessInstance processInstance = processInstanceMapper.selectById(workflowInstanceId);
+        stateRollupDao.markDirty(processInstance);
         processInstanceDao.deleteById(workflowInstanceId);
+        if (processInstance != null) {
+            // the masters share the dependent results of the definition, evict the deleted workflow instance
+            cacheNotifyService.notifyMasterAfterCommit(new CacheExpireCommand(CacheType.DEPENDENT_RESULT,
+                    String.valueOf(processInstance.getProcessDefinitionCode())).convert2Command());
+        }
     }
 
     private void deleteSubWorkflowInstanceIfNeeded(int workflowInstanceId) {
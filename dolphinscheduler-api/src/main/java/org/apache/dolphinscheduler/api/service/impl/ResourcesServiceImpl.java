@@ -86,6 +86,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -98,7 +100,10 @@ import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * resources service impl
@@ -144,6 +149,16 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
     @Autowired(required = false)
     private StorageOperate storageOperate;
 
+    /**
+     * the listed resources of a directory, keyed by tenant code, resource type and the directory. The entries are
+     * invalidated when the resources of the tenant are changed by this api server, and expire in a short time for
+     * the changes made by the other api servers.
+     */
+    private final Cache<String, List<StorageEntity>> storageListingCache = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(PropertyUtils.getInt(Constants.RESOURCE_STORAGE_LIST_CACHE_SECONDS, 10), TimeUnit.SECONDS)
+            .build();
+
     /**
      * create directory
      *
@@ -585,6 +600,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
             if (!fullName.equals(originFullName)) {
                 try {
                     storageOperate.delete(originFullName, false);
+                    invalidateStorageListingCache(resTenantCode);
                 } catch (IOException e) {
                     logger.error("Resource delete error, resourceFullName:{}.", originFullName, e);
                     throw new ServiceException(String.format("delete resource: %s failed.", originFullName));
@@ -599,6 +615,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         try {
             logger.info("start  copy {} -> {}", originFullName, destHdfsFileName);
             storageOperate.copy(originFullName, destHdfsFileName, true, true);
+            invalidateStorageListingCache(resTenantCode);
         } catch (Exception e) {
             logger.error(MessageFormat.format(" copy {0} -> {1} fail", originFullName, destHdfsFileName), e);
             putMsg(result, Status.HDFS_COPY_FAIL);
@@ -717,17 +734,16 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         if (isAdmin(loginUser) && StringUtils.isBlank(fullName)) {
             // list all tenants' resources to admin users in the root directory
-            List<User> userList = userMapper.selectList(null);
             Set<String> visitedTenantEntityCode = new HashSet<>();
-            for (User userEntity : userList) {
-                String tenantEntityCode = tenantMapper.queryById(userEntity.getTenantId()).getTenantCode();
+            for (Tenant tenantEntity : queryTenantsOfUsers()) {
+                String tenantEntityCode = tenantEntity.getTenantCode();
                 if (!visitedTenantEntityCode.contains(tenantEntityCode)) {
                     defaultPath = storageOperate.getResDir(tenantEntityCode);
                     if (type.equals(ResourceType.UDF)) {
                         defaultPath = storageOperate.getUdfDir(tenantEntityCode);
                     }
                     try {
-                        resourcesList.addAll(storageOperate.listFilesStatus(defaultPath, defaultPath,
+                        resourcesList.addAll(listFilesStatusWithCache(defaultPath, defaultPath,
                                 tenantEntityCode, type));
 
                         visitedTenantEntityCode.add(tenantEntityCode);
@@ -747,9 +763,9 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
             try {
                 if (StringUtils.isBlank(fullName)) {
-                    resourcesList = storageOperate.listFilesStatus(defaultPath, defaultPath, tenantCode, type);
+                    resourcesList = listFilesStatusWithCache(defaultPath, defaultPath, tenantCode, type);
                 } else {
-                    resourcesList = storageOperate.listFilesStatus(fullName, defaultPath, tenantCode, type);
+                    resourcesList = listFilesStatusWithCache(fullName, defaultPath, tenantCode, type);
                 }
             } catch (Exception e) {
                 logger.error(e.getMessage() + " Resource path: {}", fullName, e);
@@ -775,6 +791,45 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         return result;
     }
 
+    /**
+     * query the tenants which have users, the tenants are queried in one batch instead of one by one for each user
+     */
+    private List<Tenant> queryTenantsOfUsers() {
+        List<Integer> tenantIds = userMapper.selectList(null).stream()
+                .map(User::getTenantId)
+                .distinct()
+                .collect(Collectors.toList());
+        return tenantIds.isEmpty() ? Collections.emptyList() : tenantMapper.selectBatchIds(tenantIds);
+    }
+
+    /**
+     * list the files and folders in the directory, the listing is cached for a short time, so that turning pages
+     * does not list the directory in the storage again
+     */
+    private List<StorageEntity> listFilesStatusWithCache(String path, String defaultPath, String tenantCode,
+                                                         ResourceType type) throws Exception {
+        String cacheKey = String.join(FOLDER_SEPARATOR, tenantCode, type.name(), path);
+        try {
+            return storageListingCache.get(cacheKey, () -> {
+                List<StorageEntity> storageEntities =
+                        storageOperate.listFilesStatus(path, defaultPath, tenantCode, type);
+                return storageEntities == null ? Collections.emptyList()
+                        : Collections.unmodifiableList(storageEntities);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * invalidate the cached listings of the tenant after its resources are changed
+     */
+    private void invalidateStorageListingCache(String tenantCode) {
+        String cacheKeyPrefix = tenantCode + FOLDER_SEPARATOR;
+        storageListingCache.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(cacheKeyPrefix));
+    }
+
     /**
      * create directory
      * xxx The steps to verify resources are cumbersome and can be optimized
@@ -798,6 +853,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
                 putMsg(result, Status.STORE_OPERATE_CREATE_ERROR);
                 // throw new ServiceException(String.format("create resource directory: %s failed.", fullName));
             }
+            invalidateStorageListingCache(tenantCode);
         } catch (Exception e) {
             logger.error("create resource directory {} failed", fullName);
             putMsg(result, Status.STORE_OPERATE_CREATE_ERROR);
@@ -837,6 +893,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
             }
             org.apache.dolphinscheduler.api.utils.FileUtils.copyInputStreamToFile(file, localFilename);
             storageOperate.upload(tenantCode, localFilename, fullName, true, true);
+            invalidateStorageListingCache(tenantCode);
         } catch (Exception e) {
             FileUtils.deleteFile(localFilename);
             logger.error(e.getMessage(), e);
@@ -882,11 +939,9 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         if (StringUtils.isBlank(fullName)) {
             if (isAdmin(loginUser)) {
-                List<User> userList = userMapper.selectList(null);
                 Set<String> visitedTenantEntityCode = new HashSet<>();
-                for (User userEntity : userList) {
-                    Tenant tt = tenantMapper.queryById(userEntity.getTenantId());
-                    String tenantEntityCode = tenantMapper.queryById(userEntity.getTenantId()).getTenantCode();
+                for (Tenant tenantEntity : queryTenantsOfUsers()) {
+                    String tenantEntityCode = tenantEntity.getTenantCode();
                     if (!visitedTenantEntityCode.contains(tenantEntityCode)) {
                         defaultPath = storageOperate.getResDir(tenantEntityCode);
                         if (type.equals(ResourceType.UDF)) {
@@ -1134,6 +1189,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         // delete file on hdfs,S3
         storageOperate.delete(fullName, allChildren, true);
+        invalidateStorageListingCache(resTenantCode);
 
         putMsg(result, Status.SUCCESS);
 
@@ -1687,6 +1743,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
             }
 
             storageOperate.upload(tenantCode, localFilename, fullName, true, true);
+            invalidateStorageListingCache(tenantCode);
         } catch (Exception e) {
             logger.error("Upload content to storage error, tenantCode:{}, destFileName:{}.", tenantCode, localFilename,
                     e);
@@ -1855,6 +1912,7 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
             }
         }
 
+        invalidateStorageListingCache(tenantCode);
         result.setSuccessList(successList);
         result.setFailedList(failList);
         putMsg(result, Status.SUCCESS);
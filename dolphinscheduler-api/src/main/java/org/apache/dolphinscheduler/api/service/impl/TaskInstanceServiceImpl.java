@@ -30,9 +30,11 @@ import org.apache.dolphinscheduler.api.service.UsersService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.enums.CacheType;
 import org.apache.dolphinscheduler.common.enums.TaskExecuteType;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
@@ -41,19 +43,23 @@ import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.repository.DqExecuteResultDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
 import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
 import org.apache.dolphinscheduler.remote.command.TaskKillRequestCommand;
 import org.apache.dolphinscheduler.remote.command.TaskSavePointRequestCommand;
 import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 import org.apache.dolphinscheduler.service.log.LogClient;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -108,9 +114,15 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
     @Autowired
     private DqExecuteResultDao dqExecuteResultDao;
 
+    @Autowired
+    private StateRollupDao stateRollupDao;
+
     @Autowired
     private TaskGroupQueueService taskGroupQueueService;
 
+    @Autowired
+    private CacheNotifyService cacheNotifyService;
+
     /**
      * query task list by project, process instance, task name, task start time, task end time, task status, keyword paging
      *
@@ -258,7 +270,14 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
         task.setState(TaskExecutionStatus.FORCED_SUCCESS);
         int changedNum = taskInstanceMapper.updateById(task);
         if (changedNum > 0) {
+            stateRollupDao.markDirty(Collections.singletonList(task));
             processService.forceProcessInstanceSuccessByTaskInstanceId(taskInstanceId);
+            // the masters share the dependent results of the definition, evict the failed task instance
+            ProcessInstance processInstance = processService.findProcessInstanceById(task.getProcessInstanceId());
+            if (processInstance != null) {
+                cacheNotifyService.notifyMasterAfterCommit(new CacheExpireCommand(CacheType.DEPENDENT_RESULT,
+                        String.valueOf(processInstance.getProcessDefinitionCode())).convert2Command());
+            }
             logger.info("Task instance performs force success complete, projectCode:{}, taskInstanceId:{}", projectCode,
                     taskInstanceId);
             putMsg(result, Status.SUCCESS);
@@ -364,6 +383,9 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
         String cacheKey = taskIdAndCacheKey.getRight();
         if (StringUtils.isNotEmpty(cacheKey)) {
             taskInstanceDao.clearCacheByCacheKey(cacheKey);
+            // the masters index the recent cache keys, evict the removed one
+            cacheNotifyService.notifyMaster(
+                    new CacheExpireCommand(CacheType.TASK_INSTANCE_CACHE_KEY, cacheKey).convert2Command());
         }
         putMsg(result, Status.SUCCESS);
         return new TaskInstanceRemoveCacheResponse(result, cacheKey);
@@ -385,7 +407,20 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
 
         dqExecuteResultDao.deleteByWorkflowInstanceId(workflowInstanceId);
         taskGroupQueueService.deleteByWorkflowInstanceId(workflowInstanceId);
+        stateRollupDao.markDirty(needToDeleteTaskInstances);
         taskInstanceDao.deleteByWorkflowInstanceId(workflowInstanceId);
+
+        // the masters index the recent cache keys, evict the ones of the deleted cache task instances, a cache task
+        // instance keeps the bare cache key while the ones copied from it keep the tagged key
+        needToDeleteTaskInstances.stream()
+                .map(TaskInstance::getCacheKey)
+                .filter(StringUtils::isNotEmpty)
+                .map(TaskCacheUtils::revertCacheKey)
+                .filter(taskIdAndCacheKey -> taskIdAndCacheKey.getLeft() == -1)
+                .map(Pair::getRight)
+                .distinct()
+                .forEach(cacheKey -> cacheNotifyService.notifyMaster(
+                        new CacheExpireCommand(CacheType.TASK_INSTANCE_CACHE_KEY, cacheKey).convert2Command()));
     }
 
 }
@@ -356,8 +356,8 @@ public class ProcessDefinitionControllerTest {
         Map<String, Object> result = new HashMap<>();
         putMsg(result, Status.SUCCESS);
 
-        Mockito.when(processDefinitionService.viewTree(user, projectCode, processId, limit)).thenReturn(result);
-        Result response = processDefinitionController.viewTree(user, projectCode, processId, limit);
+        Mockito.when(processDefinitionService.viewTree(user, projectCode, processId, limit, null)).thenReturn(result);
+        Result response = processDefinitionController.viewTree(user, projectCode, processId, limit, null);
 
         Assertions.assertTrue(response != null && response.isSuccess());
     }
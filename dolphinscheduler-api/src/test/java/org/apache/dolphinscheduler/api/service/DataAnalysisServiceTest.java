@@ -40,16 +40,19 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -100,6 +103,9 @@ public class DataAnalysisServiceTest {
     @Mock
     TaskInstanceMapper taskInstanceMapper;
 
+    @Mock
+    StateRollupDao stateRollupDao;
+
     @Mock
     private ResourcePermissionCheckService resourcePermissionCheckService;
 
@@ -117,6 +123,11 @@ public class DataAnalysisServiceTest {
         project.setName("test");
         resultMap = new HashMap<>();
 
+        // no hour is compacted, count all the states from the instance tables
+        Mockito.when(stateRollupDao.countState(any(), any(), any(), any(), any(), any())).thenAnswer(
+                invocation -> invocation.<BiFunction<Date, Date, List<ExecuteStatusCount>>>getArgument(5)
+                        .apply(invocation.getArgument(1), invocation.getArgument(2)));
+
         Mockito.when(projectMapper.queryByCode(1L)).thenReturn(project);
     }
 
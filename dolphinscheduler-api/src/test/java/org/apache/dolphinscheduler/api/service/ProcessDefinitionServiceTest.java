@@ -34,6 +34,8 @@ import static org.mockito.ArgumentMatchers.isA;
 import org.apache.dolphinscheduler.api.dto.workflow.WorkflowCreateRequest;
 import org.apache.dolphinscheduler.api.dto.workflow.WorkflowFilterRequest;
 import org.apache.dolphinscheduler.api.dto.workflow.WorkflowUpdateRequest;
+import org.apache.dolphinscheduler.api.dto.treeview.Instance;
+import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.ProcessDefinitionServiceImpl;
@@ -46,16 +48,20 @@ import org.apache.dolphinscheduler.common.enums.ProcessExecutionTypeEnum;
 import org.apache.dolphinscheduler.common.enums.ReleaseState;
 import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.enums.WarningType;
+import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.DagData;
 import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
 import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskMainInfo;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.User;
@@ -67,12 +73,15 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessTaskRelationMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.model.PageListingResult;
 import org.apache.dolphinscheduler.dao.repository.ProcessDefinitionDao;
 import org.apache.dolphinscheduler.dao.repository.ProcessDefinitionLogDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionLogDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.service.model.TaskNode;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.spi.enums.DbType;
 
@@ -187,6 +196,9 @@ public class ProcessDefinitionServiceTest extends BaseServiceTestTool {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TaskInstanceMapper taskInstanceMapper;
+
     protected User user;
     protected Exception exception;
     protected final static long projectCode = 1L;
@@ -774,7 +786,7 @@ public class ProcessDefinitionServiceTest extends BaseServiceTestTool {
         // process definition not exist
         ProcessDefinition processDefinition = getProcessDefinition();
         Map<String, Object> processDefinitionNullRes =
-                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10);
+                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10, null);
         Assertions.assertEquals(Status.PROCESS_DEFINE_NOT_EXIST, processDefinitionNullRes.get(Constants.STATUS));
 
         // task instance not existproject
@@ -784,13 +796,91 @@ public class ProcessDefinitionServiceTest extends BaseServiceTestTool {
         Mockito.when(processDefinitionMapper.queryByCode(46L)).thenReturn(processDefinition);
         Mockito.when(processService.genDagGraph(processDefinition)).thenReturn(new DAG<>());
         Map<String, Object> taskNullRes =
-                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10);
+                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10, null);
         Assertions.assertEquals(Status.SUCCESS, taskNullRes.get(Constants.STATUS));
 
         // task instance exist
         Map<String, Object> taskNotNuLLRes =
-                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10);
+                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10, null);
         Assertions.assertEquals(Status.SUCCESS, taskNotNuLLRes.get(Constants.STATUS));
+
+        // changed since is invalid
+        Map<String, Object> changedSinceInvalidRes =
+                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10, "invalid");
+        Assertions.assertEquals(Status.REQUEST_PARAMS_NOT_VALID_ERROR, changedSinceInvalidRes.get(Constants.STATUS));
+    }
+
+    @Test
+    public void testViewTreeWithChangedSince() {
+        Project project1 = getProject(projectCode);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS, projectCode);
+        Mockito.when(projectMapper.queryByCode(1)).thenReturn(project1);
+        Mockito.when(projectService.checkProjectAndAuth(user, project1, projectCode, WORKFLOW_TREE_VIEW))
+                .thenReturn(result);
+        ProcessDefinition processDefinition = getProcessDefinition();
+        Mockito.when(processDefinitionMapper.queryByCode(46L)).thenReturn(processDefinition);
+
+        DAG<String, TaskNode, TaskNodeRelation> dag = new DAG<>();
+        for (long taskCode = 1L; taskCode <= 2L; taskCode++) {
+            TaskNode taskNode = new TaskNode();
+            taskNode.setCode(taskCode);
+            taskNode.setName("task-" + taskCode);
+            taskNode.setType("SHELL");
+            dag.addNode(String.valueOf(taskCode), taskNode);
+        }
+        dag.addEdge("1", "2");
+        Mockito.when(processService.genDagGraph(processDefinition)).thenReturn(dag);
+
+        // the running instance and the instance finished before the last refresh are the latest two instances
+        ProcessInstance runningInstance =
+                getViewTreeProcessInstance(10, WorkflowExecutionStatus.RUNNING_EXECUTION, null);
+        ProcessInstance unchangedInstance = getViewTreeProcessInstance(11, WorkflowExecutionStatus.SUCCESS,
+                DateUtils.stringToDate("2022-01-01 09:00:00"));
+        ProcessInstance olderInstance = getViewTreeProcessInstance(12, WorkflowExecutionStatus.SUCCESS,
+                DateUtils.stringToDate("2022-01-01 11:00:00"));
+        Mockito.when(processInstanceService.queryByProcessDefineCode(46L, 2))
+                .thenReturn(Lists.newArrayList(runningInstance, unchangedInstance, olderInstance));
+        Mockito.when(taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(Collections.singletonList(10), null))
+                .thenReturn(Lists.newArrayList(getViewTreeTaskInstance(102, 10, 2L), getViewTreeTaskInstance(101, 10,
+                        1L)));
+
+        Map<String, Object> res = processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 2,
+                "2022-01-01 10:00:00");
+        Assertions.assertEquals(Status.SUCCESS, res.get(Constants.STATUS));
+        TreeViewDto treeViewDto = (TreeViewDto) res.get(Constants.DATA_LIST);
+        Assertions.assertEquals(Collections.singletonList(10),
+                treeViewDto.getInstances().stream().map(Instance::getId).collect(Collectors.toList()));
+        // the task instances are joined to the nodes by task code
+        TreeViewDto firstNode = treeViewDto.getChildren().get(0);
+        Assertions.assertEquals(1L, firstNode.getCode());
+        Assertions.assertEquals(Integer.valueOf(101), firstNode.getInstances().get(0).getId());
+        TreeViewDto secondNode = firstNode.getChildren().get(0);
+        Assertions.assertEquals(2L, secondNode.getCode());
+        Assertions.assertEquals(Integer.valueOf(102), secondNode.getInstances().get(0).getId());
+    }
+
+    private ProcessInstance getViewTreeProcessInstance(int id, WorkflowExecutionStatus state, Date endTime) {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(id);
+        processInstance.setName("process-instance-" + id);
+        processInstance.setProcessDefinitionCode(46L);
+        processInstance.setState(state);
+        processInstance.setStartTime(DateUtils.stringToDate("2022-01-01 08:00:00"));
+        processInstance.setEndTime(endTime);
+        return processInstance;
+    }
+
+    private TaskInstance getViewTreeTaskInstance(int id, int processInstanceId, long taskCode) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setName("task-instance-" + id);
+        taskInstance.setProcessInstanceId(processInstanceId);
+        taskInstance.setTaskCode(taskCode);
+        taskInstance.setTaskType("SHELL");
+        taskInstance.setState(TaskExecutionStatus.RUNNING_EXECUTION);
+        taskInstance.setStartTime(DateUtils.stringToDate("2022-01-01 08:00:00"));
+        return taskInstance;
     }
 
     @Test
@@ -804,11 +894,8 @@ public class ProcessDefinitionServiceTest extends BaseServiceTestTool {
         Mockito.when(projectMapper.queryByCode(1)).thenReturn(project1);
         Mockito.when(projectService.checkProjectAndAuth(user, project1, 1, WORKFLOW_TREE_VIEW)).thenReturn(result);
         Mockito.when(processService.genDagGraph(processDefinition)).thenReturn(new DAG<>());
-        Mockito.when(processTaskRelationMapper.queryByProcessCode(projectCode, processDefinitionCode))
-                .thenReturn(getProcessTaskRelation());
-        Mockito.when(taskDefinitionLogDao.getTaskDefineLogList(any())).thenReturn(new ArrayList<>());
         Map<String, Object> taskNotNuLLRes =
-                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10);
+                processDefinitionService.viewTree(user, processDefinition.getProjectCode(), 46, 10, null);
         Assertions.assertEquals(Status.SUCCESS, taskNotNuLLRes.get(Constants.STATUS));
     }
 
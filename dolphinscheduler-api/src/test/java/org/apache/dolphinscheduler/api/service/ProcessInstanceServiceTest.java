@@ -23,6 +23,8 @@ import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationCon
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import org.apache.dolphinscheduler.api.dto.gantt.GanttDto;
+import org.apache.dolphinscheduler.api.dto.gantt.Task;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
@@ -59,10 +61,13 @@ import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceMapDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
 import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
 import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 import org.apache.dolphinscheduler.service.expand.CuringParamsService;
 import org.apache.dolphinscheduler.service.model.TaskNode;
 import org.apache.dolphinscheduler.service.process.ProcessService;
@@ -75,6 +80,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -87,6 +93,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.collect.Lists;
 
 /**
  * process instance service test
@@ -113,6 +120,9 @@ public class ProcessInstanceServiceTest {
     @Mock
     ProcessInstanceDao processInstanceDao;
 
+    @Mock
+    StateRollupDao stateRollupDao;
+
     @Mock
     ProcessInstanceMapper processInstanceMapper;
 
@@ -157,6 +167,9 @@ public class ProcessInstanceServiceTest {
     @Mock
     private ProcessInstanceMapDao processInstanceMapDao;
 
+    @Mock
+    private CacheNotifyService cacheNotifyService;
+
     private String shellJson = "[{\"name\":\"\",\"preTaskCode\":0,\"preTaskVersion\":0,\"postTaskCode\":123456789,"
             + "\"postTaskVersion\":1,\"conditionType\":0,\"conditionParams\":\"{}\"},{\"name\":\"\",\"preTaskCode\":123456789,"
             + "\"preTaskVersion\":1,\"postTaskCode\":123451234,\"postTaskVersion\":1,\"conditionType\":0,\"conditionParams\":\"{}\"}]";
@@ -686,7 +699,10 @@ public class ProcessInstanceServiceTest {
         processDefinition.setProjectCode(projectCode);
         when(processService.findProcessInstanceDetailById(Mockito.anyInt())).thenReturn(Optional.of(processInstance));
         when(processService.deleteWorkProcessInstanceById(1)).thenReturn(1);
+        when(processInstanceMapper.selectById(1)).thenReturn(processInstance);
         processInstanceService.deleteProcessInstanceById(loginUser, 1);
+        // the masters are notified to evict the dependent results of the definition
+        Mockito.verify(cacheNotifyService, Mockito.times(1)).notifyMasterAfterCommit(Mockito.any(Command.class));
 
         when(processService.deleteWorkProcessInstanceById(1)).thenReturn(0);
         Assertions.assertDoesNotThrow(() -> processInstanceService.deleteProcessInstanceById(loginUser, 1));
@@ -729,7 +745,7 @@ public class ProcessInstanceServiceTest {
         when(processService.genDagGraph(Mockito.any(ProcessDefinition.class)))
                 .thenReturn(graph);
 
-        Map<String, Object> successRes = processInstanceService.viewGantt(0L, 1);
+        Map<String, Object> successRes = processInstanceService.viewGantt(0L, 1, null);
         Assertions.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
 
         when(processInstanceMapper.queryDetailById(1)).thenReturn(null);
@@ -737,6 +753,48 @@ public class ProcessInstanceServiceTest {
         Assertions.assertEquals(Status.PROCESS_INSTANCE_NOT_EXIST, processNotExist.get(Constants.STATUS));
     }
 
+    @Test
+    public void testViewGanttWithChangedSince() throws Exception {
+        ProcessInstance processInstance = getProcessInstance();
+        when(processInstanceMapper.queryDetailById(1)).thenReturn(processInstance);
+        when(processDefinitionLogMapper.queryByDefinitionCodeAndVersion(
+                processInstance.getProcessDefinitionCode(),
+                processInstance.getProcessDefinitionVersion())).thenReturn(new ProcessDefinitionLog());
+        DAG<String, TaskNode, TaskNodeRelation> graph = new DAG<>();
+        for (int i = 1; i <= 3; ++i) {
+            graph.addNode(i + "", new TaskNode());
+        }
+        when(processService.genDagGraph(Mockito.any(ProcessDefinition.class))).thenReturn(graph);
+
+        Date since = DateUtils.stringToDate("2022-01-01 10:00:00");
+        Date beforeSince = DateUtils.stringToDate("2022-01-01 09:00:00");
+        Date afterSince = DateUtils.stringToDate("2022-01-01 11:00:00");
+        TaskInstance runningTask = getGanttTaskInstance(1L, "running", null);
+        TaskInstance retriedTask = getGanttTaskInstance(1L, "retried", afterSince);
+        TaskInstance unchangedTask = getGanttTaskInstance(2L, "unchanged", beforeSince);
+        TaskInstance finishedTask = getGanttTaskInstance(3L, "finished", afterSince);
+        when(taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(Mockito.any(), Mockito.any()))
+                .thenReturn(Lists.newArrayList(finishedTask, runningTask, unchangedTask, retriedTask));
+
+        Map<String, Object> successRes = processInstanceService.viewGantt(0L, 1, "2022-01-01 10:00:00");
+        Assertions.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+        GanttDto ganttDto = (GanttDto) successRes.get(Constants.DATA_LIST);
+        // joined by task code in the dag order, the first task instance of a code wins
+        Assertions.assertEquals(Lists.newArrayList("running", "finished"),
+                ganttDto.getTasks().stream().map(Task::getTaskName).collect(Collectors.toList()));
+        Assertions.assertTrue(since.before(ganttDto.getTasks().get(1).getIsoEnd()));
+    }
+
+    private TaskInstance getGanttTaskInstance(long taskCode, String name, Date endTime) {
+        TaskInstance taskInstance = getTaskInstance();
+        taskInstance.setTaskCode(taskCode);
+        taskInstance.setName(name);
+        taskInstance.setState(endTime == null ? TaskExecutionStatus.RUNNING_EXECUTION : TaskExecutionStatus.SUCCESS);
+        taskInstance.setStartTime(DateUtils.stringToDate("2022-01-01 08:00:00"));
+        taskInstance.setEndTime(endTime);
+        return taskInstance;
+    }
+
     /**
      * get Mock Admin User
      *
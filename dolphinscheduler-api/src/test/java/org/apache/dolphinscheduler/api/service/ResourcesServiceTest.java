@@ -360,6 +360,8 @@ public class ResourcesServiceTest {
         Mockito.when(userMapper.selectList(null)).thenReturn(mockUserList);
         Mockito.when(userMapper.selectById(getUser().getId())).thenReturn(getUser());
         Mockito.when(tenantMapper.queryById(getUser().getTenantId())).thenReturn(getTenant());
+        Mockito.when(tenantMapper.selectBatchIds(Collections.singletonList(getUser().getTenantId())))
+                .thenReturn(Collections.singletonList(getTenant()));
         Mockito.when(storageOperate.getResDir("123")).thenReturn("/dolphinscheduler/123/resources/");
 
         try {
@@ -376,6 +378,17 @@ public class ResourcesServiceTest {
         PageInfo pageInfo = (PageInfo) result.getData();
         Assertions.assertTrue(CollectionUtils.isNotEmpty(pageInfo.getTotalList()));
 
+        // the listing is cached when turning pages
+        result = resourcesService.queryResourceListPaging(loginUser, "", "",
+                ResourceType.FILE, "Test", 2, 10);
+        Assertions.assertEquals(Status.SUCCESS.getCode(), (int) result.getCode());
+        try {
+            Mockito.verify(storageOperate, Mockito.times(1)).listFilesStatus("/dolphinscheduler/123/resources/",
+                    "/dolphinscheduler/123/resources/", "123", ResourceType.FILE);
+        } catch (Exception e) {
+            logger.error("QueryResourceListPaging Error");
+        }
+
     }
 
     @Test
@@ -387,6 +400,7 @@ public class ResourcesServiceTest {
         Mockito.when(userMapper.selectList(null)).thenReturn(Arrays.asList(loginUser));
         Mockito.when(userMapper.selectById(loginUser.getId())).thenReturn(loginUser);
         Mockito.when(tenantMapper.queryById(Mockito.anyInt())).thenReturn(getTenant());
+        Mockito.when(tenantMapper.selectBatchIds(Mockito.any())).thenReturn(Collections.singletonList(getTenant()));
         Mockito.when(storageOperate.getResDir("123")).thenReturn("/dolphinscheduler/123/resources/");
         Mockito.when(storageOperate.listFilesStatusRecursively("/dolphinscheduler/123/resources/",
                 "/dolphinscheduler/123/resources/",
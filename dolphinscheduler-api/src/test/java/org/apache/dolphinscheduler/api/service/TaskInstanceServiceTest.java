@@ -42,8 +42,13 @@ import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.dao.repository.DqExecuteResultDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import java.text.MessageFormat;
@@ -66,6 +71,7 @@ import org.mockito.quality.Strictness;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.collect.Lists;
 
 /**
  * task instance service test
@@ -99,6 +105,18 @@ public class TaskInstanceServiceTest {
     @Mock
     TaskInstanceDao taskInstanceDao;
 
+    @Mock
+    StateRollupDao stateRollupDao;
+
+    @Mock
+    CacheNotifyService cacheNotifyService;
+
+    @Mock
+    DqExecuteResultDao dqExecuteResultDao;
+
+    @Mock
+    TaskGroupQueueService taskGroupQueueService;
+
     @Test
     public void queryTaskListPaging() {
         long projectCode = 1L;
@@ -378,8 +396,13 @@ public class TaskInstanceServiceTest {
         putMsg(result, Status.SUCCESS, projectCode);
         when(projectMapper.queryByCode(projectCode)).thenReturn(project);
         when(projectService.checkProjectAndAuth(user, project, projectCode, FORCED_SUCCESS)).thenReturn(result);
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setProcessDefinitionCode(1L);
+        when(processService.findProcessInstanceById(task.getProcessInstanceId())).thenReturn(processInstance);
         Result successRes = taskInstanceService.forceTaskSuccess(user, projectCode, taskId);
         Assertions.assertEquals(Status.SUCCESS.getCode(), successRes.getCode().intValue());
+        // the masters are notified to evict the dependent results of the definition
+        Mockito.verify(cacheNotifyService, Mockito.times(1)).notifyMasterAfterCommit(any(Command.class));
 
     }
 
@@ -401,6 +424,8 @@ public class TaskInstanceServiceTest {
         TaskInstanceRemoveCacheResponse response =
                 taskInstanceService.removeTaskInstanceCache(user, projectCode, taskId);
         Assertions.assertEquals(Status.SUCCESS.getCode(), response.getCode());
+        // the masters are notified to evict the removed cache key
+        Mockito.verify(cacheNotifyService).notifyMaster(any(Command.class));
 
         when(taskInstanceMapper.selectById(1)).thenReturn(null);
         TaskInstanceRemoveCacheResponse responseNotFoundTask =
@@ -408,4 +433,25 @@ public class TaskInstanceServiceTest {
         Assertions.assertEquals(Status.TASK_INSTANCE_NOT_FOUND.getCode(), responseNotFoundTask.getCode());
 
     }
+
+    @Test
+    public void testDeleteByWorkflowInstanceId() {
+        int workflowInstanceId = 1;
+        // a cache task instance, a task instance copied from it and a task instance without cache
+        TaskInstance cacheTask = getTaskInstance();
+        cacheTask.setCacheKey("cacheKey");
+        TaskInstance copiedTask = getTaskInstance();
+        copiedTask.setId(2);
+        copiedTask.setCacheKey(TaskCacheUtils.generateTagCacheKey(1, "cacheKey"));
+        TaskInstance notCacheTask = getTaskInstance();
+        notCacheTask.setId(3);
+        when(taskInstanceDao.findTaskInstanceByWorkflowInstanceId(workflowInstanceId))
+                .thenReturn(Lists.newArrayList(cacheTask, copiedTask, notCacheTask));
+
+        taskInstanceService.deleteByWorkflowInstanceId(workflowInstanceId);
+
+        Mockito.verify(taskInstanceDao).deleteByWorkflowInstanceId(workflowInstanceId);
+        // the masters are notified to evict the cache key of the deleted cache task instance only
+        Mockito.verify(cacheNotifyService, Mockito.times(1)).notifyMaster(any(Command.class));
+    }
 }
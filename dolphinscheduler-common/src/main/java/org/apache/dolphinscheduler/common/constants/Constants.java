@@ -43,6 +43,8 @@ public final class Constants {
     public static final String REGISTRY_DOLPHINSCHEDULER_NODE = "/nodes";
     public static final String REGISTRY_DOLPHINSCHEDULER_LOCK_MASTERS = "/lock/masters";
     public static final String REGISTRY_DOLPHINSCHEDULER_LOCK_FAILOVER_MASTERS = "/lock/failover/masters";
+    public static final String REGISTRY_DOLPHINSCHEDULER_LOCK_STATE_ROLLUP = "/lock/state-rollup";
+    public static final String REGISTRY_DOLPHINSCHEDULER_LOCK_TASK_GROUP = "/lock/task-group";
 
     public static final String FORMAT_SS = "%s%s";
     public static final String FORMAT_S_S = "%s/%s";
@@ -99,6 +101,32 @@ public final class Constants {
      */
     public static final String RESOURCE_UPLOAD_PATH = "resource.storage.upload.base.path";
 
+    /**
+     * the number of directories listed in parallel when listing the resources recursively
+     */
+    public static final String RESOURCE_STORAGE_LIST_PARALLELISM = "resource.storage.list.parallelism";
+
+    /**
+     * the seconds that the listed resources of a directory are cached in api server
+     */
+    public static final String RESOURCE_STORAGE_LIST_CACHE_SECONDS = "resource.storage.list.cache.seconds";
+
+    /**
+     * the size in MB of a part when a resource is downloaded by ranges or uploaded by multipart
+     */
+    public static final String RESOURCE_STORAGE_TRANSFER_PART_SIZE = "resource.storage.transfer.part.size";
+
+    /**
+     * the number of parts of a resource, or the number of resources of a task, transferred in parallel
+     */
+    public static final String RESOURCE_STORAGE_TRANSFER_PARALLELISM = "resource.storage.transfer.parallelism";
+
+    /**
+     * the number of parts of a resource, or the number of resources of a task, that one transfer runs in parallel
+     */
+    public static final String RESOURCE_STORAGE_TRANSFER_PARALLELISM_PER_TRANSFER =
+            "resource.storage.transfer.parallelism.per.transfer";
+
     /**
      * data basedir path
      */
@@ -26,7 +26,9 @@ public enum CacheType {
     PROCESS_TASK_RELATION("processTaskRelation"),
     TASK_DEFINITION("taskDefinition"),
     WORKER_GROUP("workerGroup"),
-    SCHEDULE("schedule");
+    SCHEDULE("schedule"),
+    TASK_INSTANCE_CACHE_KEY("taskInstanceCacheKey"),
+    DEPENDENT_RESULT("dependentResult");
 
     CacheType(String cacheName) {
         this.cacheName = cacheName;
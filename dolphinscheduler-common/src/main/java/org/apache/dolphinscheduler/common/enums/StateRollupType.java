@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.enums;
+
+import java.util.HashMap;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+
+/**
+ * the instance count dimension of the state rollup
+ */
+public enum StateRollupType {
+
+    WORKFLOW_INSTANCE_START_TIME(0, "workflow instance by start time"),
+    TASK_INSTANCE_START_TIME(1, "task instance by start time"),
+    TASK_INSTANCE_SUBMIT_TIME(2, "task instance by submit time");
+
+    @EnumValue
+    private final int code;
+    private final String descp;
+    private static HashMap<Integer, StateRollupType> TYPE_MAP = new HashMap<>();
+
+    static {
+        for (StateRollupType stateRollupType : StateRollupType.values()) {
+            TYPE_MAP.put(stateRollupType.code, stateRollupType);
+        }
+    }
+
+    StateRollupType(int code, String descp) {
+        this.code = code;
+        this.descp = descp;
+    }
+
+    public static StateRollupType of(int type) {
+        if (TYPE_MAP.containsKey(type)) {
+            return TYPE_MAP.get(type);
+        }
+        throw new IllegalArgumentException("invalid type : " + type);
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getDescp() {
+        return descp;
+    }
+}
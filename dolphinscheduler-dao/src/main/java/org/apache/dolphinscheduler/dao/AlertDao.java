@@ -120,6 +120,19 @@ public class AlertDao {
         return alertMapper.updateById(alert);
     }
 
+    /**
+     * Update the status and log of the alerts with one statement
+     *
+     * @param alerts alerts carrying the id, status and log to write
+     * @return update alert result
+     */
+    public int updateAlerts(List<Alert> alerts) {
+        if (CollectionUtils.isEmpty(alerts)) {
+            return 0;
+        }
+        return alertMapper.batchUpdateAlertStatus(alerts, new Date());
+    }
+
     /**
      * generate sign for alert
      *
@@ -280,6 +293,14 @@ public class AlertDao {
         return alertMapper.listingAlertByStatus(AlertStatus.WAIT_EXECUTION.getCode(), QUERY_ALERT_THRESHOLD);
     }
 
+    /**
+     * List alerts that are pending for execution and whose id is greater than minAlertId, sorted by id
+     */
+    public List<Alert> listPendingAlerts(int minAlertId) {
+        return alertMapper.listingAlertByStatusAfterId(AlertStatus.WAIT_EXECUTION.getCode(), minAlertId,
+                QUERY_ALERT_THRESHOLD);
+    }
+
     public List<Alert> listAlerts(int processInstanceId) {
         LambdaQueryWrapper<Alert> wrapper = new LambdaQueryWrapper<Alert>()
                 .eq(Alert::getProcessInstanceId, processInstanceId);
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.entity;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+/**
+ * The instance count of one state in one hour, grouped by project and definition. The hours are compacted from the
+ * instance tables by the master, each compacted hour has a marker row with the {@link #COMPACTED_STATE} state which
+ * holds the total count of the hour. An hour whose finished instances are changed or deleted gets a marker row with
+ * the {@link #DIRTY_STATE} state, and is compacted again by the master.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_ds_state_rollup")
+public class StateRollup {
+
+    public static final int COMPACTED_STATE = -1;
+
+    public static final int DIRTY_STATE = -2;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    private StateRollupType rollupType;
+
+    /**
+     * the hour the counted instances belong to, a workflow instance belongs to [hour, hour + 1h) while a task instance
+     * belongs to (hour, hour + 1h], the same as the raw state count queries
+     */
+    private Date rollupHour;
+
+    private long projectCode;
+
+    /**
+     * workflow definition code or task definition code
+     */
+    private long definitionCode;
+
+    private int state;
+
+    private int count;
+
+    private Date updateTime;
+}
@@ -38,6 +38,18 @@ public interface AlertMapper extends BaseMapper<Alert> {
      */
     List<Alert> listingAlertByStatus(@Param("alertStatus") int alertStatus, @Param("limit") int limit);
 
+    /**
+     * Query the alert by alertStatus whose id is greater than minAlertId, and return limit sorted by id.
+     */
+    List<Alert> listingAlertByStatusAfterId(@Param("alertStatus") int alertStatus,
+                                            @Param("minAlertId") int minAlertId,
+                                            @Param("limit") int limit);
+
+    /**
+     * Update the status and log of the alerts by id in one statement, each alert keeps its own status and log.
+     */
+    int batchUpdateAlertStatus(@Param("alerts") List<Alert> alerts, @Param("updateTime") Date updateTime);
+
     /**
      * Insert server crash alert
      * <p>This method will ensure that there is at most one unsent alert which has the same content in the database.
@@ -57,4 +57,11 @@ public interface CommandMapper extends BaseMapper<Command> {
     List<Command> queryCommandPageBySlot(@Param("limit") int limit,
                                          @Param("masterCount") int masterCount,
                                          @Param("thisMasterSlot") int thisMasterSlot);
+
+    /**
+     * insert commands in one statement, the generated ids are set into the commands
+     * @param commands commands
+     * @return insert count
+     */
+    int batchInsert(@Param("commands") List<Command> commands);
 }
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.dao.mapper;
 import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
 
 import org.apache.ibatis.annotations.Param;
 
@@ -173,6 +174,17 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
                                                               @Param("endTime") Date endTime,
                                                               @Param("projectCodes") Long[] projectCodes);
 
+    /**
+     * Statistics process instance state of each project and process definition in [startTime, endTime) by start time,
+     * used to compact the state rollup
+     *
+     * @param startTime startTime, inclusive
+     * @param endTime   endTime, exclusive
+     * @return state rollup list, the rollup type and hour are not set
+     */
+    List<StateRollup> countInstanceStateGroupByDefinitionCode(@Param("startTime") Date startTime,
+                                                              @Param("endTime") Date endTime);
+
     /**
      * query process instance by processDefinitionCode
      *
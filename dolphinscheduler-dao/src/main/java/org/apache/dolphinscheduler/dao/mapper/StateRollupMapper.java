@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * state rollup mapper interface
+ */
+public interface StateRollupMapper extends BaseMapper<StateRollup> {
+
+    /**
+     * sum the instance count of each state in [startHour, endHour)
+     *
+     * @param rollupType rollup type
+     * @param startHour start hour, inclusive
+     * @param endHour end hour, exclusive
+     * @param projectCodes project codes, count all projects if empty
+     * @param states states, count all states if empty
+     * @return state count list
+     */
+    List<ExecuteStatusCount> countStateByProjectCodes(@Param("rollupType") StateRollupType rollupType,
+                                                      @Param("startHour") Date startHour,
+                                                      @Param("endHour") Date endHour,
+                                                      @Param("projectCodes") Long[] projectCodes,
+                                                      @Param("states") List<TaskExecutionStatus> states);
+
+    /**
+     * query the first compacted hour
+     *
+     * @param rollupType rollup type
+     * @return the first compacted hour, null if no hour is compacted
+     */
+    Date queryFirstCompactedHour(@Param("rollupType") StateRollupType rollupType);
+
+    /**
+     * query the last compacted hour
+     *
+     * @param rollupType rollup type
+     * @return the last compacted hour, null if no hour is compacted
+     */
+    Date queryLastCompactedHour(@Param("rollupType") StateRollupType rollupType);
+
+    /**
+     * query the compacted hours which still count instances in the given states
+     *
+     * @param rollupType rollup type
+     * @param states states
+     * @return hour list
+     */
+    List<Date> queryRollupHoursByStates(@Param("rollupType") StateRollupType rollupType,
+                                        @Param("states") int[] states);
+
+    int deleteByRollupHour(@Param("rollupType") StateRollupType rollupType, @Param("rollupHour") Date rollupHour);
+
+    int batchInsert(@Param("rollups") List<StateRollup> rollups);
+
+    /**
+     * insert the dirty marker of the hour if it doesn't exist
+     *
+     * @param rollupType rollup type
+     * @param rollupHour start of the hour
+     * @param updateTime update time
+     * @return insert count
+     */
+    int insertDirtyMarker(@Param("rollupType") StateRollupType rollupType,
+                          @Param("rollupHour") Date rollupHour,
+                          @Param("updateTime") Date updateTime);
+}
@@ -38,7 +38,8 @@ public interface TaskGroupMapper extends BaseMapper<TaskGroup> {
     int robTaskGroupResource(@Param("id") int id,
                              @Param("currentUseSize") int currentUseSize,
                              @Param("queueId") int queueId,
-                             @Param("queueStatus") int queueStatus);
+                             @Param("queueStatus") int queueStatus,
+                             @Param("forceStart") int forceStart);
 
     /**
      * update table of task group
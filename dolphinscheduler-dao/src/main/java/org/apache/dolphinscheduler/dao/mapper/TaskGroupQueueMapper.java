@@ -56,6 +56,15 @@ public interface TaskGroupQueueMapper extends BaseMapper<TaskGroupQueue> {
      */
     List<TaskGroupQueue> queryByStatus(@Param("status") int status);
 
+    /**
+     * query by status, only the queues whose id is bigger than the given id
+     *
+     * @param status status
+     * @param id     the exclusive lower bound of the queue id
+     * @return result ordered by id
+     */
+    List<TaskGroupQueue> queryByStatusAfterId(@Param("status") int status, @Param("id") int id);
+
     /**
      * delete by task id
      *
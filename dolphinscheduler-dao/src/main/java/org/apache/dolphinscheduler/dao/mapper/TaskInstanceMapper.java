@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.dao.mapper;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.TaskExecuteType;
 import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 
@@ -81,6 +82,28 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                                                   @Param("endTime") Date endTime,
                                                                   @Param("projectCodes") Long[] projectCodes);
 
+    /**
+     * Statistics task instance state of each project and task definition in (startTime, endTime] by start time,
+     * used to compact the state rollup
+     *
+     * @param startTime Statistics start time, exclusive
+     * @param endTime   Statistics end time, inclusive
+     * @return state rollup list, the rollup type and hour are not set
+     */
+    List<StateRollup> countTaskInstanceStateGroupByTaskCode(@Param("startTime") Date startTime,
+                                                            @Param("endTime") Date endTime);
+
+    /**
+     * Statistics task instance state of each project and task definition in (startTime, endTime] by submit time,
+     * used to compact the state rollup
+     *
+     * @param startTime Statistics start time, exclusive
+     * @param endTime   Statistics end time, inclusive
+     * @return state rollup list, the rollup type and hour are not set
+     */
+    List<StateRollup> countTaskInstanceStateGroupByTaskCodeBySubmitTime(@Param("startTime") Date startTime,
+                                                                        @Param("endTime") Date endTime);
+
     /**
      * Statistics task instance group by given project ids list by start time
      * <p>
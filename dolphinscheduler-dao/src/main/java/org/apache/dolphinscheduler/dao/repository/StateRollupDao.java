@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.repository;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * State Rollup DAO
+ */
+public interface StateRollupDao {
+
+    /**
+     * Count the instance states of the given hour again from the instance table, and replace the rollup of the hour.
+     * @param rollupType rollup type
+     * @param rollupHour start of the hour
+     * @return the instance count of the hour
+     */
+    int compactRollupHour(StateRollupType rollupType, Date rollupHour);
+
+    /**
+     * Mark the hour of the workflow instance start time dirty, call it in the same transaction before the state or
+     * the start time of a finished workflow instance is changed, or the workflow instance is deleted.
+     * @param processInstance workflow instance with the current start time
+     */
+    void markDirty(ProcessInstance processInstance);
+
+    /**
+     * Mark the hours of the task instance start time and submit time dirty, call it in the same transaction when the
+     * state of the finished task instances is changed or the task instances are deleted.
+     * @param taskInstances task instances with the current start time and submit time
+     */
+    void markDirty(Collection<TaskInstance> taskInstances);
+
+    /**
+     * Count the instance states in the given time range, the compacted hours are answered from the rollup and the
+     * rest of the range is counted by the raw state counter.
+     * <p>The workflow instance range is [startTime, endTime] and the task instance range is (startTime, endTime], the
+     * same as the raw state count queries, the whole range is counted by the raw state counter if the workflow
+     * instance range is not bounded.
+     * @param rollupType rollup type
+     * @param startTime start time, null means not bounded
+     * @param endTime end time, null means not bounded
+     * @param projectCodes project codes, count all projects if empty
+     * @param states states, count all states if empty
+     * @param rawStateCounter count the states of a sub range from the instance table
+     * @return state count list
+     */
+    List<ExecuteStatusCount> countState(StateRollupType rollupType, Date startTime, Date endTime,
+                                        Long[] projectCodes, List<TaskExecutionStatus> states,
+                                        BiFunction<Date, Date, List<ExecuteStatusCount>> rawStateCounter);
+}
@@ -50,6 +50,13 @@ public interface TaskInstanceDao {
      */
     boolean updateTaskInstance(TaskInstance taskInstance);
 
+    /**
+     * Update task instances to DB in one jdbc batch.
+     * @param taskInstances task instances
+     * @return the number of updated rows
+     */
+    int batchUpdateTaskInstance(List<TaskInstance> taskInstances);
+
     /**
      * Submit a task instance to DB.
      * @param taskInstance task instance
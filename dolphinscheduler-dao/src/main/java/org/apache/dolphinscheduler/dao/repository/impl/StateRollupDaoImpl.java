@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.repository.impl;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
+import org.apache.dolphinscheduler.dao.mapper.StateRollupMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Lists;
+
+/**
+ * State Rollup Dao implementation
+ */
+@Repository
+public class StateRollupDaoImpl implements StateRollupDao {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    @Autowired
+    private StateRollupMapper stateRollupMapper;
+
+    @Autowired
+    private ProcessInstanceMapper processInstanceMapper;
+
+    @Autowired
+    private TaskInstanceMapper taskInstanceMapper;
+
+    @Override
+    @Transactional
+    public int compactRollupHour(StateRollupType rollupType, Date rollupHour) {
+        // delete before counting, so a dirty marker written after the count survives and the hour is compacted again
+        stateRollupMapper.deleteByRollupHour(rollupType, rollupHour);
+        Date nextHour = DateUtils.add(rollupHour, Calendar.HOUR_OF_DAY, 1);
+        List<StateRollup> rollups;
+        switch (rollupType) {
+            case WORKFLOW_INSTANCE_START_TIME:
+                rollups = processInstanceMapper.countInstanceStateGroupByDefinitionCode(rollupHour, nextHour);
+                break;
+            case TASK_INSTANCE_START_TIME:
+                rollups = taskInstanceMapper.countTaskInstanceStateGroupByTaskCode(rollupHour, nextHour);
+                break;
+            case TASK_INSTANCE_SUBMIT_TIME:
+                rollups = taskInstanceMapper.countTaskInstanceStateGroupByTaskCodeBySubmitTime(rollupHour, nextHour);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported state rollup type: " + rollupType);
+        }
+        rollups = rollups == null ? new ArrayList<>() : new ArrayList<>(rollups);
+
+        Date now = new Date();
+        int totalCount = 0;
+        for (StateRollup rollup : rollups) {
+            rollup.setRollupType(rollupType);
+            rollup.setRollupHour(rollupHour);
+            rollup.setUpdateTime(now);
+            totalCount += rollup.getCount();
+        }
+        rollups.add(StateRollup.builder()
+                .rollupType(rollupType)
+                .rollupHour(rollupHour)
+                .state(StateRollup.COMPACTED_STATE)
+                .count(totalCount)
+                .updateTime(now)
+                .build());
+
+        for (List<StateRollup> batch : Lists.partition(rollups, INSERT_BATCH_SIZE)) {
+            stateRollupMapper.batchInsert(batch);
+        }
+        return totalCount;
+    }
+
+    @Override
+    public void markDirty(ProcessInstance processInstance) {
+        if (processInstance == null || processInstance.getStartTime() == null) {
+            return;
+        }
+        // a workflow instance belongs to [hour, hour + 1h)
+        markDirty(StateRollupType.WORKFLOW_INSTANCE_START_TIME,
+                DateUtils.getStartOfHour(processInstance.getStartTime()));
+    }
+
+    @Override
+    public void markDirty(Collection<TaskInstance> taskInstances) {
+        if (taskInstances == null) {
+            return;
+        }
+        Set<Date> startHours = new TreeSet<>();
+        Set<Date> submitHours = new TreeSet<>();
+        for (TaskInstance taskInstance : taskInstances) {
+            if (taskInstance.getStartTime() != null) {
+                startHours.add(getTaskRollupHour(taskInstance.getStartTime()));
+            }
+            if (taskInstance.getSubmitTime() != null) {
+                submitHours.add(getTaskRollupHour(taskInstance.getSubmitTime()));
+            }
+        }
+        startHours.forEach(hour -> markDirty(StateRollupType.TASK_INSTANCE_START_TIME, hour));
+        submitHours.forEach(hour -> markDirty(StateRollupType.TASK_INSTANCE_SUBMIT_TIME, hour));
+    }
+
+    private void markDirty(StateRollupType rollupType, Date rollupHour) {
+        try {
+            stateRollupMapper.insertDirtyMarker(rollupType, rollupHour, new Date());
+        } catch (DuplicateKeyException e) {
+            // marked by another transaction at the same time
+        }
+    }
+
+    /**
+     * a task instance belongs to (hour, hour + 1h]
+     */
+    private static Date getTaskRollupHour(Date time) {
+        Date hour = DateUtils.getStartOfHour(time);
+        return hour.getTime() == time.getTime() ? DateUtils.add(hour, Calendar.HOUR_OF_DAY, -1) : hour;
+    }
+
+    @Override
+    public List<ExecuteStatusCount> countState(StateRollupType rollupType, Date startTime, Date endTime,
+                                               Long[] projectCodes, List<TaskExecutionStatus> states,
+                                               BiFunction<Date, Date, List<ExecuteStatusCount>> rawStateCounter) {
+        boolean workflowRollup = rollupType == StateRollupType.WORKFLOW_INSTANCE_START_TIME;
+        if (workflowRollup && (startTime == null || endTime == null)) {
+            return rawStateCounter.apply(startTime, endTime);
+        }
+        Date firstCompactedHour = stateRollupMapper.queryFirstCompactedHour(rollupType);
+        Date lastCompactedHour = stateRollupMapper.queryLastCompactedHour(rollupType);
+        if (firstCompactedHour == null || lastCompactedHour == null) {
+            return rawStateCounter.apply(startTime, endTime);
+        }
+
+        // only the hours which are totally inside the range can be answered from the rollup
+        Date rollupStart = firstCompactedHour;
+        if (startTime != null) {
+            Date startHour = DateUtils.getStartOfHour(startTime);
+            if (startHour.before(startTime)) {
+                startHour = DateUtils.add(startHour, Calendar.HOUR_OF_DAY, 1);
+            }
+            rollupStart = startHour.after(rollupStart) ? startHour : rollupStart;
+        }
+        Date rollupEnd = DateUtils.add(lastCompactedHour, Calendar.HOUR_OF_DAY, 1);
+        if (endTime != null) {
+            Date endHour = DateUtils.getStartOfHour(endTime);
+            rollupEnd = endHour.before(rollupEnd) ? endHour : rollupEnd;
+        }
+        if (!rollupStart.before(rollupEnd)) {
+            return rawStateCounter.apply(startTime, endTime);
+        }
+
+        List<ExecuteStatusCount> stateCounts = new ArrayList<>(
+                stateRollupMapper.countStateByProjectCodes(rollupType, rollupStart, rollupEnd, projectCodes, states));
+        if (startTime == null || startTime.before(rollupStart)) {
+            // the workflow instance range includes the end time, stop right before the first rollup hour
+            Date headEnd = workflowRollup ? new Date(rollupStart.getTime() - 1) : rollupStart;
+            addStateCounts(stateCounts, rawStateCounter.apply(startTime, headEnd));
+        }
+        if (endTime == null || endTime.after(rollupEnd) || (workflowRollup && endTime.equals(rollupEnd))) {
+            addStateCounts(stateCounts, rawStateCounter.apply(rollupEnd, endTime));
+        }
+        return stateCounts;
+    }
+
+    private void addStateCounts(List<ExecuteStatusCount> stateCounts, List<ExecuteStatusCount> rawStateCounts) {
+        if (rawStateCounts != null) {
+            stateCounts.addAll(rawStateCounts);
+        }
+    }
+}
@@ -30,6 +30,12 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.sql.Statement;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -39,6 +45,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Task Instance DAO implementation
@@ -57,6 +64,9 @@ public class TaskInstanceDaoImpl implements TaskInstanceDao {
     @Autowired
     private ProcessInstanceMapDao processInstanceMapDao;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
     @Override
     public boolean upsertTaskInstance(TaskInstance taskInstance) {
         if (taskInstance.getId() != null) {
@@ -78,6 +88,28 @@ public class TaskInstanceDaoImpl implements TaskInstanceDao {
         return count > 0;
     }
 
+    @Override
+    @Transactional
+    public int batchUpdateTaskInstance(List<TaskInstance> taskInstances) {
+        if (CollectionUtils.isEmpty(taskInstances)) {
+            return 0;
+        }
+        // the batch session joins the current transaction, the statements are committed together
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            TaskInstanceMapper batchTaskInstanceMapper = sqlSession.getMapper(TaskInstanceMapper.class);
+            for (TaskInstance taskInstance : taskInstances) {
+                batchTaskInstanceMapper.updateById(taskInstance);
+            }
+            int count = 0;
+            for (BatchResult batchResult : sqlSession.flushStatements()) {
+                for (int updateCount : batchResult.getUpdateCounts()) {
+                    count += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+                }
+            }
+            return count;
+        }
+    }
+
     @Override
     public TaskInstance submitTaskInstanceToDB(TaskInstance taskInstance, ProcessInstance processInstance) {
         WorkflowExecutionStatus processInstanceState = processInstance.getState();
@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -72,12 +73,25 @@ public class TaskCacheUtils {
      */
     public static String generateCacheKey(TaskInstance taskInstance, TaskExecutionContext taskExecutionContext,
                                           StorageOperate storageOperate) {
+        return generateCacheKey(taskInstance, taskExecutionContext,
+                property -> getValCheckSum(property, taskExecutionContext, storageOperate));
+    }
+
+    /**
+     * generate cache key for task instance, the checksums of the FILE properties are got by the given provider
+     * @param taskInstance task instance
+     * @param taskExecutionContext taskExecutionContext
+     * @param checkSumProvider provider of the checksum of a FILE property, e.g. a memoized one
+     * @return cache key
+     */
+    public static String generateCacheKey(TaskInstance taskInstance, TaskExecutionContext taskExecutionContext,
+                                          Function<Property, String> checkSumProvider) {
         List<String> keyElements = new ArrayList<>();
         keyElements.add(String.valueOf(taskInstance.getTaskCode()));
         keyElements.add(String.valueOf(taskInstance.getTaskDefinitionVersion()));
         keyElements.add(String.valueOf(taskInstance.getIsCache().getCode()));
         keyElements.add(String.valueOf(taskInstance.getEnvironmentConfig()));
-        keyElements.add(getTaskInputVarPoolData(taskInstance, taskExecutionContext, storageOperate));
+        keyElements.add(getTaskInputVarPoolData(taskInstance, taskExecutionContext, checkSumProvider));
         String data = StringUtils.join(keyElements, "_");
         return DigestUtils.sha256Hex(data);
     }
@@ -126,6 +140,18 @@ public class TaskCacheUtils {
      */
     public static String getTaskInputVarPoolData(TaskInstance taskInstance, TaskExecutionContext context,
                                                  StorageOperate storageOperate) {
+        return getTaskInputVarPoolData(taskInstance, context,
+                property -> getValCheckSum(property, context, storageOperate));
+    }
+
+    /**
+     * get hash data of task input var pool, the checksums of the FILE properties are got by the given provider
+     * @param taskInstance task instance
+     * @param context taskExecutionContext
+     * @param checkSumProvider provider of the checksum of a FILE property
+     */
+    public static String getTaskInputVarPoolData(TaskInstance taskInstance, TaskExecutionContext context,
+                                                 Function<Property, String> checkSumProvider) {
         JsonNode taskParams = JSONUtils.parseObject(taskInstance.getTaskParams());
 
         // The set of input values considered from localParams in the taskParams
@@ -142,8 +168,7 @@ public class TaskCacheUtils {
         Map<String, String> fileCheckSumMap = new HashMap<>();
         List<Property> fileInput = varPool.stream().filter(property -> property.getType().equals(DataType.FILE))
                 .collect(Collectors.toList());
-        fileInput.forEach(
-                property -> fileCheckSumMap.put(property.getProp(), getValCheckSum(property, context, storageOperate)));
+        fileInput.forEach(property -> fileCheckSumMap.put(property.getProp(), checkSumProvider.apply(property)));
 
         // var pool value from workflow global parameters
         if (context.getPrepareParamsMap() != null) {
@@ -164,7 +189,7 @@ public class TaskCacheUtils {
 
         varPool.forEach(property -> {
             if (property.getType() == DataType.FILE) {
-                property.setValue(fileCheckSumMap.get(property.getValue()));
+                property.setValue(fileCheckSumMap.get(property.getProp()));
             }
         });
         return JSONUtils.toJsonString(varPool);
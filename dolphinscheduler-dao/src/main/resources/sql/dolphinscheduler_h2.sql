@@ -2042,3 +2042,21 @@ CREATE TABLE t_ds_fav_task
     user_id   int         NOT NULL,
     PRIMARY KEY (id)
 );
+
+--
+-- Table structure for t_ds_state_rollup
+--
+DROP TABLE IF EXISTS t_ds_state_rollup CASCADE;
+CREATE TABLE t_ds_state_rollup
+(
+    id              bigint(20) NOT NULL AUTO_INCREMENT,
+    rollup_type     int        NOT NULL,
+    rollup_hour     timestamp  NOT NULL,
+    project_code    bigint(20) NOT NULL,
+    definition_code bigint(20) NOT NULL,
+    state           int        NOT NULL,
+    count           int        NOT NULL DEFAULT '0',
+    update_time     timestamp  DEFAULT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY state_rollup_unique (rollup_type, rollup_hour, project_code, definition_code, state)
+);
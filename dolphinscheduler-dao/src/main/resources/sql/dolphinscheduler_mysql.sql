@@ -905,7 +905,9 @@ CREATE TABLE `t_ds_task_instance` (
   PRIMARY KEY (`id`),
   KEY `process_instance_id` (`process_instance_id`) USING BTREE,
   KEY `idx_code_version` (`task_code`, `task_definition_version`) USING BTREE,
-  KEY `idx_cache_key` (`cache_key`) USING BTREE
+  KEY `idx_cache_key` (`cache_key`) USING BTREE,
+  KEY `idx_start_time` (`start_time`) USING BTREE,
+  KEY `idx_submit_time` (`submit_time`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -2018,3 +2020,23 @@ CREATE TABLE `t_ds_fav_task`
 ) ENGINE = InnoDB
   AUTO_INCREMENT = 1
   DEFAULT CHARSET = utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_state_rollup
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_state_rollup`;
+CREATE TABLE `t_ds_state_rollup`
+(
+    `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'key',
+    `rollup_type`     tinyint(4) NOT NULL COMMENT 'rollup type: 0 workflow instance by start time, 1 task instance by start time, 2 task instance by submit time',
+    `rollup_hour`     datetime   NOT NULL COMMENT 'the hour the counted instances belong to',
+    `project_code`    bigint(20) NOT NULL COMMENT 'project code',
+    `definition_code` bigint(20) NOT NULL COMMENT 'workflow definition code or task definition code',
+    `state`           tinyint(4) NOT NULL COMMENT 'instance state, -1 marks the hour as compacted',
+    `count`           int(11)    NOT NULL DEFAULT '0' COMMENT 'instance count',
+    `update_time`     datetime   DEFAULT NULL COMMENT 'update time',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `state_rollup_unique` (`rollup_type`, `rollup_hour`, `project_code`, `definition_code`, `state`)
+) ENGINE = InnoDB
+  AUTO_INCREMENT = 1
+  DEFAULT CHARSET = utf8;
@@ -807,6 +807,8 @@ CREATE TABLE t_ds_task_instance (
 
 create index idx_task_instance_code_version on t_ds_task_instance (task_code, task_definition_version);
 create index idx_cache_key on t_ds_task_instance (cache_key);
+create index idx_task_instance_start_time on t_ds_task_instance (start_time);
+create index idx_task_instance_submit_time on t_ds_task_instance (submit_time);
 
 --
 -- Table structure for table t_ds_tenant
@@ -1994,3 +1996,22 @@ CREATE TABLE t_ds_fav_task
     user_id   int         NOT NULL,
     PRIMARY KEY (id)
 );
+
+--
+-- Table structure for t_ds_state_rollup
+--
+
+DROP TABLE IF EXISTS t_ds_state_rollup;
+CREATE TABLE t_ds_state_rollup
+(
+    id              bigserial NOT NULL,
+    rollup_type     int       NOT NULL,
+    rollup_hour     timestamp NOT NULL,
+    project_code    bigint    NOT NULL,
+    definition_code bigint    NOT NULL,
+    state           int       NOT NULL,
+    count           int       NOT NULL DEFAULT '0',
+    update_time     timestamp DEFAULT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT state_rollup_unique UNIQUE (rollup_type, rollup_hour, project_code, definition_code, state)
+);
@@ -282,3 +282,58 @@ d//
 delimiter ;
 CALL add_t_ds_task_instance_add_project_code;
 DROP PROCEDURE add_t_ds_task_instance_add_project_code;
+
+-- ALTER TABLE `t_ds_task_instance` ADD KEY `idx_start_time`( `start_time`);
+drop PROCEDURE if EXISTS add_t_ds_task_instance_idx_start_time;
+delimiter d//
+CREATE PROCEDURE add_t_ds_task_instance_idx_start_time()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE TABLE_NAME='t_ds_task_instance'
+        AND TABLE_SCHEMA=(SELECT DATABASE())
+        AND INDEX_NAME='idx_start_time')
+    THEN
+ALTER TABLE `t_ds_task_instance` ADD KEY `idx_start_time`( `start_time` );
+END IF;
+END;
+d//
+delimiter ;
+CALL add_t_ds_task_instance_idx_start_time;
+DROP PROCEDURE add_t_ds_task_instance_idx_start_time;
+
+-- ALTER TABLE `t_ds_task_instance` ADD KEY `idx_submit_time`( `submit_time`);
+drop PROCEDURE if EXISTS add_t_ds_task_instance_idx_submit_time;
+delimiter d//
+CREATE PROCEDURE add_t_ds_task_instance_idx_submit_time()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE TABLE_NAME='t_ds_task_instance'
+        AND TABLE_SCHEMA=(SELECT DATABASE())
+        AND INDEX_NAME='idx_submit_time')
+    THEN
+ALTER TABLE `t_ds_task_instance` ADD KEY `idx_submit_time`( `submit_time` );
+END IF;
+END;
+d//
+delimiter ;
+CALL add_t_ds_task_instance_idx_submit_time;
+DROP PROCEDURE add_t_ds_task_instance_idx_submit_time;
+
+-- ----------------------------
+-- Table structure for t_ds_state_rollup
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `t_ds_state_rollup`
+(
+    `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'key',
+    `rollup_type`     tinyint(4) NOT NULL COMMENT 'rollup type: 0 workflow instance by start time, 1 task instance by start time, 2 task instance by submit time',
+    `rollup_hour`     datetime   NOT NULL COMMENT 'the hour the counted instances belong to',
+    `project_code`    bigint(20) NOT NULL COMMENT 'project code',
+    `definition_code` bigint(20) NOT NULL COMMENT 'workflow definition code or task definition code',
+    `state`           tinyint(4) NOT NULL COMMENT 'instance state, -1 marks the hour as compacted',
+    `count`           int(11)    NOT NULL DEFAULT '0' COMMENT 'instance count',
+    `update_time`     datetime   DEFAULT NULL COMMENT 'update time',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `state_rollup_unique` (`rollup_type`, `rollup_hour`, `project_code`, `definition_code`, `state`)
+) ENGINE = InnoDB
+  AUTO_INCREMENT = 1
+  DEFAULT CHARSET = utf8;
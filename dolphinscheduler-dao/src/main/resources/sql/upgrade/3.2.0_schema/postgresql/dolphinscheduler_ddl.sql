@@ -206,4 +206,21 @@ $$ LANGUAGE plpgsql;
 d//
 delimiter ;
 select add_t_ds_task_instance_add_project_code();
-DROP FUNCTION add_t_ds_task_instance_add_project_code();
\ No newline at end of file
+DROP FUNCTION add_t_ds_task_instance_add_project_code();
+
+CREATE INDEX IF NOT EXISTS idx_task_instance_start_time ON t_ds_task_instance USING Btree("start_time");
+CREATE INDEX IF NOT EXISTS idx_task_instance_submit_time ON t_ds_task_instance USING Btree("submit_time");
+
+CREATE TABLE IF NOT EXISTS t_ds_state_rollup
+(
+    id              bigserial NOT NULL,
+    rollup_type     int       NOT NULL,
+    rollup_hour     timestamp NOT NULL,
+    project_code    bigint    NOT NULL,
+    definition_code bigint    NOT NULL,
+    state           int       NOT NULL,
+    count           int       NOT NULL DEFAULT '0',
+    update_time     timestamp DEFAULT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT state_rollup_unique UNIQUE (rollup_type, rollup_hour, project_code, definition_code, state)
+);
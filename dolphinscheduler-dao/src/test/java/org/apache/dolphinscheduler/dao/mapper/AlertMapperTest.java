@@ -26,12 +26,15 @@ import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.commons.codec.digest.DigestUtils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.google.common.collect.Lists;
+
 /**
  * alert mapper test
  */
@@ -96,6 +99,42 @@ public class AlertMapperTest extends BaseDaoTest {
         Assertions.assertNull(actualAlert);
     }
 
+    @Test
+    public void testListingAlertByStatusAfterId() {
+        Alert firstAlert = createAlert();
+        Alert secondAlert = createAlert();
+        createAlert(AlertStatus.EXECUTION_SUCCESS);
+
+        List<Alert> alerts = alertMapper.listingAlertByStatusAfterId(AlertStatus.WAIT_EXECUTION.getCode(),
+                firstAlert.getId(), 100);
+        Assertions.assertEquals(1, alerts.size());
+        Assertions.assertEquals(secondAlert.getId(), alerts.get(0).getId());
+    }
+
+    @Test
+    public void testBatchUpdateAlertStatus() {
+        Alert firstAlert = createAlert();
+        Alert secondAlert = createAlert();
+        Alert untouchedAlert = createAlert();
+        firstAlert.setAlertStatus(AlertStatus.EXECUTION_SUCCESS);
+        firstAlert.setLog("success");
+        secondAlert.setAlertStatus(AlertStatus.EXECUTION_FAILURE);
+        secondAlert.setLog("error");
+
+        int updated = alertMapper.batchUpdateAlertStatus(Lists.newArrayList(firstAlert, secondAlert),
+                DateUtils.getCurrentDate());
+        Assertions.assertEquals(2, updated);
+
+        Alert actualFirstAlert = alertMapper.selectById(firstAlert.getId());
+        Assertions.assertEquals(AlertStatus.EXECUTION_SUCCESS, actualFirstAlert.getAlertStatus());
+        Assertions.assertEquals("success", actualFirstAlert.getLog());
+        Alert actualSecondAlert = alertMapper.selectById(secondAlert.getId());
+        Assertions.assertEquals(AlertStatus.EXECUTION_FAILURE, actualSecondAlert.getAlertStatus());
+        Assertions.assertEquals("error", actualSecondAlert.getLog());
+        Assertions.assertEquals(AlertStatus.WAIT_EXECUTION,
+                alertMapper.selectById(untouchedAlert.getId()).getAlertStatus());
+    }
+
     /**
      * create alert map
      *
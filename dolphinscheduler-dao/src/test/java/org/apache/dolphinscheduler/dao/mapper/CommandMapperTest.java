@@ -31,6 +31,7 @@ import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.CommandCount;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +61,25 @@ public class CommandMapperTest extends BaseDaoTest {
         Assertions.assertTrue(command.getId() > 0);
     }
 
+    /**
+     * test batch insert
+     */
+    @Test
+    public void testBatchInsert() {
+        Command firstCommand = createCommand();
+        Command secondCommand = createCommand();
+        firstCommand.setId(null);
+        secondCommand.setId(null);
+
+        int insertCount = commandMapper.batchInsert(Arrays.asList(firstCommand, secondCommand));
+
+        Assertions.assertEquals(2, insertCount);
+        Assertions.assertNotNull(firstCommand.getId());
+        Command actualCommand = commandMapper.selectById(secondCommand.getId());
+        Assertions.assertNotNull(actualCommand);
+        Assertions.assertEquals(secondCommand.getCommandParam(), actualCommand.getCommandParam());
+    }
+
     /**
      * test select by id
      */
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.BaseDaoTest;
+import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class StateRollupMapperTest extends BaseDaoTest {
+
+    @Autowired
+    private StateRollupMapper stateRollupMapper;
+
+    private StateRollup createRollup(String rollupHour, long projectCode, TaskExecutionStatus state, int count) {
+        return StateRollup.builder()
+                .rollupType(StateRollupType.TASK_INSTANCE_START_TIME)
+                .rollupHour(DateUtils.stringToDate(rollupHour))
+                .projectCode(projectCode)
+                .definitionCode(1L)
+                .state(state == null ? StateRollup.COMPACTED_STATE : state.getCode())
+                .count(count)
+                .updateTime(new Date())
+                .build();
+    }
+
+    private void insertRollups() {
+        stateRollupMapper.batchInsert(Arrays.asList(
+                createRollup("2022-11-01 10:00:00", 1L, TaskExecutionStatus.SUCCESS, 3),
+                createRollup("2022-11-01 10:00:00", 2L, TaskExecutionStatus.FAILURE, 1),
+                createRollup("2022-11-01 10:00:00", 0L, null, 4),
+                createRollup("2022-11-01 11:00:00", 1L, TaskExecutionStatus.SUCCESS, 2),
+                createRollup("2022-11-01 11:00:00", 1L, TaskExecutionStatus.RUNNING_EXECUTION, 1),
+                createRollup("2022-11-01 11:00:00", 0L, null, 3)));
+    }
+
+    @Test
+    public void testCountStateByProjectCodes() {
+        insertRollups();
+        Date startHour = DateUtils.stringToDate("2022-11-01 10:00:00");
+        Date endHour = DateUtils.stringToDate("2022-11-01 12:00:00");
+
+        List<ExecuteStatusCount> stateCounts = stateRollupMapper.countStateByProjectCodes(
+                StateRollupType.TASK_INSTANCE_START_TIME, startHour, endHour, new Long[]{1L}, null);
+        Assertions.assertEquals(2, stateCounts.size());
+        Assertions.assertEquals(5, stateCounts.stream()
+                .filter(stateCount -> stateCount.getState() == TaskExecutionStatus.SUCCESS)
+                .mapToInt(ExecuteStatusCount::getCount)
+                .sum());
+
+        stateCounts = stateRollupMapper.countStateByProjectCodes(StateRollupType.TASK_INSTANCE_START_TIME,
+                startHour, DateUtils.stringToDate("2022-11-01 11:00:00"), null,
+                Collections.singletonList(TaskExecutionStatus.FAILURE));
+        Assertions.assertEquals(1, stateCounts.size());
+        Assertions.assertEquals(1, stateCounts.get(0).getCount());
+
+        stateCounts = stateRollupMapper.countStateByProjectCodes(StateRollupType.TASK_INSTANCE_SUBMIT_TIME,
+                startHour, endHour, null, null);
+        Assertions.assertTrue(stateCounts.isEmpty());
+    }
+
+    @Test
+    public void testQueryCompactedHour() {
+        Assertions.assertNull(stateRollupMapper.queryFirstCompactedHour(StateRollupType.TASK_INSTANCE_START_TIME));
+        insertRollups();
+        Assertions.assertEquals(DateUtils.stringToDate("2022-11-01 10:00:00"),
+                stateRollupMapper.queryFirstCompactedHour(StateRollupType.TASK_INSTANCE_START_TIME));
+        Assertions.assertEquals(DateUtils.stringToDate("2022-11-01 11:00:00"),
+                stateRollupMapper.queryLastCompactedHour(StateRollupType.TASK_INSTANCE_START_TIME));
+    }
+
+    @Test
+    public void testQueryRollupHoursByStates() {
+        insertRollups();
+        List<Date> rollupHours = stateRollupMapper.queryRollupHoursByStates(StateRollupType.TASK_INSTANCE_START_TIME,
+                new int[]{TaskExecutionStatus.RUNNING_EXECUTION.getCode()});
+        Assertions.assertEquals(Collections.singletonList(DateUtils.stringToDate("2022-11-01 11:00:00")),
+                rollupHours);
+    }
+
+    @Test
+    public void testInsertDirtyMarker() {
+        insertRollups();
+        Date rollupHour = DateUtils.stringToDate("2022-11-01 10:00:00");
+        Assertions.assertEquals(1, stateRollupMapper.insertDirtyMarker(StateRollupType.TASK_INSTANCE_START_TIME,
+                rollupHour, new Date()));
+        Assertions.assertEquals(0, stateRollupMapper.insertDirtyMarker(StateRollupType.TASK_INSTANCE_START_TIME,
+                rollupHour, new Date()));
+
+        List<Date> dirtyHours = stateRollupMapper.queryRollupHoursByStates(StateRollupType.TASK_INSTANCE_START_TIME,
+                new int[]{StateRollup.DIRTY_STATE});
+        Assertions.assertEquals(Collections.singletonList(rollupHour), dirtyHours);
+        // the marker is not counted
+        List<ExecuteStatusCount> stateCounts = stateRollupMapper.countStateByProjectCodes(
+                StateRollupType.TASK_INSTANCE_START_TIME, rollupHour, DateUtils.stringToDate("2022-11-01 11:00:00"),
+                null, null);
+        Assertions.assertEquals(4, stateCounts.stream().mapToInt(ExecuteStatusCount::getCount).sum());
+
+        stateRollupMapper.deleteByRollupHour(StateRollupType.TASK_INSTANCE_START_TIME, rollupHour);
+        Assertions.assertTrue(stateRollupMapper.queryRollupHoursByStates(StateRollupType.TASK_INSTANCE_START_TIME,
+                new int[]{StateRollup.DIRTY_STATE}).isEmpty());
+    }
+
+    @Test
+    public void testDeleteByRollupHour() {
+        insertRollups();
+        int delete = stateRollupMapper.deleteByRollupHour(StateRollupType.TASK_INSTANCE_START_TIME,
+                DateUtils.stringToDate("2022-11-01 11:00:00"));
+        Assertions.assertEquals(3, delete);
+        Assertions.assertEquals(DateUtils.stringToDate("2022-11-01 10:00:00"),
+                stateRollupMapper.queryLastCompactedHour(StateRollupType.TASK_INSTANCE_START_TIME));
+    }
+}
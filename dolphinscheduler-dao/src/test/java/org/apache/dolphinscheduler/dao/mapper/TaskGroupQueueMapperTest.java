@@ -86,6 +86,21 @@ public class TaskGroupQueueMapperTest extends BaseDaoTest {
 
     }
 
+    @Test
+    public void testQueryByStatusAfterId() {
+        TaskGroupQueue first = insertOne();
+        TaskGroupQueue second = insertOne();
+        int status = TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode();
+
+        List<TaskGroupQueue> taskGroupQueues = taskGroupQueueMapper.queryByStatusAfterId(status, first.getId());
+        Assertions.assertEquals(1, taskGroupQueues.size());
+        Assertions.assertEquals(second.getId(), taskGroupQueues.get(0).getId());
+
+        taskGroupQueues = taskGroupQueueMapper.queryByStatusAfterId(status, 0);
+        Assertions.assertEquals(2, taskGroupQueues.size());
+        Assertions.assertEquals(first.getId(), taskGroupQueues.get(0).getId());
+    }
+
     @Test
     public void testUpdateStatusByTaskId() {
         TaskGroupQueue taskGroupQueue = insertOne();
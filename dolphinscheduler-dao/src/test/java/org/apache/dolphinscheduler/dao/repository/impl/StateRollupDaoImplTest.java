@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.repository.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.mapper.StateRollupMapper;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class StateRollupDaoImplTest {
+
+    @InjectMocks
+    private StateRollupDaoImpl stateRollupDao;
+
+    @Mock
+    private StateRollupMapper stateRollupMapper;
+
+    private final List<Pair<Date, Date>> rawRanges = new ArrayList<>();
+
+    private List<ExecuteStatusCount> countRawState(Date startTime, Date endTime) {
+        rawRanges.add(Pair.of(startTime, endTime));
+        return new ArrayList<>(Collections.singletonList(new ExecuteStatusCount(TaskExecutionStatus.SUCCESS, 1)));
+    }
+
+    private void mockCompactedHours(StateRollupType rollupType, String firstHour, String lastHour) {
+        Mockito.when(stateRollupMapper.queryFirstCompactedHour(rollupType))
+                .thenReturn(DateUtils.stringToDate(firstHour));
+        Mockito.when(stateRollupMapper.queryLastCompactedHour(rollupType))
+                .thenReturn(DateUtils.stringToDate(lastHour));
+    }
+
+    @Test
+    public void testCountStateWithoutCompactedHour() {
+        Date startTime = DateUtils.stringToDate("2022-11-01 10:30:00");
+        Date endTime = DateUtils.stringToDate("2022-11-01 14:15:00");
+        List<ExecuteStatusCount> stateCounts = stateRollupDao.countState(StateRollupType.TASK_INSTANCE_START_TIME,
+                startTime, endTime, null, null, this::countRawState);
+
+        Assertions.assertEquals(1, stateCounts.size());
+        Assertions.assertEquals(Collections.singletonList(Pair.of(startTime, endTime)), rawRanges);
+    }
+
+    @Test
+    public void testCountTaskState() {
+        mockCompactedHours(StateRollupType.TASK_INSTANCE_START_TIME, "2022-11-01 09:00:00", "2022-11-01 12:00:00");
+        Mockito.when(stateRollupMapper.countStateByProjectCodes(any(), any(), any(), any(), any()))
+                .thenReturn(Collections.singletonList(new ExecuteStatusCount(TaskExecutionStatus.SUCCESS, 5)));
+
+        Date startTime = DateUtils.stringToDate("2022-11-01 10:30:00");
+        Date endTime = DateUtils.stringToDate("2022-11-01 14:15:00");
+        List<ExecuteStatusCount> stateCounts = stateRollupDao.countState(StateRollupType.TASK_INSTANCE_START_TIME,
+                startTime, endTime, new Long[]{1L}, null, this::countRawState);
+
+        Assertions.assertEquals(7, stateCounts.stream().mapToInt(ExecuteStatusCount::getCount).sum());
+        Mockito.verify(stateRollupMapper).countStateByProjectCodes(StateRollupType.TASK_INSTANCE_START_TIME,
+                DateUtils.stringToDate("2022-11-01 11:00:00"), DateUtils.stringToDate("2022-11-01 13:00:00"),
+                new Long[]{1L}, null);
+        Assertions.assertEquals(2, rawRanges.size());
+        Assertions.assertEquals(Pair.of(startTime, DateUtils.stringToDate("2022-11-01 11:00:00")), rawRanges.get(0));
+        Assertions.assertEquals(Pair.of(DateUtils.stringToDate("2022-11-01 13:00:00"), endTime), rawRanges.get(1));
+    }
+
+    @Test
+    public void testMarkDirty() {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setStartTime(DateUtils.stringToDate("2022-11-01 11:00:00"));
+        stateRollupDao.markDirty(processInstance);
+        Mockito.verify(stateRollupMapper).insertDirtyMarker(Mockito.eq(StateRollupType.WORKFLOW_INSTANCE_START_TIME),
+                Mockito.eq(DateUtils.stringToDate("2022-11-01 11:00:00")), any());
+
+        // a task instance started right at 11:00 belongs to the hour from 10:00
+        TaskInstance firstTask = new TaskInstance();
+        firstTask.setStartTime(DateUtils.stringToDate("2022-11-01 11:00:00"));
+        firstTask.setSubmitTime(DateUtils.stringToDate("2022-11-01 10:59:00"));
+        TaskInstance secondTask = new TaskInstance();
+        secondTask.setStartTime(DateUtils.stringToDate("2022-11-01 10:30:00"));
+        secondTask.setSubmitTime(DateUtils.stringToDate("2022-11-01 11:00:01"));
+        stateRollupDao.markDirty(Arrays.asList(firstTask, secondTask));
+        Mockito.verify(stateRollupMapper).insertDirtyMarker(Mockito.eq(StateRollupType.TASK_INSTANCE_START_TIME),
+                Mockito.eq(DateUtils.stringToDate("2022-11-01 10:00:00")), any());
+        Mockito.verify(stateRollupMapper).insertDirtyMarker(Mockito.eq(StateRollupType.TASK_INSTANCE_SUBMIT_TIME),
+                Mockito.eq(DateUtils.stringToDate("2022-11-01 10:00:00")), any());
+        Mockito.verify(stateRollupMapper).insertDirtyMarker(Mockito.eq(StateRollupType.TASK_INSTANCE_SUBMIT_TIME),
+                Mockito.eq(DateUtils.stringToDate("2022-11-01 11:00:00")), any());
+        Mockito.verify(stateRollupMapper, Mockito.times(4)).insertDirtyMarker(any(), any(), any());
+    }
+
+    @Test
+    public void testCountWorkflowState() {
+        mockCompactedHours(StateRollupType.WORKFLOW_INSTANCE_START_TIME, "2022-11-01 09:00:00",
+                "2022-11-01 12:00:00");
+        Mockito.when(stateRollupMapper.countStateByProjectCodes(any(), any(), any(), any(), any()))
+                .thenReturn(Collections.singletonList(new ExecuteStatusCount(TaskExecutionStatus.SUCCESS, 5)));
+
+        Date startTime = DateUtils.stringToDate("2022-11-01 10:00:00");
+        Date endTime = DateUtils.stringToDate("2022-11-01 12:00:00");
+        List<ExecuteStatusCount> stateCounts = stateRollupDao.countState(
+                StateRollupType.WORKFLOW_INSTANCE_START_TIME, startTime, endTime, null, null, this::countRawState);
+
+        // the end time is inclusive, the instances started at the end time are counted from the instance table
+        Assertions.assertEquals(6, stateCounts.stream().mapToInt(ExecuteStatusCount::getCount).sum());
+        Assertions.assertEquals(Collections.singletonList(Pair.of(endTime, endTime)), rawRanges);
+
+        // the workflow instance range must be bounded to use the rollup
+        rawRanges.clear();
+        stateRollupDao.countState(StateRollupType.WORKFLOW_INSTANCE_START_TIME, null, null, null, null,
+                this::countRawState);
+        Assertions.assertEquals(Collections.singletonList(Pair.of((Date) null, (Date) null)), rawRanges);
+    }
+}
@@ -173,6 +173,18 @@ class TaskCacheUtilsTest {
         Assertions.assertNotEquals(cacheKeyE, cacheKeyF);
     }
 
+    @Test
+    void testGenerateCacheKeyWithCheckSumProvider() {
+        taskInstance.setVarPool(
+                "[{\"prop\":\"c\",\"direct\":\"IN\",\"type\":\"FILE\",\"value\":\"DATA_TRANSFER/c\"}]");
+        String cacheKey1 = TaskCacheUtils.generateCacheKey(taskInstance, taskExecutionContext, property -> "crc1");
+        String cacheKey2 = TaskCacheUtils.generateCacheKey(taskInstance, taskExecutionContext, property -> "crc2");
+        // the checksum of the upstream file will influence the result
+        Assertions.assertNotEquals(cacheKey1, cacheKey2);
+        Assertions.assertEquals(cacheKey1,
+                TaskCacheUtils.generateCacheKey(taskInstance, taskExecutionContext, property -> "crc1"));
+    }
+
     @Test
     void testGetCacheKey() {
         String cacheKey = TaskCacheUtils.generateTagCacheKey(1, "123");
@@ -28,6 +28,8 @@ import org.apache.dolphinscheduler.server.master.rpc.MasterRPCServer;
 import org.apache.dolphinscheduler.server.master.runner.EventExecuteService;
 import org.apache.dolphinscheduler.server.master.runner.FailoverExecuteThread;
 import org.apache.dolphinscheduler.server.master.runner.MasterSchedulerBootstrap;
+import org.apache.dolphinscheduler.server.master.runner.StateRollupExecuteThread;
+import org.apache.dolphinscheduler.server.master.runner.taskgroup.TaskGroupCoordinator;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 
 import javax.annotation.PostConstruct;
@@ -71,6 +73,12 @@ public class MasterServer implements IStoppable {
     @Autowired
     private FailoverExecuteThread failoverExecuteThread;
 
+    @Autowired
+    private StateRollupExecuteThread stateRollupExecuteThread;
+
+    @Autowired
+    private TaskGroupCoordinator taskGroupCoordinator;
+
     @Autowired
     private MasterRPCServer masterRPCServer;
 
@@ -99,6 +107,8 @@ public class MasterServer implements IStoppable {
 
         this.eventExecuteService.start();
         this.failoverExecuteThread.start();
+        this.stateRollupExecuteThread.start();
+        this.taskGroupCoordinator.start();
 
         this.schedulerApi.start();
 
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * resolve the upstream workflow instances and task instances of the dependent tasks, the results are shared by all
+ * the dependent tasks of this master
+ */
+public interface DependentResultCacheManager {
+
+    /**
+     * find the last one workflow instance that :
+     * 1. manual run and finish between the interval
+     * 2. schedule run and schedule time between the interval
+     *
+     * @param definitionCode workflow definition code
+     * @param dateInterval   date interval
+     * @param testFlag       test flag
+     * @return the last workflow instance, empty if there is no such workflow instance
+     */
+    Optional<ProcessInstance> findLastProcessInterval(long definitionCode, DateInterval dateInterval, int testFlag);
+
+    /**
+     * find the valid task instances of the workflow instance
+     *
+     * @param processInstance workflow instance
+     * @param testFlag        test flag
+     * @return task instances
+     */
+    List<TaskInstance> findValidTaskList(ProcessInstance processInstance, int testFlag);
+
+    /**
+     * evict the results of the workflow definition on all masters, should be called after the workflow instance is
+     * started or finished
+     *
+     * @param processInstance workflow instance
+     */
+    void notifyProcessInstanceChanged(ProcessInstance processInstance);
+}
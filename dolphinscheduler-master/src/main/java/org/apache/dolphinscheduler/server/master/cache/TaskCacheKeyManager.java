@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * generate the cache keys of the cache tasks off the dispatch thread, and find the cached task instances by them
+ */
+public interface TaskCacheKeyManager {
+
+    /**
+     * start generating the cache key of the task in background when the task is ready to dispatch,
+     * do nothing if the task is not defined as a cache task
+     *
+     * @param taskInstance task instance
+     * @param context      task execution context
+     */
+    void generateCacheKeyAsync(TaskInstance taskInstance, TaskExecutionContext context);
+
+    /**
+     * get the cache key of the task, which is generated in background if it is not started yet
+     *
+     * @param taskInstance task instance
+     * @param context      task execution context
+     * @return future of the cache key
+     */
+    CompletableFuture<String> getCacheKey(TaskInstance taskInstance, TaskExecutionContext context);
+
+    /**
+     * find the successful task instance with the cache key, from the recent cache keys first and then from database
+     *
+     * @param cacheKey cache key
+     * @return id of the cached task instance, empty if there is no such task instance
+     */
+    Optional<Integer> findCacheTaskInstanceId(String cacheKey);
+
+    /**
+     * evict the recent cache key if it still points to the task instance, which turns out to be deleted or no longer
+     * cached, so that the next lookup goes to database
+     *
+     * @param cacheKey            cache key
+     * @param cacheTaskInstanceId id of the task instance found by the cache key
+     */
+    void invalidateCacheTaskInstanceId(String cacheKey, int cacheTaskInstanceId);
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
+import org.apache.dolphinscheduler.service.cache.CacheExpireListener;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The last workflow instances of the definitions in the date intervals are shared by all the dependent tasks of this
+ * master, so the dependent tasks waiting for the same upstream workflow don't query db in each check. The results of a
+ * definition are evicted by the cache expire commands which are sent by the masters when its workflow instances are
+ * started or finished, and expired after a while in case of the lost commands.
+ * <p>The valid task instances of a finished workflow instance are kept with the results of its definition, the ones of
+ * a running workflow instance are only shared for a short while since the task states are not pushed.
+ * <p>The other masters are notified by a dedicated thread since connecting to them may block, the pending
+ * notifications of the same definition are merged.
+ */
+@Component
+public class DependentResultCacheManagerImpl implements DependentResultCacheManager, CacheExpireListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependentResultCacheManagerImpl.class);
+
+    private static final long MAX_CACHED_ENTRIES = 10000;
+
+    private static final long EXPIRE_MINUTES = 10;
+
+    private static final long RUNNING_TASK_LIST_EXPIRE_MILLIS = 1000;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private TaskInstanceDao taskInstanceDao;
+
+    @Autowired
+    private CacheNotifyService cacheNotifyService;
+
+    /**
+     * workflow definition code -> the results of the definition
+     */
+    private final Cache<Long, DefinitionResults> definitionResultsCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ENTRIES)
+            .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * workflow instance id and test flag -> the valid task instances of the running workflow instance
+     */
+    private final Cache<String, List<TaskInstance>> runningTaskListCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ENTRIES)
+            .expireAfterWrite(RUNNING_TASK_LIST_EXPIRE_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
+
+    /**
+     * workflow definition codes waiting to be sent to the other masters
+     */
+    private final Set<Long> pendingNotifyDefinitionCodes = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService notifyExecutor;
+
+    @PostConstruct
+    public void init() {
+        this.notifyExecutor = ThreadUtils.newDaemonFixedThreadExecutor("DependentResultNotifyThread", 1);
+    }
+
+    @Override
+    public Optional<ProcessInstance> findLastProcessInterval(long definitionCode, DateInterval dateInterval,
+                                                             int testFlag) {
+        // take the results before querying db, the results queried before an eviction are put into the evicted one
+        DefinitionResults definitionResults = getDefinitionResults(definitionCode);
+        String intervalKey = String.join("_", String.valueOf(testFlag),
+                String.valueOf(dateInterval.getStartTime().getTime()),
+                String.valueOf(dateInterval.getEndTime().getTime()));
+        return definitionResults.lastProcessInstances.computeIfAbsent(intervalKey,
+                key -> Optional.ofNullable(queryLastProcessInterval(definitionCode, dateInterval, testFlag)));
+    }
+
+    @Override
+    public List<TaskInstance> findValidTaskList(ProcessInstance processInstance, int testFlag) {
+        String taskListKey = processInstance.getId() + "_" + testFlag;
+        if (!processInstance.getState().isFinished()) {
+            List<TaskInstance> taskInstances = runningTaskListCache.getIfPresent(taskListKey);
+            if (taskInstances == null) {
+                taskInstances = taskInstanceDao.findValidTaskListByProcessId(processInstance.getId(), testFlag);
+                runningTaskListCache.put(taskListKey, taskInstances);
+            }
+            return taskInstances;
+        }
+        DefinitionResults definitionResults = getDefinitionResults(processInstance.getProcessDefinitionCode());
+        List<TaskInstance> taskInstances = definitionResults.finishedTaskLists.get(taskListKey);
+        if (taskInstances == null) {
+            taskInstances = taskInstanceDao.findValidTaskListByProcessId(processInstance.getId(), testFlag);
+            // the task states may be flushed later than the workflow state, keep the final ones only
+            if (taskInstances.stream().allMatch(taskInstance -> taskInstance.getState().isFinished())) {
+                definitionResults.finishedTaskLists.put(taskListKey, taskInstances);
+            }
+        }
+        return taskInstances;
+    }
+
+    @Override
+    public void notifyProcessInstanceChanged(ProcessInstance processInstance) {
+        long definitionCode = processInstance.getProcessDefinitionCode();
+        onCacheExpire(CacheType.DEPENDENT_RESULT, String.valueOf(definitionCode));
+        // called by the workflow event loop, don't wait for the connections to the other masters
+        if (pendingNotifyDefinitionCodes.add(definitionCode)) {
+            notifyExecutor.execute(() -> notifyMasters(definitionCode));
+        }
+    }
+
+    @Override
+    public void onCacheExpire(CacheType cacheType, String cacheKey) {
+        if (cacheType != CacheType.DEPENDENT_RESULT) {
+            return;
+        }
+        definitionResultsCache.invalidate(Long.parseLong(cacheKey));
+        logger.debug("Dependent result evict, workflow definition code: {}", cacheKey);
+    }
+
+    private void notifyMasters(long definitionCode) {
+        // remove it before sending, the changes after that are sent again
+        pendingNotifyDefinitionCodes.remove(definitionCode);
+        cacheNotifyService.notifyMaster(
+                new CacheExpireCommand(CacheType.DEPENDENT_RESULT, String.valueOf(definitionCode)).convert2Command());
+    }
+
+    private DefinitionResults getDefinitionResults(long definitionCode) {
+        return definitionResultsCache.asMap().computeIfAbsent(definitionCode, code -> new DefinitionResults());
+    }
+
+    private ProcessInstance queryLastProcessInterval(long definitionCode, DateInterval dateInterval, int testFlag) {
+        ProcessInstance lastSchedulerProcess =
+                processService.findLastSchedulerProcessInterval(definitionCode, dateInterval, testFlag);
+
+        ProcessInstance lastManualProcess =
+                processService.findLastManualProcessInterval(definitionCode, dateInterval, testFlag);
+
+        if (lastManualProcess == null) {
+            return lastSchedulerProcess;
+        }
+        if (lastSchedulerProcess == null) {
+            return lastManualProcess;
+        }
+
+        // In the time range, there are both manual and scheduled workflow instances, return the last workflow instance
+        return lastManualProcess.getId() > lastSchedulerProcess.getId() ? lastManualProcess : lastSchedulerProcess;
+    }
+
+    private static class DefinitionResults {
+
+        /**
+         * test flag and date interval -> the last workflow instance in the interval
+         */
+        private final ConcurrentMap<String, Optional<ProcessInstance>> lastProcessInstances =
+                new ConcurrentHashMap<>();
+
+        /**
+         * workflow instance id and test flag -> the valid task instances of the finished workflow instance
+         */
+        private final ConcurrentMap<String, List<TaskInstance>> finishedTaskLists = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import static org.apache.dolphinscheduler.common.constants.Constants.CRC_SUFFIX;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.service.cache.CacheExpireListener;
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The cache keys are generated in a separate thread pool once the tasks are ready, so that the dispatch threads are
+ * not blocked by downloading the checksums of the upstream files. The checksums are memoized by the tenant, the path
+ * and the modify time of the checksum files.
+ * <p>The recent cache keys of the successful task instances are indexed in memory, the index entries are evicted by
+ * the cache expire commands sent by api when the cache is removed or the task instance is deleted, and expired after a
+ * while in case of the lost commands. An entry found out of date when the cache event is handled is evicted too.
+ */
+@Component
+public class TaskCacheKeyManagerImpl implements TaskCacheKeyManager, CacheExpireListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCacheKeyManagerImpl.class);
+
+    private static final long MAX_CACHED_ENTRIES = 10000;
+
+    private static final long EXPIRE_MINUTES = 10;
+
+    @Autowired
+    private TaskInstanceDao taskInstanceDao;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired(required = false)
+    private StorageOperate storageOperate;
+
+    /**
+     * the cache keys which are generating or generated but not taken by the dispatcher yet, keyed by task instance id
+     */
+    private final Cache<Integer, CompletableFuture<String>> cacheKeyFutures = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * the checksums of the upstream files, keyed by tenant, checksum file path and its modify time
+     */
+    private final Cache<String, String> checkSumCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ENTRIES)
+            .build();
+
+    /**
+     * cache key -> id of the successful task instance with the cache key
+     */
+    private final Cache<String, Integer> cacheTaskInstanceIndex = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ENTRIES)
+            .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    private ExecutorService cacheKeyGenerateExecutor;
+
+    @PostConstruct
+    public void init() {
+        this.cacheKeyGenerateExecutor = ThreadUtils.newDaemonFixedThreadExecutor("TaskCacheKeyGenerateThread",
+                masterConfig.getDispatchTaskNumber());
+    }
+
+    @Override
+    public void generateCacheKeyAsync(TaskInstance taskInstance, TaskExecutionContext context) {
+        if (taskInstance.getIsCache() != Flag.YES) {
+            return;
+        }
+        cacheKeyFutures.put(taskInstance.getId(), generateCacheKey(taskInstance, context));
+    }
+
+    @Override
+    public CompletableFuture<String> getCacheKey(TaskInstance taskInstance, TaskExecutionContext context) {
+        // the generated cache key is taken only once, a task dispatched again will generate it again
+        CompletableFuture<String> cacheKeyFuture = cacheKeyFutures.asMap().remove(taskInstance.getId());
+        if (cacheKeyFuture == null) {
+            cacheKeyFuture = generateCacheKey(taskInstance, context);
+        }
+        return cacheKeyFuture;
+    }
+
+    @Override
+    public Optional<Integer> findCacheTaskInstanceId(String cacheKey) {
+        Integer cacheTaskInstanceId = cacheTaskInstanceIndex.getIfPresent(cacheKey);
+        if (cacheTaskInstanceId != null) {
+            return Optional.of(cacheTaskInstanceId);
+        }
+        TaskInstance cacheTaskInstance = taskInstanceDao.findTaskInstanceByCacheKey(cacheKey);
+        if (cacheTaskInstance == null) {
+            return Optional.empty();
+        }
+        cacheTaskInstanceIndex.put(cacheKey, cacheTaskInstance.getId());
+        return Optional.of(cacheTaskInstance.getId());
+    }
+
+    @Override
+    public void invalidateCacheTaskInstanceId(String cacheKey, int cacheTaskInstanceId) {
+        if (cacheTaskInstanceIndex.asMap().remove(cacheKey, cacheTaskInstanceId)) {
+            logger.info("Task cache key index evict, key: {}, cache task instance id: {}", cacheKey,
+                    cacheTaskInstanceId);
+        }
+    }
+
+    @Override
+    public void onCacheExpire(CacheType cacheType, String cacheKey) {
+        if (cacheType != CacheType.TASK_INSTANCE_CACHE_KEY) {
+            return;
+        }
+        cacheTaskInstanceIndex.invalidate(cacheKey);
+        logger.debug("Task cache key index evict, key: {}", cacheKey);
+    }
+
+    private CompletableFuture<String> generateCacheKey(TaskInstance taskInstance, TaskExecutionContext context) {
+        // the task instance and the context are still changed by the workflow and the dispatcher while the key is
+        // generating, so the key is generated from a copy of the fields it depends on, taken on the calling thread
+        TaskInstance taskInstanceSnapshot = snapshotOf(taskInstance);
+        TaskExecutionContext contextSnapshot = snapshotOf(context);
+        return CompletableFuture.supplyAsync(() -> TaskCacheUtils.generateCacheKey(taskInstanceSnapshot,
+                contextSnapshot, property -> getValCheckSum(property, contextSnapshot)), cacheKeyGenerateExecutor);
+    }
+
+    private static TaskInstance snapshotOf(TaskInstance taskInstance) {
+        TaskInstance snapshot = new TaskInstance();
+        snapshot.setId(taskInstance.getId());
+        snapshot.setTaskCode(taskInstance.getTaskCode());
+        snapshot.setTaskDefinitionVersion(taskInstance.getTaskDefinitionVersion());
+        snapshot.setIsCache(taskInstance.getIsCache());
+        snapshot.setEnvironmentConfig(taskInstance.getEnvironmentConfig());
+        snapshot.setTaskParams(taskInstance.getTaskParams());
+        snapshot.setVarPool(taskInstance.getVarPool());
+        return snapshot;
+    }
+
+    private static TaskExecutionContext snapshotOf(TaskExecutionContext context) {
+        TaskExecutionContext snapshot = new TaskExecutionContext();
+        snapshot.setTenantCode(context.getTenantCode());
+        snapshot.setExecutePath(context.getExecutePath());
+        if (context.getPrepareParamsMap() != null) {
+            // the checksums are written to the values of the FILE properties, so the properties are copied too
+            Map<String, Property> prepareParamsMap = new HashMap<>();
+            context.getPrepareParamsMap().forEach((name, property) -> prepareParamsMap.put(name,
+                    new Property(property.getProp(), property.getDirect(), property.getType(), property.getValue())));
+            snapshot.setPrepareParamsMap(prepareParamsMap);
+        }
+        return snapshot;
+    }
+
+    private String getValCheckSum(Property fileProperty, TaskExecutionContext context) {
+        String tenantCode = context.getTenantCode();
+        String resourceCRCWholePath = storageOperate.getResourceFileName(tenantCode,
+                fileProperty.getValue() + CRC_SUFFIX);
+        StorageEntity crcFile = null;
+        try {
+            crcFile = storageOperate.getFileStatus(resourceCRCWholePath, "", tenantCode, ResourceType.FILE);
+        } catch (Exception e) {
+            logger.warn("Get the status of checksum file: {} failed, will download it without cache",
+                    resourceCRCWholePath, e);
+        }
+        if (crcFile == null || crcFile.getUpdateTime() == null) {
+            return TaskCacheUtils.getValCheckSum(fileProperty, context, storageOperate);
+        }
+        String checkSumKey =
+                String.join("_", tenantCode, resourceCRCWholePath, String.valueOf(crcFile.getUpdateTime().getTime()));
+        String checkSum = checkSumCache.getIfPresent(checkSumKey);
+        if (checkSum == null) {
+            checkSum = TaskCacheUtils.getValCheckSum(fileProperty, context, storageOperate);
+            // the checksum is empty if the download failed, don't memoize it
+            if (StringUtils.isNotEmpty(checkSum)) {
+                checkSumCache.put(checkSumKey, checkSum);
+            }
+        }
+        return checkSum;
+    }
+}
@@ -53,6 +53,16 @@ public class MasterConfig implements Validator {
      * The max batch size used to fetch command from database.
      */
     private int fetchCommandNum = 10;
+    /**
+     * The max interval between two command fetches when there is no command. The master is woken up by the command
+     * insert notification, the database poll is only a fallback and will back off up to this interval when idle.
+     */
+    private Duration fetchCommandMaxInterval = Duration.ofSeconds(10);
+    /**
+     * Whether to transform the fetched commands in batch, the commands with the same process definition version will
+     * be transformed to processInstances in one transaction.
+     */
+    private boolean batchHandleCommand = false;
     /**
      * The thread number used to prepare processInstance. This number shouldn't bigger than fetchCommandNum.
      */
@@ -67,6 +77,26 @@ public class MasterConfig implements Validator {
      * The task dispatch thread pool size.
      */
     private int dispatchTaskNumber = 3;
+    /**
+     * The soft bound of the task priority queue, the submitted task waits until the queue has free capacity, and it's
+     * reported as overflow if it still waits after taskQueueOfferTimeout.
+     */
+    private int taskQueueCapacity = 10000;
+    private Duration taskQueueOfferTimeout = Duration.ofSeconds(1);
+    /**
+     * The task instance updates are coalesced and flushed to db in batch every taskInstanceFlushInterval, or when there
+     * are taskInstanceFlushBatchSize updates waiting. The updates are written through directly if the interval is 0.
+     */
+    private Duration taskInstanceFlushInterval = Duration.ofMillis(20);
+    private int taskInstanceFlushBatchSize = 100;
+    /**
+     * The max number of tasks which are dispatching, the dispatch result is not acknowledged by the network yet.
+     */
+    private int dispatchWindowSize = 100;
+    /**
+     * The max number of dispatching tasks of one worker.
+     */
+    private int dispatchWindowSizePerWorker = 20;
     /**
      * Worker select strategy.
      */
@@ -90,6 +120,22 @@ public class MasterConfig implements Validator {
     private double maxCpuLoadAvg = -1;
     private double reservedMemory = 0.3;
     private Duration failoverInterval = Duration.ofMinutes(10);
+    /**
+     * The workflow and task instance states of the closed hours are compacted into the state rollup every
+     * stateRollupInterval, the statistics api counts the compacted hours from the rollup. The compaction starts from
+     * stateRollupBackfill ago, and an hour is compacted when it has been closed for stateRollupDelay. Set the interval
+     * to 0 to disable the compaction.
+     */
+    private Duration stateRollupInterval = Duration.ofMinutes(5);
+    private Duration stateRollupBackfill = Duration.ofDays(30);
+    private Duration stateRollupDelay = Duration.ofMinutes(10);
+    /**
+     * The task group resources are admitted by the master which holds the task group lock, it syncs the waiting tasks
+     * and the released resources of the other masters every taskGroupSyncInterval, and reconciles all its task group
+     * states from db every taskGroupReconcileInterval.
+     */
+    private Duration taskGroupSyncInterval = Duration.ofMillis(500);
+    private Duration taskGroupReconcileInterval = Duration.ofMinutes(1);
     private boolean killYarnJobWhenTaskFailover = true;
     private ConnectStrategyProperties registryDisconnectStrategy = new ConnectStrategyProperties();
 
@@ -115,6 +161,9 @@ public class MasterConfig implements Validator {
         if (masterConfig.getFetchCommandNum() <= 0) {
             errors.rejectValue("fetch-command-num", null, "should be a positive value");
         }
+        if (masterConfig.getFetchCommandMaxInterval().toMillis() <= 0) {
+            errors.rejectValue("fetch-command-max-interval", null, "should be a valid duration");
+        }
         if (masterConfig.getPreExecThreads() <= 0) {
             errors.rejectValue("per-exec-threads", null, "should be a positive value");
         }
@@ -124,6 +173,24 @@ public class MasterConfig implements Validator {
         if (masterConfig.getDispatchTaskNumber() <= 0) {
             errors.rejectValue("dispatch-task-number", null, "should be a positive value");
         }
+        if (masterConfig.getDispatchWindowSize() <= 0) {
+            errors.rejectValue("dispatch-window-size", null, "should be a positive value");
+        }
+        if (masterConfig.getDispatchWindowSizePerWorker() <= 0) {
+            errors.rejectValue("dispatch-window-size-per-worker", null, "should be a positive value");
+        }
+        if (masterConfig.getTaskQueueCapacity() <= 0) {
+            errors.rejectValue("task-queue-capacity", null, "should be a positive value");
+        }
+        if (masterConfig.getTaskQueueOfferTimeout().toMillis() < 0) {
+            errors.rejectValue("task-queue-offer-timeout", null, "should be a valid duration");
+        }
+        if (masterConfig.getTaskInstanceFlushInterval().toMillis() < 0) {
+            errors.rejectValue("task-instance-flush-interval", null, "should be a valid duration");
+        }
+        if (masterConfig.getTaskInstanceFlushBatchSize() <= 0) {
+            errors.rejectValue("task-instance-flush-batch-size", null, "should be a positive value");
+        }
         if (masterConfig.getHeartbeatInterval().toMillis() < 0) {
             errors.rejectValue("heartbeat-interval", null, "should be a valid duration");
         }
@@ -139,6 +206,21 @@ public class MasterConfig implements Validator {
         if (masterConfig.getFailoverInterval().toMillis() <= 0) {
             errors.rejectValue("failover-interval", null, "should be a valid duration");
         }
+        if (masterConfig.getStateRollupInterval().toMillis() < 0) {
+            errors.rejectValue("state-rollup-interval", null, "should be a valid duration");
+        }
+        if (masterConfig.getStateRollupBackfill().toHours() <= 0) {
+            errors.rejectValue("state-rollup-backfill", null, "should be at least one hour");
+        }
+        if (masterConfig.getStateRollupDelay().toMillis() < 0) {
+            errors.rejectValue("state-rollup-delay", null, "should be a valid duration");
+        }
+        if (masterConfig.getTaskGroupSyncInterval().toMillis() <= 0) {
+            errors.rejectValue("task-group-sync-interval", null, "should be a valid duration");
+        }
+        if (masterConfig.getTaskGroupReconcileInterval().toMillis() <= 0) {
+            errors.rejectValue("task-group-reconcile-interval", null, "should be a valid duration");
+        }
         if (masterConfig.getMaxCpuLoadAvg() <= 0) {
             masterConfig.setMaxCpuLoadAvg(Runtime.getRuntime().availableProcessors() * 2);
         }
@@ -154,9 +236,17 @@ public class MasterConfig implements Validator {
     private void printConfig() {
         logger.info("Master config: listenPort -> {} ", listenPort);
         logger.info("Master config: fetchCommandNum -> {} ", fetchCommandNum);
+        logger.info("Master config: fetchCommandMaxInterval -> {} ", fetchCommandMaxInterval);
+        logger.info("Master config: batchHandleCommand -> {} ", batchHandleCommand);
         logger.info("Master config: preExecThreads -> {} ", preExecThreads);
         logger.info("Master config: execThreads -> {} ", execThreads);
         logger.info("Master config: dispatchTaskNumber -> {} ", dispatchTaskNumber);
+        logger.info("Master config: dispatchWindowSize -> {} ", dispatchWindowSize);
+        logger.info("Master config: dispatchWindowSizePerWorker -> {} ", dispatchWindowSizePerWorker);
+        logger.info("Master config: taskQueueCapacity -> {} ", taskQueueCapacity);
+        logger.info("Master config: taskQueueOfferTimeout -> {} ", taskQueueOfferTimeout);
+        logger.info("Master config: taskInstanceFlushInterval -> {} ", taskInstanceFlushInterval);
+        logger.info("Master config: taskInstanceFlushBatchSize -> {} ", taskInstanceFlushBatchSize);
         logger.info("Master config: hostSelector -> {} ", hostSelector);
         logger.info("Master config: heartbeatInterval -> {} ", heartbeatInterval);
         logger.info("Master config: taskCommitRetryTimes -> {} ", taskCommitRetryTimes);
@@ -165,6 +255,11 @@ public class MasterConfig implements Validator {
         logger.info("Master config: maxCpuLoadAvg -> {} ", maxCpuLoadAvg);
         logger.info("Master config: reservedMemory -> {} ", reservedMemory);
         logger.info("Master config: failoverInterval -> {} ", failoverInterval);
+        logger.info("Master config: stateRollupInterval -> {} ", stateRollupInterval);
+        logger.info("Master config: stateRollupBackfill -> {} ", stateRollupBackfill);
+        logger.info("Master config: stateRollupDelay -> {} ", stateRollupDelay);
+        logger.info("Master config: taskGroupSyncInterval -> {} ", taskGroupSyncInterval);
+        logger.info("Master config: taskGroupReconcileInterval -> {} ", taskGroupReconcileInterval);
         logger.info("Master config: killYarnJobWhenTaskFailover -> {} ", killYarnJobWhenTaskFailover);
         logger.info("Master config: registryDisconnectStrategy -> {} ", registryDisconnectStrategy);
         logger.info("Master config: masterAddress -> {} ", masterAddress);
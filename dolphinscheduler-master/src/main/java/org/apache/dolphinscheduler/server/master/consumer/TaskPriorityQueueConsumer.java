@@ -25,16 +25,15 @@ import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
 import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
-import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
-import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
@@ -43,16 +42,15 @@ import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 
-import org.apache.commons.collections4.CollectionUtils;
-
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
 
@@ -105,17 +103,26 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     @Autowired
     private TaskEventService taskEventService;
 
-    /**
-     * storage operator
-     */
-    @Autowired(required = false)
-    private StorageOperate storageOperate;
+    @Autowired
+    private TaskCacheKeyManager taskCacheKeyManager;
 
     /**
      * consumer thread pool
      */
     private ThreadPoolExecutor consumerThreadPoolExecutor;
 
+    /**
+     * the worker groups whose queue depth gauge has been registered
+     */
+    private final Set<String> queueDepthRegisteredWorkerGroups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * the window of the tasks which are dispatching
+     */
+    private Semaphore dispatchWindow;
+
+    private final AtomicInteger continuousDispatchFailedCount = new AtomicInteger();
+
     protected TaskPriorityQueueConsumer() {
         super("TaskPriorityQueueConsumeThread");
     }
@@ -124,6 +131,8 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     public void init() {
         this.consumerThreadPoolExecutor = (ThreadPoolExecutor) ThreadUtils
                 .newDaemonFixedThreadExecutor("TaskUpdateQueueConsumerThread", masterConfig.getDispatchTaskNumber());
+        this.dispatchWindow = new Semaphore(masterConfig.getDispatchWindowSize());
+        taskPriorityQueue.setCapacity(masterConfig.getTaskQueueCapacity());
         logger.info("Task priority queue consume thread staring");
         super.start();
         logger.info("Task priority queue consume thread started");
@@ -134,20 +143,13 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
         int fetchTaskNum = masterConfig.getDispatchTaskNumber();
         while (!ServerLifeCycleManager.isStopped()) {
             try {
-                List<TaskPriority> failedDispatchTasks = this.batchDispatch(fetchTaskNum);
-
-                if (CollectionUtils.isNotEmpty(failedDispatchTasks)) {
-                    logger.info("{} tasks dispatch failed, will retry to dispatch", failedDispatchTasks.size());
-                    TaskMetrics.incTaskDispatchFailed(failedDispatchTasks.size());
-                    for (TaskPriority dispatchFailedTask : failedDispatchTasks) {
-                        taskPriorityQueue.put(dispatchFailedTask);
-                    }
-                    // If the all task dispatch failed, will sleep for 1s to avoid the master cpu higher.
-                    if (fetchTaskNum == failedDispatchTasks.size()) {
-                        logger.info("All tasks dispatch failed, will sleep a while to avoid the master cpu higher");
-                        TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
-                    }
+                // If the tasks continuously dispatch failed, will sleep for 1s to avoid the master cpu higher.
+                if (continuousDispatchFailedCount.get() >= fetchTaskNum) {
+                    logger.info("All tasks dispatch failed, will sleep a while to avoid the master cpu higher");
+                    continuousDispatchFailedCount.set(0);
+                    TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
                 }
+                this.batchDispatch(fetchTaskNum);
             } catch (Exception e) {
                 TaskMetrics.incTaskDispatchError();
                 logger.error("dispatcher task error", e);
@@ -156,97 +158,153 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     }
 
     /**
-     * batch dispatch with thread pool
+     * batch dispatch without waiting for the result, the tasks which dispatch failed will be put back to the queue.
+     * The tasks are only polled when there are free slots in the dispatch window, so the waiting tasks are still
+     * ordered by priority in the queue.
+     *
+     * @return the number of the tasks which start dispatching
      */
-    public List<TaskPriority> batchDispatch(int fetchTaskNum) throws TaskPriorityQueueException, InterruptedException {
-        List<TaskPriority> failedDispatchTasks = Collections.synchronizedList(new ArrayList<>());
-        CountDownLatch latch = new CountDownLatch(fetchTaskNum);
-
-        for (int i = 0; i < fetchTaskNum; i++) {
-            TaskPriority taskPriority = taskPriorityQueue.poll(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
-            if (Objects.isNull(taskPriority)) {
-                latch.countDown();
-                continue;
-            }
-
-            consumerThreadPoolExecutor.submit(() -> {
-                try {
-                    boolean dispatchResult = this.dispatchTask(taskPriority);
-                    if (!dispatchResult) {
-                        failedDispatchTasks.add(taskPriority);
-                    }
-                } finally {
-                    // make sure the latch countDown
-                    latch.countDown();
+    public int batchDispatch(int fetchTaskNum) throws TaskPriorityQueueException, InterruptedException {
+        if (!dispatchWindow.tryAcquire(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS)) {
+            return 0;
+        }
+        int permits = 1;
+        while (permits < fetchTaskNum && dispatchWindow.tryAcquire()) {
+            permits++;
+        }
+        List<TaskPriority> taskPriorities;
+        try {
+            // the partitions of the queue are drained by round-robin, so a busy worker group will not block others
+            taskPriorities = taskPriorityQueue.poll(permits, Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            dispatchWindow.release(permits);
+            throw e;
+        }
+        dispatchWindow.release(permits - taskPriorities.size());
+        registerQueueDepthMetrics();
+
+        for (TaskPriority taskPriority : taskPriorities) {
+            dispatchTaskAsync(taskPriority).whenComplete((dispatchResult, ex) -> {
+                dispatchWindow.release();
+                if (ex == null && dispatchResult) {
+                    continuousDispatchFailedCount.set(0);
+                    return;
                 }
+                logger.info("Task dispatch failed, will retry to dispatch, taskInstanceId: {}",
+                        taskPriority.getTaskId());
+                TaskMetrics.incTaskDispatchFailed(1);
+                continuousDispatchFailedCount.incrementAndGet();
+                taskPriorityQueue.put(taskPriority);
             });
         }
+        return taskPriorities.size();
+    }
 
-        latch.await();
-
-        return failedDispatchTasks;
+    private void registerQueueDepthMetrics() {
+        for (String workerGroup : taskPriorityQueue.getPartitionNames()) {
+            if (queueDepthRegisteredWorkerGroups.add(workerGroup)) {
+                TaskMetrics.registerTaskQueueDepth(workerGroup,
+                        () -> taskPriorityQueue.getPartitionSize(workerGroup));
+            }
+        }
     }
 
     /**
-     * Dispatch task to worker.
+     * Dispatch task to worker, this method will block until the dispatch is finished.
      *
      * @param taskPriority taskPriority
      * @return dispatch result, return true if dispatch success, return false if dispatch failed.
      */
     protected boolean dispatchTask(TaskPriority taskPriority) {
-        TaskMetrics.incTaskDispatch();
-        boolean result = false;
-        try {
-            WorkflowExecuteRunnable workflowExecuteRunnable =
-                    processInstanceExecCacheManager.getByProcessInstanceId(taskPriority.getProcessInstanceId());
-            if (workflowExecuteRunnable == null) {
-                logger.error("Cannot find the related processInstance of the task, taskPriority: {}", taskPriority);
-                return true;
-            }
-            Optional<TaskInstance> taskInstanceOptional =
-                    workflowExecuteRunnable.getTaskInstance(taskPriority.getTaskId());
-            if (!taskInstanceOptional.isPresent()) {
-                logger.error("Cannot find the task instance from related processInstance, taskPriority: {}",
-                        taskPriority);
-                // we return true, so that we will drop this task.
-                return true;
-            }
-            TaskInstance taskInstance = taskInstanceOptional.get();
-            TaskExecutionContext context = taskPriority.getTaskExecutionContext();
-            ExecutionContext executionContext =
-                    new ExecutionContext(toCommand(context), ExecutorType.WORKER, context.getWorkerGroup(),
-                            taskInstance);
-
-            if (isTaskNeedToCheck(taskPriority)) {
-                if (taskInstanceIsFinalState(taskPriority.getTaskId())) {
-                    // when task finish, ignore this task, there is no need to dispatch anymore
-                    logger.info("Task {} is already finished, no need to dispatch, task instance id: {}",
-                            taskInstance.getName(), taskInstance.getId());
-                    return true;
-                }
-            }
+        return dispatchTaskAsync(taskPriority).join();
+    }
 
-            // check task is cache execution, and decide whether to dispatch
-            if (checkIsCacheExecution(taskInstance, context)) {
-                return true;
-            }
+    /**
+     * Dispatch task to worker. The task is checked in the consumer thread pool, then sent to worker without blocking.
+     *
+     * @param taskPriority taskPriority
+     * @return future of the dispatch result, which is true if dispatch success or the task no need to dispatch, false
+     * if dispatch failed. The future never completes exceptionally.
+     */
+    protected CompletableFuture<Boolean> dispatchTaskAsync(TaskPriority taskPriority) {
+        return CompletableFuture
+                .supplyAsync(() -> prepareDispatch(taskPriority), consumerThreadPoolExecutor)
+                .thenCompose(executionContext -> {
+                    if (executionContext == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    // check task is cache execution, and decide whether to dispatch
+                    return checkIsCacheExecution(executionContext.getTaskInstance(),
+                            taskPriority.getTaskExecutionContext())
+                                    .thenApply(isCacheExecution -> isCacheExecution ? null : executionContext);
+                })
+                .thenCompose(executionContext -> {
+                    if (executionContext == null) {
+                        // no need to dispatch, we return true, so that we will drop this task.
+                        return CompletableFuture.completedFuture(true);
+                    }
+                    return doDispatch(taskPriority, executionContext);
+                })
+                .exceptionally(ex -> {
+                    logger.error("Master dispatch task to worker error, taskPriority: {}", taskPriority, ex);
+                    return false;
+                });
+    }
 
-            result = dispatcher.dispatch(executionContext);
+    /**
+     * Check whether the task need to dispatch and build the execution context.
+     *
+     * @param taskPriority taskPriority
+     * @return execution context, return null if the task no need to dispatch.
+     */
+    private ExecutionContext prepareDispatch(TaskPriority taskPriority) {
+        TaskMetrics.incTaskDispatch();
+        WorkflowExecuteRunnable workflowExecuteRunnable =
+                processInstanceExecCacheManager.getByProcessInstanceId(taskPriority.getProcessInstanceId());
+        if (workflowExecuteRunnable == null) {
+            logger.error("Cannot find the related processInstance of the task, taskPriority: {}", taskPriority);
+            return null;
+        }
+        Optional<TaskInstance> taskInstanceOptional =
+                workflowExecuteRunnable.getTaskInstance(taskPriority.getTaskId());
+        if (!taskInstanceOptional.isPresent()) {
+            logger.error("Cannot find the task instance from related processInstance, taskPriority: {}",
+                    taskPriority);
+            return null;
+        }
+        TaskInstance taskInstance = taskInstanceOptional.get();
+        TaskExecutionContext context = taskPriority.getTaskExecutionContext();
+        ExecutionContext executionContext =
+                new ExecutionContext(toCommand(context), ExecutorType.WORKER, context.getWorkerGroup(),
+                        taskInstance);
+
+        if (isTaskNeedToCheck(taskPriority)) {
+            if (taskInstanceIsFinalState(taskPriority.getTaskId())) {
+                // when task finish, ignore this task, there is no need to dispatch anymore
+                logger.info("Task {} is already finished, no need to dispatch, task instance id: {}",
+                        taskInstance.getName(), taskInstance.getId());
+                return null;
+            }
+        }
+        return executionContext;
+    }
 
+    private CompletableFuture<Boolean> doDispatch(TaskPriority taskPriority, ExecutionContext executionContext) {
+        TaskExecutionContext context = taskPriority.getTaskExecutionContext();
+        return dispatcher.dispatchAsync(executionContext).thenApply(result -> {
             if (result) {
                 logger.info("Master success dispatch task to worker, taskInstanceId: {}, worker: {}",
                         taskPriority.getTaskId(),
                         executionContext.getHost());
+                TaskMetrics.recordTaskDispatchLatency(System.currentTimeMillis() - taskPriority.getEnqueueTime());
                 addDispatchEvent(context, executionContext);
             } else {
                 logger.info("Master failed to dispatch task to worker, taskInstanceId: {}, worker: {}",
                         taskPriority.getTaskId(),
                         executionContext.getHost());
             }
-        } catch (RuntimeException | ExecuteException e) {
-            logger.error("Master dispatch task to worker error, taskPriority: {}", taskPriority, e);
-        }
-        return result;
+            return result;
+        });
     }
 
     /**
@@ -293,43 +351,42 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
 
     /**
      * check if task is cache execution
-     * if the task is defined as cache execution, and we find the cache task instance is finished yet, we will not dispatch this task
+     * if the task is defined as cache execution, and we find the cache task instance is finished yet, we will not dispatch this task.
+     * The cache key is generated in background since the task is ready, so the dispatch thread is not blocked.
      * @param taskInstance taskInstance
      * @param context context
-     * @return true if we will not dispatch this task, false if we will dispatch this task
+     * @return future of true if we will not dispatch this task, false if we will dispatch this task
      */
-    private boolean checkIsCacheExecution(TaskInstance taskInstance, TaskExecutionContext context) {
-        try {
-            // check if task is defined as a cache task
-            if (taskInstance.getIsCache().equals(Flag.NO)) {
-                return false;
-            }
-            // check if task is cache execution
-            String cacheKey = TaskCacheUtils.generateCacheKey(taskInstance, context, storageOperate);
-            TaskInstance cacheTaskInstance = taskInstanceDao.findTaskInstanceByCacheKey(cacheKey);
+    private CompletableFuture<Boolean> checkIsCacheExecution(TaskInstance taskInstance, TaskExecutionContext context) {
+        // check if task is defined as a cache task
+        if (taskInstance.getIsCache().equals(Flag.NO)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        // check if task is cache execution
+        return taskCacheKeyManager.getCacheKey(taskInstance, context).thenApply(cacheKey -> {
+            Optional<Integer> cacheTaskInstanceId = taskCacheKeyManager.findCacheTaskInstanceId(cacheKey);
             // if we can find the cache task instance, we will add cache event, and return true.
-            if (cacheTaskInstance != null) {
+            if (cacheTaskInstanceId.isPresent()) {
                 logger.info("Task {} is cache, no need to dispatch, task instance id: {}",
                         taskInstance.getName(), taskInstance.getId());
-                addCacheEvent(taskInstance, cacheTaskInstance);
-                taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(cacheTaskInstance.getId(), cacheKey));
+                // the cache key is set before the event, the event handler checks the cache task instance by it
+                taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(cacheTaskInstanceId.get(), cacheKey));
+                addCacheEvent(taskInstance, cacheTaskInstanceId.get());
                 return true;
             } else {
                 // if we can not find cache task, update cache key, and return false. the task will be dispatched
                 taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(taskInstance.getId(), cacheKey));
+                return false;
             }
-        } catch (Exception e) {
+        }).exceptionally(e -> {
             logger.error("checkIsCacheExecution error", e);
-        }
-        return false;
+            return false;
+        });
     }
 
-    private void addCacheEvent(TaskInstance taskInstance, TaskInstance cacheTaskInstance) {
-        if (cacheTaskInstance == null) {
-            return;
-        }
+    private void addCacheEvent(TaskInstance taskInstance, int cacheTaskInstanceId) {
         TaskEvent taskEvent = TaskEvent.newCacheEvent(taskInstance.getProcessInstanceId(), taskInstance.getId(),
-                cacheTaskInstance.getId());
+                cacheTaskInstanceId);
         taskEventService.addEvent(taskEvent);
     }
 }
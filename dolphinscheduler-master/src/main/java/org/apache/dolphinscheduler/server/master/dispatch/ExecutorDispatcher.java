@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.server.master.dispatch;
 
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
@@ -27,7 +28,9 @@ import org.apache.dolphinscheduler.server.master.dispatch.host.HostManager;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +58,14 @@ public class ExecutorDispatcher implements InitializingBean {
     @Autowired
     private HostManager hostManager;
 
+    @Autowired
+    private MasterConfig masterConfig;
+
+    /**
+     * in-flight dispatch window of each worker, worker address as key
+     */
+    private final ConcurrentHashMap<String, Semaphore> workerDispatchWindows = new ConcurrentHashMap<>();
+
     /**
      * executor manager
      */
@@ -98,6 +109,60 @@ public class ExecutorDispatcher implements InitializingBean {
         }
     }
 
+    /**
+     * task dispatch without blocking on the network, at most dispatchWindowSizePerWorker tasks can be in-flight for
+     * one worker, the task will not be dispatched if the window of the selected worker is full.
+     *
+     * @param context context
+     * @return future of the result, false if there is no suitable worker or the window of the worker is full
+     */
+    public CompletableFuture<Boolean> dispatchAsync(final ExecutionContext context) {
+        CompletableFuture<Boolean> dispatchFuture = new CompletableFuture<>();
+        ExecutorManager<Boolean> executorManager = this.executorManagers.get(context.getExecutorType());
+        if (executorManager == null) {
+            dispatchFuture.completeExceptionally(
+                    new ExecuteException("no ExecutorManager for type : " + context.getExecutorType()));
+            return dispatchFuture;
+        }
+
+        Host host = hostManager.select(context);
+        if (StringUtils.isEmpty(host.getAddress())) {
+            logger.warn("fail to execute : {} due to no suitable worker, current task needs worker group {} to execute",
+                    context.getCommand(), context.getWorkerGroup());
+            dispatchFuture.complete(false);
+            return dispatchFuture;
+        }
+        Semaphore dispatchWindow = workerDispatchWindows.computeIfAbsent(host.getAddress(),
+                address -> new Semaphore(masterConfig.getDispatchWindowSizePerWorker()));
+        if (!dispatchWindow.tryAcquire()) {
+            logger.warn("fail to execute : {} due to the in-flight dispatch window of worker {} is full",
+                    context.getCommand(), host.getAddress());
+            dispatchFuture.complete(false);
+            return dispatchFuture;
+        }
+        context.setHost(host);
+        try {
+            executorManager.beforeExecute(context);
+            executorManager.executeAsync(context).whenComplete((result, ex) -> {
+                dispatchWindow.release();
+                try {
+                    executorManager.afterExecute(context);
+                } catch (ExecuteException e) {
+                    logger.error("After execute {} error", context.getCommand(), e);
+                }
+                if (ex != null) {
+                    dispatchFuture.completeExceptionally(ex);
+                } else {
+                    dispatchFuture.complete(result);
+                }
+            });
+        } catch (ExecuteException e) {
+            dispatchWindow.release();
+            dispatchFuture.completeExceptionally(e);
+        }
+        return dispatchFuture;
+    }
+
     /**
      * register init
      * @throws Exception if error throws Exception
@@ -20,6 +20,8 @@ package org.apache.dolphinscheduler.server.master.dispatch.executor;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  *  executor manager
  */
@@ -41,6 +43,13 @@ public interface ExecutorManager<T> {
      */
     T execute(ExecutionContext context) throws ExecuteException;
 
+    /**
+     * execute task without blocking the caller thread
+     * @param context context
+     * @return future of the result, completed exceptionally with ExecuteException if error
+     */
+    CompletableFuture<T> executeAsync(ExecutionContext context);
+
     /**
      * execute task directly without retry
      * @param context context
@@ -37,6 +37,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.PostConstruct;
 
@@ -132,6 +133,32 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
         return success;
     }
 
+    /**
+     * execute logic without retry, the failed task should be dispatched again by the caller, since the host may be
+     * selected again
+     *
+     * @param context context
+     * @return future of the result
+     */
+    @Override
+    public CompletableFuture<Boolean> executeAsync(ExecutionContext context) {
+        Host host = context.getHost();
+        Command command = context.getCommand();
+        CompletableFuture<Boolean> executeFuture = new CompletableFuture<>();
+        nettyRemotingClient.sendAsync(host, command).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                executeFuture.completeExceptionally(
+                        new ExecuteException(String.format("send command : %s to %s error", command, host), ex));
+                return;
+            }
+            // We set the host to taskInstance to avoid when the worker down, this taskInstance may not be
+            // failovered, due to the taskInstance's host is not belongs to the down worker ISSUE-10842.
+            context.getTaskInstance().setHost(host.getAddress());
+            executeFuture.complete(true);
+        });
+        return executeFuture;
+    }
+
     @Override
     public void executeDirectly(ExecutionContext context) throws ExecuteException {
         Host host = context.getHost();
@@ -23,20 +23,16 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
-import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightSelectionTable;
 import org.apache.dolphinscheduler.server.master.registry.WorkerInfoChangeListener;
 
-import org.apache.commons.collections4.CollectionUtils;
-
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 
@@ -51,25 +47,12 @@ public class LowerWeightHostManager extends CommonHostManager {
     private final Logger logger = LoggerFactory.getLogger(LowerWeightHostManager.class);
 
     /**
-     * selector
-     */
-    private LowerWeightRoundRobin selector;
-
-    /**
-     * worker host weights
-     */
-    private ConcurrentHashMap<String, Set<HostWeight>> workerHostWeightsMap;
-
-    /**
-     * worker group host lock
+     * worker group -> selection table, an immutable snapshot which is replaced when the worker heartbeats change
      */
-    private Lock lock;
+    private volatile Map<String, LowerWeightSelectionTable> workerSelectionTables = Collections.emptyMap();
 
     @PostConstruct
     public void init() {
-        this.selector = new LowerWeightRoundRobin();
-        this.workerHostWeightsMap = new ConcurrentHashMap<>();
-        this.lock = new ReentrantLock();
         serverNodeManager.addWorkerInfoChangeListener(new WorkerWeightListener());
     }
 
@@ -81,9 +64,9 @@ public class LowerWeightHostManager extends CommonHostManager {
      */
     @Override
     public Host select(ExecutionContext context) {
-        Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
-        if (CollectionUtils.isNotEmpty(workerHostWeights)) {
-            return selector.select(workerHostWeights).getHost();
+        LowerWeightSelectionTable selectionTable = workerSelectionTables.get(context.getWorkerGroup());
+        if (selectionTable != null) {
+            return selectionTable.select();
         }
         return new Host();
     }
@@ -96,10 +79,31 @@ public class LowerWeightHostManager extends CommonHostManager {
     private class WorkerWeightListener implements WorkerInfoChangeListener {
 
         @Override
-        public void notify(Map<String, Set<String>> workerGroups, Map<String, WorkerHeartBeat> workerNodeInfo) {
+        public synchronized void notify(Map<String, Set<String>> workerGroups,
+                                        Map<String, WorkerHeartBeat> workerNodeInfo) {
             syncWorkerResources(workerGroups, workerNodeInfo);
         }
 
+        /**
+         * Only rebuild the selection tables of the worker groups which contain the worker.
+         */
+        @Override
+        public synchronized void notifyWorkerChange(String workerAddress,
+                                                    Map<String, Set<String>> workerGroups,
+                                                    Map<String, WorkerHeartBeat> workerNodeInfo) {
+            try {
+                Map<String, LowerWeightSelectionTable> selectionTables = new HashMap<>(workerSelectionTables);
+                for (Map.Entry<String, Set<String>> entry : workerGroups.entrySet()) {
+                    if (entry.getValue().contains(workerAddress)) {
+                        putSelectionTable(selectionTables, entry.getKey(), entry.getValue(), workerNodeInfo);
+                    }
+                }
+                workerSelectionTables = Collections.unmodifiableMap(selectionTables);
+            } catch (Throwable ex) {
+                logger.error("Sync worker: {} resource error", workerAddress, ex);
+            }
+        }
+
         /**
          * Sync worker resource.
          *
@@ -109,33 +113,30 @@ public class LowerWeightHostManager extends CommonHostManager {
         private void syncWorkerResources(final Map<String, Set<String>> workerGroupNodes,
                                          final Map<String, WorkerHeartBeat> workerNodeInfoMap) {
             try {
-                Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
+                Map<String, LowerWeightSelectionTable> selectionTables = new HashMap<>();
                 for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
-                    String workerGroup = entry.getKey();
-                    Set<String> nodes = entry.getValue();
-                    Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
-                    for (String node : nodes) {
-                        WorkerHeartBeat heartbeat = workerNodeInfoMap.getOrDefault(node, null);
-                        Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
-                        hostWeightOpt.ifPresent(hostWeights::add);
-                    }
-                    if (!hostWeights.isEmpty()) {
-                        workerHostWeights.put(workerGroup, hostWeights);
-                    }
+                    putSelectionTable(selectionTables, entry.getKey(), entry.getValue(), workerNodeInfoMap);
                 }
-                syncWorkerHostWeight(workerHostWeights);
+                workerSelectionTables = Collections.unmodifiableMap(selectionTables);
             } catch (Throwable ex) {
                 logger.error("Sync worker resource error", ex);
             }
         }
 
-        private void syncWorkerHostWeight(Map<String, Set<HostWeight>> workerHostWeights) {
-            lock.lock();
-            try {
-                workerHostWeightsMap.clear();
-                workerHostWeightsMap.putAll(workerHostWeights);
-            } finally {
-                lock.unlock();
+        private void putSelectionTable(Map<String, LowerWeightSelectionTable> selectionTables,
+                                       String workerGroup,
+                                       Set<String> nodes,
+                                       Map<String, WorkerHeartBeat> workerNodeInfoMap) {
+            Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
+            for (String node : nodes) {
+                WorkerHeartBeat heartbeat = workerNodeInfoMap.getOrDefault(node, null);
+                Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
+                hostWeightOpt.ifPresent(hostWeights::add);
+            }
+            if (hostWeights.isEmpty()) {
+                selectionTables.remove(workerGroup);
+            } else {
+                selectionTables.put(workerGroup, LowerWeightSelectionTable.of(hostWeights));
             }
         }
     }
@@ -165,13 +166,4 @@ public class LowerWeightHostManager extends CommonHostManager {
                         heartBeat.getStartupTime()));
     }
 
-    private Set<HostWeight> getWorkerHostWeights(String workerGroup) {
-        lock.lock();
-        try {
-            return workerHostWeightsMap.get(workerGroup);
-        } finally {
-            lock.unlock();
-        }
-    }
-
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import org.apache.dolphinscheduler.remote.utils.Host;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable host selection table of one worker group.
+ * <p>
+ * The table is filled by running {@link LowerWeightRoundRobin} in advance when the worker heartbeats change, so a
+ * select is only an atomic increment and an array read, and it is lock-free for the concurrent dispatch threads. The
+ * select sequence is the same as calling {@link LowerWeightRoundRobin} on the same host weights, and it repeats from
+ * the beginning after all the slots are used.
+ */
+public class LowerWeightSelectionTable {
+
+    private static final int SLOTS_PER_HOST = 16;
+
+    private static final int MAX_SLOTS = 4096;
+
+    private final Collection<HostWeight> hostWeights;
+
+    private final Host[] slots;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private LowerWeightSelectionTable(Collection<HostWeight> hostWeights, Host[] slots) {
+        this.hostWeights = hostWeights;
+        this.slots = slots;
+    }
+
+    /**
+     * Build the selection table, the current weight of the given host weights will be changed.
+     *
+     * @param hostWeights host weights, should not be empty
+     * @return selection table
+     */
+    public static LowerWeightSelectionTable of(Collection<HostWeight> hostWeights) {
+        if (hostWeights == null || hostWeights.isEmpty()) {
+            throw new IllegalArgumentException("Empty host weights.");
+        }
+        List<HostWeight> sources = new ArrayList<>(hostWeights);
+        LowerWeightRoundRobin selector = new LowerWeightRoundRobin();
+        Host[] slots = new Host[Math.min(sources.size() * SLOTS_PER_HOST, MAX_SLOTS)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = selector.select(sources).getHost();
+        }
+        return new LowerWeightSelectionTable(Collections.unmodifiableList(sources), slots);
+    }
+
+    public Host select() {
+        return slots[Math.floorMod(cursor.getAndIncrement(), slots.length)];
+    }
+
+    public Collection<HostWeight> getHostWeights() {
+        return hostWeights;
+    }
+
+    public int size() {
+        return slots.length;
+    }
+}
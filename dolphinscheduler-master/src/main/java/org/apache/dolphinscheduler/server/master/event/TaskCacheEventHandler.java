@@ -22,8 +22,10 @@ import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.enums.TaskEventType;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
 import org.apache.dolphinscheduler.dao.utils.TaskInstanceUtils;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
@@ -33,12 +35,16 @@ import org.apache.dolphinscheduler.service.process.ProcessService;
 import java.util.Date;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TaskCacheEventHandler implements TaskEventHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskCacheEventHandler.class);
+
     @Autowired
     private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
 
@@ -54,13 +60,17 @@ public class TaskCacheEventHandler implements TaskEventHandler {
     @Autowired
     private TaskInstanceDao taskInstanceDao;
 
+    @Autowired
+    private TaskCacheKeyManager taskCacheKeyManager;
+
     /**
      * handle CACHE task event
      * copy a new task instance from the cache task has been successfully run
+     * if the cache task instance is deleted or its cache is cleared since it was found, the task is dispatched instead
      * @param taskEvent task event
      */
     @Override
-    public void handleTaskEvent(TaskEvent taskEvent) {
+    public void handleTaskEvent(TaskEvent taskEvent) throws TaskEventHandleError {
         int taskInstanceId = taskEvent.getTaskInstanceId();
         int processInstanceId = taskEvent.getProcessInstanceId();
 
@@ -71,9 +81,23 @@ public class TaskCacheEventHandler implements TaskEventHandler {
             return;
         }
         TaskInstance taskInstance = taskInstanceOptional.get();
-        dataQualityResultOperator.operateDqExecuteResult(taskEvent, taskInstance);
 
+        // the cache task instance may be found from the recent cache keys, which can be out of date
+        String cacheKey = TaskCacheUtils.revertCacheKey(taskInstance.getCacheKey()).getRight();
         TaskInstance cacheTaskInstance = taskInstanceDao.findTaskInstanceById(taskEvent.getCacheTaskInstanceId());
+        if (cacheTaskInstance == null || !cacheKey.equals(cacheTaskInstance.getCacheKey())) {
+            logger.warn("The cache task instance {} is deleted or no longer cached, will dispatch the task {}",
+                    taskEvent.getCacheTaskInstanceId(), taskInstance.getName());
+            taskCacheKeyManager.invalidateCacheTaskInstanceId(cacheKey, taskEvent.getCacheTaskInstanceId());
+            taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(taskInstance.getId(), cacheKey));
+            try {
+                workflowExecuteRunnable.resubmit(taskInstance.getTaskCode());
+            } catch (Exception ex) {
+                throw new TaskEventHandleError("Handle task cache event error, dispatch the task failed", ex);
+            }
+            return;
+        }
+        dataQualityResultOperator.operateDqExecuteResult(taskEvent, taskInstance);
 
         // keep the task instance fields
         cacheTaskInstance.setId(taskInstance.getId());
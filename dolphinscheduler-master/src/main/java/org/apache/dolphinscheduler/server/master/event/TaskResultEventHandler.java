@@ -20,12 +20,12 @@ package org.apache.dolphinscheduler.server.master.event;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.enums.TaskEventType;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
-import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
 import org.apache.dolphinscheduler.dao.utils.TaskInstanceUtils;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskInstanceWriteBehindService;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
 import org.apache.dolphinscheduler.server.master.utils.DataQualityResultOperator;
@@ -52,7 +52,7 @@ public class TaskResultEventHandler implements TaskEventHandler {
     private ProcessService processService;
 
     @Autowired
-    private TaskInstanceDao taskInstanceDao;
+    private TaskInstanceWriteBehindService taskInstanceWriteBehindService;
 
     @Autowired
     private MasterConfig masterConfig;
@@ -96,10 +96,16 @@ public class TaskResultEventHandler implements TaskEventHandler {
             taskInstance.setEndTime(taskEvent.getEndTime());
             taskInstance.setVarPool(taskEvent.getVarPool());
             processService.changeOutParam(taskInstance);
-            taskInstanceDao.updateTaskInstance(taskInstance);
+            // the ack is sent after the task instance is durable, otherwise the worker will resend the result
+            if (!taskInstanceWriteBehindService.updateTaskInstance(taskInstance)) {
+                throw new TaskEventHandleError("Handle task result event error, save taskInstance to db failed");
+            }
             sendAckToWorker(taskEvent);
         } catch (Exception ex) {
             TaskInstanceUtils.copyTaskInstance(oldTaskInstance, taskInstance);
+            if (ex instanceof TaskEventHandleError) {
+                throw ex;
+            }
             throw new TaskEventHandleError("Handle task result event error, save taskInstance to db error", ex);
         }
         TaskStateEvent stateEvent = TaskStateEvent.builder()
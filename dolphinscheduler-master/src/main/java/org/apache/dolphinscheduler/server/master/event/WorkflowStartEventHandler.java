@@ -67,6 +67,8 @@ public class WorkflowStartEventHandler implements WorkflowEventHandler {
                         if (processInstance.getTimeout() > 0) {
                             stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
                         }
+                        // handle the events which are submitted before the workflow started
+                        workflowExecuteThreadPool.executeEvent(workflowExecuteRunnable);
                     } else {
                         // submit failed will resend the event to workflow event queue
                         logger.error("Failed to submit the workflow instance, will resend the workflow start event: {}",
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.dolphinscheduler.server.master.graph;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.service.model.TaskNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.NonNull;
+
+/**
+ * An integer indexed, immutable view of the workflow dag, built once after the dag is generated.
+ * <p>
+ * Each task node is mapped to a dense int id, the dependencies (the forbidden dependencies are collapsed to their own
+ * dependencies) are stored as CSR style arrays, so the dependency check doesn't need to parse the task code or walk
+ * the forbidden nodes again.
+ * <p>
+ * The only mutable part is the completion state, each node holds the count of its dependencies which are not
+ * completed, the count is maintained in O(out-degree) when a task is completed or uncompleted.
+ * This class is not thread safe, it should only be used in the workflow event loop.
+ */
+public class IndexedTaskDag {
+
+    public static final int NOT_EXIST = -1;
+
+    private final long[] taskCodes;
+
+    private final String[] taskCodeStrings;
+
+    private final TaskNode[] taskNodes;
+
+    private final Map<Long, Integer> nodeIdByCode;
+
+    private final boolean[] beginNodes;
+
+    private final boolean[] endNodes;
+
+    /**
+     * dependencies of node i (forbidden nodes collapsed) are
+     * dependencyIds[dependencyOffsets[i], dependencyOffsets[i + 1])
+     */
+    private final int[] dependencyOffsets;
+
+    private final int[] dependencyIds;
+
+    /**
+     * the reverse of dependencies, used to maintain the remaining dependency count when a node is completed
+     */
+    private final int[] dependentOffsets;
+
+    private final int[] dependentIds;
+
+    private final boolean[] completed;
+
+    private final int[] remainingDependencies;
+
+    private IndexedTaskDag(List<String> nodeCodes,
+                           DAG<String, TaskNode, TaskNodeRelation> dag,
+                           Map<Long, TaskNode> forbiddenTaskMap) {
+        int nodeCount = nodeCodes.size();
+        this.taskCodes = new long[nodeCount];
+        this.taskCodeStrings = new String[nodeCount];
+        this.taskNodes = new TaskNode[nodeCount];
+        this.nodeIdByCode = new HashMap<>(nodeCount * 2);
+        this.beginNodes = new boolean[nodeCount];
+        this.endNodes = new boolean[nodeCount];
+        Map<String, Integer> nodeIdByCodeString = new HashMap<>(nodeCount * 2);
+        for (int i = 0; i < nodeCount; i++) {
+            String nodeCode = nodeCodes.get(i);
+            taskCodeStrings[i] = nodeCode;
+            taskCodes[i] = Long.parseLong(nodeCode);
+            taskNodes[i] = dag.getNode(nodeCode);
+            nodeIdByCode.put(taskCodes[i], i);
+            nodeIdByCodeString.put(nodeCode, i);
+        }
+        for (String beginNode : dag.getBeginNode()) {
+            beginNodes[nodeIdByCodeString.get(beginNode)] = true;
+        }
+        for (String endNode : dag.getEndNode()) {
+            endNodes[nodeIdByCodeString.get(endNode)] = true;
+        }
+
+        List<int[]> dependencies = new ArrayList<>(nodeCount);
+        List<List<Integer>> dependents = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            Set<String> indirectDependencies = new LinkedHashSet<>();
+            collectIndirectDependencies(taskNodes[i], forbiddenTaskMap, indirectDependencies);
+            int[] dependencyNodeIds = toNodeIds(indirectDependencies, nodeIdByCodeString);
+            dependencies.add(dependencyNodeIds);
+            for (int dependencyNodeId : dependencyNodeIds) {
+                dependents.get(dependencyNodeId).add(i);
+            }
+        }
+        this.dependencyOffsets = new int[nodeCount + 1];
+        this.dependencyIds = flatten(dependencies, dependencyOffsets);
+        List<int[]> dependentArrays = new ArrayList<>(nodeCount);
+        for (List<Integer> dependent : dependents) {
+            dependentArrays.add(dependent.stream().mapToInt(Integer::intValue).toArray());
+        }
+        this.dependentOffsets = new int[nodeCount + 1];
+        this.dependentIds = flatten(dependentArrays, dependentOffsets);
+
+        this.completed = new boolean[nodeCount];
+        this.remainingDependencies = new int[nodeCount];
+        resetCompletion();
+    }
+
+    /**
+     * Build the indexed dag from the given workflow dag.
+     *
+     * @param dag              workflow dag
+     * @param forbiddenTaskMap forbidden tasks, code as key, the forbidden dependency will be replaced by its own
+     *                         dependencies
+     * @return indexed dag
+     */
+    public static IndexedTaskDag of(@NonNull DAG<String, TaskNode, TaskNodeRelation> dag,
+                                    @NonNull Map<Long, TaskNode> forbiddenTaskMap) {
+        return new IndexedTaskDag(new ArrayList<>(dag.getAllNodesList()), dag, forbiddenTaskMap);
+    }
+
+    /**
+     * This function is specially used to handle the dependency situation where the parent node is a prohibited node.
+     * When the parent node is a forbidden node, the dependency relationship should continue to be traced.
+     */
+    private static void collectIndirectDependencies(TaskNode taskNode,
+                                                    Map<Long, TaskNode> forbiddenTaskMap,
+                                                    Set<String> indirectDependencies) {
+        if (taskNode == null || taskNode.getDepList() == null) {
+            return;
+        }
+        for (String dependency : taskNode.getDepList()) {
+            TaskNode forbiddenNode = forbiddenTaskMap.get(Long.parseLong(dependency));
+            if (forbiddenNode != null) {
+                collectIndirectDependencies(forbiddenNode, forbiddenTaskMap, indirectDependencies);
+            } else {
+                indirectDependencies.add(dependency);
+            }
+        }
+    }
+
+    private static int[] toNodeIds(Collection<String> nodeCodes, Map<String, Integer> nodeIdByCodeString) {
+        return nodeCodes.stream()
+                .map(nodeIdByCodeString::get)
+                // the node which is not in the dag will be ignored
+                .filter(nodeId -> nodeId != null)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[] flatten(List<int[]> adjacency, int[] offsets) {
+        int total = 0;
+        for (int i = 0; i < adjacency.size(); i++) {
+            offsets[i] = total;
+            total += adjacency.get(i).length;
+        }
+        offsets[adjacency.size()] = total;
+        int[] result = new int[total];
+        for (int i = 0; i < adjacency.size(); i++) {
+            int[] nodeIds = adjacency.get(i);
+            System.arraycopy(nodeIds, 0, result, offsets[i], nodeIds.length);
+        }
+        return result;
+    }
+
+    public int getNodeCount() {
+        return taskCodes.length;
+    }
+
+    /**
+     * @return the node id of the given task code, or {@link #NOT_EXIST} if the task is not in the dag
+     */
+    public int getNodeId(long taskCode) {
+        Integer nodeId = nodeIdByCode.get(taskCode);
+        return nodeId == null ? NOT_EXIST : nodeId;
+    }
+
+    public boolean containsNode(long taskCode) {
+        return nodeIdByCode.containsKey(taskCode);
+    }
+
+    public long getTaskCode(int nodeId) {
+        return taskCodes[nodeId];
+    }
+
+    public String getTaskCodeString(int nodeId) {
+        return taskCodeStrings[nodeId];
+    }
+
+    public TaskNode getTaskNode(int nodeId) {
+        return taskNodes[nodeId];
+    }
+
+    public boolean isBeginNode(int nodeId) {
+        return beginNodes[nodeId];
+    }
+
+    public boolean isEndNode(int nodeId) {
+        return endNodes[nodeId];
+    }
+
+    /**
+     * @return the dependencies of the given node, the forbidden dependencies are replaced by their own dependencies
+     */
+    public int[] getDependencyIds(int nodeId) {
+        return Arrays.copyOfRange(dependencyIds, dependencyOffsets[nodeId], dependencyOffsets[nodeId + 1]);
+    }
+
+    public int getDependencyCount(int nodeId) {
+        return dependencyOffsets[nodeId + 1] - dependencyOffsets[nodeId];
+    }
+
+    /**
+     * Get the dependency at the given index, used to iterate the dependencies without copying.
+     */
+    public int getDependencyId(int nodeId, int index) {
+        return dependencyIds[dependencyOffsets[nodeId] + index];
+    }
+
+    /**
+     * @return the count of the dependencies of the given node which are not completed
+     */
+    public int getRemainingDependencies(int nodeId) {
+        return remainingDependencies[nodeId];
+    }
+
+    public boolean isCompleted(int nodeId) {
+        return completed[nodeId];
+    }
+
+    /**
+     * Mark the task as completed, the remaining dependency count of its dependents will be decreased.
+     */
+    public void markCompleted(long taskCode) {
+        int nodeId = getNodeId(taskCode);
+        if (nodeId == NOT_EXIST || completed[nodeId]) {
+            return;
+        }
+        completed[nodeId] = true;
+        for (int i = dependentOffsets[nodeId]; i < dependentOffsets[nodeId + 1]; i++) {
+            remainingDependencies[dependentIds[i]]--;
+        }
+    }
+
+    /**
+     * Mark the task as not completed, the remaining dependency count of its dependents will be increased.
+     */
+    public void markUncompleted(long taskCode) {
+        int nodeId = getNodeId(taskCode);
+        if (nodeId == NOT_EXIST || !completed[nodeId]) {
+            return;
+        }
+        completed[nodeId] = false;
+        for (int i = dependentOffsets[nodeId]; i < dependentOffsets[nodeId + 1]; i++) {
+            remainingDependencies[dependentIds[i]]++;
+        }
+    }
+
+    /**
+     * Reset all the tasks to not completed.
+     */
+    public void resetCompletion() {
+        Arrays.fill(completed, false);
+        for (int i = 0; i < remainingDependencies.length; i++) {
+            remainingDependencies[i] = getDependencyCount(i);
+        }
+    }
+
+    /**
+     * Reset the completion state by the given completed task codes.
+     */
+    public void resetCompletion(Collection<Long> completedTaskCodes) {
+        resetCompletion();
+        completedTaskCodes.forEach(this::markCompleted);
+    }
+
+}
@@ -17,9 +17,14 @@
 
 package org.apache.dolphinscheduler.server.master.metrics;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import lombok.experimental.UtilityClass;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 @UtilityClass
 public class MasterServerMetrics {
@@ -40,6 +45,22 @@ public class MasterServerMetrics {
                     .description("Master server consume command count")
                     .register(Metrics.globalRegistry);
 
+    /**
+     * Used to measure the number of command insert notification received by master.
+     */
+    private final Counter masterCommandNotifiedCounter =
+            Counter.builder("ds.master.command.notified.count")
+                    .description("Master server received command insert notification count")
+                    .register(Metrics.globalRegistry);
+
+    /**
+     * Used to measure the delay between the deadline and the actual execution time of the state wheel check.
+     */
+    private final Timer stateWheelExpiryLagTimer =
+            Timer.builder("ds.master.state.wheel.expiry.lag")
+                    .description("Master state wheel check expiry lag")
+                    .register(Metrics.globalRegistry);
+
     public void incMasterOverload() {
         masterOverloadCounter.increment();
     }
@@ -48,4 +69,19 @@ public class MasterServerMetrics {
         masterConsumeCommandCounter.increment(commandCount);
     }
 
+    public void incMasterCommandNotified() {
+        masterCommandNotifiedCounter.increment();
+    }
+
+    public void recordStateWheelExpiryLag(long milliseconds) {
+        stateWheelExpiryLagTimer.record(Math.max(milliseconds, 0L), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void registerStateWheelDepthGauge(String checkType, Supplier<Number> function) {
+        Gauge.builder("ds.master.state.wheel.depth", function)
+                .tag("type", checkType)
+                .description("The current check count in master state wheel")
+                .register(Metrics.globalRegistry);
+    }
+
 }
@@ -62,10 +62,19 @@ public class ProcessInstanceMetrics {
                     .description("Process instance generated duration")
                     .register(Metrics.globalRegistry);
 
+    private final Timer commandWaitTimer =
+            Timer.builder("ds.workflow.command.wait.duration")
+                    .description("Duration from the command is created to it is transformed into process instance")
+                    .register(Metrics.globalRegistry);
+
     public void recordCommandQueryTime(long milliseconds) {
         commandQueryTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
 
+    public void recordCommandWaitTime(long milliseconds) {
+        commandWaitTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
     public void recordProcessInstanceGenerateTime(long milliseconds) {
         processInstanceGenerateTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
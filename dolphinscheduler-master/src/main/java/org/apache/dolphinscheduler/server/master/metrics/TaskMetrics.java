@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.master.metrics;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import lombok.experimental.UtilityClass;
@@ -27,8 +28,10 @@ import lombok.experimental.UtilityClass;
 import com.facebook.presto.jdbc.internal.guava.collect.ImmutableSet;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 @UtilityClass
 public class TaskMetrics {
@@ -65,6 +68,60 @@ public class TaskMetrics {
                     .description("Number of errors during task dispatch")
                     .register(Metrics.globalRegistry);
 
+    private final Timer taskDispatchLatencyTimer =
+            Timer.builder("ds.task.dispatch.latency")
+                    .description("Duration from the task is put into the task priority queue to it is sent to worker")
+                    .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private final Counter taskQueueOverflowCounter =
+            Counter.builder("ds.task.queue.overflow.count")
+                    .description("Number of tasks still waiting for the full task priority queue after timeout")
+                    .register(Metrics.globalRegistry);
+
+    private final Timer taskInstanceFlushLatencyTimer =
+            Timer.builder("ds.task.instance.flush.latency")
+                    .description("Duration of flushing a batch of task instance updates to db")
+                    .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private final DistributionSummary taskInstanceFlushSizeSummary =
+            DistributionSummary.builder("ds.task.instance.flush.size")
+                    .description("Number of task instance updates flushed to db in one batch")
+                    .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                    .register(Metrics.globalRegistry);
+
+    private final Counter taskInstanceUpdateCoalescedCounter =
+            Counter.builder("ds.task.instance.update.coalesced.count")
+                    .description("Number of task instance updates merged into a waiting update of the same task")
+                    .register(Metrics.globalRegistry);
+
+    public synchronized void registerTaskQueueDepth(String workerGroup, Supplier<Number> depthSupplier) {
+        Gauge.builder("ds.task.queue.depth", depthSupplier)
+                .tag("worker_group", workerGroup)
+                .description("Task priority queue depth of the worker group")
+                .register(Metrics.globalRegistry);
+    }
+
+    public void recordTaskDispatchLatency(long milliseconds) {
+        taskDispatchLatencyTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordTaskInstanceFlush(int flushSize, long milliseconds) {
+        taskInstanceFlushSizeSummary.record(flushSize);
+        taskInstanceFlushLatencyTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void incTaskInstanceUpdateCoalesced() {
+        taskInstanceUpdateCoalescedCounter.increment();
+    }
+
+    public void incTaskQueueOverflow() {
+        taskQueueOverflowCounter.increment();
+    }
+
     public synchronized void registerTaskPrepared(Supplier<Number> consumer) {
         Gauge.builder("ds.task.prepared", consumer)
                 .description("Task prepared count")
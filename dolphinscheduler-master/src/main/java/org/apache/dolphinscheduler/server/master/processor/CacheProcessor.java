@@ -23,6 +23,10 @@ import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.service.cache.CacheExpireListener;
+
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +49,9 @@ public class CacheProcessor implements NettyRequestProcessor {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired(required = false)
+    private List<CacheExpireListener> cacheExpireListeners = Collections.emptyList();
+
     @Override
     public void process(Channel channel, Command command) {
         Preconditions.checkArgument(CommandType.CACHE_EXPIRE == command.getType(),
@@ -69,5 +76,8 @@ public class CacheProcessor implements NettyRequestProcessor {
             cache.evict(cacheExpireCommand.getCacheKey());
             logger.info("cache evict, type:{}, key:{}", cacheType.getCacheName(), cacheExpireCommand.getCacheKey());
         }
+        for (CacheExpireListener cacheExpireListener : cacheExpireListeners) {
+            cacheExpireListener.onCacheExpire(cacheType, cacheExpireCommand.getCacheKey());
+        }
     }
 }
@@ -57,8 +57,7 @@ public class TaskExecuteResponseProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_RESULT == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskExecuteResultCommand taskExecuteResultMessage = JSONUtils.parseObject(command.getBody(),
-                TaskExecuteResultCommand.class);
+        TaskExecuteResultCommand taskExecuteResultMessage = command.parseBody(TaskExecuteResultCommand.class);
         TaskEvent taskResultEvent = TaskEvent.newResultEvent(taskExecuteResultMessage,
                 channel,
                 taskExecuteResultMessage.getMessageSenderAddress());
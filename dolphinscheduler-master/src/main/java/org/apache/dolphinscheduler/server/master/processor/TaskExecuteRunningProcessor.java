@@ -55,7 +55,7 @@ public class TaskExecuteRunningProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_RUNNING == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
         TaskExecuteRunningCommand taskExecuteRunningMessage =
-                JSONUtils.parseObject(command.getBody(), TaskExecuteRunningCommand.class);
+                command.parseBody(TaskExecuteRunningCommand.class);
         logger.info("taskExecuteRunningCommand: {}", taskExecuteRunningMessage);
 
         TaskEvent taskEvent = TaskEvent.newRunningEvent(taskExecuteRunningMessage,
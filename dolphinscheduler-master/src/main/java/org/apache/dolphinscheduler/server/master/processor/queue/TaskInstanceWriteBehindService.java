@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
+import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.dao.utils.TaskInstanceUtils;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Write-behind stage of the task instance updates.
+ * <p>
+ * The updates of the same task instance are coalesced while waiting, and flushed to db in jdbc batch by a single
+ * thread, so the updates of one task instance are always written in order. The caller of
+ * {@link #updateTaskInstance(TaskInstance)} is blocked until its update is durable, so the ack can be sent to worker
+ * safely after it returns.
+ */
+@Component
+public class TaskInstanceWriteBehindService {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskInstanceWriteBehindService.class);
+
+    /**
+     * The max time to wait for an update to be flushed, the update is treated as failed after timeout.
+     */
+    private static final long UPDATE_TIMEOUT_SECONDS = 30;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition flushCondition = lock.newCondition();
+
+    /**
+     * task instance id -> the latest waiting update of the task instance, guarded by lock
+     */
+    private Map<Integer, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    @Autowired
+    private TaskInstanceDao taskInstanceDao;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    private Thread flushThread;
+
+    @PostConstruct
+    public void start() {
+        if (!isWriteBehindEnabled()) {
+            logger.info("The task instance flush interval is 0, the task instance updates will be written through");
+            return;
+        }
+        this.flushThread = new TaskInstanceFlushThread();
+        logger.info("TaskInstance flush thread starting");
+        this.flushThread.start();
+        logger.info("TaskInstance flush thread started");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushThread == null) {
+            return;
+        }
+        try {
+            flushThread.interrupt();
+            flush(drainPendingUpdates());
+        } catch (Exception e) {
+            logger.error("TaskInstanceWriteBehindService stop error:", e);
+        }
+    }
+
+    /**
+     * Update the task instance to db, this method returns after the update is flushed.
+     *
+     * @param taskInstance task instance
+     * @return true if the task instance is updated
+     */
+    public boolean updateTaskInstance(TaskInstance taskInstance) {
+        if (!isWriteBehindEnabled()) {
+            return taskInstanceDao.updateTaskInstance(taskInstance);
+        }
+        try {
+            return submitUpdate(taskInstance).get(UPDATE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Wait task instance update interrupted, taskInstanceId: {}", taskInstance.getId(), e);
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("Update task instance failed, taskInstanceId: {}", taskInstance.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Submit the update of the task instance, if there is a waiting update of the same task instance, the waiting
+     * update is replaced by this one and they share the same future.
+     *
+     * @param taskInstance task instance, a snapshot of it is written so the caller can keep changing it
+     * @return the future completed after the update is flushed
+     */
+    public CompletableFuture<Boolean> submitUpdate(TaskInstance taskInstance) {
+        TaskInstance snapshot = new TaskInstance();
+        TaskInstanceUtils.copyTaskInstance(taskInstance, snapshot);
+        lock.lock();
+        try {
+            PendingUpdate pendingUpdate = pendingUpdates.get(snapshot.getId());
+            if (pendingUpdate != null) {
+                pendingUpdate.taskInstance = snapshot;
+                TaskMetrics.incTaskInstanceUpdateCoalesced();
+                return pendingUpdate.future;
+            }
+            pendingUpdate = new PendingUpdate(snapshot);
+            pendingUpdates.put(snapshot.getId(), pendingUpdate);
+            if (pendingUpdates.size() == 1 || pendingUpdates.size() >= masterConfig.getTaskInstanceFlushBatchSize()) {
+                flushCondition.signal();
+            }
+            return pendingUpdate.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingUpdateSize() {
+        lock.lock();
+        try {
+            return pendingUpdates.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until there are pending updates, then wait at most flush interval for the batch to be full.
+     */
+    List<PendingUpdate> awaitPendingUpdates() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (pendingUpdates.isEmpty()) {
+                flushCondition.await();
+            }
+            long waitNanos = masterConfig.getTaskInstanceFlushInterval().toNanos();
+            while (pendingUpdates.size() < masterConfig.getTaskInstanceFlushBatchSize() && waitNanos > 0) {
+                waitNanos = flushCondition.awaitNanos(waitNanos);
+            }
+            return drainPendingUpdates();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<PendingUpdate> drainPendingUpdates() {
+        lock.lock();
+        try {
+            List<PendingUpdate> updates = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates = new LinkedHashMap<>();
+            return updates;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void flush(List<PendingUpdate> updates) {
+        for (List<PendingUpdate> batch : Lists.partition(updates, masterConfig.getTaskInstanceFlushBatchSize())) {
+            long startTime = System.currentTimeMillis();
+            List<TaskInstance> taskInstances = batch.stream()
+                    .map(pendingUpdate -> pendingUpdate.taskInstance)
+                    .collect(Collectors.toList());
+            int updateCount = -1;
+            try {
+                updateCount = taskInstanceDao.batchUpdateTaskInstance(taskInstances);
+            } catch (Exception e) {
+                logger.error("Batch update task instances failed, will update them one by one, size: {}",
+                        batch.size(), e);
+            }
+            if (updateCount == batch.size()) {
+                batch.forEach(pendingUpdate -> pendingUpdate.future.complete(true));
+            } else {
+                // find out the failed ones, so that one bad update will not fail the others
+                for (PendingUpdate pendingUpdate : batch) {
+                    try {
+                        pendingUpdate.future.complete(taskInstanceDao.updateTaskInstance(pendingUpdate.taskInstance));
+                    } catch (Exception e) {
+                        pendingUpdate.future.completeExceptionally(e);
+                    }
+                }
+            }
+            TaskMetrics.recordTaskInstanceFlush(batch.size(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private boolean isWriteBehindEnabled() {
+        return masterConfig.getTaskInstanceFlushInterval().toMillis() > 0;
+    }
+
+    static class PendingUpdate {
+
+        private TaskInstance taskInstance;
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        PendingUpdate(TaskInstance taskInstance) {
+            this.taskInstance = taskInstance;
+        }
+    }
+
+    class TaskInstanceFlushThread extends BaseDaemonThread {
+
+        protected TaskInstanceFlushThread() {
+            super("TaskInstanceFlushThread");
+        }
+
+        @Override
+        public void run() {
+            while (!ServerLifeCycleManager.isStopped()) {
+                try {
+                    flush(awaitPendingUpdates());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("TaskInstance flush thread interrupted, will return this loop");
+                    break;
+                } catch (Exception e) {
+                    logger.error("TaskInstance flush thread error", e);
+                }
+            }
+        }
+    }
+}
@@ -51,6 +51,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -89,7 +90,17 @@ public class ServerNodeManager implements InitializingBean {
 
     private final Set<String> masterNodes = new HashSet<>();
 
-    private final Map<String, WorkerHeartBeat> workerNodeInfo = new HashMap<>();
+    private final Map<String, WorkerHeartBeat> workerNodeInfo = new ConcurrentHashMap<>();
+
+    /**
+     * worker address -> heartbeat json, used to skip parsing the heartbeat which is not changed
+     */
+    private final Map<String, String> workerNodeInfoJson = new HashMap<>();
+
+    /**
+     * worker group -> the worker addresses configured in db, refreshed by {@link WorkerNodeInfoAndGroupDbSyncTask}
+     */
+    private volatile Map<String, Set<String>> dbWorkerGroupAddresses = Collections.emptyMap();
 
     /**
      * executor service
@@ -110,7 +121,7 @@ public class ServerNodeManager implements InitializingBean {
     @Autowired
     private MasterConfig masterConfig;
 
-    private final List<WorkerInfoChangeListener> workerInfoChangeListeners = new ArrayList<>();
+    private final List<WorkerInfoChangeListener> workerInfoChangeListeners = new CopyOnWriteArrayList<>();
 
     private volatile int currentSlot = 0;
 
@@ -161,12 +172,17 @@ public class ServerNodeManager implements InitializingBean {
     }
 
     /**
-     * Refresh worker nodes and worker group mapping information
+     * Refresh worker nodes and worker group mapping information, the listeners are notified only if they are changed
      */
     private void refreshWorkerNodesAndGroupMappings() {
-        updateWorkerNodes();
-        updateWorkerGroupMappings();
-        notifyWorkerInfoChangeListeners();
+        Set<String> changedWorkers = updateWorkerNodes();
+        if (updateWorkerGroupMappings()) {
+            notifyWorkerInfoChangeListeners();
+            return;
+        }
+        for (String changedWorker : changedWorkers) {
+            notifyWorkerInfoChangeListeners(changedWorker);
+        }
     }
 
     /**
@@ -184,15 +200,18 @@ public class ServerNodeManager implements InitializingBean {
                     String[] parts = path.split("/");
                     final String workerAddress = parts[parts.length - 1];
 
-                    // todo: update workerNodeInfo
                     logger.debug("received subscribe event : {}", event);
                     if (type == Type.ADD) {
                         logger.info("Worker: {} added, currentNode : {}", path, workerAddress);
+                        if (StringUtils.isNotEmpty(data)) {
+                            syncSingleWorkerNodeInfo(workerAddress, data);
+                        }
                     } else if (type == Type.REMOVE) {
                         logger.info("Worker node : {} down.", path);
                         alertDao.sendServerStoppedAlert(1, path, "WORKER");
-                    } else if (type == Type.UPDATE) {
-                        syncSingleWorkerNodeInfo(workerAddress, JSONUtils.parseObject(data, WorkerHeartBeat.class));
+                        syncSingleWorkerNodeInfo(workerAddress, null);
+                    } else if (type == Type.UPDATE && StringUtils.isNotEmpty(data)) {
+                        syncSingleWorkerNodeInfo(workerAddress, data);
                     }
                 } catch (Exception ex) {
                     logger.error("WorkerGroupListener capture data change and get data failed", ex);
@@ -200,13 +219,33 @@ public class ServerNodeManager implements InitializingBean {
             }
         }
 
-        private void syncSingleWorkerNodeInfo(String workerAddress, WorkerHeartBeat info) {
+        /**
+         * Apply the heartbeat of a single worker, and notify the listeners of this worker only if the worker groups
+         * are not changed
+         *
+         * @param heartBeatJson heartbeat json, null if the worker is removed
+         */
+        private void syncSingleWorkerNodeInfo(String workerAddress, String heartBeatJson) {
+            boolean changed;
+            boolean workerExisted;
             workerNodeInfoWriteLock.lock();
             try {
-                workerNodeInfo.put(workerAddress, info);
+                workerExisted = workerNodeInfo.containsKey(workerAddress);
+                changed = heartBeatJson == null
+                        ? removeWorkerNodeInfo(workerAddress)
+                        : putWorkerNodeInfo(workerAddress, heartBeatJson);
             } finally {
                 workerNodeInfoWriteLock.unlock();
             }
+            if (!changed) {
+                return;
+            }
+            // the worker groups are changed only if a worker is added or removed, which is rare
+            if (workerExisted != workerNodeInfo.containsKey(workerAddress) && rebuildWorkerGroupMappings()) {
+                notifyWorkerInfoChangeListeners();
+                return;
+            }
+            notifyWorkerInfoChangeListeners(workerAddress);
         }
     }
 
@@ -252,35 +291,91 @@ public class ServerNodeManager implements InitializingBean {
 
     }
 
-    private void updateWorkerNodes() {
-        workerGroupWriteLock.lock();
+    /**
+     * @return the workers whose heartbeat is changed
+     */
+    private Set<String> updateWorkerNodes() {
+        Map<String, String> workerNodeMaps = registryClient.getServerMaps(NodeType.WORKER);
+        Set<String> changedWorkers = new HashSet<>();
+        workerNodeInfoWriteLock.lock();
         try {
-            Map<String, String> workerNodeMaps = registryClient.getServerMaps(NodeType.WORKER);
             for (Map.Entry<String, String> entry : workerNodeMaps.entrySet()) {
-                workerNodeInfo.put(entry.getKey(), JSONUtils.parseObject(entry.getValue(), WorkerHeartBeat.class));
+                if (putWorkerNodeInfo(entry.getKey(), entry.getValue())) {
+                    changedWorkers.add(entry.getKey());
+                }
+            }
+            for (String workerAddress : new ArrayList<>(workerNodeInfo.keySet())) {
+                if (!workerNodeMaps.containsKey(workerAddress) && removeWorkerNodeInfo(workerAddress)) {
+                    changedWorkers.add(workerAddress);
+                }
             }
         } finally {
-            workerGroupWriteLock.unlock();
+            workerNodeInfoWriteLock.unlock();
+        }
+        return changedWorkers;
+    }
+
+    /**
+     * should be called with the worker node info write lock
+     *
+     * @return true if the worker node info is changed
+     */
+    private boolean putWorkerNodeInfo(String workerAddress, String heartBeatJson) {
+        if (heartBeatJson.equals(workerNodeInfoJson.get(workerAddress))) {
+            return false;
         }
+        WorkerHeartBeat workerHeartBeat = JSONUtils.parseObject(heartBeatJson, WorkerHeartBeat.class);
+        if (workerHeartBeat == null) {
+            return false;
+        }
+        workerNodeInfo.put(workerAddress, workerHeartBeat);
+        workerNodeInfoJson.put(workerAddress, heartBeatJson);
+        return true;
+    }
+
+    /**
+     * should be called with the worker node info write lock
+     *
+     * @return true if the worker node info is changed
+     */
+    private boolean removeWorkerNodeInfo(String workerAddress) {
+        workerNodeInfoJson.remove(workerAddress);
+        return workerNodeInfo.remove(workerAddress) != null;
     }
 
-    private void updateWorkerGroupMappings() {
+    /**
+     * @return true if the worker group mappings are changed
+     */
+    private boolean updateWorkerGroupMappings() {
         List<WorkerGroup> workerGroups = workerGroupMapper.queryAllWorkerGroup();
+        Map<String, Set<String>> workerGroupAddresses = new HashMap<>();
+        for (WorkerGroup workerGroup : workerGroups) {
+            String[] workerAddresses = workerGroup.getAddrList().split(Constants.COMMA);
+            if (ArrayUtils.isEmpty(workerAddresses)) {
+                continue;
+            }
+            workerGroupAddresses.put(workerGroup.getName(), new HashSet<>(Arrays.asList(workerAddresses)));
+        }
+        dbWorkerGroupAddresses = workerGroupAddresses;
+        return rebuildWorkerGroupMappings();
+    }
+
+    /**
+     * Rebuild the worker group mappings from the worker groups in db and the active workers
+     *
+     * @return true if the worker group mappings are changed
+     */
+    private boolean rebuildWorkerGroupMappings() {
         Map<String, Set<String>> tmpWorkerGroupMappings = new HashMap<>();
         try {
             workerNodeInfoReadLock.lock();
-            for (WorkerGroup workerGroup : workerGroups) {
-                String workerGroupName = workerGroup.getName();
-                String[] workerAddresses = workerGroup.getAddrList().split(Constants.COMMA);
-                if (ArrayUtils.isEmpty(workerAddresses)) {
-                    continue;
-                }
-                Set<String> activeWorkerNodes = Arrays.stream(workerAddresses)
+            for (Map.Entry<String, Set<String>> entry : dbWorkerGroupAddresses.entrySet()) {
+                Set<String> activeWorkerNodes = entry.getValue().stream()
                         .filter(workerNodeInfo::containsKey).collect(Collectors.toSet());
-                tmpWorkerGroupMappings.put(workerGroupName, activeWorkerNodes);
+                tmpWorkerGroupMappings.put(entry.getKey(), activeWorkerNodes);
             }
             if (!tmpWorkerGroupMappings.containsKey(Constants.DEFAULT_WORKER_GROUP)) {
-                tmpWorkerGroupMappings.put(Constants.DEFAULT_WORKER_GROUP, workerNodeInfo.keySet());
+                tmpWorkerGroupMappings.put(Constants.DEFAULT_WORKER_GROUP, new HashSet<>(workerNodeInfo.keySet()));
             }
         } finally {
             workerNodeInfoReadLock.unlock();
@@ -288,8 +383,12 @@ public class ServerNodeManager implements InitializingBean {
 
         workerGroupWriteLock.lock();
         try {
+            if (tmpWorkerGroupMappings.equals(workerGroupNodes)) {
+                return false;
+            }
             workerGroupNodes.clear();
             workerGroupNodes.putAll(tmpWorkerGroupMappings);
+            return true;
         } finally {
             workerGroupWriteLock.unlock();
         }
@@ -370,6 +469,7 @@ public class ServerNodeManager implements InitializingBean {
      */
     public synchronized void addWorkerInfoChangeListener(WorkerInfoChangeListener listener) {
         workerInfoChangeListeners.add(listener);
+        listener.notify(getWorkerGroupNodes(), getWorkerNodeInfo());
     }
 
     private void notifyWorkerInfoChangeListeners() {
@@ -380,6 +480,14 @@ public class ServerNodeManager implements InitializingBean {
         }
     }
 
+    private void notifyWorkerInfoChangeListeners(String workerAddress) {
+        Map<String, Set<String>> workerGroupNodeMap = getWorkerGroupNodes();
+        Map<String, WorkerHeartBeat> workerNodeInfoMap = getWorkerNodeInfo();
+        for (WorkerInfoChangeListener listener : workerInfoChangeListeners) {
+            listener.notifyWorkerChange(workerAddress, workerGroupNodeMap, workerNodeInfoMap);
+        }
+    }
+
     @PreDestroy
     public void destroy() {
         executorService.shutdownNow();
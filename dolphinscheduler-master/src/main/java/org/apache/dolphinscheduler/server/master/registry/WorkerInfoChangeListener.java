@@ -35,4 +35,17 @@ public interface WorkerInfoChangeListener {
      */
     void notify(Map<String, Set<String>> workerGroups, Map<String, WorkerHeartBeat> workerNodeInfo);
 
+    /**
+     * Used to notify the change of a single worker, only the worker groups which contain the worker are changed.
+     *
+     * @param workerAddress  the changed worker address, the worker is removed if it is not in the worker node info.
+     * @param workerGroups   worker groups map, key is worker group name, value is worker address.
+     * @param workerNodeInfo worker node info map, key is worker address, value is worker info.
+     */
+    default void notifyWorkerChange(String workerAddress,
+                                    Map<String, Set<String>> workerGroups,
+                                    Map<String, WorkerHeartBeat> workerNodeInfo) {
+        notify(workerGroups, workerNodeInfo);
+    }
+
 }
@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionLogDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
@@ -39,6 +40,7 @@ import org.apache.dolphinscheduler.server.master.exception.MasterException;
 import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+import org.apache.dolphinscheduler.server.master.runner.taskgroup.TaskGroupCoordinator;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
 import org.apache.dolphinscheduler.service.command.CommandService;
 import org.apache.dolphinscheduler.service.expand.CuringParamsService;
@@ -49,9 +51,13 @@ import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -113,8 +119,25 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
     @Autowired
     private ServerNodeManager serverNodeManager;
 
+    @Autowired
+    private TaskGroupCoordinator taskGroupCoordinator;
+
+    @Autowired
+    private DependentResultCacheManager dependentResultCacheManager;
+
     private String masterAddress;
 
+    /**
+     * Released when a new command belongs to this master is inserted, used to wake up the command loop.
+     */
+    private final Semaphore commandInsertedSignal = new Semaphore(0);
+
+    /**
+     * The current interval to poll command from database when there is no command, will back off until
+     * {@link MasterConfig#getFetchCommandMaxInterval()} and reset once a command is fetched.
+     */
+    private long fetchCommandInterval = Constants.SLEEP_TIME_MILLIS;
+
     protected MasterSchedulerBootstrap() {
         super("MasterCommandLoopThread");
     }
@@ -166,10 +189,11 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
                 }
                 List<Command> commands = findCommands();
                 if (CollectionUtils.isEmpty(commands)) {
-                    // indicate that no command ,sleep for 1s
-                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                    // indicate that no command, wait for the command insert notification or the next poll
+                    waitForCommandInserted();
                     continue;
                 }
+                fetchCommandInterval = Constants.SLEEP_TIME_MILLIS;
 
                 List<ProcessInstance> processInstances = command2ProcessInstance(commands);
                 if (CollectionUtils.isEmpty(processInstances)) {
@@ -196,7 +220,9 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
                                 stateWheelExecuteThread,
                                 curingGlobalParamsService,
                                 taskInstanceDao,
-                                taskDefinitionLogDao);
+                                taskDefinitionLogDao,
+                                taskGroupCoordinator,
+                                dependentResultCacheManager);
                         processInstanceExecCacheManager.cache(processInstance.getId(), workflowRunnable);
                         workflowEventQueue.addEvent(new WorkflowEvent(WorkflowEventType.START_WORKFLOW,
                                 processInstance.getId()));
@@ -216,48 +242,132 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
         }
     }
 
+    /**
+     * Wake up the command loop if the given command belongs to the slot of this master.
+     *
+     * @param commandId inserted command id
+     */
+    public void notifyCommandInserted(int commandId) {
+        int masterSize = serverNodeManager.getMasterSize();
+        if (masterSize > 0 && commandId % masterSize != serverNodeManager.getSlot()) {
+            return;
+        }
+        MasterServerMetrics.incMasterCommandNotified();
+        if (commandInsertedSignal.availablePermits() == 0) {
+            commandInsertedSignal.release();
+        }
+    }
+
+    private void waitForCommandInserted() throws InterruptedException {
+        long waitMillis = fetchCommandInterval;
+        fetchCommandInterval = Math.min(fetchCommandInterval * 2, masterConfig.getFetchCommandMaxInterval().toMillis());
+        if (commandInsertedSignal.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+            commandInsertedSignal.drainPermits();
+            fetchCommandInterval = Constants.SLEEP_TIME_MILLIS;
+        }
+    }
+
     private List<ProcessInstance> command2ProcessInstance(List<Command> commands) throws InterruptedException {
         long commandTransformStartTime = System.currentTimeMillis();
         logger.info("Master schedule bootstrap transforming command to ProcessInstance, commandSize: {}",
                 commands.size());
         List<ProcessInstance> processInstances = Collections.synchronizedList(new ArrayList<>(commands.size()));
-        CountDownLatch latch = new CountDownLatch(commands.size());
-        for (final Command command : commands) {
+        if (masterConfig.isBatchHandleCommand()) {
+            batchHandleCommands(commands, processInstances);
+        } else {
+            CountDownLatch latch = new CountDownLatch(commands.size());
+            for (final Command command : commands) {
+                masterPrepareExecService.execute(() -> {
+                    try {
+                        handleCommand(command, processInstances);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            // make sure to finish handling command each time before next scan
+            latch.await();
+        }
+        logger.info(
+                "Master schedule bootstrap transformed command to ProcessInstance, commandSize: {}, processInstanceSize: {}",
+                commands.size(), processInstances.size());
+        ProcessInstanceMetrics
+                .recordProcessInstanceGenerateTime(System.currentTimeMillis() - commandTransformStartTime);
+        return processInstances;
+    }
+
+    /**
+     * Group the commands by process definition code and version, each group will be transformed in one transaction.
+     * If a group fails, the commands in this group will be transformed one by one so that the failed command can be
+     * moved to error command without affecting the others.
+     */
+    private void batchHandleCommands(List<Command> commands,
+                                     List<ProcessInstance> processInstances) throws InterruptedException {
+        Map<String, List<Command>> commandGroups = new LinkedHashMap<>();
+        for (Command command : commands) {
+            if (!isSlotPass(command)) {
+                continue;
+            }
+            String groupKey = command.getProcessDefinitionCode() + "-" + command.getProcessDefinitionVersion();
+            commandGroups.computeIfAbsent(groupKey, key -> new ArrayList<>()).add(command);
+        }
+        CountDownLatch latch = new CountDownLatch(commandGroups.size());
+        for (final List<Command> commandGroup : commandGroups.values()) {
             masterPrepareExecService.execute(() -> {
                 try {
-                    // Note: this check is not safe, the slot may change after command transform.
-                    // We use the database transaction in `handleCommand` so that we can guarantee the command will
-                    // always be executed
-                    // by only one master
-                    SlotCheckState slotCheckState = slotCheck(command);
-                    if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
-                        logger.info("Master handle command {} skip, slot check state: {}", command.getId(),
-                                slotCheckState);
-                        return;
-                    }
-                    ProcessInstance processInstance = processService.handleCommand(masterAddress, command);
-                    if (processInstance != null) {
-                        processInstances.add(processInstance);
-                        logger.info("Master handle command {} end, create process instance {}", command.getId(),
-                                processInstance.getId());
-                    }
+                    processInstances.addAll(processService.handleCommands(masterAddress, commandGroup));
+                    recordCommandWaitTime(commandGroup);
+                    logger.info("Master handle command batch end, commandSize: {}", commandGroup.size());
                 } catch (Exception e) {
-                    logger.error("Master handle command {} error ", command.getId(), e);
-                    commandService.moveToErrorCommand(command, e.toString());
+                    logger.warn("Master handle command batch error, will handle the commands one by one", e);
+                    commandGroup.forEach(command -> handleCommand(command, processInstances));
                 } finally {
                     latch.countDown();
                 }
             });
         }
-
         // make sure to finish handling command each time before next scan
         latch.await();
-        logger.info(
-                "Master schedule bootstrap transformed command to ProcessInstance, commandSize: {}, processInstanceSize: {}",
-                commands.size(), processInstances.size());
-        ProcessInstanceMetrics
-                .recordProcessInstanceGenerateTime(System.currentTimeMillis() - commandTransformStartTime);
-        return processInstances;
+    }
+
+    private void handleCommand(Command command, List<ProcessInstance> processInstances) {
+        try {
+            if (!isSlotPass(command)) {
+                return;
+            }
+            ProcessInstance processInstance = processService.handleCommand(masterAddress, command);
+            if (processInstance != null) {
+                processInstances.add(processInstance);
+                recordCommandWaitTime(Collections.singletonList(command));
+                logger.info("Master handle command {} end, create process instance {}", command.getId(),
+                        processInstance.getId());
+            }
+        } catch (Exception e) {
+            logger.error("Master handle command {} error ", command.getId(), e);
+            commandService.moveToErrorCommand(command, e.toString());
+        }
+    }
+
+    private boolean isSlotPass(Command command) {
+        // Note: this check is not safe, the slot may change after command transform.
+        // We use the database transaction in `handleCommand` so that we can guarantee the command will
+        // always be executed
+        // by only one master
+        SlotCheckState slotCheckState = slotCheck(command);
+        if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
+            logger.info("Master handle command {} skip, slot check state: {}", command.getId(), slotCheckState);
+            return false;
+        }
+        return true;
+    }
+
+    private void recordCommandWaitTime(List<Command> commands) {
+        long now = System.currentTimeMillis();
+        for (Command command : commands) {
+            if (command.getStartTime() != null) {
+                ProcessInstanceMetrics.recordCommandWaitTime(now - command.getStartTime().getTime());
+            }
+        }
     }
 
     private List<Command> findCommands() throws MasterException {
@@ -272,12 +382,12 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
             int pageSize = masterConfig.getFetchCommandNum();
             final List<Command> result =
                     commandService.findCommandPageBySlot(pageSize, masterCount, thisMasterSlot);
+            long cost = System.currentTimeMillis() - scheduleStartTime;
+            ProcessInstanceMetrics.recordCommandQueryTime(cost);
             if (CollectionUtils.isNotEmpty(result)) {
-                long cost = System.currentTimeMillis() - scheduleStartTime;
                 logger.info(
                         "Master schedule bootstrap loop command success, fetch command size: {}, cost: {}ms, current slot: {}, total slot size: {}",
                         result.size(), cost, thisMasterSlot, masterCount);
-                ProcessInstanceMetrics.recordCommandQueryTime(cost);
             }
             return result;
         } catch (Exception ex) {
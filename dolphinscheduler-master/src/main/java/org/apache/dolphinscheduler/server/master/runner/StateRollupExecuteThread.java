@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
+import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.service.StateRollupService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StateRollupExecuteThread extends BaseDaemonThread {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateRollupExecuteThread.class);
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired
+    private StateRollupService stateRollupService;
+
+    protected StateRollupExecuteThread() {
+        super("StateRollupExecuteThread");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (masterConfig.getStateRollupInterval().isZero()) {
+            logger.info("Master state rollup thread is disabled");
+            return;
+        }
+        logger.info("Master state rollup thread staring");
+        super.start();
+        logger.info("Master state rollup thread stared");
+    }
+
+    @Override
+    public void run() {
+        // when startup, wait 10s for ready
+        ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS * 10);
+
+        while (!ServerLifeCycleManager.isStopped()) {
+            try {
+                if (!ServerLifeCycleManager.isRunning()) {
+                    continue;
+                }
+                stateRollupService.compactStateRollup();
+            } catch (Exception e) {
+                logger.error("Master state rollup thread execute error", e);
+            } finally {
+                ThreadUtils.sleep(masterConfig.getStateRollupInterval().toMillis());
+            }
+        }
+    }
+}
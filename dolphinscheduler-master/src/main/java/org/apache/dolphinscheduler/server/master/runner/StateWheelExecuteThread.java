@@ -21,9 +21,6 @@ import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.enums.TimeoutFlag;
 import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
-import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
-import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
-import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
@@ -32,13 +29,23 @@ import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheM
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
 import org.apache.dolphinscheduler.server.master.event.WorkflowStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import lombok.NonNull;
 
@@ -48,37 +55,68 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+
 /**
- * Check thread
+ * Check wheel, each check is scheduled into a hashed timing wheel by its deadline, so add/remove/expire are O(1).
  * 1. timeout task check
  * 2. dependent task state check
  * 3. retry task check
  * 4. timeout process check
+ * 5. task dispatch check
  */
 @Component
-public class StateWheelExecuteThread extends BaseDaemonThread {
+public class StateWheelExecuteThread implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(StateWheelExecuteThread.class);
 
     /**
-     * ProcessInstance timeout check list, element is the processInstanceId.
+     * The tick duration of the timing wheel, the check may be delayed up to one tick.
+     */
+    private static final long WHEEL_TICK_MILLIS = 100L;
+
+    /**
+     * The check is finished and should be removed from the wheel.
+     */
+    private static final long CHECK_FINISHED = -1L;
+
+    /**
+     * ProcessInstance timeout check map, key is the processInstanceId.
      */
-    private final ConcurrentLinkedQueue<Integer> processInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, CheckHandle> processInstanceTimeoutCheckMap = new ConcurrentHashMap<>();
 
     /**
-     * task time out check list
+     * task time out check map
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private final Map<TaskInstanceKey, CheckHandle> taskInstanceTimeoutCheckMap = new ConcurrentHashMap<>();
 
     /**
-     * task retry check list
+     * task retry check map
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceRetryCheckList = new ConcurrentLinkedQueue<>();
+    private final Map<TaskInstanceKey, CheckHandle> taskInstanceRetryCheckMap = new ConcurrentHashMap<>();
 
     /**
-     * task state check list
+     * task state check map
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceStateCheckList = new ConcurrentLinkedQueue<>();
+    private final Map<TaskInstanceKey, CheckHandle> taskInstanceStateCheckMap = new ConcurrentHashMap<>();
+
+    /**
+     * task dispatch check map, the tasks waiting for the full task priority queue, key is the taskInstanceId
+     */
+    private final Map<Integer, CheckHandle> taskInstanceDispatchCheckMap = new ConcurrentHashMap<>();
+
+    /**
+     * the latest submitted task priority of the tasks in dispatch check, key is the taskInstanceId, guarded by itself
+     * together with the dispatch check map
+     */
+    private final Map<Integer, PendingDispatch> pendingDispatchMap = new HashMap<>();
+
+    private final HashedWheelTimer stateWheelTimer = new HashedWheelTimer(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("StateWheelExecuteThread").build(),
+            WHEEL_TICK_MILLIS, TimeUnit.MILLISECONDS);
 
     @Autowired
     private MasterConfig masterConfig;
@@ -90,90 +128,67 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
     @Autowired
     private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
 
-    protected StateWheelExecuteThread() {
-        super("StateWheelExecuteThread");
-    }
-
     @PostConstruct
     public void startWheelThread() {
-        super.start();
+        stateWheelTimer.start();
+        MasterServerMetrics.registerStateWheelDepthGauge("process_timeout", processInstanceTimeoutCheckMap::size);
+        MasterServerMetrics.registerStateWheelDepthGauge("task_timeout", taskInstanceTimeoutCheckMap::size);
+        MasterServerMetrics.registerStateWheelDepthGauge("task_retry", taskInstanceRetryCheckMap::size);
+        MasterServerMetrics.registerStateWheelDepthGauge("task_state", taskInstanceStateCheckMap::size);
+        MasterServerMetrics.registerStateWheelDepthGauge("task_dispatch", taskInstanceDispatchCheckMap::size);
     }
 
+    @PreDestroy
     @Override
-    public void run() {
-        final long checkInterval = masterConfig.getStateWheelInterval().toMillis();
-        while (!ServerLifeCycleManager.isStopped()) {
-            try {
-                checkTask4Timeout();
-                checkTask4Retry();
-                checkTask4State();
-                checkProcess4Timeout();
-            } catch (Exception e) {
-                logger.error("state wheel thread check error:", e);
-            }
-            try {
-                Thread.sleep(checkInterval);
-            } catch (InterruptedException e) {
-                logger.error("state wheel thread sleep error, will close the loop", e);
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+    public void close() {
+        stateWheelTimer.stop();
     }
 
     public void addProcess4TimeoutCheck(ProcessInstance processInstance) {
-        processInstanceTimeoutCheckList.add(processInstance.getId());
-        logger.info("Success add workflow instance {} into timeout check list", processInstance.getId());
+        long delay = getRemainMillis(processInstance.getStartTime(), processInstance.getTimeout());
+        if (addCheck(processInstanceTimeoutCheckMap, processInstance.getId(), delay, this::checkProcess4Timeout)) {
+            logger.info("Success add workflow instance {} into timeout check list", processInstance.getId());
+        }
     }
 
     public void removeProcess4TimeoutCheck(int processInstanceId) {
-        boolean removeFlag = processInstanceTimeoutCheckList.remove(processInstanceId);
-        if (removeFlag) {
+        if (removeCheck(processInstanceTimeoutCheckMap, processInstanceId)) {
             logger.info("Success remove workflow instance {} from timeout check list", processInstanceId);
         }
     }
 
-    private void checkProcess4Timeout() {
-        if (processInstanceTimeoutCheckList.isEmpty()) {
-            return;
-        }
-        for (Integer processInstanceId : processInstanceTimeoutCheckList) {
-            try {
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
-                WorkflowExecuteRunnable workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(
-                        processInstanceId);
-                if (workflowExecuteThread == null) {
-                    logger.warn(
-                            "Check workflow timeout failed, can not find workflowExecuteThread from cache manager, will remove this workflowInstance from check list");
-                    processInstanceTimeoutCheckList.remove(processInstanceId);
-                    continue;
-                }
-                ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
-                if (processInstance == null) {
-                    logger.warn("Check workflow timeout failed, the workflowInstance is null");
-                    continue;
-                }
-                long timeRemain = DateUtils.getRemainTime(processInstance.getStartTime(),
-                        (long) processInstance.getTimeout()
-                                * Constants.SEC_2_MINUTES_TIME_UNIT);
-                if (timeRemain < 0) {
-                    logger.info("Workflow instance {} timeout, adding timeout event", processInstance.getId());
-                    addProcessTimeoutEvent(processInstance);
-                    processInstanceTimeoutCheckList.remove(processInstance.getId());
-                    logger.info("Workflow instance timeout, added timeout event");
-                }
-            } catch (Exception ex) {
-                logger.error("Check workflow instance timeout error");
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
+    private long checkProcess4Timeout(Integer processInstanceId) {
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
+            WorkflowExecuteRunnable workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(
+                    processInstanceId);
+            if (workflowExecuteThread == null) {
+                logger.warn(
+                        "Check workflow timeout failed, can not find workflowExecuteThread from cache manager, will remove this workflowInstance from check list");
+                return CHECK_FINISHED;
+            }
+            ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
+            if (processInstance == null) {
+                logger.warn("Check workflow timeout failed, the workflowInstance is null");
+                return getCheckInterval();
+            }
+            long timeRemain = getRemainMillis(processInstance.getStartTime(), processInstance.getTimeout());
+            if (timeRemain > 0) {
+                return timeRemain;
             }
+            logger.info("Workflow instance {} timeout, adding timeout event", processInstance.getId());
+            addProcessTimeoutEvent(processInstance);
+            logger.info("Workflow instance timeout, added timeout event");
+            return CHECK_FINISHED;
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
         }
     }
 
     public void addTask4TimeoutCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
         logger.info("Adding task instance into timeout check list");
-        if (taskInstanceTimeoutCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceTimeoutCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in timeout check list");
             return;
         }
@@ -182,26 +197,27 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("Failed to add task instance into timeout check list, taskDefinition is null");
             return;
         }
-        if (TimeoutFlag.OPEN == taskDefinition.getTimeoutFlag()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
-            logger.info("Timeout flag is open, added task instance into timeout check list");
+        // only the task instance which timeout flag is open need to be checked
+        if (TimeoutFlag.OPEN != taskDefinition.getTimeoutFlag()) {
+            return;
         }
-        if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
-            logger.info("task instance is dependTask orSubProcess, added task instance into timeout check list");
+        long delay = taskInstance.getStartTime() == null ? getCheckInterval()
+                : getRemainMillis(taskInstance.getStartTime(), taskDefinition.getTimeout());
+        if (addCheck(taskInstanceTimeoutCheckMap, taskInstanceKey, delay, this::checkTask4Timeout)) {
+            logger.info("Timeout flag is open, added task instance into timeout check list");
         }
     }
 
     public void removeTask4TimeoutCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceTimeoutCheckMap, taskInstanceKey);
         logger.info("remove task instance from timeout check list");
     }
 
     public void addTask4RetryCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         logger.info("Adding task instance into retry check list");
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        if (taskInstanceRetryCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceRetryCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in retry check list");
             return;
         }
@@ -210,195 +226,303 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("Add task instance into retry check list error, taskDefinition is null");
             return;
         }
-        taskInstanceRetryCheckList.add(taskInstanceKey);
-        logger.info("[WorkflowInstance-{}][TaskInstanceKey-{}:{}] Added task instance into retry check list",
-                processInstance.getId(), taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
+        if (addCheck(taskInstanceRetryCheckMap, taskInstanceKey, getRetryRemainMillis(taskInstance),
+                this::checkTask4Retry)) {
+            logger.info("[WorkflowInstance-{}][TaskInstanceKey-{}:{}] Added task instance into retry check list",
+                    processInstance.getId(), taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
+        }
     }
 
     public void removeTask4RetryCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceRetryCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceRetryCheckMap, taskInstanceKey);
         logger.info("remove task instance from retry check list");
     }
 
     public void addTask4StateCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         logger.info("Adding task instance into state check list");
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        if (taskInstanceStateCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceStateCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in state check list");
             return;
         }
         if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceStateCheckList.add(taskInstanceKey);
-            logger.info("Added task instance into state check list");
+            if (addCheck(taskInstanceStateCheckMap, taskInstanceKey, getCheckInterval(), this::checkTask4State)) {
+                logger.info("Added task instance into state check list");
+            }
         }
     }
 
     public void removeTask4StateCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceStateCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceStateCheckMap, taskInstanceKey);
         logger.info("Removed task instance from state check list");
     }
 
+    /**
+     * Put the task into the task priority queue once the queue has free capacity, so the workflow event loop never
+     * waits for the queue and the queue is never overfilled. The task waits as long as the queue is full, it's
+     * reported as overflow after taskQueueOfferTimeout. If the task is already waiting, the latest submission replaces
+     * the previous one.
+     */
+    public void addTask4DispatchCheck(@NonNull TaskPriority taskPriority,
+                                      @NonNull TaskPriorityQueue<TaskPriority> taskPriorityQueue) {
+        int taskInstanceId = taskPriority.getTaskId();
+        long overflowTime = System.currentTimeMillis() + masterConfig.getTaskQueueOfferTimeout().toMillis();
+        synchronized (pendingDispatchMap) {
+            PendingDispatch previous =
+                    pendingDispatchMap.put(taskInstanceId, new PendingDispatch(taskPriority, overflowTime));
+            if (previous != null) {
+                logger.info("Task instance {} is already in dispatch check list, replaced by the latest submission",
+                        taskInstanceId);
+                return;
+            }
+            // the check is removed together with the pending task, so the check can always be added here
+            addCheck(taskInstanceDispatchCheckMap, taskInstanceId, WHEEL_TICK_MILLIS,
+                    key -> checkTask4Dispatch(key, taskPriorityQueue));
+        }
+        logger.info("Task priority queue is full, added task instance {} into dispatch check list", taskInstanceId);
+    }
+
+    /**
+     * Clear the checks of the workflows, the tasks waiting for the full task priority queue are kept since they have
+     * been submitted to the queue as the tasks already in it.
+     */
     public void clearAllTasks() {
-        processInstanceTimeoutCheckList.clear();
-        taskInstanceTimeoutCheckList.clear();
-        taskInstanceRetryCheckList.clear();
-        taskInstanceStateCheckList.clear();
+        clearChecks(processInstanceTimeoutCheckMap);
+        clearChecks(taskInstanceTimeoutCheckMap);
+        clearChecks(taskInstanceRetryCheckMap);
+        clearChecks(taskInstanceStateCheckMap);
     }
 
-    private void checkTask4Timeout() {
-        if (taskInstanceTimeoutCheckList.isEmpty()) {
-            return;
+    private long checkTask4Timeout(TaskInstanceKey taskInstanceKey) {
+        int processInstanceId = taskInstanceKey.getProcessInstanceId();
+        long taskCode = taskInstanceKey.getTaskCode();
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
+            WorkflowExecuteRunnable workflowExecuteThread =
+                    processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+            if (workflowExecuteThread == null) {
+                logger.warn(
+                        "Check task instance timeout failed, can not find workflowExecuteThread from cache manager, will remove this check task");
+                return CHECK_FINISHED;
+            }
+            Optional<TaskInstance> taskInstanceOptional =
+                    workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
+            if (!taskInstanceOptional.isPresent()) {
+                logger.warn(
+                        "Check task instance timeout failed, can not get taskInstance from workflowExecuteThread, taskCode: {}"
+                                + "will remove this check task",
+                        taskCode);
+                return CHECK_FINISHED;
+            }
+            TaskInstance taskInstance = taskInstanceOptional.get();
+            if (TimeoutFlag.OPEN != taskInstance.getTaskDefine().getTimeoutFlag()) {
+                return CHECK_FINISHED;
+            }
+            if (taskInstance.getStartTime() == null) {
+                return getCheckInterval();
+            }
+            // the start time may be changed after the task is dispatched, so we need to recalculate the deadline
+            long timeRemain = getRemainMillis(taskInstance.getStartTime(), taskInstance.getTaskDefine().getTimeout());
+            if (timeRemain > 0) {
+                return timeRemain;
+            }
+            logger.info("Task instance is timeout, adding task timeout event and remove the check");
+            addTaskTimeoutEvent(taskInstance);
+            return CHECK_FINISHED;
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
         }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutCheckList) {
-            try {
-                int processInstanceId = taskInstanceKey.getProcessInstanceId();
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
-                long taskCode = taskInstanceKey.getTaskCode();
-
-                WorkflowExecuteRunnable workflowExecuteThread =
-                        processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
-                if (workflowExecuteThread == null) {
-                    logger.warn(
-                            "Check task instance timeout failed, can not find workflowExecuteThread from cache manager, will remove this check task");
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-                Optional<TaskInstance> taskInstanceOptional =
-                        workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
-                if (!taskInstanceOptional.isPresent()) {
-                    logger.warn(
-                            "Check task instance timeout failed, can not get taskInstance from workflowExecuteThread, taskCode: {}"
-                                    + "will remove this check task",
-                            taskCode);
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-                TaskInstance taskInstance = taskInstanceOptional.get();
-                if (TimeoutFlag.OPEN == taskInstance.getTaskDefine().getTimeoutFlag()) {
-                    long timeRemain = DateUtils.getRemainTime(taskInstance.getStartTime(),
-                            (long) taskInstance.getTaskDefine().getTimeout()
-                                    * Constants.SEC_2_MINUTES_TIME_UNIT);
-                    if (timeRemain < 0) {
-                        logger.info("Task instance is timeout, adding task timeout event and remove the check");
-                        addTaskTimeoutEvent(taskInstance);
-                        taskInstanceTimeoutCheckList.remove(taskInstanceKey);
-                    }
-                }
-            } catch (Exception ex) {
-                logger.error("Check task timeout error, taskInstanceKey: {}", taskInstanceKey, ex);
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
+    }
+
+    private long checkTask4Dispatch(int taskInstanceId, TaskPriorityQueue<TaskPriority> taskPriorityQueue) {
+        synchronized (pendingDispatchMap) {
+            PendingDispatch pendingDispatch = pendingDispatchMap.get(taskInstanceId);
+            if (pendingDispatch == null) {
+                taskInstanceDispatchCheckMap.remove(taskInstanceId);
+                return CHECK_FINISHED;
             }
+            if (taskPriorityQueue.offer(pendingDispatch.taskPriority)) {
+                pendingDispatchMap.remove(taskInstanceId);
+                taskInstanceDispatchCheckMap.remove(taskInstanceId);
+                return CHECK_FINISHED;
+            }
+            if (!pendingDispatch.overflowed && System.currentTimeMillis() >= pendingDispatch.overflowTime) {
+                pendingDispatch.overflowed = true;
+                logger.warn("Task priority queue is still full after {}, task instance {} keeps waiting",
+                        masterConfig.getTaskQueueOfferTimeout(), taskInstanceId);
+                TaskMetrics.incTaskQueueOverflow();
+            }
+            return WHEEL_TICK_MILLIS;
         }
     }
 
-    private void checkTask4Retry() {
-        if (taskInstanceRetryCheckList.isEmpty()) {
-            return;
+    private long checkTask4Retry(TaskInstanceKey taskInstanceKey) {
+        int processInstanceId = taskInstanceKey.getProcessInstanceId();
+        long taskCode = taskInstanceKey.getTaskCode();
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
+
+            WorkflowExecuteRunnable workflowExecuteThread =
+                    processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+
+            if (workflowExecuteThread == null) {
+                logger.warn(
+                        "Task instance retry check failed, can not find workflowExecuteThread from cache manager, "
+                                + "will remove this check task");
+                return CHECK_FINISHED;
+            }
+
+            Optional<TaskInstance> taskInstanceOptional =
+                    workflowExecuteThread.getRetryTaskInstanceByTaskCode(taskCode);
+            ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
+
+            if (processInstance.getState().isReadyStop()) {
+                logger.warn(
+                        "The process instance is ready to stop, will send process stop event and remove the check task");
+                addProcessStopEvent(processInstance);
+                return CHECK_FINISHED;
+            }
+
+            if (!taskInstanceOptional.isPresent()) {
+                logger.warn(
+                        "Task instance retry check failed, can not find taskInstance from workflowExecuteThread, will remove this check");
+                return CHECK_FINISHED;
+            }
+
+            TaskInstance taskInstance = taskInstanceOptional.get();
+            // We check the status to avoid when we do worker failover we submit a failover task, this task may be
+            // resubmit by this
+            // thread
+            if (taskInstance.getState() != TaskExecutionStatus.NEED_FAULT_TOLERANCE
+                    && taskInstance.retryTaskIntervalOverTime()) {
+                // reset taskInstance endTime and state
+                // todo relative function: TaskInstance.retryTaskIntervalOverTime,
+                // WorkflowExecuteThread.cloneRetryTaskInstance
+                logger.info("[TaskInstanceKey-{}:{}]The task instance can retry, will retry this task instance",
+                        taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
+                taskInstance.setEndTime(null);
+                taskInstance.setState(TaskExecutionStatus.SUBMITTED_SUCCESS);
+
+                addTaskRetryEvent(taskInstance);
+                return CHECK_FINISHED;
+            }
+            return getRetryRemainMillis(taskInstance);
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
         }
+    }
 
-        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckList) {
-            int processInstanceId = taskInstanceKey.getProcessInstanceId();
-            long taskCode = taskInstanceKey.getTaskCode();
-            try {
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
-
-                WorkflowExecuteRunnable workflowExecuteThread =
-                        processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
-
-                if (workflowExecuteThread == null) {
-                    logger.warn(
-                            "Task instance retry check failed, can not find workflowExecuteThread from cache manager, "
-                                    + "will remove this check task");
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-
-                Optional<TaskInstance> taskInstanceOptional =
-                        workflowExecuteThread.getRetryTaskInstanceByTaskCode(taskCode);
-                ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
-
-                if (processInstance.getState().isReadyStop()) {
-                    logger.warn(
-                            "The process instance is ready to stop, will send process stop event and remove the check task");
-                    addProcessStopEvent(processInstance);
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
-                    break;
-                }
-
-                if (!taskInstanceOptional.isPresent()) {
-                    logger.warn(
-                            "Task instance retry check failed, can not find taskInstance from workflowExecuteThread, will remove this check");
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-
-                TaskInstance taskInstance = taskInstanceOptional.get();
-                // We check the status to avoid when we do worker failover we submit a failover task, this task may be
-                // resubmit by this
-                // thread
-                if (taskInstance.getState() != TaskExecutionStatus.NEED_FAULT_TOLERANCE
-                        && taskInstance.retryTaskIntervalOverTime()) {
-                    // reset taskInstance endTime and state
-                    // todo relative function: TaskInstance.retryTaskIntervalOverTime,
-                    // WorkflowExecuteThread.cloneRetryTaskInstance
-                    logger.info("[TaskInstanceKey-{}:{}]The task instance can retry, will retry this task instance",
-                            taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
-                    taskInstance.setEndTime(null);
-                    taskInstance.setState(TaskExecutionStatus.SUBMITTED_SUCCESS);
-
-                    addTaskRetryEvent(taskInstance);
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
-                }
-            } catch (Exception ex) {
-                logger.error("Check task retry error, taskInstanceKey: {}", taskInstanceKey, ex);
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
+    private long checkTask4State(TaskInstanceKey taskInstanceKey) {
+        int processInstanceId = taskInstanceKey.getProcessInstanceId();
+        long taskCode = taskInstanceKey.getTaskCode();
+        try {
+            LoggerUtils.setTaskInstanceIdMDC(processInstanceId);
+            WorkflowExecuteRunnable workflowExecuteThread =
+                    processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+            if (workflowExecuteThread == null) {
+                logger.warn(
+                        "Task instance state check failed, can not find workflowExecuteThread from cache manager, will remove this check task");
+                return CHECK_FINISHED;
+            }
+            Optional<TaskInstance> taskInstanceOptional =
+                    workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
+            if (!taskInstanceOptional.isPresent()) {
+                logger.warn(
+                        "Task instance state check failed, can not find taskInstance from workflowExecuteThread, will remove this check event");
+                return CHECK_FINISHED;
             }
+            TaskInstance taskInstance = taskInstanceOptional.get();
+            if (!taskInstance.getState().isFinished()) {
+                addTaskStateChangeEvent(taskInstance);
+            }
+            return getCheckInterval();
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
         }
     }
 
-    private void checkTask4State() {
-        if (taskInstanceStateCheckList.isEmpty()) {
-            return;
+    /**
+     * Schedule the check into the wheel if the key is not in the given check map.
+     *
+     * @param checkMap the check map, used to deduplicate and cancel the check
+     * @param key      check key
+     * @param delay    the delay milliseconds of the first check
+     * @param checker  return the delay milliseconds of the next check, or {@link #CHECK_FINISHED}
+     * @return true if the check is added
+     */
+    private <K> boolean addCheck(Map<K, CheckHandle> checkMap, K key, long delay, ToLongFunction<K> checker) {
+        CheckHandle checkHandle = new CheckHandle();
+        if (checkMap.putIfAbsent(key, checkHandle) != null) {
+            return false;
         }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckList) {
-            int processInstanceId = taskInstanceKey.getProcessInstanceId();
-            long taskCode = taskInstanceKey.getTaskCode();
+        // arm the timeout after the handle is installed, so the check always finds its own handle in the map
+        scheduleCheck(checkMap, key, checkHandle, delay, checker);
+        return true;
+    }
 
+    private <K> void scheduleCheck(Map<K, CheckHandle> checkMap, K key, CheckHandle checkHandle, long delay,
+                                   ToLongFunction<K> checker) {
+        long checkDelay = Math.max(delay, 0L);
+        long deadline = System.currentTimeMillis() + checkDelay;
+        TimerTask checkTask = timeout -> {
+            if (checkMap.get(key) != checkHandle) {
+                // the check has been removed or replaced
+                return;
+            }
+            MasterServerMetrics.recordStateWheelExpiryLag(System.currentTimeMillis() - deadline);
+            long nextDelay;
             try {
-                LoggerUtils.setTaskInstanceIdMDC(processInstanceId);
-                WorkflowExecuteRunnable workflowExecuteThread =
-                        processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
-                if (workflowExecuteThread == null) {
-                    logger.warn(
-                            "Task instance state check failed, can not find workflowExecuteThread from cache manager, will remove this check task");
-                    taskInstanceStateCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-                Optional<TaskInstance> taskInstanceOptional =
-                        workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
-                if (!taskInstanceOptional.isPresent()) {
-                    logger.warn(
-                            "Task instance state check failed, can not find taskInstance from workflowExecuteThread, will remove this check event");
-                    taskInstanceStateCheckList.remove(taskInstanceKey);
-                    continue;
-                }
-                TaskInstance taskInstance = taskInstanceOptional.get();
-                if (taskInstance.getState().isFinished()) {
-                    continue;
-                }
-                addTaskStateChangeEvent(taskInstance);
+                nextDelay = checker.applyAsLong(key);
             } catch (Exception ex) {
-                logger.error("Task state check error, taskInstanceKey: {}", taskInstanceKey, ex);
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
+                logger.error("State wheel check error, key: {}", key, ex);
+                nextDelay = getCheckInterval();
+            }
+            if (nextDelay == CHECK_FINISHED) {
+                checkMap.remove(key, checkHandle);
+                return;
             }
+            scheduleCheck(checkMap, key, checkHandle, nextDelay, checker);
+        };
+        checkHandle.arm(stateWheelTimer.newTimeout(checkTask, checkDelay, TimeUnit.MILLISECONDS));
+    }
+
+    private <K> boolean removeCheck(Map<K, CheckHandle> checkMap, K key) {
+        CheckHandle checkHandle = checkMap.remove(key);
+        if (checkHandle == null) {
+            return false;
+        }
+        checkHandle.cancel();
+        return true;
+    }
+
+    private <K> void clearChecks(Map<K, CheckHandle> checkMap) {
+        for (K key : checkMap.keySet()) {
+            removeCheck(checkMap, key);
         }
     }
 
+    private long getCheckInterval() {
+        return masterConfig.getStateWheelInterval().toMillis();
+    }
+
+    private long getRemainMillis(Date baseTime, int timeoutMinutes) {
+        if (baseTime == null) {
+            return 0L;
+        }
+        long timeoutMillis = (long) timeoutMinutes * Constants.SEC_2_MINUTES_TIME_UNIT * 1000L;
+        return baseTime.getTime() + timeoutMillis - System.currentTimeMillis();
+    }
+
+    private long getRetryRemainMillis(TaskInstance taskInstance) {
+        if (taskInstance.getState() != TaskExecutionStatus.FAILURE || taskInstance.getEndTime() == null) {
+            return getCheckInterval();
+        }
+        // add one second since the retry interval is compared in seconds
+        return getRemainMillis(taskInstance.getEndTime(), taskInstance.getRetryInterval()) + 1000L;
+    }
+
     private void addTaskStateChangeEvent(TaskInstance taskInstance) {
         TaskStateEvent stateEvent = TaskStateEvent.builder()
                 .processInstanceId(taskInstance.getProcessInstanceId())
@@ -447,4 +571,43 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
         workflowExecuteThreadPool.submitStateEvent(stateEvent);
     }
 
+
+    private static final class PendingDispatch {
+
+        private final TaskPriority taskPriority;
+
+        private final long overflowTime;
+
+        private boolean overflowed;
+
+        PendingDispatch(TaskPriority taskPriority, long overflowTime) {
+            this.taskPriority = taskPriority;
+            this.overflowTime = overflowTime;
+        }
+    }
+
+    /**
+     * The current timeout of a check, the check is rescheduled into a new timeout after each run.
+     */
+    private static final class CheckHandle {
+
+        private volatile Timeout timeout;
+
+        private volatile boolean cancelled;
+
+        void arm(Timeout timeout) {
+            this.timeout = timeout;
+            if (cancelled) {
+                timeout.cancel();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
 }
@@ -43,7 +43,6 @@ import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
 import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.common.graph.DAG;
 import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
@@ -65,9 +64,11 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
 import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.plugin.task.api.model.VarPoolStore;
 import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.remote.command.HostUpdateCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.event.StateEvent;
@@ -78,10 +79,12 @@ import org.apache.dolphinscheduler.server.master.event.StateEventHandler;
 import org.apache.dolphinscheduler.server.master.event.StateEventHandlerManager;
 import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
 import org.apache.dolphinscheduler.server.master.event.WorkflowStateEvent;
+import org.apache.dolphinscheduler.server.master.graph.IndexedTaskDag;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.task.ITaskProcessor;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskAction;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskProcessorFactory;
+import org.apache.dolphinscheduler.server.master.runner.taskgroup.TaskGroupCoordinator;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
 import org.apache.dolphinscheduler.service.command.CommandService;
 import org.apache.dolphinscheduler.service.cron.CronUtils;
@@ -144,6 +147,10 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
     private TaskDefinitionLogDao taskDefinitionLogDao;
 
+    private final TaskGroupCoordinator taskGroupCoordinator;
+
+    private final DependentResultCacheManager dependentResultCacheManager;
+
     private final ProcessAlertManager processAlertManager;
 
     private final NettyExecutorManager nettyExecutorManager;
@@ -154,6 +161,16 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
     private DAG<String, TaskNode, TaskNodeRelation> dag;
 
+    /**
+     * integer indexed view of the dag, used to resolve the dependencies of task, rebuild when the dag is built
+     */
+    private IndexedTaskDag indexedTaskDag;
+
+    /**
+     * the parsed var pools of the completed tasks, used to build the var pool of the downstream tasks
+     */
+    private final VarPoolStore varPoolStore = new VarPoolStore();
+
     /**
      * full task node map, key is task node id, value is task node
      * # TODO: This field can be removed later if the dag is complete
@@ -165,7 +182,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      */
     private String key;
 
-    private WorkflowRunnableStatus workflowRunnableStatus = WorkflowRunnableStatus.CREATED;
+    private volatile WorkflowRunnableStatus workflowRunnableStatus = WorkflowRunnableStatus.CREATED;
 
     /**
      * submit failure nodes
@@ -226,6 +243,11 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      */
     private final ConcurrentLinkedQueue<StateEvent> stateEvents = new ConcurrentLinkedQueue<>();
 
+    /**
+     * coalescing keys of the task state change events which are waiting in the state event queue
+     */
+    private final Set<String> pendingTaskStateChangeKeys = ConcurrentHashMap.newKeySet();
+
     /**
      * The StandBy task list, will be executed, need to know, the taskInstance in this queue may doesn't have id.
      */
@@ -263,7 +285,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                                    @NonNull StateWheelExecuteThread stateWheelExecuteThread,
                                    @NonNull CuringParamsService curingParamsService,
                                    @NonNull TaskInstanceDao taskInstanceDao,
-                                   @NonNull TaskDefinitionLogDao taskDefinitionLogDao) {
+                                   @NonNull TaskDefinitionLogDao taskDefinitionLogDao,
+                                   @NonNull TaskGroupCoordinator taskGroupCoordinator,
+                                   @NonNull DependentResultCacheManager dependentResultCacheManager) {
         this.processService = processService;
         this.commandService = commandService;
         this.processInstanceDao = processInstanceDao;
@@ -274,6 +298,8 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         this.curingParamsService = curingParamsService;
         this.taskInstanceDao = taskInstanceDao;
         this.taskDefinitionLogDao = taskDefinitionLogDao;
+        this.taskGroupCoordinator = taskGroupCoordinator;
+        this.dependentResultCacheManager = dependentResultCacheManager;
         this.masterAddress = NetUtils.getAddr(masterConfig.getListenPort());
         TaskMetrics.registerTaskPrepared(readyToSubmitTaskQueue::size);
     }
@@ -287,20 +313,23 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
     /**
      * handle event
+     *
+     * @return true if an event failed and should be retried later, the caller should not handle the events of this
+     * workflow again until then
      */
-    public void handleEvents() {
+    public boolean handleEvents() {
         if (!isStart()) {
             logger.info(
                     "The workflow instance is not started, will not handle its state event, current state event size: {}",
                     stateEvents);
-            return;
+            return false;
         }
         int loopTimes = stateEvents.size() * 2;
         for (int i = 0; i < loopTimes; i++) {
             final StateEvent stateEvent = this.stateEvents.peek();
             try {
                 if (stateEvent == null) {
-                    return;
+                    return false;
                 }
                 LoggerUtils.setWorkflowAndTaskInstanceIDMDC(stateEvent.getProcessInstanceId(),
                         stateEvent.getTaskInstanceId());
@@ -314,35 +343,44 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                                         "Cannot find handler for the given state event"));
                 logger.info("Begin to handle state event, {}", stateEvent);
                 if (stateEventHandler.handleStateEvent(this, stateEvent)) {
-                    this.stateEvents.remove(stateEvent);
+                    removeStateEvent(stateEvent);
                 }
             } catch (StateEventHandleError stateEventHandleError) {
                 logger.error("State event handle error, will remove this event: {}", stateEvent, stateEventHandleError);
-                this.stateEvents.remove(stateEvent);
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                removeStateEvent(stateEvent);
             } catch (StateEventHandleException stateEventHandleException) {
-                logger.error("State event handle error, will retry this event: {}",
+                logger.error("State event handle error, will retry this event later: {}",
                         stateEvent,
                         stateEventHandleException);
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                return true;
             } catch (StateEventHandleFailure stateEventHandleFailure) {
                 logger.error("State event handle failed, will move event to the tail: {}",
                         stateEvent,
                         stateEventHandleFailure);
                 this.stateEvents.remove(stateEvent);
                 this.stateEvents.offer(stateEvent);
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                return true;
             } catch (Exception e) {
                 // we catch the exception here, since if the state event handle failed, the state event will still keep
                 // in the stateEvents queue.
-                logger.error("State event handle error, get a unknown exception, will retry this event: {}",
+                logger.error("State event handle error, get a unknown exception, will retry this event later: {}",
                         stateEvent,
                         e);
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                return true;
             } finally {
                 LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
             }
         }
+        return false;
+    }
+
+    /**
+     * Remove the handled event, the same event submitted from now on should be handled again.
+     */
+    private void removeStateEvent(StateEvent stateEvent) {
+        if (this.stateEvents.remove(stateEvent)) {
+            releaseCoalescingKey(stateEvent);
+        }
     }
 
     public String getKey() {
@@ -362,10 +400,38 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             logger.info("state event would be abounded :{}", stateEvent);
             return false;
         }
+        String coalescingKey = getCoalescingKey(stateEvent);
+        if (coalescingKey != null && !pendingTaskStateChangeKeys.add(coalescingKey)) {
+            logger.info("The same task state change event is waiting to be handled, will coalesce it: {}",
+                    stateEvent);
+            return true;
+        }
         this.stateEvents.add(stateEvent);
         return true;
     }
 
+    /**
+     * Only the task state change events without a response channel can be coalesced, the handler of these events is
+     * idempotent and the latest task instance state is always loaded when handling them.
+     */
+    private String getCoalescingKey(StateEvent stateEvent) {
+        if (!(stateEvent instanceof TaskStateEvent) || stateEvent.getType() != StateEventType.TASK_STATE_CHANGE) {
+            return null;
+        }
+        TaskStateEvent taskStateEvent = (TaskStateEvent) stateEvent;
+        if (taskStateEvent.getTaskInstanceId() == null || taskStateEvent.getChannel() != null) {
+            return null;
+        }
+        return taskStateEvent.getTaskInstanceId() + "_" + taskStateEvent.getStatus();
+    }
+
+    private void releaseCoalescingKey(StateEvent stateEvent) {
+        String coalescingKey = getCoalescingKey(stateEvent);
+        if (coalescingKey != null) {
+            pendingTaskStateChangeKeys.remove(coalescingKey);
+        }
+    }
+
     public int eventSize() {
         return this.stateEvents.size();
     }
@@ -376,8 +442,20 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
     public boolean checkForceStartAndWakeUp(StateEvent stateEvent) {
         TaskGroupQueue taskGroupQueue = this.processService.loadTaskGroupQueue(stateEvent.getTaskInstanceId());
+        if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+            // admitted by the task group coordinator, the wake up may be sent more than once
+            if (processService.updateTaskGroupQueueInQueue(taskGroupQueue.getId(), Flag.YES.getCode(),
+                    Flag.NO.getCode())) {
+                TaskInstance taskInstance = this.taskInstanceDao.findTaskInstanceById(stateEvent.getTaskInstanceId());
+                ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(taskInstance.getTaskCode());
+                taskProcessor.action(TaskAction.DISPATCH);
+                logger.info("Success wake up taskGroupQueue: {}", taskGroupQueue.getId());
+            }
+            return true;
+        }
         if (taskGroupQueue.getForceStart() == Flag.YES.getCode()) {
             logger.info("Begin to force start taskGroupQueue: {}", taskGroupQueue.getId());
+            taskGroupCoordinator.forceStarted(taskGroupQueue);
             TaskInstance taskInstance = this.taskInstanceDao.findTaskInstanceById(stateEvent.getTaskInstanceId());
             ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(taskInstance.getTaskCode());
             taskProcessor.action(TaskAction.DISPATCH);
@@ -386,24 +464,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             logger.info("Success force start taskGroupQueue: {}", taskGroupQueue.getId());
             return true;
         }
-        if (taskGroupQueue.getInQueue() == Flag.YES.getCode()) {
-            logger.info("Begin to wake up taskGroupQueue: {}", taskGroupQueue.getId());
-            boolean acquireTaskGroup = processService.robTaskGroupResource(taskGroupQueue);
-            if (acquireTaskGroup) {
-                TaskInstance taskInstance = this.taskInstanceDao.findTaskInstanceById(stateEvent.getTaskInstanceId());
-                ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(taskInstance.getTaskCode());
-                taskProcessor.action(TaskAction.DISPATCH);
-                logger.info("Success wake up taskGroupQueue: {}", taskGroupQueue.getId());
-                return true;
-            }
-            logger.warn("Failed to wake up taskGroupQueue, taskGroupQueueId: {}", taskGroupQueue.getId());
-            return false;
-        } else {
-            logger.info(
-                    "Failed to wake up the taskGroupQueue: {}, since the taskGroupQueue is not in queue, will no need to wake up.",
-                    taskGroupQueue);
-            return true;
-        }
+        // the task is still waiting, it will be woken up after the task group coordinator admits it
+        logger.info("The taskGroupQueue: {} is not admitted yet, no need to wake up", taskGroupQueue);
+        return true;
     }
 
     public void processTimeout() {
@@ -426,7 +489,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             stateWheelExecuteThread.removeTask4StateCheck(processInstance, taskInstance);
 
             if (taskInstance.getState().isSuccess()) {
-                completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+                putCompleteTask(taskInstance.getTaskCode(), taskInstance.getId());
                 // todo: merge the last taskInstance
                 processInstance.setVarPool(taskInstance.getVarPool());
                 processInstanceDao.upsertProcessInstance(processInstance);
@@ -442,7 +505,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 logger.info("Retry taskInstance taskInstance state: {}", taskInstance.getState());
                 retryTaskInstance(taskInstance);
             } else if (taskInstance.getState().isFailure()) {
-                completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+                putCompleteTask(taskInstance.getTaskCode(), taskInstance.getId());
                 errorTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
                 // There are child nodes and the failure policy is: CONTINUE
                 if (processInstance.getFailureStrategy() == FailureStrategy.CONTINUE && DagHelper.haveAllNodeAfterNode(
@@ -456,7 +519,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 }
             } else if (taskInstance.getState().isFinished()) {
                 // todo: when the task instance type is pause, then it should not in completeTaskMap
-                completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+                putCompleteTask(taskInstance.getTaskCode(), taskInstance.getId());
             }
             logger.info("TaskInstance finished will try to update the workflow instance state, task code:{} state:{}",
                     taskInstance.getTaskCode(),
@@ -465,7 +528,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         } catch (Exception ex) {
             logger.error("Task finish failed, get a exception, will remove this taskInstance from completeTaskMap", ex);
             // remove the task from complete map, so that we can finish in the next time.
-            completeTaskMap.remove(taskInstance.getTaskCode());
+            removeCompleteTask(taskInstance.getTaskCode());
             throw ex;
         }
     }
@@ -476,22 +539,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      */
     public void releaseTaskGroup(TaskInstance taskInstance) {
         if (taskInstance.getTaskGroupId() > 0) {
-            TaskInstance nextTaskInstance = this.processService.releaseTaskGroup(taskInstance);
-            if (nextTaskInstance != null) {
-                if (nextTaskInstance.getProcessInstanceId() == taskInstance.getProcessInstanceId()) {
-                    TaskStateEvent nextEvent = TaskStateEvent.builder()
-                            .processInstanceId(processInstance.getId())
-                            .taskInstanceId(nextTaskInstance.getId())
-                            .type(StateEventType.WAIT_TASK_GROUP)
-                            .build();
-                    this.stateEvents.add(nextEvent);
-                } else {
-                    ProcessInstance processInstance =
-                            this.processService.findProcessInstanceById(nextTaskInstance.getProcessInstanceId());
-                    this.processService.sendStartTask2Master(processInstance, nextTaskInstance.getId(),
-                            org.apache.dolphinscheduler.remote.command.CommandType.TASK_WAKEUP_EVENT_REQUEST);
-                }
-            }
+            taskGroupCoordinator.release(taskInstance);
         }
     }
 
@@ -738,6 +786,8 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 submitPostNode(null);
                 workflowRunnableStatus = WorkflowRunnableStatus.STARTED;
                 logger.info("workflowStatue changed to :{}", workflowRunnableStatus);
+                // the dependent tasks waiting for this workflow should see the new instance
+                dependentResultCacheManager.notifyProcessInstanceChanged(processInstance);
             }
             return WorkflowSubmitStatue.SUCCESS;
         } catch (Exception e) {
@@ -753,6 +803,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      */
     public void endProcess() {
         this.stateEvents.clear();
+        this.pendingTaskStateChangeKeys.clear();
         if (processDefinition.getExecutionType().typeIsSerialWait() || processDefinition.getExecutionType()
                 .typeIsSerialPriority()) {
             checkSerialProcess(processDefinition);
@@ -764,7 +815,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         }
         if (checkTaskQueue()) {
             // release task group
-            processService.releaseAllTaskGroup(processInstance.getId());
+            taskGroupCoordinator.releaseAll(processInstance.getId());
         }
     }
 
@@ -838,6 +889,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         }
         // generate process dag
         dag = DagHelper.buildDagGraph(processDag);
+        indexedTaskDag = IndexedTaskDag.of(dag, forbiddenTaskMap);
         logger.info("Build dag success, dag: {}", dag);
     }
 
@@ -849,7 +901,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         taskFailedSubmit = false;
         activeTaskProcessorMaps.clear();
         dependFailedTaskSet.clear();
-        completeTaskMap.clear();
+        clearCompleteTask();
         errorTaskMap.clear();
 
         if (!isNewProcessInstance()) {
@@ -884,7 +936,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
                     if (task.isTaskComplete()) {
                         logger.info("TaskInstance is already complete.");
-                        completeTaskMap.put(task.getTaskCode(), task.getId());
+                        putCompleteTask(task.getTaskCode(), task.getId());
                         continue;
                     }
                     if (task.isConditionsTask() || DagHelper.haveConditionsAfterNode(Long.toString(task.getTaskCode()),
@@ -1012,11 +1064,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             // it will be wakeup when other tasks release the resource.
             int taskGroupId = taskInstance.getTaskGroupId();
             if (taskGroupId > 0) {
-                boolean acquireTaskGroup = processService.acquireTaskGroup(taskInstance.getId(),
-                        taskInstance.getName(),
-                        taskGroupId,
-                        taskInstance.getProcessInstanceId(),
-                        taskInstance.getTaskGroupPriority());
+                boolean acquireTaskGroup = taskGroupCoordinator.acquire(taskInstance);
                 if (!acquireTaskGroup) {
                     logger.info(
                             "Submitted task will not be dispatch right now because the first time to try to acquire" +
@@ -1262,11 +1310,11 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
     }
 
     public void getPreVarPool(TaskInstance taskInstance, Set<String> preTask) {
-        Map<String, Property> allProperty = new HashMap<>();
-        Map<String, TaskInstance> allTaskInstance = new HashMap<>();
         if (CollectionUtils.isNotEmpty(preTask)) {
+            List<Long> preTaskCodes = new ArrayList<>(preTask.size());
             for (String preTaskCode : preTask) {
-                Integer taskId = completeTaskMap.get(Long.parseLong(preTaskCode));
+                long taskCode = Long.parseLong(preTaskCode);
+                Integer taskId = completeTaskMap.get(taskCode);
                 if (taskId == null) {
                     continue;
                 }
@@ -1274,16 +1322,14 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 if (preTaskInstance == null) {
                     continue;
                 }
-                String preVarPool = preTaskInstance.getVarPool();
-                if (StringUtils.isNotEmpty(preVarPool)) {
-                    List<Property> properties = JSONUtils.toList(preVarPool, Property.class);
-                    for (Property info : properties) {
-                        setVarPoolValue(allProperty, allTaskInstance, preTaskInstance, info);
-                    }
-                }
+                // the var pool is parsed only when the task instance or its var pool changed
+                varPoolStore.put(taskCode, preTaskInstance.getId(), preTaskInstance.getEndTime(),
+                        preTaskInstance.getVarPool());
+                preTaskCodes.add(taskCode);
             }
+            Collection<Property> allProperty = varPoolStore.merge(preTaskCodes);
             if (allProperty.size() > 0) {
-                taskInstance.setVarPool(JSONUtils.toJsonString(allProperty.values()));
+                taskInstance.setVarPool(JSONUtils.toJsonString(allProperty));
             }
         } else {
             if (StringUtils.isNotEmpty(processInstance.getVarPool())) {
@@ -1296,38 +1342,6 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         return taskInstanceMap.values();
     }
 
-    private void setVarPoolValue(Map<String, Property> allProperty, Map<String, TaskInstance> allTaskInstance,
-                                 TaskInstance preTaskInstance, Property thisProperty) {
-        // for this taskInstance all the param in this part is IN.
-        thisProperty.setDirect(Direct.IN);
-        // get the pre taskInstance Property's name
-        String proName = thisProperty.getProp();
-        // if the Previous nodes have the Property of same name
-        if (allProperty.containsKey(proName)) {
-            // comparison the value of two Property
-            Property otherPro = allProperty.get(proName);
-            // if this property'value of loop is empty,use the other,whether the other's value is empty or not
-            if (StringUtils.isEmpty(thisProperty.getValue())) {
-                allProperty.put(proName, otherPro);
-                // if property'value of loop is not empty,and the other's value is not empty too, use the earlier value
-            } else if (StringUtils.isNotEmpty(otherPro.getValue())) {
-                TaskInstance otherTask = allTaskInstance.get(proName);
-                if (otherTask.getEndTime().getTime() > preTaskInstance.getEndTime().getTime()) {
-                    allProperty.put(proName, thisProperty);
-                    allTaskInstance.put(proName, preTaskInstance);
-                } else {
-                    allProperty.put(proName, otherPro);
-                }
-            } else {
-                allProperty.put(proName, thisProperty);
-                allTaskInstance.put(proName, preTaskInstance);
-            }
-        } else {
-            allProperty.put(proName, thisProperty);
-            allTaskInstance.put(proName, preTaskInstance);
-        }
-    }
-
     /**
      * get complete task instance map, taskCode as key
      */
@@ -1420,41 +1434,47 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      *
      * @return DependResult
      */
-    private DependResult isTaskDepsComplete(String taskCode) {
-
-        Collection<String> startNodes = dag.getBeginNode();
+    private DependResult isTaskDepsComplete(long taskCode) {
+        int nodeId = indexedTaskDag.getNodeId(taskCode);
+        if (nodeId == IndexedTaskDag.NOT_EXIST) {
+            logger.warn("The task is not in the dag, cannot check its dependencies, taskCode: {}", taskCode);
+            return DependResult.FAILED;
+        }
         // if vertex,returns true directly
-        if (startNodes.contains(taskCode)) {
+        if (indexedTaskDag.isBeginNode(nodeId)) {
             return DependResult.SUCCESS;
         }
-        TaskNode taskNode = dag.getNode(taskCode);
-        List<String> indirectDepCodeList = new ArrayList<>();
-        setIndirectDepList(taskCode, indirectDepCodeList);
-        for (String depsNode : indirectDepCodeList) {
-            if (dag.containsNode(depsNode) && !skipTaskNodeMap.containsKey(depsNode)) {
-                // dependencies must be fully completed
-                Long despNodeTaskCode = Long.parseLong(depsNode);
-                if (!completeTaskMap.containsKey(despNodeTaskCode)) {
-                    return DependResult.WAITING;
-                }
-                Integer depsTaskId = completeTaskMap.get(despNodeTaskCode);
-                TaskExecutionStatus depTaskState = taskInstanceMap.get(depsTaskId).getState();
-                if (depTaskState.isKill()) {
-                    return DependResult.NON_EXEC;
-                }
-                // ignore task state if current task is block
-                if (taskNode.isBlockingTask()) {
-                    continue;
-                }
+        // the skipped dependencies will never be completed, so only use the remaining count if nothing is skipped
+        if (skipTaskNodeMap.isEmpty() && indexedTaskDag.getRemainingDependencies(nodeId) > 0) {
+            return DependResult.WAITING;
+        }
+        TaskNode taskNode = indexedTaskDag.getTaskNode(nodeId);
+        for (int i = 0; i < indexedTaskDag.getDependencyCount(nodeId); i++) {
+            int depsNodeId = indexedTaskDag.getDependencyId(nodeId, i);
+            if (skipTaskNodeMap.containsKey(indexedTaskDag.getTaskCodeString(depsNodeId))) {
+                continue;
+            }
+            // dependencies must be fully completed
+            if (!indexedTaskDag.isCompleted(depsNodeId)) {
+                return DependResult.WAITING;
+            }
+            Integer depsTaskId = completeTaskMap.get(indexedTaskDag.getTaskCode(depsNodeId));
+            TaskExecutionStatus depTaskState = taskInstanceMap.get(depsTaskId).getState();
+            if (depTaskState.isKill()) {
+                return DependResult.NON_EXEC;
+            }
+            // ignore task state if current task is block
+            if (taskNode.isBlockingTask()) {
+                continue;
+            }
 
-                // always return success if current task is condition
-                if (taskNode.isConditionsTask()) {
-                    continue;
-                }
+            // always return success if current task is condition
+            if (taskNode.isConditionsTask()) {
+                continue;
+            }
 
-                if (!dependTaskSuccess(depsNode, taskCode)) {
-                    return DependResult.FAILED;
-                }
+            if (!dependTaskSuccess(depsNodeId, depTaskState, nodeId)) {
+                return DependResult.FAILED;
             }
         }
         logger.info("The dependTasks of task all success, currentTaskCode: {}, dependTaskCodes: {}",
@@ -1462,31 +1482,14 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         return DependResult.SUCCESS;
     }
 
-    /**
-     * This function is specially used to handle the dependency situation where the parent node is a prohibited node.
-     * When the parent node is a forbidden node, the dependency relationship should continue to be traced
-     *
-     * @param taskCode            taskCode
-     * @param indirectDepCodeList All indirectly dependent nodes
-     */
-    private void setIndirectDepList(String taskCode, List<String> indirectDepCodeList) {
-        TaskNode taskNode = dag.getNode(taskCode);
-        List<String> depCodeList = taskNode.getDepList();
-        for (String depsNode : depCodeList) {
-            if (forbiddenTaskMap.containsKey(Long.parseLong(depsNode))) {
-                setIndirectDepList(depsNode, indirectDepCodeList);
-            } else {
-                indirectDepCodeList.add(depsNode);
-            }
-        }
-    }
-
     /**
      * depend node is completed, but here need check the condition task branch is the next node
      */
-    private boolean dependTaskSuccess(String dependNodeName, String nextNodeName) {
-        if (dag.getNode(dependNodeName).isConditionsTask()) {
+    private boolean dependTaskSuccess(int dependNodeId, TaskExecutionStatus depTaskState, int nextNodeId) {
+        if (indexedTaskDag.getTaskNode(dependNodeId).isConditionsTask()) {
             // condition task need check the branch to run
+            String dependNodeName = indexedTaskDag.getTaskCodeString(dependNodeId);
+            String nextNodeName = indexedTaskDag.getTaskCodeString(nextNodeId);
             List<String> nextTaskList =
                     DagHelper.parseConditionTask(dependNodeName, skipTaskNodeMap, dag, getCompleteTaskInstanceMap());
             if (!nextTaskList.contains(nextNodeName)) {
@@ -1497,14 +1500,34 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 return false;
             }
         } else {
-            long taskCode = Long.parseLong(dependNodeName);
-            Integer taskInstanceId = completeTaskMap.get(taskCode);
-            TaskExecutionStatus depTaskState = taskInstanceMap.get(taskInstanceId).getState();
             return !depTaskState.isFailure();
         }
         return true;
     }
 
+    private void putCompleteTask(long taskCode, int taskInstanceId) {
+        completeTaskMap.put(taskCode, taskInstanceId);
+        if (indexedTaskDag != null) {
+            indexedTaskDag.markCompleted(taskCode);
+        }
+    }
+
+    private void removeCompleteTask(long taskCode) {
+        completeTaskMap.remove(taskCode);
+        varPoolStore.remove(taskCode);
+        if (indexedTaskDag != null) {
+            indexedTaskDag.markUncompleted(taskCode);
+        }
+    }
+
+    private void clearCompleteTask() {
+        completeTaskMap.clear();
+        varPoolStore.clear();
+        if (indexedTaskDag != null) {
+            indexedTaskDag.resetCompletion();
+        }
+    }
+
     /**
      * query task instance by complete state
      *
@@ -1755,6 +1778,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 processInstance.setEndTime(null);
                 throw new StateEventHandleException("Update process instance status to DB error", ex);
             }
+            if (newStates.isFinished()) {
+                dependentResultCacheManager.notifyProcessInstanceChanged(processInstance);
+            }
         }
     }
 
@@ -1765,7 +1791,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      * @return DependResult
      */
     private DependResult getDependResultForTask(TaskInstance taskInstance) {
-        return isTaskDepsComplete(Long.toString(taskInstance.getTaskCode()));
+        return isTaskDepsComplete(taskInstance.getTaskCode());
     }
 
     /**
@@ -1873,7 +1899,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                             "Task {} has been forced success, put it into complete task list and stop retrying, taskInstanceId: {}",
                             task.getName(), task.getId());
                     removeTaskFromStandbyList(task);
-                    completeTaskMap.put(task.getTaskCode(), task.getId());
+                    putCompleteTask(task.getTaskCode(), task.getId());
                     taskInstanceMap.put(task.getId(), task);
                     submitPostNode(Long.toString(task.getTaskCode()));
                     continue;
@@ -1900,7 +1926,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                                 processInstance.getId(),
                                 task.getTaskCode());
                     }
-                    completeTaskMap.put(task.getTaskCode(), task.getId());
+                    putCompleteTask(task.getTaskCode(), task.getId());
                     taskInstanceMap.put(task.getId(), task);
                     errorTaskMap.put(task.getTaskCode(), task.getId());
                     activeTaskProcessorMaps.remove(task.getTaskCode());
@@ -2156,6 +2182,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         // remove task instance from taskInstanceMap, completeTaskMap, validTaskMap, errorTaskMap
         taskInstanceMap.entrySet().removeIf(map -> dag.containsNode(Long.toString(map.getValue().getTaskCode())));
         completeTaskMap.entrySet().removeIf(map -> dag.containsNode(Long.toString(map.getKey())));
+        if (indexedTaskDag != null) {
+            indexedTaskDag.resetCompletion(completeTaskMap.keySet());
+        }
         validTaskMap.entrySet().removeIf(map -> dag.containsNode(Long.toString(map.getKey())));
         errorTaskMap.entrySet().removeIf(map -> dag.containsNode(Long.toString(map.getKey())));
     }
@@ -17,8 +17,10 @@
 
 package org.apache.dolphinscheduler.server.master.runner;
 
+import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
@@ -26,6 +28,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.WorkflowStateEventChangeCommand;
 import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.event.StateEvent;
@@ -35,8 +38,14 @@ import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import lombok.NonNull;
 
@@ -45,13 +54,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
 
 import com.google.common.base.Strings;
 
 /**
  * Used to execute {@link WorkflowExecuteRunnable}.
+ * <p>
+ * The state events of a workflow instance are handled by one of the single-threaded event loops, the event loop is
+ * chosen by the workflow instance id, so the events of the same workflow are always handled in the same thread. The
+ * events are drained when they are submitted, there is no need to scan the workflows periodically.
  */
 @Component
 public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
@@ -74,16 +85,41 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
     private StateWheelExecuteThread stateWheelExecuteThread;
 
     /**
-     * multi-thread filter, avoid handling workflow at the same time
+     * multi-thread filter, avoid handling workflow at the same time, a workflow in this map has a drain task waiting
+     * or running in its event loop
      */
     private ConcurrentHashMap<String, WorkflowExecuteRunnable> multiThreadFilterMap = new ConcurrentHashMap<>();
 
+    /**
+     * single-threaded event loops, each workflow instance is pinned to one of them by its id
+     */
+    private ExecutorService[] eventLoops;
+
+    /**
+     * re-drain the workflows whose event failed after a delay, so the event loops never sleep
+     */
+    private ScheduledExecutorService retryScheduler;
+
     @PostConstruct
     private void init() {
         this.setDaemon(true);
         this.setThreadNamePrefix("WorkflowExecuteThread-");
         this.setMaxPoolSize(masterConfig.getExecThreads());
         this.setCorePoolSize(masterConfig.getExecThreads());
+
+        eventLoops = new ExecutorService[masterConfig.getExecThreads()];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = ThreadUtils.newDaemonFixedThreadExecutor("WorkflowEventLoop-" + i, 1);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("WorkflowEventRetry"));
+    }
+
+    @PreDestroy
+    private void destroyEventLoops() {
+        for (ExecutorService eventLoop : eventLoops) {
+            eventLoop.shutdownNow();
+        }
+        retryScheduler.shutdownNow();
     }
 
     /**
@@ -99,56 +135,80 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
         }
         workflowExecuteThread.addStateEvent(stateEvent);
         logger.info("Submit state event success, stateEvent: {}", stateEvent);
+        executeEvent(workflowExecuteThread);
     }
 
     /**
-     * Handle the events belong to the given workflow.
+     * Handle the events belong to the given workflow in its event loop.
      */
     public void executeEvent(final WorkflowExecuteRunnable workflowExecuteThread) {
         if (!workflowExecuteThread.isStart() || workflowExecuteThread.eventSize() == 0) {
             return;
         }
-        if (multiThreadFilterMap.containsKey(workflowExecuteThread.getKey())) {
-            logger.warn("The workflow has been executed by another thread");
+        if (multiThreadFilterMap.putIfAbsent(workflowExecuteThread.getKey(), workflowExecuteThread) != null) {
+            // the event loop will check the new events after the current drain finished
+            logger.debug("The workflow events are being handled by its event loop");
             return;
         }
-        multiThreadFilterMap.put(workflowExecuteThread.getKey(), workflowExecuteThread);
         int processInstanceId = workflowExecuteThread.getProcessInstance().getId();
-        ListenableFuture<?> future = this.submitListenable(workflowExecuteThread::handleEvents);
-        future.addCallback(new ListenableFutureCallback() {
-
-            @Override
-            public void onFailure(Throwable ex) {
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
-                try {
-                    logger.error("Workflow instance events handle failed", ex);
-                    notifyProcessChanged(workflowExecuteThread.getProcessInstance());
-                    multiThreadFilterMap.remove(workflowExecuteThread.getKey());
-                } finally {
-                    LoggerUtils.removeWorkflowInstanceIdMDC();
-                }
-            }
+        try {
+            eventLoops[Math.floorMod(processInstanceId, eventLoops.length)]
+                    .execute(() -> drainEvents(workflowExecuteThread));
+        } catch (RejectedExecutionException e) {
+            logger.error("Submit workflow events to event loop failed, the event loop has been shutdown", e);
+            multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+        }
+    }
 
-            @Override
-            public void onSuccess(Object result) {
-                try {
-                    LoggerUtils.setWorkflowInstanceIdMDC(workflowExecuteThread.getProcessInstance().getId());
-                    if (workflowExecuteThread.workFlowFinish() && workflowExecuteThread.eventSize() == 0) {
-                        stateWheelExecuteThread
-                                .removeProcess4TimeoutCheck(workflowExecuteThread.getProcessInstance().getId());
-                        processInstanceExecCacheManager.removeByProcessInstanceId(processInstanceId);
-                        notifyProcessChanged(workflowExecuteThread.getProcessInstance());
-                        logger.info("Workflow instance is finished.");
-                    }
-                } catch (Exception e) {
-                    logger.error("Workflow instance is finished, but notify changed error", e);
-                } finally {
-                    // make sure the process has been removed from multiThreadFilterMap
-                    multiThreadFilterMap.remove(workflowExecuteThread.getKey());
-                    LoggerUtils.removeWorkflowInstanceIdMDC();
-                }
+    /**
+     * Handle a batch of the events, the workflow is submitted to the tail of the event loop again if there are new
+     * events, so that the other workflows in the same event loop will not be starved.
+     */
+    private void drainEvents(final WorkflowExecuteRunnable workflowExecuteThread) {
+        int processInstanceId = workflowExecuteThread.getProcessInstance().getId();
+        LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
+        boolean retryLater = false;
+        try {
+            try {
+                retryLater = workflowExecuteThread.handleEvents();
+            } catch (Exception e) {
+                logger.error("Workflow instance events handle failed", e);
+                notifyProcessChanged(workflowExecuteThread.getProcessInstance());
+                return;
             }
-        });
+            if (workflowExecuteThread.workFlowFinish() && workflowExecuteThread.eventSize() == 0) {
+                stateWheelExecuteThread.removeProcess4TimeoutCheck(processInstanceId);
+                processInstanceExecCacheManager.removeByProcessInstanceId(processInstanceId);
+                notifyProcessChanged(workflowExecuteThread.getProcessInstance());
+                logger.info("Workflow instance is finished.");
+            }
+        } catch (Exception e) {
+            logger.error("Workflow instance is finished, but notify changed error", e);
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
+            if (retryLater) {
+                // keep the workflow in multiThreadFilterMap, so the new events don't retry the failed one right away
+                scheduleRetry(workflowExecuteThread);
+            } else {
+                // make sure the process has been removed from multiThreadFilterMap
+                multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+                // the events submitted during the drain are skipped by executeEvent, check them here
+                executeEvent(workflowExecuteThread);
+            }
+        }
+    }
+
+    private void scheduleRetry(final WorkflowExecuteRunnable workflowExecuteThread) {
+        Runnable retry = () -> {
+            multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+            executeEvent(workflowExecuteThread);
+        };
+        try {
+            retryScheduler.schedule(retry, Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.error("Schedule workflow events retry failed, the retry scheduler has been shutdown", e);
+            multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+        }
     }
 
     /**
@@ -25,10 +25,12 @@ import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.TaskKillRequestCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.runner.StateWheelExecuteThread;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
@@ -50,8 +52,12 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
 
     private TaskPriorityQueue<TaskPriority> taskUpdateQueue;
 
+    private StateWheelExecuteThread stateWheelExecuteThread;
+
     private NettyExecutorManager nettyExecutorManager = SpringApplicationContext.getBean(NettyExecutorManager.class);
 
+    private TaskCacheKeyManager taskCacheKeyManager = SpringApplicationContext.getBean(TaskCacheKeyManager.class);
+
     @Override
     protected boolean submitTask() {
         if (this.taskInstance.getTestFlag() == Constants.TEST_FLAG_YES) {
@@ -128,8 +134,16 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
             }
 
             taskPriority.setTaskExecutionContext(taskExecutionContext);
-
-            taskUpdateQueue.put(taskPriority);
+            // the cache key is generated in background while the task is waiting in the queue
+            taskCacheKeyManager.generateCacheKeyAsync(taskInstance, taskExecutionContext);
+
+            // the queue is bounded, if it's full the task waits in the state wheel instead of blocking the workflow
+            // event loop
+            if (!taskUpdateQueue.offer(taskPriority)) {
+                stateWheelExecuteThread.addTask4DispatchCheck(taskPriority, taskUpdateQueue);
+                logger.info("Task {} is waiting for the full priority queue", taskInstance.getName());
+                return true;
+            }
             logger.info("Task {} is submitted to priority queue success by master", taskInstance.getName());
             return true;
         } catch (Exception e) {
@@ -140,6 +154,7 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
 
     public void initQueue() {
         this.taskUpdateQueue = SpringApplicationContext.getBean(TaskPriorityQueueImpl.class);
+        this.stateWheelExecuteThread = SpringApplicationContext.getBean(StateWheelExecuteThread.class);
     }
 
     @Override
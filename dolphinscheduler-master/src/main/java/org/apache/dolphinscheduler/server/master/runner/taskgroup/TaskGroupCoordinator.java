@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner.taskgroup;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
+import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
+import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.registry.api.RegistryClient;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admit the task group resources in memory. The master which holds the task group lock in registry is the
+ * coordinator, it keeps a {@link TaskGroupSemaphore} for each task group, and rebuilds them from
+ * t_ds_task_group_queue when it takes over.
+ * <p>The task group queue in db is the write-ahead record: a task is recorded as waiting before it is offered to the
+ * semaphore, and a resource is taken in db before it is taken in memory. The waiting tasks and the released resources
+ * of the other masters are synced every {@link MasterConfig#getTaskGroupSyncInterval()}.
+ * <p>The monitor of the coordinator only guards the semaphores, the db and rpc calls are made outside it, so the
+ * workflow threads which acquire or release the resources are not blocked by each other's io.
+ */
+@Component
+public class TaskGroupCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskGroupCoordinator.class);
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private RegistryClient registryClient;
+
+    @Autowired
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Autowired
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    private final Map<Integer, TaskGroupSemaphore> semaphores = new HashMap<>();
+
+    private volatile boolean coordinator;
+
+    private int lastWaitingQueueId;
+
+    private long lastReconcileTime;
+
+    public void start() {
+        logger.info("Task group coordinator starting");
+        new TaskGroupCoordinateThread().start();
+        logger.info("Task group coordinator started");
+    }
+
+    public boolean isCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Record the task as waiting for the task group resource, the resource is admitted directly if this master is the
+     * coordinator, otherwise the task will be woken up after the coordinator admits it.
+     *
+     * @return true if the task can be dispatched now
+     */
+    public boolean acquire(TaskInstance taskInstance) {
+        int taskGroupId = taskInstance.getTaskGroupId();
+        TaskGroup taskGroup = processService.findTaskGroupById(taskGroupId);
+        // we don't throw exception here, to avoid the task group has been deleted during workflow running
+        if (taskGroup == null || taskGroup.getStatus() == Flag.NO.getCode()) {
+            return true;
+        }
+        TaskGroupQueue taskGroupQueue = processService.enqueueTaskGroupQueue(taskInstance.getId(),
+                taskInstance.getName(),
+                taskGroupId,
+                taskInstance.getProcessInstanceId(),
+                taskInstance.getTaskGroupPriority());
+        if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+            return true;
+        }
+        if (taskGroupQueue.getForceStart() == Flag.YES.getCode()) {
+            logger.info("The task is waiting to be force started, taskInstanceId: {}, taskGroupId: {}",
+                    taskInstance.getId(), taskGroupId);
+            return false;
+        }
+        TaskGroupSemaphore semaphore;
+        synchronized (this) {
+            if (!coordinator) {
+                logger.info("The task is waiting for the task group coordinator, taskInstanceId: {}, taskGroupId: {}",
+                        taskInstance.getId(), taskGroupId);
+                return false;
+            }
+            // the resources released by the other masters can be admitted right now
+            semaphore = semaphores.computeIfAbsent(taskGroupId, TaskGroupSemaphore::new);
+            semaphore.refresh(taskGroup);
+            semaphore.offer(taskGroupQueue);
+        }
+        boolean admitted = admit(semaphore, taskGroupQueue.getId());
+        logger.info("{} to acquire taskGroup, taskInstanceId: {}, taskGroupId: {}",
+                admitted ? "Success" : "Failed", taskInstance.getId(), taskGroupId);
+        return admitted;
+    }
+
+    /**
+     * Release the task group resource held by the task, the waiting tasks are admitted directly if this master is the
+     * coordinator.
+     */
+    public void release(TaskInstance taskInstance) {
+        if (taskInstance.getTaskGroupId() <= 0) {
+            return;
+        }
+        TaskGroupQueue releasedTaskGroupQueue = processService.releaseTaskGroupResource(taskInstance);
+        if (releasedTaskGroupQueue != null) {
+            onReleased(Collections.singletonList(releasedTaskGroupQueue));
+        }
+    }
+
+    /**
+     * Stop admitting the force started task, it runs without taking the task group resource. If the task is force
+     * started by another master, the coordinator removes it when its grant fails.
+     */
+    public synchronized void forceStarted(TaskGroupQueue taskGroupQueue) {
+        TaskGroupSemaphore semaphore = semaphores.get(taskGroupQueue.getGroupId());
+        if (semaphore != null) {
+            semaphore.remove(taskGroupQueue.getId());
+        }
+    }
+
+    public void releaseAll(int processInstanceId) {
+        onReleased(processService.releaseAllTaskGroup(processInstanceId));
+    }
+
+    private void onReleased(List<TaskGroupQueue> releasedTaskGroupQueues) {
+        Set<TaskGroupSemaphore> releasedSemaphores = new LinkedHashSet<>();
+        synchronized (this) {
+            if (!coordinator) {
+                // the coordinator will sync the released resources
+                return;
+            }
+            for (TaskGroupQueue releasedTaskGroupQueue : releasedTaskGroupQueues) {
+                TaskGroupSemaphore semaphore = semaphores.get(releasedTaskGroupQueue.getGroupId());
+                if (semaphore == null) {
+                    continue;
+                }
+                if (releasedTaskGroupQueue.getStatus() == TaskGroupQueueStatus.WAIT_QUEUE) {
+                    semaphore.remove(releasedTaskGroupQueue.getId());
+                } else if (releasedTaskGroupQueue.getForceStart() == Flag.NO.getCode()) {
+                    semaphore.release();
+                }
+                releasedSemaphores.add(semaphore);
+            }
+        }
+        for (TaskGroupSemaphore semaphore : releasedSemaphores) {
+            admit(semaphore, -1);
+        }
+    }
+
+    /**
+     * Admit the waiting tasks of the task group until there is no free resource. The resources of a task group are
+     * granted one at a time, by the thread which finds no grant in progress. The db and rpc calls are made outside the
+     * monitor, which only guards the in-memory state.
+     *
+     * @param currentQueueId the task group queue of the task which is acquiring now, it will not be woken up
+     * @return true if the current task is admitted, false if it is left waiting or admitted by another thread, which
+     * wakes it up
+     */
+    private boolean admit(TaskGroupSemaphore semaphore, int currentQueueId) {
+        boolean currentAdmitted = false;
+        while (true) {
+            TaskGroupQueue taskGroupQueue;
+            int useSize;
+            synchronized (this) {
+                if (semaphore.isGranting()) {
+                    // the granting thread goes on with the waiting tasks after its grant
+                    return currentAdmitted;
+                }
+                Optional<TaskGroupQueue> next = semaphore.next();
+                if (!next.isPresent()) {
+                    return currentAdmitted;
+                }
+                taskGroupQueue = next.get();
+                useSize = semaphore.getUseSize();
+                semaphore.setGranting(true);
+            }
+            boolean wakeUp = taskGroupQueue.getId() != currentQueueId;
+            boolean granted = false;
+            boolean goOn;
+            try {
+                granted = processService.grantTaskGroupResource(taskGroupQueue, useSize, wakeUp);
+                // the resources are released by the other masters, or the task is no longer waiting
+                goOn = granted || reconcile(semaphore, taskGroupQueue);
+            } finally {
+                synchronized (this) {
+                    if (granted) {
+                        semaphore.acquire(taskGroupQueue);
+                    }
+                    semaphore.setGranting(false);
+                }
+            }
+            if (granted) {
+                logger.info("Success admit taskGroup, taskInstanceId: {}, taskGroupId: {}, useSize: {}/{}",
+                        taskGroupQueue.getTaskId(), semaphore.getGroupId(), useSize + 1, semaphore.getGroupSize());
+                if (wakeUp) {
+                    wakeUp(taskGroupQueue);
+                } else {
+                    currentAdmitted = true;
+                }
+            }
+            if (!goOn) {
+                return currentAdmitted;
+            }
+        }
+    }
+
+    /**
+     * @return true if the semaphore is changed after reconciled with db, the admission can go on
+     */
+    private boolean reconcile(TaskGroupSemaphore semaphore, TaskGroupQueue taskGroupQueue) {
+        TaskGroupQueue latestTaskGroupQueue = processService.loadTaskGroupQueue(taskGroupQueue.getTaskId());
+        if (latestTaskGroupQueue == null
+                || latestTaskGroupQueue.getStatus() != TaskGroupQueueStatus.WAIT_QUEUE
+                || latestTaskGroupQueue.getForceStart() == Flag.YES.getCode()) {
+            synchronized (this) {
+                semaphore.remove(taskGroupQueue.getId());
+            }
+            return true;
+        }
+        TaskGroup taskGroup = processService.findTaskGroupById(semaphore.getGroupId());
+        synchronized (this) {
+            if (taskGroup == null) {
+                semaphores.remove(semaphore.getGroupId(), semaphore);
+                return false;
+            }
+            return semaphore.refresh(taskGroup);
+        }
+    }
+
+    private void wakeUp(TaskGroupQueue taskGroupQueue) {
+        TaskStateEvent wakeUpEvent = TaskStateEvent.builder()
+                .processInstanceId(taskGroupQueue.getProcessId())
+                .taskInstanceId(taskGroupQueue.getTaskId())
+                .type(StateEventType.WAIT_TASK_GROUP)
+                .build();
+        if (processInstanceExecCacheManager.contains(taskGroupQueue.getProcessId())) {
+            workflowExecuteThreadPool.submitStateEvent(wakeUpEvent);
+            return;
+        }
+        ProcessInstance processInstance = processService.findProcessInstanceById(taskGroupQueue.getProcessId());
+        if (processInstance == null || StringUtils.isEmpty(processInstance.getHost())) {
+            logger.warn("The workflow instance of the admitted task is not running, will wake it up again when "
+                    + "reconciling, taskGroupQueue: {}", taskGroupQueue);
+            return;
+        }
+        processService.sendStartTask2Master(processInstance, taskGroupQueue.getTaskId(),
+                CommandType.TASK_WAKEUP_EVENT_REQUEST);
+    }
+
+    /**
+     * Rebuild the semaphores from db when this master becomes the coordinator, the tasks which were admitted by the
+     * previous coordinator but may not be woken up are woken up again.
+     */
+    void takeOver() {
+        reconcileAll();
+        synchronized (this) {
+            coordinator = true;
+            logger.info("This master becomes the task group coordinator, taskGroups: {}, waitingTasks: {}",
+                    semaphores.size(),
+                    semaphores.values().stream().mapToInt(TaskGroupSemaphore::waitingSize).sum());
+        }
+        admitAll();
+    }
+
+    private synchronized void resign() {
+        coordinator = false;
+        semaphores.clear();
+    }
+
+    void sync() {
+        if (System.currentTimeMillis() - lastReconcileTime >= masterConfig.getTaskGroupReconcileInterval().toMillis()) {
+            reconcileAll();
+        } else {
+            List<TaskGroup> taskGroups = processService.queryAllTaskGroup();
+            List<TaskGroupQueue> waitingTaskGroupQueues =
+                    processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, lastWaitingQueueId);
+            synchronized (this) {
+                refreshTaskGroups(taskGroups);
+                for (TaskGroupQueue taskGroupQueue : waitingTaskGroupQueues) {
+                    lastWaitingQueueId = Math.max(lastWaitingQueueId, taskGroupQueue.getId());
+                    offer(taskGroupQueue);
+                }
+            }
+        }
+        admitAll();
+    }
+
+    /**
+     * Rebuild the semaphores from db, and wake up the admitted tasks which are still not woken up. A wake up is sent
+     * and forgotten, it's lost if the workflow instance is not running on any master at that time. A task is woken up
+     * at most once however many wake ups are sent, since the wake up takes the in queue flag of the task.
+     */
+    private void reconcileAll() {
+        List<TaskGroup> taskGroups = processService.queryAllTaskGroup();
+        List<TaskGroupQueue> waitingTaskGroupQueues =
+                processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, 0);
+        synchronized (this) {
+            semaphores.clear();
+            refreshTaskGroups(taskGroups);
+            for (TaskGroupQueue taskGroupQueue : waitingTaskGroupQueues) {
+                lastWaitingQueueId = Math.max(lastWaitingQueueId, taskGroupQueue.getId());
+                offer(taskGroupQueue);
+            }
+        }
+        lastReconcileTime = System.currentTimeMillis();
+        for (TaskGroupQueue taskGroupQueue : processService
+                .queryTaskGroupQueueByStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS, 0)) {
+            if (taskGroupQueue.getInQueue() == Flag.YES.getCode()) {
+                wakeUp(taskGroupQueue);
+            }
+        }
+    }
+
+    private void refreshTaskGroups(List<TaskGroup> taskGroups) {
+        Set<Integer> taskGroupIds = new HashSet<>();
+        for (TaskGroup taskGroup : taskGroups) {
+            taskGroupIds.add(taskGroup.getId());
+            semaphores.computeIfAbsent(taskGroup.getId(), TaskGroupSemaphore::new).refresh(taskGroup);
+        }
+        semaphores.keySet().retainAll(taskGroupIds);
+    }
+
+    private void offer(TaskGroupQueue taskGroupQueue) {
+        TaskGroupSemaphore semaphore = semaphores.get(taskGroupQueue.getGroupId());
+        if (semaphore != null && taskGroupQueue.getForceStart() == Flag.NO.getCode()) {
+            semaphore.offer(taskGroupQueue);
+        }
+    }
+
+    private void admitAll() {
+        List<TaskGroupSemaphore> allSemaphores;
+        synchronized (this) {
+            allSemaphores = new ArrayList<>(semaphores.values());
+        }
+        for (TaskGroupSemaphore semaphore : allSemaphores) {
+            admit(semaphore, -1);
+        }
+    }
+
+    class TaskGroupCoordinateThread extends BaseDaemonThread {
+
+        protected TaskGroupCoordinateThread() {
+            super("TaskGroupCoordinateThread");
+        }
+
+        @Override
+        public void run() {
+            String lockPath = Constants.REGISTRY_DOLPHINSCHEDULER_LOCK_TASK_GROUP;
+            while (!ServerLifeCycleManager.isStopped()) {
+                if (!ServerLifeCycleManager.isRunning()) {
+                    ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                    continue;
+                }
+                try {
+                    // block until this master becomes the coordinator
+                    registryClient.getLock(lockPath);
+                    takeOver();
+                    while (ServerLifeCycleManager.isRunning()) {
+                        ThreadUtils.sleep(masterConfig.getTaskGroupSyncInterval().toMillis());
+                        try {
+                            sync();
+                        } catch (Exception e) {
+                            logger.error("Task group coordinator sync error", e);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.error("Task group coordinator execute error", e);
+                    ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                } finally {
+                    resign();
+                    registryClient.releaseLock(lockPath);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner.taskgroup;
+
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The in-memory admission state of one task group. The waiting tasks are admitted by the priority, and the tasks with
+ * the same priority are admitted in the order they were queued.
+ * <p>This class is not thread safe, it is guarded by the {@link TaskGroupCoordinator}.
+ */
+public class TaskGroupSemaphore {
+
+    private static final Comparator<TaskGroupQueue> ADMIT_ORDER = Comparator
+            .comparingInt(TaskGroupQueue::getPriority).reversed()
+            .thenComparingInt(TaskGroupQueue::getId);
+
+    @Getter
+    private final int groupId;
+
+    @Getter
+    private int groupSize;
+
+    @Getter
+    private int useSize;
+
+    private final NavigableSet<TaskGroupQueue> waitingQueues = new TreeSet<>(ADMIT_ORDER);
+
+    private final Map<Integer, TaskGroupQueue> waitingQueueMap = new HashMap<>();
+
+    /**
+     * whether a resource is being taken in db for the next waiting task, the resources are taken one at a time since
+     * each one is taken by the use size it was read with
+     */
+    @Getter
+    @Setter
+    private boolean granting;
+
+    public TaskGroupSemaphore(int groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * Sync the size of the task group from db, the use size in db is the truth since the resources can be released by
+     * all the masters.
+     *
+     * @return true if the size has changed
+     */
+    public boolean refresh(TaskGroup taskGroup) {
+        boolean changed = groupSize != taskGroup.getGroupSize() || useSize != taskGroup.getUseSize();
+        this.groupSize = taskGroup.getGroupSize();
+        this.useSize = taskGroup.getUseSize();
+        return changed;
+    }
+
+    /**
+     * Add the task to wait for the resource, the previous one with the same id is replaced.
+     */
+    public void offer(TaskGroupQueue taskGroupQueue) {
+        remove(taskGroupQueue.getId());
+        waitingQueues.add(taskGroupQueue);
+        waitingQueueMap.put(taskGroupQueue.getId(), taskGroupQueue);
+    }
+
+    public boolean remove(int taskGroupQueueId) {
+        TaskGroupQueue taskGroupQueue = waitingQueueMap.remove(taskGroupQueueId);
+        if (taskGroupQueue == null) {
+            return false;
+        }
+        waitingQueues.remove(taskGroupQueue);
+        return true;
+    }
+
+    /**
+     * @return the waiting task to admit next, empty if there is no waiting task or no free resource
+     */
+    public Optional<TaskGroupQueue> next() {
+        if (useSize >= groupSize || waitingQueues.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(waitingQueues.first());
+    }
+
+    /**
+     * Take one resource for the waiting task, should be called after the resource has been taken in db.
+     */
+    public void acquire(TaskGroupQueue taskGroupQueue) {
+        remove(taskGroupQueue.getId());
+        useSize++;
+    }
+
+    public void release() {
+        if (useSize > 0) {
+            useSize--;
+        }
+    }
+
+    public int waitingSize() {
+        return waitingQueues.size();
+    }
+}
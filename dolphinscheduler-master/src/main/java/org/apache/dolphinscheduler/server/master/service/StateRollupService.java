@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.service;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
+import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
+import org.apache.dolphinscheduler.dao.mapper.StateRollupMapper;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.registry.api.RegistryClient;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Compact the workflow and task instance states of each closed hour into the state rollup, so that the statistics
+ * api doesn't need to scan the instance tables for the compacted hours.
+ * <p>An hour is compacted again while it still has unfinished instances, or after it is marked dirty because its
+ * finished instances are changed or deleted. The later hours are compacted one by one after the last compacted hour,
+ * so the compacted hours are always continuous.
+ */
+@Service
+public class StateRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateRollupService.class);
+
+    private static final int[] UNFINISHED_WORKFLOW_STATES = Arrays.stream(WorkflowExecutionStatus.values())
+            .filter(status -> !status.isFinished())
+            .mapToInt(WorkflowExecutionStatus::getCode)
+            .toArray();
+
+    private static final int[] UNFINISHED_TASK_STATES = Arrays.stream(TaskExecutionStatus.values())
+            .filter(status -> !status.isFinished())
+            .mapToInt(TaskExecutionStatus::getCode)
+            .toArray();
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired
+    private StateRollupDao stateRollupDao;
+
+    @Autowired
+    private StateRollupMapper stateRollupMapper;
+
+    @Autowired
+    private RegistryClient registryClient;
+
+    public void compactStateRollup() {
+        String lockPath = Constants.REGISTRY_DOLPHINSCHEDULER_LOCK_STATE_ROLLUP;
+        try {
+            registryClient.getLock(lockPath);
+            for (StateRollupType rollupType : StateRollupType.values()) {
+                compactStateRollup(rollupType);
+            }
+        } finally {
+            registryClient.releaseLock(lockPath);
+        }
+    }
+
+    private void compactStateRollup(StateRollupType rollupType) {
+        long now = System.currentTimeMillis();
+        Date backfillStartHour = DateUtils.getStartOfHour(
+                new Date(now - masterConfig.getStateRollupBackfill().toMillis()));
+        Date compactEndHour = DateUtils.getStartOfHour(new Date(now - masterConfig.getStateRollupDelay().toMillis()));
+
+        StopWatch stopWatch = StopWatch.createStarted();
+        int compactedHours = 0;
+        int[] unfinishedStates = rollupType == StateRollupType.WORKFLOW_INSTANCE_START_TIME
+                ? UNFINISHED_WORKFLOW_STATES
+                : UNFINISHED_TASK_STATES;
+        TreeSet<Date> recompactHours = new TreeSet<>();
+        for (Date rollupHour : stateRollupMapper.queryRollupHoursByStates(rollupType, unfinishedStates)) {
+            if (!rollupHour.before(backfillStartHour)) {
+                recompactHours.add(rollupHour);
+            }
+        }
+        Date firstCompactedHour = stateRollupMapper.queryFirstCompactedHour(rollupType);
+        Date lastCompactedHour = stateRollupMapper.queryLastCompactedHour(rollupType);
+        int[] dirtyStates = {StateRollup.DIRTY_STATE};
+        for (Date rollupHour : stateRollupMapper.queryRollupHoursByStates(rollupType, dirtyStates)) {
+            if (firstCompactedHour == null || rollupHour.before(firstCompactedHour)) {
+                // never compacted, compacting it would leave a gap before the first compacted hour
+                stateRollupMapper.deleteByRollupHour(rollupType, rollupHour);
+            } else if (!rollupHour.after(lastCompactedHour)) {
+                recompactHours.add(rollupHour);
+            }
+            // the dirty hours after the last compacted hour are compacted in order below
+        }
+        for (Date rollupHour : recompactHours) {
+            if (!ServerLifeCycleManager.isRunning()) {
+                return;
+            }
+            stateRollupDao.compactRollupHour(rollupType, rollupHour);
+            compactedHours++;
+        }
+
+        Date rollupHour = lastCompactedHour == null
+                ? backfillStartHour
+                : DateUtils.add(lastCompactedHour, Calendar.HOUR_OF_DAY, 1);
+        while (rollupHour.before(compactEndHour)) {
+            if (!ServerLifeCycleManager.isRunning()) {
+                return;
+            }
+            stateRollupDao.compactRollupHour(rollupType, rollupHour);
+            compactedHours++;
+            rollupHour = DateUtils.add(rollupHour, Calendar.HOUR_OF_DAY, 1);
+        }
+        if (compactedHours > 0) {
+            LOGGER.info("Compacted {} hours of the {} state rollup, cost: {}ms", compactedHours, rollupType,
+                    stopWatch.getTime());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DependentResultCacheManagerImplTest {
+
+    private static final long DEFINITION_CODE = 1L;
+
+    @InjectMocks
+    private DependentResultCacheManagerImpl dependentResultCacheManager;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private TaskInstanceDao taskInstanceDao;
+
+    @Mock
+    private CacheNotifyService cacheNotifyService;
+
+    private final DateInterval dateInterval = new DateInterval(new Date(0), new Date(1000));
+
+    private ProcessInstance manualProcess;
+
+    private ProcessInstance schedulerProcess;
+
+    @BeforeEach
+    public void before() {
+        dependentResultCacheManager.init();
+        manualProcess = createProcessInstance(1, WorkflowExecutionStatus.SUCCESS);
+        schedulerProcess = createProcessInstance(2, WorkflowExecutionStatus.SUCCESS);
+        Mockito.when(processService.findLastManualProcessInterval(DEFINITION_CODE, dateInterval, 0))
+                .thenReturn(manualProcess);
+        Mockito.when(processService.findLastSchedulerProcessInterval(DEFINITION_CODE, dateInterval, 0))
+                .thenReturn(schedulerProcess);
+    }
+
+    @Test
+    public void testFindLastProcessInterval() {
+        Optional<ProcessInstance> lastProcess =
+                dependentResultCacheManager.findLastProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        Assertions.assertEquals(schedulerProcess, lastProcess.orElse(null));
+
+        // the other dependent tasks share the result
+        lastProcess = dependentResultCacheManager.findLastProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        Assertions.assertEquals(schedulerProcess, lastProcess.orElse(null));
+        Mockito.verify(processService, Mockito.times(1))
+                .findLastManualProcessInterval(DEFINITION_CODE, dateInterval, 0);
+
+        // the results are evicted by the cache expire command
+        dependentResultCacheManager.onCacheExpire(CacheType.DEPENDENT_RESULT, String.valueOf(DEFINITION_CODE));
+        Mockito.when(processService.findLastSchedulerProcessInterval(DEFINITION_CODE, dateInterval, 0))
+                .thenReturn(null);
+        lastProcess = dependentResultCacheManager.findLastProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        Assertions.assertEquals(manualProcess, lastProcess.orElse(null));
+    }
+
+    @Test
+    public void testFindValidTaskList() {
+        TaskInstance finishedTask = createTaskInstance(TaskExecutionStatus.SUCCESS);
+        TaskInstance runningTask = createTaskInstance(TaskExecutionStatus.RUNNING_EXECUTION);
+        Mockito.when(taskInstanceDao.findValidTaskListByProcessId(manualProcess.getId(), 0))
+                .thenReturn(Collections.singletonList(finishedTask));
+        Mockito.when(taskInstanceDao.findValidTaskListByProcessId(schedulerProcess.getId(), 0))
+                .thenReturn(Collections.singletonList(runningTask));
+
+        dependentResultCacheManager.findValidTaskList(manualProcess, 0);
+        List<TaskInstance> taskInstances = dependentResultCacheManager.findValidTaskList(manualProcess, 0);
+        Assertions.assertEquals(Collections.singletonList(finishedTask), taskInstances);
+        Mockito.verify(taskInstanceDao, Mockito.times(1)).findValidTaskListByProcessId(manualProcess.getId(), 0);
+
+        // the task states are not flushed yet, query them again
+        dependentResultCacheManager.findValidTaskList(schedulerProcess, 0);
+        dependentResultCacheManager.findValidTaskList(schedulerProcess, 0);
+        Mockito.verify(taskInstanceDao, Mockito.times(2)).findValidTaskListByProcessId(schedulerProcess.getId(), 0);
+    }
+
+    @Test
+    public void testNotifyProcessInstanceChanged() {
+        dependentResultCacheManager.findLastProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        dependentResultCacheManager.notifyProcessInstanceChanged(schedulerProcess);
+
+        // the local results are evicted at once, the other masters are notified asynchronously
+        dependentResultCacheManager.findLastProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        Mockito.verify(processService, Mockito.times(2))
+                .findLastManualProcessInterval(DEFINITION_CODE, dateInterval, 0);
+        Mockito.verify(cacheNotifyService, Mockito.timeout(1000).times(1)).notifyMaster(Mockito.any(Command.class));
+    }
+
+    @Test
+    public void testFindValidTaskListOfRunningProcess() throws InterruptedException {
+        ProcessInstance runningProcess = createProcessInstance(3, WorkflowExecutionStatus.RUNNING_EXECUTION);
+        TaskInstance runningTask = createTaskInstance(TaskExecutionStatus.RUNNING_EXECUTION);
+        Mockito.when(taskInstanceDao.findValidTaskListByProcessId(runningProcess.getId(), 0))
+                .thenReturn(Collections.singletonList(runningTask));
+
+        // the dependent tasks checking at the same time share the task list
+        dependentResultCacheManager.findValidTaskList(runningProcess, 0);
+        List<TaskInstance> taskInstances = dependentResultCacheManager.findValidTaskList(runningProcess, 0);
+        Assertions.assertEquals(Collections.singletonList(runningTask), taskInstances);
+        Mockito.verify(taskInstanceDao, Mockito.times(1)).findValidTaskListByProcessId(runningProcess.getId(), 0);
+
+        // the task list is expired after a short while
+        Thread.sleep(1100);
+        dependentResultCacheManager.findValidTaskList(runningProcess, 0);
+        Mockito.verify(taskInstanceDao, Mockito.times(2)).findValidTaskListByProcessId(runningProcess.getId(), 0);
+
+        // the task list of the running workflow instance is not taken once it is finished
+        TaskInstance finishedTask = createTaskInstance(TaskExecutionStatus.SUCCESS);
+        Mockito.when(taskInstanceDao.findValidTaskListByProcessId(runningProcess.getId(), 0))
+                .thenReturn(Collections.singletonList(finishedTask));
+        runningProcess.setState(WorkflowExecutionStatus.SUCCESS);
+        taskInstances = dependentResultCacheManager.findValidTaskList(runningProcess, 0);
+        Assertions.assertEquals(Collections.singletonList(finishedTask), taskInstances);
+        Mockito.verify(taskInstanceDao, Mockito.times(3)).findValidTaskListByProcessId(runningProcess.getId(), 0);
+    }
+
+    private ProcessInstance createProcessInstance(int id, WorkflowExecutionStatus state) {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(id);
+        processInstance.setProcessDefinitionCode(DEFINITION_CODE);
+        processInstance.setState(state);
+        return processInstance;
+    }
+
+    private TaskInstance createTaskInstance(TaskExecutionStatus state) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setTaskCode(1L);
+        taskInstance.setState(state);
+        return taskInstance;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TaskCacheKeyManagerImplTest {
+
+    private static final String CRC_FULL_NAME = "/dolphinscheduler/tenant/resources/DATA_TRANSFER/output.crc";
+
+    @InjectMocks
+    private TaskCacheKeyManagerImpl taskCacheKeyManager;
+
+    @Mock
+    private TaskInstanceDao taskInstanceDao;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private StorageOperate storageOperate;
+
+    @TempDir
+    Path executePath;
+
+    private TaskInstance taskInstance;
+
+    private TaskExecutionContext taskExecutionContext;
+
+    private final StorageEntity crcFile = new StorageEntity();
+
+    private String checkSum = "checksum1";
+
+    @BeforeEach
+    public void before() throws Exception {
+        Mockito.when(masterConfig.getDispatchTaskNumber()).thenReturn(2);
+        taskCacheKeyManager.init();
+
+        taskInstance = new TaskInstance();
+        taskInstance.setId(1);
+        taskInstance.setTaskCode(123L);
+        taskInstance.setTaskDefinitionVersion(1);
+        taskInstance.setIsCache(Flag.YES);
+        taskInstance.setTaskParams(
+                "{\"localParams\":[{\"prop\":\"file\",\"direct\":\"IN\",\"type\":\"FILE\",\"value\":\"\"}]}");
+        taskInstance.setVarPool(
+                "[{\"prop\":\"file\",\"direct\":\"IN\",\"type\":\"FILE\",\"value\":\"DATA_TRANSFER/output\"}]");
+
+        taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTenantCode("tenant");
+        taskExecutionContext.setExecutePath(executePath.toString());
+
+        crcFile.setUpdateTime(new Date(1000));
+        Mockito.when(storageOperate.getResourceFileName("tenant", "DATA_TRANSFER/output.crc"))
+                .thenReturn(CRC_FULL_NAME);
+        Mockito.when(storageOperate.getFileStatus(CRC_FULL_NAME, "", "tenant", ResourceType.FILE))
+                .thenReturn(crcFile);
+        Mockito.doAnswer(invocation -> {
+            File targetFile = new File(invocation.getArgument(2, String.class));
+            targetFile.getParentFile().mkdirs();
+            Files.write(targetFile.toPath(), checkSum.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.eq("tenant"), Mockito.eq(CRC_FULL_NAME), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testGetCacheKey() throws Exception {
+        taskCacheKeyManager.generateCacheKeyAsync(taskInstance, taskExecutionContext);
+        String cacheKey = taskCacheKeyManager.getCacheKey(taskInstance, taskExecutionContext).get();
+
+        // the generated cache key is taken, the checksum is memoized when generating it again
+        Assertions.assertEquals(cacheKey, taskCacheKeyManager.getCacheKey(taskInstance, taskExecutionContext).get());
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+
+        // the checksum file is modified
+        crcFile.setUpdateTime(new Date(2000));
+        checkSum = "checksum2";
+        Assertions.assertNotEquals(cacheKey,
+                taskCacheKeyManager.getCacheKey(taskInstance, taskExecutionContext).get());
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testGenerateCacheKeyAsyncForNotCacheTask() {
+        taskInstance.setIsCache(Flag.NO);
+        taskCacheKeyManager.generateCacheKeyAsync(taskInstance, taskExecutionContext);
+        Mockito.verifyNoInteractions(storageOperate);
+    }
+
+    @Test
+    public void testFindCacheTaskInstanceId() {
+        TaskInstance cacheTaskInstance = new TaskInstance();
+        cacheTaskInstance.setId(5);
+        Mockito.when(taskInstanceDao.findTaskInstanceByCacheKey("cacheKey")).thenReturn(cacheTaskInstance);
+
+        Assertions.assertEquals(Optional.of(5), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+        // served from the index
+        Assertions.assertEquals(Optional.of(5), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+        Mockito.verify(taskInstanceDao, Mockito.times(1)).findTaskInstanceByCacheKey("cacheKey");
+
+        // the cache is removed by api
+        taskCacheKeyManager.onCacheExpire(CacheType.TASK_INSTANCE_CACHE_KEY, "cacheKey");
+        Mockito.when(taskInstanceDao.findTaskInstanceByCacheKey("cacheKey")).thenReturn(null);
+        Assertions.assertEquals(Optional.empty(), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+        Mockito.verify(taskInstanceDao, Mockito.times(2)).findTaskInstanceByCacheKey("cacheKey");
+    }
+
+    @Test
+    public void testInvalidateCacheTaskInstanceId() {
+        TaskInstance cacheTaskInstance = new TaskInstance();
+        cacheTaskInstance.setId(5);
+        Mockito.when(taskInstanceDao.findTaskInstanceByCacheKey("cacheKey")).thenReturn(cacheTaskInstance);
+        Assertions.assertEquals(Optional.of(5), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+
+        // the entry points to another task instance, keep it
+        taskCacheKeyManager.invalidateCacheTaskInstanceId("cacheKey", 6);
+        Assertions.assertEquals(Optional.of(5), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+        Mockito.verify(taskInstanceDao, Mockito.times(1)).findTaskInstanceByCacheKey("cacheKey");
+
+        // the cache task instance is deleted
+        taskCacheKeyManager.invalidateCacheTaskInstanceId("cacheKey", 5);
+        Mockito.when(taskInstanceDao.findTaskInstanceByCacheKey("cacheKey")).thenReturn(null);
+        Assertions.assertEquals(Optional.empty(), taskCacheKeyManager.findCacheTaskInstanceId("cacheKey"));
+    }
+
+    @Test
+    public void testGenerateCacheKeyFromSnapshot() throws Exception {
+        String cacheKey = taskCacheKeyManager.getCacheKey(taskInstance, taskExecutionContext).get();
+
+        // the task instance is changed by the workflow after the key starts generating
+        taskCacheKeyManager.generateCacheKeyAsync(taskInstance, taskExecutionContext);
+        taskInstance.setTaskDefinitionVersion(2);
+        taskInstance.setVarPool("[]");
+        Assertions.assertEquals(cacheKey, taskCacheKeyManager.getCacheKey(taskInstance, taskExecutionContext).get());
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.consumer;
+
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * the tasks are dispatched asynchronously in the global dispatch window
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TaskPriorityQueueConsumerDispatchTest {
+
+    private static final int DISPATCH_WINDOW_SIZE = 2;
+
+    @InjectMocks
+    private TaskPriorityQueueConsumer taskPriorityQueueConsumer;
+
+    @Mock
+    private TaskPriorityQueue<TaskPriority> taskPriorityQueue;
+
+    @Mock
+    private TaskInstanceDao taskInstanceDao;
+
+    @Mock
+    private ExecutorDispatcher dispatcher;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private TaskCacheKeyManager taskCacheKeyManager;
+
+    @Mock
+    private WorkflowExecuteRunnable workflowExecuteRunnable;
+
+    private final Semaphore dispatchWindow = new Semaphore(DISPATCH_WINDOW_SIZE);
+
+    private final List<TaskPriority> polledTasks = new ArrayList<>();
+
+    private ExecutorService consumerThreadPoolExecutor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        consumerThreadPoolExecutor = ThreadUtils.newDaemonFixedThreadExecutor("TestDispatchThread", 2);
+        ReflectionTestUtils.setField(taskPriorityQueueConsumer, "consumerThreadPoolExecutor",
+                consumerThreadPoolExecutor);
+        ReflectionTestUtils.setField(taskPriorityQueueConsumer, "dispatchWindow", dispatchWindow);
+        Mockito.when(masterConfig.getMasterAddress()).thenReturn("127.0.0.1:5678");
+        Mockito.when(processInstanceExecCacheManager.getByProcessInstanceId(Mockito.anyInt()))
+                .thenReturn(workflowExecuteRunnable);
+        Mockito.when(workflowExecuteRunnable.getTaskInstance(Mockito.anyInt())).thenAnswer(invocation -> {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setId(invocation.getArgument(0));
+            taskInstance.setIsCache(Flag.NO);
+            return Optional.of(taskInstance);
+        });
+        // the queue always has enough tasks
+        Mockito.when(taskPriorityQueue.poll(Mockito.anyInt(), Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    List<TaskPriority> taskPriorities = new ArrayList<>();
+                    for (int i = 0; i < (int) invocation.getArgument(0); i++) {
+                        taskPriorities.add(newTaskPriority(polledTasks.size() + 1));
+                        polledTasks.add(taskPriorities.get(i));
+                    }
+                    return taskPriorities;
+                });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        consumerThreadPoolExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchDispatchWhenWindowIsFull() throws Exception {
+        CompletableFuture<Boolean> firstSend = new CompletableFuture<>();
+        CompletableFuture<Boolean> secondSend = new CompletableFuture<>();
+        mockDispatchAsync(firstSend, secondSend, CompletableFuture.completedFuture(true));
+
+        Assertions.assertEquals(DISPATCH_WINDOW_SIZE, taskPriorityQueueConsumer.batchDispatch(10));
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(2)).dispatchAsync(Mockito.any());
+
+        // the window is full, no task is polled until an in-flight task completes
+        Assertions.assertEquals(0, taskPriorityQueueConsumer.batchDispatch(10));
+        Mockito.verify(taskPriorityQueue, Mockito.times(1))
+                .poll(Mockito.anyInt(), Mockito.anyLong(), Mockito.any());
+
+        // the completion frees its slot
+        firstSend.complete(true);
+        Assertions.assertEquals(1, taskPriorityQueueConsumer.batchDispatch(10));
+        Mockito.verify(taskPriorityQueue).poll(Mockito.eq(1), Mockito.anyLong(), Mockito.any());
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(3)).dispatchAsync(Mockito.any());
+
+        secondSend.complete(true);
+        Mockito.verify(taskEventService, Mockito.timeout(5000).times(3)).addEvent(Mockito.any());
+        Mockito.verify(taskPriorityQueue, Mockito.never()).put(Mockito.any());
+        Assertions.assertEquals(DISPATCH_WINDOW_SIZE, dispatchWindow.availablePermits());
+    }
+
+    @Test
+    public void testBatchDispatchWhenSendFailed() throws Exception {
+        CompletableFuture<Boolean> failedSend = new CompletableFuture<>();
+        failedSend.completeExceptionally(new ExecuteException("send failed"));
+        // the worker window is full
+        CompletableFuture<Boolean> rejectedSend = CompletableFuture.completedFuture(false);
+        mockDispatchAsync(failedSend, rejectedSend);
+
+        Assertions.assertEquals(DISPATCH_WINDOW_SIZE, taskPriorityQueueConsumer.batchDispatch(10));
+
+        // each failed task is put back to the queue exactly once, and its slot is freed
+        for (TaskPriority taskPriority : polledTasks) {
+            Mockito.verify(taskPriorityQueue, Mockito.timeout(5000).times(1)).put(taskPriority);
+        }
+        Mockito.verify(taskPriorityQueue, Mockito.after(500).times(DISPATCH_WINDOW_SIZE)).put(Mockito.any());
+        Mockito.verify(taskEventService, Mockito.never()).addEvent(Mockito.any());
+        Assertions.assertEquals(DISPATCH_WINDOW_SIZE, dispatchWindow.availablePermits());
+    }
+
+    @SafeVarargs
+    private final void mockDispatchAsync(CompletableFuture<Boolean>... sendFutures) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (CompletableFuture<Boolean> sendFuture : sendFutures) {
+            futures.add(sendFuture);
+        }
+        Mockito.when(dispatcher.dispatchAsync(Mockito.any())).thenAnswer(invocation -> {
+            ExecutionContext executionContext = invocation.getArgument(0);
+            executionContext.setHost(Host.of("127.0.0.1:1234"));
+            synchronized (futures) {
+                return futures.remove(0);
+            }
+        });
+    }
+
+    private TaskPriority newTaskPriority(int taskId) {
+        TaskPriority taskPriority = new TaskPriority();
+        taskPriority.setTaskId(taskId);
+        taskPriority.setProcessInstanceId(1);
+        taskPriority.setTaskExecutionContext(TaskExecutionContext.builder()
+                .taskInstanceId(taskId)
+                .processInstanceId(1)
+                .workerGroup("default")
+                .build());
+        return taskPriority;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.ExecutorManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.HostManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * the in-flight dispatch window of each worker
+ */
+@ExtendWith(MockitoExtension.class)
+public class ExecutorDispatcherAsyncTest {
+
+    private static final Host WORKER = Host.of("127.0.0.1:1234");
+
+    private static final Host OTHER_WORKER = Host.of("127.0.0.2:1234");
+
+    @InjectMocks
+    private ExecutorDispatcher executorDispatcher;
+
+    @Mock
+    private HostManager hostManager;
+
+    @Spy
+    private MasterConfig masterConfig = new MasterConfig();
+
+    @Mock
+    private ExecutorManager<Boolean> executorManager;
+
+    @BeforeEach
+    public void setUp() {
+        masterConfig.setDispatchWindowSizePerWorker(1);
+        executorDispatcher.register(ExecutorType.WORKER, executorManager);
+    }
+
+    @Test
+    public void testDispatchWhenWorkerWindowIsFull() throws ExecuteException {
+        Mockito.when(hostManager.select(Mockito.any())).thenReturn(WORKER, WORKER, OTHER_WORKER, WORKER);
+        CompletableFuture<Boolean> sendFuture = new CompletableFuture<>();
+        Mockito.when(executorManager.executeAsync(Mockito.any())).thenReturn(sendFuture,
+                CompletableFuture.completedFuture(true), CompletableFuture.completedFuture(true));
+
+        CompletableFuture<Boolean> inFlight = executorDispatcher.dispatchAsync(newExecutionContext());
+        Assertions.assertFalse(inFlight.isDone());
+
+        // the window of the worker is full, the task is not sent
+        Assertions.assertFalse(executorDispatcher.dispatchAsync(newExecutionContext()).join());
+        Mockito.verify(executorManager, Mockito.times(1)).executeAsync(Mockito.any());
+
+        // the window of another worker is not affected
+        Assertions.assertTrue(executorDispatcher.dispatchAsync(newExecutionContext()).join());
+
+        // the completion of the in-flight task frees the slot
+        sendFuture.complete(true);
+        Assertions.assertTrue(inFlight.join());
+        Assertions.assertTrue(executorDispatcher.dispatchAsync(newExecutionContext()).join());
+        Mockito.verify(executorManager, Mockito.times(3)).executeAsync(Mockito.any());
+        Mockito.verify(executorManager, Mockito.times(3)).afterExecute(Mockito.any());
+    }
+
+    @Test
+    public void testDispatchWhenSendFailed() {
+        Mockito.when(hostManager.select(Mockito.any())).thenReturn(WORKER);
+        CompletableFuture<Boolean> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new ExecuteException("send failed"));
+        Mockito.when(executorManager.executeAsync(Mockito.any())).thenReturn(failedFuture,
+                CompletableFuture.completedFuture(true));
+
+        CompletableFuture<Boolean> dispatchFuture = executorDispatcher.dispatchAsync(newExecutionContext());
+        Assertions.assertTrue(dispatchFuture.isCompletedExceptionally());
+
+        // the failed task does not hold the slot
+        Assertions.assertTrue(executorDispatcher.dispatchAsync(newExecutionContext()).join());
+    }
+
+    private ExecutionContext newExecutionContext() {
+        return new ExecutionContext(new Command(), ExecutorType.WORKER, null);
+    }
+}
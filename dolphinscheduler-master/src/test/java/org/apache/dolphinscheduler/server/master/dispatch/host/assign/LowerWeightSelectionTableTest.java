@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import org.apache.dolphinscheduler.remote.utils.Host;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LowerWeightSelectionTableTest {
+
+    @Test
+    public void testSelectSameAsLowerWeightRoundRobin() {
+        // the workers are warmed up, so the weights are not changed by the time
+        long now = System.currentTimeMillis();
+        LowerWeightSelectionTable selectionTable = LowerWeightSelectionTable.of(hostWeights(now));
+        Assertions.assertEquals(3 * 16, selectionTable.size());
+
+        List<HostWeight> sources = hostWeights(now);
+        LowerWeightRoundRobin roundRobin = new LowerWeightRoundRobin();
+        List<Host> expected = new ArrayList<>();
+        for (int i = 0; i < selectionTable.size(); i++) {
+            expected.add(roundRobin.select(sources).getHost());
+        }
+        for (int i = 0; i < selectionTable.size(); i++) {
+            Assertions.assertEquals(expected.get(i), selectionTable.select());
+        }
+        // start again after all the slots are used
+        Assertions.assertEquals(expected.get(0), selectionTable.select());
+        // the host with more waiting tasks will not be selected
+        Assertions.assertFalse(expected.stream().anyMatch(host -> "192.158.2.2".equals(host.getIp())));
+    }
+
+    @Test
+    public void testEmptyHostWeights() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> LowerWeightSelectionTable.of(Collections.emptyList()));
+    }
+
+    private List<HostWeight> hostWeights(long now) {
+        List<HostWeight> sources = new ArrayList<>();
+        sources.add(new HostWeight(HostWorker.of("192.158.2.1:11", 100, "default"), 0.06, 0.44, 3.84, 1,
+                now - 60 * 20 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.2:22", 100, "default"), 0.06, 0.56, 3.24, 2,
+                now - 60 * 30 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.3:33", 100, "default"), 0.06, 0.80, 3.15, 1,
+                now - 60 * 40 * 1000));
+        return sources;
+    }
+}
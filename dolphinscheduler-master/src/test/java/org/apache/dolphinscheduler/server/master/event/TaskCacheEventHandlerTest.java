@@ -23,7 +23,9 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.dao.utils.TaskCacheUtils;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.TaskCacheKeyManager;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
@@ -63,8 +65,11 @@ class TaskCacheEventHandlerTest {
     @Mock
     private TaskInstanceDao taskInstanceDao;
 
+    @Mock
+    private TaskCacheKeyManager taskCacheKeyManager;
+
     @Test
-    void testHandleTaskEvent() {
+    void testHandleTaskEvent() throws Exception {
         TaskEvent taskEvent = Mockito.mock(TaskEvent.class);
         int processInstanceId = 1;
         int taskInstanceId = 2;
@@ -79,6 +84,7 @@ class TaskCacheEventHandlerTest {
         cacheTaskInstance.setId(cacheTaskInstanceId);
         cacheTaskInstance.setProcessInstanceId(cacheProcessInstanceId);
         cacheTaskInstance.setTaskParams(JSONUtils.toJsonString(new HashMap<>()));
+        cacheTaskInstance.setCacheKey("cacheKey");
 
         Mockito.when(taskInstanceDao.findTaskInstanceById(cacheTaskInstanceId)).thenReturn(cacheTaskInstance);
 
@@ -99,6 +105,7 @@ class TaskCacheEventHandlerTest {
         ProcessDefinition processDefinition = new ProcessDefinition();
         taskInstance.setProcessDefine(processDefinition);
         taskInstance.setSubmitTime(new Date());
+        taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(cacheTaskInstanceId, "cacheKey"));
 
         Mockito.when(taskInstanceOptional.get()).thenReturn(taskInstance);
 
@@ -109,4 +116,40 @@ class TaskCacheEventHandlerTest {
         Assertions.assertEquals(processInstanceId, taskInstance.getProcessInstanceId());
     }
 
+    @Test
+    void testHandleTaskEventWhenCacheTaskInstanceRemoved() throws Exception {
+        TaskEvent taskEvent = Mockito.mock(TaskEvent.class);
+        int processInstanceId = 1;
+        int taskInstanceId = 2;
+        int cacheTaskInstanceId = 3;
+        Mockito.when(taskEvent.getTaskInstanceId()).thenReturn(taskInstanceId);
+        Mockito.when(taskEvent.getProcessInstanceId()).thenReturn(processInstanceId);
+        Mockito.when(taskEvent.getCacheTaskInstanceId()).thenReturn(cacheTaskInstanceId);
+
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(taskInstanceId);
+        taskInstance.setTaskCode(10L);
+        taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(cacheTaskInstanceId, "cacheKey"));
+        WorkflowExecuteRunnable workflowExecuteRunnable = Mockito.mock(WorkflowExecuteRunnable.class);
+        Mockito.when(processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId))
+                .thenReturn(workflowExecuteRunnable);
+        Mockito.when(workflowExecuteRunnable.getTaskInstance(taskInstanceId)).thenReturn(Optional.of(taskInstance));
+
+        // the cache task instance is deleted after it was found from the recent cache keys
+        Mockito.when(taskInstanceDao.findTaskInstanceById(cacheTaskInstanceId)).thenReturn(null);
+        taskCacheEventHandler.handleTaskEvent(taskEvent);
+        Mockito.verify(taskCacheKeyManager).invalidateCacheTaskInstanceId("cacheKey", cacheTaskInstanceId);
+        Mockito.verify(workflowExecuteRunnable).resubmit(10L);
+        Assertions.assertEquals(TaskCacheUtils.generateTagCacheKey(taskInstanceId, "cacheKey"),
+                taskInstance.getCacheKey());
+
+        // the cache of the cache task instance is cleared
+        TaskInstance cacheTaskInstance = new TaskInstance();
+        cacheTaskInstance.setId(cacheTaskInstanceId);
+        Mockito.when(taskInstanceDao.findTaskInstanceById(cacheTaskInstanceId)).thenReturn(cacheTaskInstance);
+        taskInstance.setCacheKey(TaskCacheUtils.generateTagCacheKey(cacheTaskInstanceId, "cacheKey"));
+        taskCacheEventHandler.handleTaskEvent(taskEvent);
+        Mockito.verify(workflowExecuteRunnable, Mockito.times(2)).resubmit(10L);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+    }
 }
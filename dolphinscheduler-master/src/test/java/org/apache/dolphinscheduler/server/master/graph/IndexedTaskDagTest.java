@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.dolphinscheduler.server.master.graph;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.service.model.TaskNode;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IndexedTaskDagTest {
+
+    private DAG<String, TaskNode, TaskNodeRelation> dag;
+
+    private Map<Long, TaskNode> forbiddenTaskMap;
+
+    /**
+     * 1 -> 2(forbidden) -> 3
+     * 1 -> 4 -> 3
+     */
+    @BeforeEach
+    public void before() {
+        TaskNode node1 = createTaskNode(1L);
+        TaskNode node2 = createTaskNode(2L, "1");
+        node2.setRunFlag(Constants.FLOWNODE_RUN_FLAG_FORBIDDEN);
+        TaskNode node3 = createTaskNode(3L, "2", "4");
+        TaskNode node4 = createTaskNode(4L, "1");
+
+        dag = new DAG<>();
+        dag.addNode("1", node1);
+        dag.addNode("3", node3);
+        dag.addNode("4", node4);
+        dag.addEdge("1", "4");
+        dag.addEdge("4", "3");
+
+        forbiddenTaskMap = new HashMap<>();
+        forbiddenTaskMap.put(2L, node2);
+    }
+
+    @Test
+    public void testBuild() {
+        IndexedTaskDag indexedTaskDag = IndexedTaskDag.of(dag, forbiddenTaskMap);
+
+        Assertions.assertEquals(3, indexedTaskDag.getNodeCount());
+        Assertions.assertFalse(indexedTaskDag.containsNode(2L));
+        Assertions.assertEquals(IndexedTaskDag.NOT_EXIST, indexedTaskDag.getNodeId(2L));
+
+        int nodeId1 = indexedTaskDag.getNodeId(1L);
+        int nodeId3 = indexedTaskDag.getNodeId(3L);
+        int nodeId4 = indexedTaskDag.getNodeId(4L);
+        Assertions.assertTrue(indexedTaskDag.isBeginNode(nodeId1));
+        Assertions.assertTrue(indexedTaskDag.isEndNode(nodeId3));
+        Assertions.assertEquals("3", indexedTaskDag.getTaskCodeString(nodeId3));
+
+        // the forbidden node 2 is replaced by its dependency 1
+        int[] dependencyIds = indexedTaskDag.getDependencyIds(nodeId3);
+        Arrays.sort(dependencyIds);
+        int[] expected = new int[]{nodeId1, nodeId4};
+        Arrays.sort(expected);
+        Assertions.assertArrayEquals(expected, dependencyIds);
+        Assertions.assertEquals(2, indexedTaskDag.getRemainingDependencies(nodeId3));
+    }
+
+    @Test
+    public void testMarkCompleted() {
+        IndexedTaskDag indexedTaskDag = IndexedTaskDag.of(dag, forbiddenTaskMap);
+        int nodeId3 = indexedTaskDag.getNodeId(3L);
+        int nodeId4 = indexedTaskDag.getNodeId(4L);
+
+        indexedTaskDag.markCompleted(1L);
+        // mark repeatedly should not change the count
+        indexedTaskDag.markCompleted(1L);
+        Assertions.assertEquals(0, indexedTaskDag.getRemainingDependencies(nodeId4));
+        Assertions.assertEquals(1, indexedTaskDag.getRemainingDependencies(nodeId3));
+
+        indexedTaskDag.markCompleted(4L);
+        Assertions.assertEquals(0, indexedTaskDag.getRemainingDependencies(nodeId3));
+
+        indexedTaskDag.markUncompleted(4L);
+        Assertions.assertFalse(indexedTaskDag.isCompleted(nodeId4));
+        Assertions.assertEquals(1, indexedTaskDag.getRemainingDependencies(nodeId3));
+
+        // the task which is not in the dag will be ignored
+        indexedTaskDag.markCompleted(2L);
+        Assertions.assertEquals(1, indexedTaskDag.getRemainingDependencies(nodeId3));
+
+        indexedTaskDag.resetCompletion(Arrays.asList(1L, 4L));
+        Assertions.assertEquals(0, indexedTaskDag.getRemainingDependencies(nodeId3));
+        indexedTaskDag.resetCompletion();
+        Assertions.assertEquals(2, indexedTaskDag.getRemainingDependencies(nodeId3));
+    }
+
+    private TaskNode createTaskNode(long code, String... depList) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setCode(code);
+        taskNode.setName(String.valueOf(code));
+        taskNode.setDepList(Arrays.asList(depList));
+        return taskNode;
+    }
+}
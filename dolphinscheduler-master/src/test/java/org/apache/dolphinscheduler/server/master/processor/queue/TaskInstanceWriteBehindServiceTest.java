@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskInstanceWriteBehindServiceTest {
+
+    @InjectMocks
+    private TaskInstanceWriteBehindService taskInstanceWriteBehindService;
+
+    @Mock
+    private TaskInstanceDao taskInstanceDao;
+
+    @Spy
+    private MasterConfig masterConfig = new MasterConfig();
+
+    @BeforeEach
+    public void before() {
+        masterConfig.setTaskInstanceFlushInterval(Duration.ofMillis(1));
+        masterConfig.setTaskInstanceFlushBatchSize(100);
+    }
+
+    @Test
+    public void testCoalesceUpdates() throws Exception {
+        TaskInstance taskInstance = newTaskInstance(1);
+        taskInstance.setState(TaskExecutionStatus.RUNNING_EXECUTION);
+        CompletableFuture<Boolean> runningFuture = taskInstanceWriteBehindService.submitUpdate(taskInstance);
+        taskInstance.setState(TaskExecutionStatus.SUCCESS);
+        CompletableFuture<Boolean> successFuture = taskInstanceWriteBehindService.submitUpdate(taskInstance);
+        CompletableFuture<Boolean> otherFuture = taskInstanceWriteBehindService.submitUpdate(newTaskInstance(2));
+        Assertions.assertSame(runningFuture, successFuture);
+        Assertions.assertEquals(2, taskInstanceWriteBehindService.pendingUpdateSize());
+
+        Mockito.when(taskInstanceDao.batchUpdateTaskInstance(Mockito.anyList())).thenReturn(2);
+        taskInstanceWriteBehindService.flush(taskInstanceWriteBehindService.awaitPendingUpdates());
+
+        ArgumentCaptor<List<TaskInstance>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(taskInstanceDao).batchUpdateTaskInstance(captor.capture());
+        Assertions.assertEquals(2, captor.getValue().size());
+        Assertions.assertEquals(TaskExecutionStatus.SUCCESS, captor.getValue().get(0).getState());
+        Assertions.assertTrue(successFuture.get());
+        Assertions.assertTrue(otherFuture.get());
+        Assertions.assertEquals(0, taskInstanceWriteBehindService.pendingUpdateSize());
+    }
+
+    @Test
+    public void testFlushOneByOneWhenBatchFailed() throws Exception {
+        TaskInstance taskInstance1 = newTaskInstance(1);
+        TaskInstance taskInstance2 = newTaskInstance(2);
+        CompletableFuture<Boolean> future1 = taskInstanceWriteBehindService.submitUpdate(taskInstance1);
+        CompletableFuture<Boolean> future2 = taskInstanceWriteBehindService.submitUpdate(taskInstance2);
+
+        Mockito.when(taskInstanceDao.batchUpdateTaskInstance(Mockito.anyList()))
+                .thenThrow(new IllegalStateException("batch failed"));
+        Mockito.when(taskInstanceDao.updateTaskInstance(Mockito.argThat(t -> t != null && t.getId() == 1)))
+                .thenReturn(true);
+        Mockito.when(taskInstanceDao.updateTaskInstance(Mockito.argThat(t -> t != null && t.getId() == 2)))
+                .thenThrow(new IllegalStateException("update failed"));
+        taskInstanceWriteBehindService.flush(taskInstanceWriteBehindService.awaitPendingUpdates());
+
+        Assertions.assertTrue(future1.get());
+        Assertions.assertTrue(future2.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testWriteThroughWhenIntervalIsZero() {
+        masterConfig.setTaskInstanceFlushInterval(Duration.ZERO);
+        TaskInstance taskInstance = newTaskInstance(1);
+        Mockito.when(taskInstanceDao.updateTaskInstance(taskInstance)).thenReturn(true);
+        Assertions.assertTrue(taskInstanceWriteBehindService.updateTaskInstance(taskInstance));
+        Assertions.assertEquals(0, taskInstanceWriteBehindService.pendingUpdateSize());
+    }
+
+    private TaskInstance newTaskInstance(int id) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        return taskInstance;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.StateEvent;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StateWheelExecuteThreadTest {
+
+    private static final int PROCESS_INSTANCE_ID = 1;
+
+    @InjectMocks
+    private StateWheelExecuteThread stateWheelExecuteThread;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private WorkflowExecuteRunnable workflowExecuteRunnable;
+
+    private ProcessInstance processInstance;
+
+    @BeforeEach
+    public void before() {
+        processInstance = new ProcessInstance();
+        processInstance.setId(PROCESS_INSTANCE_ID);
+        processInstance.setTimeout(1);
+        Mockito.when(masterConfig.getStateWheelInterval()).thenReturn(Duration.ofMillis(100));
+        Mockito.when(processInstanceExecCacheManager.getByProcessInstanceId(PROCESS_INSTANCE_ID))
+                .thenReturn(workflowExecuteRunnable);
+        Mockito.when(workflowExecuteRunnable.getProcessInstance()).thenReturn(processInstance);
+        stateWheelExecuteThread.startWheelThread();
+    }
+
+    @AfterEach
+    public void after() {
+        stateWheelExecuteThread.close();
+    }
+
+    @Test
+    public void testProcessTimeoutExpire() {
+        // the timeout has passed, the check fires at the next tick
+        processInstance.setStartTime(new Date(System.currentTimeMillis() - Duration.ofMinutes(2).toMillis()));
+        stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+
+        ArgumentCaptor<StateEvent> stateEventCaptor = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.timeout(2000)).submitStateEvent(stateEventCaptor.capture());
+        Assertions.assertEquals(StateEventType.PROCESS_TIMEOUT, stateEventCaptor.getValue().getType());
+        Assertions.assertEquals(PROCESS_INSTANCE_ID, stateEventCaptor.getValue().getProcessInstanceId());
+    }
+
+    @Test
+    public void testProcessTimeoutReAddAfterFired() {
+        processInstance.setStartTime(new Date(System.currentTimeMillis() - Duration.ofMinutes(2).toMillis()));
+        stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.timeout(2000)).submitStateEvent(Mockito.any());
+
+        // the fired check is removed from the check list, so it can be added again
+        Mockito.verify(workflowExecuteThreadPool, Mockito.after(300).times(1)).submitStateEvent(Mockito.any());
+        stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.timeout(2000).times(2)).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testProcessTimeoutCancelOnRemove() {
+        // the check fires in 500ms
+        processInstance.setStartTime(new Date(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis() + 500));
+        stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+        stateWheelExecuteThread.removeProcess4TimeoutCheck(PROCESS_INSTANCE_ID);
+
+        Mockito.verify(workflowExecuteThreadPool, Mockito.after(1500).never()).submitStateEvent(Mockito.any());
+
+        // the removed check can be added again
+        stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.timeout(2000)).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testTaskDispatchWaitForQueue() throws Exception {
+        Mockito.when(masterConfig.getTaskQueueOfferTimeout()).thenReturn(Duration.ofSeconds(10));
+        TaskPriorityQueueImpl taskPriorityQueue = new TaskPriorityQueueImpl();
+        taskPriorityQueue.setCapacity(1);
+        taskPriorityQueue.put(new TaskPriority(0, 0, 0, 1, 1, "default"));
+
+        stateWheelExecuteThread.addTask4DispatchCheck(new TaskPriority(0, 0, 0, 2, 1, "default"), taskPriorityQueue);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.after(300).never()).submitStateEvent(Mockito.any());
+        Assertions.assertEquals(1, taskPriorityQueue.size());
+
+        // the task is put once the queue has free capacity
+        Assertions.assertNotNull(taskPriorityQueue.poll(10, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(2, taskPriorityQueue.poll(2000, TimeUnit.MILLISECONDS).getTaskId());
+    }
+
+    @Test
+    public void testTaskDispatchKeepWaitingAfterTimeout() throws Exception {
+        Mockito.when(masterConfig.getTaskQueueOfferTimeout()).thenReturn(Duration.ofMillis(100));
+        TaskPriorityQueueImpl taskPriorityQueue = new TaskPriorityQueueImpl();
+        taskPriorityQueue.setCapacity(1);
+        taskPriorityQueue.put(new TaskPriority(0, 0, 0, 1, 1, "default"));
+
+        stateWheelExecuteThread.addTask4DispatchCheck(new TaskPriority(0, 0, 0, 2, 1, "default"), taskPriorityQueue);
+        // the full queue is never overfilled, and the waiting task is not cleared with the workflow checks
+        Thread.sleep(500);
+        stateWheelExecuteThread.clearAllTasks();
+        Assertions.assertEquals(1, taskPriorityQueue.size());
+
+        Assertions.assertEquals(1, taskPriorityQueue.poll(10, TimeUnit.MILLISECONDS).getTaskId());
+        Assertions.assertEquals(2, taskPriorityQueue.poll(2000, TimeUnit.MILLISECONDS).getTaskId());
+    }
+
+    @Test
+    public void testTaskDispatchReplacedBySameTask() throws Exception {
+        Mockito.when(masterConfig.getTaskQueueOfferTimeout()).thenReturn(Duration.ofSeconds(10));
+        TaskPriorityQueueImpl taskPriorityQueue = new TaskPriorityQueueImpl();
+        taskPriorityQueue.setCapacity(1);
+        taskPriorityQueue.put(new TaskPriority(0, 0, 0, 1, 1, "default"));
+
+        stateWheelExecuteThread.addTask4DispatchCheck(new TaskPriority(0, 0, 0, 2, 1, "first"), taskPriorityQueue);
+        stateWheelExecuteThread.addTask4DispatchCheck(new TaskPriority(0, 0, 0, 2, 1, "second"), taskPriorityQueue);
+
+        // the task is put once with the latest submission
+        taskPriorityQueue.setCapacity(10);
+        Assertions.assertNotNull(taskPriorityQueue.poll(10, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals("second", taskPriorityQueue.poll(2000, TimeUnit.MILLISECONDS).getGroupName());
+        Assertions.assertNull(taskPriorityQueue.poll(500, TimeUnit.MILLISECONDS));
+
+        // the task can wait again after it's put
+        taskPriorityQueue.setCapacity(0);
+        stateWheelExecuteThread.addTask4DispatchCheck(new TaskPriority(0, 0, 0, 2, 1, "third"), taskPriorityQueue);
+        taskPriorityQueue.setCapacity(10);
+        Assertions.assertEquals("third", taskPriorityQueue.poll(2000, TimeUnit.MILLISECONDS).getGroupName());
+    }
+}
@@ -24,6 +24,7 @@ import static org.apache.dolphinscheduler.common.constants.CommandKeyConstants.C
 
 import org.apache.dolphinscheduler.common.enums.CommandType;
 import org.apache.dolphinscheduler.common.enums.ProcessExecutionTypeEnum;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.common.graph.DAG;
 import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
@@ -35,8 +36,12 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionLogDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.runner.taskgroup.TaskGroupCoordinator;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.command.CommandService;
@@ -122,7 +127,8 @@ public class WorkflowExecuteRunnableTest {
                 new WorkflowExecuteRunnable(processInstance, commandService, processService, processInstanceDao,
                         nettyExecutorManager,
                         processAlertManager, config, stateWheelExecuteThread, curingGlobalParamsService,
-                        taskInstanceDao, taskDefinitionLogDao));
+                        taskInstanceDao, taskDefinitionLogDao, Mockito.mock(TaskGroupCoordinator.class),
+                        Mockito.mock(DependentResultCacheManager.class)));
         Field dag = WorkflowExecuteRunnable.class.getDeclaredField("dag");
         dag.setAccessible(true);
         dag.set(workflowExecuteThread, new DAG());
@@ -316,6 +322,30 @@ public class WorkflowExecuteRunnableTest {
 
     }
 
+    @Test
+    public void testAddStateEventCoalesce() {
+        Mockito.when(processInstance.getId()).thenReturn(123);
+        workflowExecuteThread.addStateEvent(taskStateChangeEvent(1, TaskExecutionStatus.SUCCESS));
+        workflowExecuteThread.addStateEvent(taskStateChangeEvent(1, TaskExecutionStatus.SUCCESS));
+        workflowExecuteThread.addStateEvent(taskStateChangeEvent(1, TaskExecutionStatus.FAILURE));
+        workflowExecuteThread.addStateEvent(taskStateChangeEvent(2, TaskExecutionStatus.SUCCESS));
+        workflowExecuteThread.addStateEvent(TaskStateEvent.builder()
+                .processInstanceId(123)
+                .taskInstanceId(2)
+                .type(StateEventType.TASK_TIMEOUT)
+                .build());
+        Assertions.assertEquals(4, workflowExecuteThread.eventSize());
+    }
+
+    private TaskStateEvent taskStateChangeEvent(int taskInstanceId, TaskExecutionStatus status) {
+        return TaskStateEvent.builder()
+                .processInstanceId(123)
+                .taskInstanceId(taskInstanceId)
+                .status(status)
+                .type(StateEventType.TASK_STATE_CHANGE)
+                .build();
+    }
+
     private List<Schedule> zeroSchedulerList() {
         return Collections.emptyList();
     }
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner.taskgroup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.registry.api.RegistryClient;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.StateEvent;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TaskGroupCoordinatorTest {
+
+    @InjectMocks
+    private TaskGroupCoordinator taskGroupCoordinator;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private RegistryClient registryClient;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    private final TaskGroup taskGroup = TaskGroup.builder()
+            .id(1)
+            .groupSize(1)
+            .useSize(0)
+            .status(Flag.YES.getCode())
+            .build();
+
+    @BeforeEach
+    public void before() {
+        Mockito.when(masterConfig.getTaskGroupReconcileInterval()).thenReturn(Duration.ofMinutes(1));
+        Mockito.when(processService.findTaskGroupById(1)).thenReturn(taskGroup);
+        Mockito.when(processService.queryAllTaskGroup()).thenReturn(Collections.singletonList(taskGroup));
+        Mockito.when(processService.queryTaskGroupQueueByStatus(any(), anyInt())).thenReturn(Collections.emptyList());
+        Mockito.when(processService.grantTaskGroupResource(any(), anyInt(), anyBoolean())).thenReturn(true);
+        Mockito.when(processInstanceExecCacheManager.contains(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    public void testAcquireWhenNotCoordinator() {
+        TaskInstance taskInstance = taskInstance(1, 1);
+        Mockito.when(processService.enqueueTaskGroupQueue(1, "task-1", 1, 10, 1))
+                .thenReturn(taskGroupQueue(1, 1));
+
+        Assertions.assertFalse(taskGroupCoordinator.acquire(taskInstance));
+        Mockito.verify(processService, Mockito.never()).grantTaskGroupResource(any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void testAcquireWhenTaskGroupDisabled() {
+        taskGroup.setStatus(Flag.NO.getCode());
+
+        Assertions.assertTrue(taskGroupCoordinator.acquire(taskInstance(1, 1)));
+        Mockito.verify(processService, Mockito.never())
+                .enqueueTaskGroupQueue(anyInt(), anyString(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testAcquireByPriority() {
+        TaskGroupQueue waitingTaskGroupQueue = taskGroupQueue(1, 1);
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, 0))
+                .thenReturn(Collections.singletonList(waitingTaskGroupQueue));
+        // the group is full when taking over
+        taskGroup.setUseSize(1);
+        taskGroupCoordinator.takeOver();
+        Assertions.assertTrue(taskGroupCoordinator.isCoordinator());
+
+        // the resource is released by another master
+        taskGroup.setUseSize(0);
+        Mockito.when(processService.enqueueTaskGroupQueue(2, "task-2", 1, 10, 2))
+                .thenReturn(taskGroupQueue(2, 2));
+        Assertions.assertTrue(taskGroupCoordinator.acquire(taskInstance(2, 2)));
+        Mockito.verify(processService).grantTaskGroupResource(any(), eq(0), eq(false));
+
+        // the waiting task with lower priority is admitted after the resource is released
+        TaskGroupQueue releasedTaskGroupQueue = taskGroupQueue(2, 2);
+        releasedTaskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        Mockito.when(processService.releaseTaskGroupResource(any())).thenReturn(releasedTaskGroupQueue);
+        taskGroupCoordinator.release(taskInstance(2, 2));
+        Mockito.verify(processService).grantTaskGroupResource(waitingTaskGroupQueue, 0, true);
+
+        ArgumentCaptor<StateEvent> wakeUpEvent = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(wakeUpEvent.capture());
+        Assertions.assertEquals(1, wakeUpEvent.getValue().getTaskInstanceId());
+    }
+
+    @Test
+    public void testSyncWaitingTasksOfOtherMasters() {
+        taskGroupCoordinator.takeOver();
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, 0))
+                .thenReturn(Arrays.asList(taskGroupQueue(1, 1), taskGroupQueue(2, 2)));
+
+        taskGroupCoordinator.sync();
+        Mockito.verify(processService).grantTaskGroupResource(Mockito.argThat(queue -> queue.getId() == 2), eq(0),
+                eq(true));
+        Mockito.verify(processService, Mockito.times(1)).grantTaskGroupResource(any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void testTakeOverWakeUpAdmittedTasks() {
+        TaskGroupQueue admittedTaskGroupQueue = taskGroupQueue(1, 1);
+        admittedTaskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        admittedTaskGroupQueue.setInQueue(Flag.YES.getCode());
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS, 0))
+                .thenReturn(Collections.singletonList(admittedTaskGroupQueue));
+
+        taskGroupCoordinator.takeOver();
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(any());
+    }
+
+    @Test
+    public void testWakeUpAdmittedTasksAgainWhenReconciling() {
+        TaskGroupQueue admittedTaskGroupQueue = taskGroupQueue(1, 1);
+        admittedTaskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        admittedTaskGroupQueue.setInQueue(Flag.YES.getCode());
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS, 0))
+                .thenReturn(Collections.singletonList(admittedTaskGroupQueue));
+        // the workflow instance is not running on any master
+        Mockito.when(processInstanceExecCacheManager.contains(10)).thenReturn(false);
+        ProcessInstance processInstance = new ProcessInstance();
+        Mockito.when(processService.findProcessInstanceById(10)).thenReturn(processInstance);
+
+        taskGroupCoordinator.takeOver();
+        Mockito.verify(processService, Mockito.never()).sendStartTask2Master(any(), anyInt(), any());
+
+        // the workflow instance is taken over by a master, the lost wake up is sent again
+        processInstance.setHost("127.0.0.1:5678");
+        Mockito.when(masterConfig.getTaskGroupReconcileInterval()).thenReturn(Duration.ZERO);
+        taskGroupCoordinator.sync();
+        Mockito.verify(processService).sendStartTask2Master(processInstance, 1,
+                CommandType.TASK_WAKEUP_EVENT_REQUEST);
+    }
+
+    @Test
+    public void testGrantOutsideMonitor() {
+        taskGroup.setGroupSize(2);
+        taskGroupCoordinator.takeOver();
+        Mockito.when(processService.enqueueTaskGroupQueue(1, "task-1", 1, 10, 1))
+                .thenReturn(taskGroupQueue(1, 1));
+        Mockito.when(processService.enqueueTaskGroupQueue(2, "task-2", 1, 10, 1))
+                .thenReturn(taskGroupQueue(2, 1));
+        AtomicBoolean nestedAcquired = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            // the db is updated without holding the monitor
+            Assertions.assertFalse(Thread.holdsLock(taskGroupCoordinator));
+            if (nestedAcquired.compareAndSet(false, true)) {
+                // another task acquires while the resource is granting, it's left to the granting thread
+                Assertions.assertFalse(taskGroupCoordinator.acquire(taskInstance(2, 1)));
+            }
+            return true;
+        }).when(processService).grantTaskGroupResource(any(), anyInt(), anyBoolean());
+
+        Assertions.assertTrue(taskGroupCoordinator.acquire(taskInstance(1, 1)));
+        Mockito.verify(processService).grantTaskGroupResource(Mockito.argThat(queue -> queue.getId() == 1), eq(0),
+                eq(false));
+        Mockito.verify(processService).grantTaskGroupResource(Mockito.argThat(queue -> queue.getId() == 2), eq(1),
+                eq(true));
+        ArgumentCaptor<StateEvent> wakeUpEvent = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(wakeUpEvent.capture());
+        Assertions.assertEquals(2, wakeUpEvent.getValue().getTaskInstanceId());
+    }
+
+    @Test
+    public void testForceStartRacesGrant() {
+        TaskGroupQueue forceStartedTaskGroupQueue = taskGroupQueue(1, 2);
+        TaskGroupQueue waitingTaskGroupQueue = taskGroupQueue(2, 1);
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, 0))
+                .thenReturn(Arrays.asList(forceStartedTaskGroupQueue, waitingTaskGroupQueue));
+        taskGroup.setUseSize(1);
+        taskGroupCoordinator.takeOver();
+
+        // the task is force started by the api before the coordinator grants it, the grant is refused in db
+        TaskGroupQueue latestTaskGroupQueue = taskGroupQueue(1, 2);
+        latestTaskGroupQueue.setForceStart(Flag.YES.getCode());
+        Mockito.when(processService.loadTaskGroupQueue(1)).thenReturn(latestTaskGroupQueue);
+        Mockito.when(processService.grantTaskGroupResource(Mockito.argThat(queue -> queue.getId() == 1), anyInt(),
+                anyBoolean())).thenReturn(false);
+        taskGroup.setUseSize(0);
+        TaskGroupQueue releasedTaskGroupQueue = taskGroupQueue(3, 1);
+        releasedTaskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        Mockito.when(processService.releaseTaskGroupResource(any())).thenReturn(releasedTaskGroupQueue);
+        taskGroupCoordinator.release(taskInstance(3, 1));
+
+        // the force started task is removed, the resource goes to the next waiting task
+        Mockito.verify(processService).grantTaskGroupResource(waitingTaskGroupQueue, 0, true);
+        ArgumentCaptor<StateEvent> wakeUpEvent = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(wakeUpEvent.capture());
+        Assertions.assertEquals(2, wakeUpEvent.getValue().getTaskInstanceId());
+
+        // the force started task is not granted again after the resource is released
+        releasedTaskGroupQueue = taskGroupQueue(2, 1);
+        releasedTaskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        Mockito.when(processService.releaseTaskGroupResource(any())).thenReturn(releasedTaskGroupQueue);
+        taskGroupCoordinator.release(taskInstance(2, 1));
+        Mockito.verify(processService, Mockito.times(1)).grantTaskGroupResource(
+                Mockito.argThat(queue -> queue.getId() == 1), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void testForceStartedBeforeGrant() {
+        TaskGroupQueue forceStartedTaskGroupQueue = taskGroupQueue(1, 1);
+        Mockito.when(processService.queryTaskGroupQueueByStatus(TaskGroupQueueStatus.WAIT_QUEUE, 0))
+                .thenReturn(Collections.singletonList(forceStartedTaskGroupQueue));
+        taskGroup.setUseSize(1);
+        taskGroupCoordinator.takeOver();
+
+        // the force start is handled by this master, the task is never granted
+        taskGroupCoordinator.forceStarted(forceStartedTaskGroupQueue);
+        taskGroup.setUseSize(0);
+        taskGroupCoordinator.sync();
+        Mockito.verify(processService, Mockito.never()).grantTaskGroupResource(any(), anyInt(), anyBoolean());
+
+        // the task acquiring again is left to be force started
+        TaskGroupQueue enqueuedTaskGroupQueue = taskGroupQueue(1, 1);
+        enqueuedTaskGroupQueue.setForceStart(Flag.YES.getCode());
+        Mockito.when(processService.enqueueTaskGroupQueue(1, "task-1", 1, 10, 1)).thenReturn(enqueuedTaskGroupQueue);
+        Assertions.assertFalse(taskGroupCoordinator.acquire(taskInstance(1, 1)));
+        Mockito.verify(processService, Mockito.never()).grantTaskGroupResource(any(), anyInt(), anyBoolean());
+    }
+
+    private TaskInstance taskInstance(int id, int priority) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setName("task-" + id);
+        taskInstance.setTaskGroupId(1);
+        taskInstance.setProcessInstanceId(10);
+        taskInstance.setTaskGroupPriority(priority);
+        return taskInstance;
+    }
+
+    private TaskGroupQueue taskGroupQueue(int id, int priority) {
+        return TaskGroupQueue.builder()
+                .id(id)
+                .taskId(id)
+                .taskName("task-" + id)
+                .groupId(1)
+                .processId(10)
+                .priority(priority)
+                .status(TaskGroupQueueStatus.WAIT_QUEUE)
+                .forceStart(Flag.NO.getCode())
+                .inQueue(Flag.NO.getCode())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner.taskgroup;
+
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TaskGroupSemaphoreTest {
+
+    @Test
+    public void testAdmitOrder() {
+        TaskGroupSemaphore semaphore = new TaskGroupSemaphore(1);
+        semaphore.refresh(TaskGroup.builder().id(1).groupSize(3).useSize(0).build());
+        semaphore.offer(taskGroupQueue(1, 1));
+        semaphore.offer(taskGroupQueue(2, 2));
+        semaphore.offer(taskGroupQueue(3, 1));
+
+        // the higher priority first, then the earlier queued one
+        for (int expectedId : new int[]{2, 1, 3}) {
+            TaskGroupQueue next = semaphore.next().get();
+            Assertions.assertEquals(expectedId, next.getId());
+            semaphore.acquire(next);
+        }
+        Assertions.assertFalse(semaphore.next().isPresent());
+        Assertions.assertEquals(3, semaphore.getUseSize());
+        Assertions.assertEquals(0, semaphore.waitingSize());
+    }
+
+    @Test
+    public void testAdmitWithinGroupSize() {
+        TaskGroupSemaphore semaphore = new TaskGroupSemaphore(1);
+        semaphore.refresh(TaskGroup.builder().id(1).groupSize(1).useSize(1).build());
+        semaphore.offer(taskGroupQueue(1, 1));
+        Assertions.assertFalse(semaphore.next().isPresent());
+
+        semaphore.release();
+        Assertions.assertEquals(1, semaphore.next().get().getId());
+
+        // the use size in db is the truth
+        Assertions.assertTrue(semaphore.refresh(TaskGroup.builder().id(1).groupSize(1).useSize(1).build()));
+        Assertions.assertFalse(semaphore.refresh(TaskGroup.builder().id(1).groupSize(1).useSize(1).build()));
+        Assertions.assertFalse(semaphore.next().isPresent());
+    }
+
+    @Test
+    public void testOfferAndRemove() {
+        TaskGroupSemaphore semaphore = new TaskGroupSemaphore(1);
+        semaphore.refresh(TaskGroup.builder().id(1).groupSize(1).useSize(0).build());
+        semaphore.offer(taskGroupQueue(1, 1));
+        semaphore.offer(taskGroupQueue(2, 2));
+        // the priority is modified
+        semaphore.offer(taskGroupQueue(1, 3));
+        Assertions.assertEquals(2, semaphore.waitingSize());
+        Assertions.assertEquals(1, semaphore.next().get().getId());
+
+        Assertions.assertTrue(semaphore.remove(1));
+        Assertions.assertFalse(semaphore.remove(1));
+        Assertions.assertEquals(2, semaphore.next().get().getId());
+    }
+
+    private TaskGroupQueue taskGroupQueue(int id, int priority) {
+        return TaskGroupQueue.builder()
+                .id(id)
+                .taskId(id)
+                .groupId(1)
+                .priority(priority)
+                .build();
+    }
+}
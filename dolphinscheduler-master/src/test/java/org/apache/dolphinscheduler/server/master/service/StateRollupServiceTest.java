@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import org.apache.dolphinscheduler.common.enums.StateRollupType;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.dao.entity.StateRollup;
+import org.apache.dolphinscheduler.dao.mapper.StateRollupMapper;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
+import org.apache.dolphinscheduler.registry.api.RegistryClient;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StateRollupServiceTest {
+
+    @InjectMocks
+    private StateRollupService stateRollupService;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private StateRollupDao stateRollupDao;
+
+    @Mock
+    private StateRollupMapper stateRollupMapper;
+
+    @Mock
+    private RegistryClient registryClient;
+
+    private Date lastCompactedHour;
+
+    @BeforeEach
+    public void before() {
+        Mockito.when(masterConfig.getStateRollupBackfill()).thenReturn(Duration.ofDays(1));
+        Mockito.when(masterConfig.getStateRollupDelay()).thenReturn(Duration.ofMinutes(10));
+        Date compactEndHour = DateUtils.getStartOfHour(new Date(System.currentTimeMillis() - 10 * 60 * 1000L));
+        // all the closed hours are compacted already
+        lastCompactedHour = DateUtils.add(compactEndHour, Calendar.HOUR_OF_DAY, -1);
+        Mockito.when(stateRollupMapper.queryFirstCompactedHour(any()))
+                .thenReturn(DateUtils.add(lastCompactedHour, Calendar.DAY_OF_MONTH, -60));
+        Mockito.when(stateRollupMapper.queryLastCompactedHour(any())).thenReturn(lastCompactedHour);
+        Mockito.when(stateRollupMapper.queryRollupHoursByStates(any(), any())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void testCompactDirtyHours() {
+        // a finished task instance was forced success long ago, before the backfill range
+        Date oldDirtyHour = DateUtils.add(lastCompactedHour, Calendar.DAY_OF_MONTH, -30);
+        Date neverCompactedHour = DateUtils.add(lastCompactedHour, Calendar.DAY_OF_MONTH, -90);
+        Date uncompactedHour = DateUtils.add(lastCompactedHour, Calendar.HOUR_OF_DAY, 1);
+        Mockito.when(stateRollupMapper.queryRollupHoursByStates(Mockito.eq(StateRollupType.TASK_INSTANCE_START_TIME),
+                AdditionalMatchers.aryEq(new int[]{StateRollup.DIRTY_STATE})))
+                .thenReturn(Arrays.asList(neverCompactedHour, oldDirtyHour, lastCompactedHour, uncompactedHour));
+
+        stateRollupService.compactStateRollup();
+
+        Mockito.verify(stateRollupDao).compactRollupHour(StateRollupType.TASK_INSTANCE_START_TIME, oldDirtyHour);
+        Mockito.verify(stateRollupDao).compactRollupHour(StateRollupType.TASK_INSTANCE_START_TIME,
+                lastCompactedHour);
+        Mockito.verify(stateRollupDao, Mockito.never()).compactRollupHour(StateRollupType.TASK_INSTANCE_START_TIME,
+                uncompactedHour);
+        Mockito.verify(stateRollupMapper).deleteByRollupHour(StateRollupType.TASK_INSTANCE_START_TIME,
+                neverCompactedHour);
+        Mockito.verify(stateRollupDao, Mockito.times(2)).compactRollupHour(any(), any());
+        Mockito.verify(registryClient).releaseLock(any());
+    }
+
+    @Test
+    public void testCompactUnfinishedHoursInBackfill() {
+        Date oldUnfinishedHour = DateUtils.add(lastCompactedHour, Calendar.DAY_OF_MONTH, -30);
+        Date unfinishedHour = DateUtils.add(lastCompactedHour, Calendar.HOUR_OF_DAY, -2);
+        Mockito.when(stateRollupMapper.queryRollupHoursByStates(
+                Mockito.eq(StateRollupType.WORKFLOW_INSTANCE_START_TIME),
+                AdditionalMatchers.not(AdditionalMatchers.aryEq(new int[]{StateRollup.DIRTY_STATE}))))
+                .thenReturn(Arrays.asList(oldUnfinishedHour, unfinishedHour));
+
+        stateRollupService.compactStateRollup();
+
+        Mockito.verify(stateRollupDao).compactRollupHour(StateRollupType.WORKFLOW_INSTANCE_START_TIME,
+                unfinishedHour);
+        Mockito.verify(stateRollupDao, Mockito.times(1)).compactRollupHour(any(), any());
+    }
+}
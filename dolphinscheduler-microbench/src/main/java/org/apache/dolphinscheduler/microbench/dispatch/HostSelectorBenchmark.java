@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.dispatch;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightSelectionTable;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.RandomSelector;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.RoundRobinSelector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Select worker host from 64 concurrent dispatch threads, compare the existing selectors with the lock-free
+ * {@link LowerWeightSelectionTable}.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@Threads(64)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HostSelectorBenchmark extends AbstractBaseBenchmark {
+
+    @Param({"8", "64"})
+    private int hostNum;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Set<HostWeight> hostWeights = new HashSet<>();
+
+    private final List<HostWorker> hostWorkers = new ArrayList<>();
+
+    private final LowerWeightRoundRobin lowerWeightRoundRobin = new LowerWeightRoundRobin();
+
+    private final RoundRobinSelector roundRobinSelector = new RoundRobinSelector();
+
+    private final RandomSelector randomSelector = new RandomSelector();
+
+    private LowerWeightSelectionTable lowerWeightSelectionTable;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long startupTime = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        List<HostWeight> tableHostWeights = new ArrayList<>();
+        for (int i = 0; i < hostNum; i++) {
+            HostWorker hostWorker = HostWorker.of("192.168.0." + i + ":1234", 100, "default");
+            double cpu = random.nextDouble();
+            double memory = random.nextDouble();
+            double loadAverage = random.nextDouble() * 8;
+            hostWorkers.add(hostWorker);
+            hostWeights.add(new HostWeight(hostWorker, cpu, memory, loadAverage, 0, startupTime));
+            tableHostWeights.add(new HostWeight(hostWorker, cpu, memory, loadAverage, 0, startupTime));
+        }
+        lowerWeightSelectionTable = LowerWeightSelectionTable.of(tableHostWeights);
+    }
+
+    /**
+     * The previous LowerWeightHostManager, get the host weights under the global lock and scan them.
+     */
+    @Benchmark
+    public Host lowerWeightRoundRobinWithLock() {
+        Set<HostWeight> workerHostWeights;
+        lock.lock();
+        try {
+            workerHostWeights = hostWeights;
+        } finally {
+            lock.unlock();
+        }
+        return lowerWeightRoundRobin.select(workerHostWeights).getHost();
+    }
+
+    @Benchmark
+    public Host roundRobinSelector() {
+        return roundRobinSelector.select(hostWorkers);
+    }
+
+    @Benchmark
+    public Host randomSelector() {
+        return randomSelector.select(hostWorkers);
+    }
+
+    @Benchmark
+    public Host lowerWeightSelectionTable() {
+        return lowerWeightSelectionTable.select();
+    }
+}
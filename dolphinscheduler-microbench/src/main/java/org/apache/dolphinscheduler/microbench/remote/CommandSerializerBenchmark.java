@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.remote;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskTimeoutStrategy;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.remote.serializer.CommandSerializer;
+import org.apache.dolphinscheduler.remote.serializer.CommandSerializerType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Encode and decode the body of a task dispatch command, which is the largest command sent between master and
+ * worker, compare the json baseline protocol with the binary protocol.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandSerializerBenchmark extends AbstractBaseBenchmark {
+
+    private static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    @Param({"JSON", "PROTOSTUFF"})
+    private CommandSerializerType serializerType;
+
+    @Param({"4", "64"})
+    private int paramNum;
+
+    private CommandSerializer serializer;
+
+    private TaskDispatchCommand taskDispatchCommand;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        serializer = serializerType.getSerializer();
+        taskDispatchCommand = createTaskDispatchCommand();
+        ByteBuf out = ALLOCATOR.buffer();
+        try {
+            serializer.serialize(taskDispatchCommand, out);
+            body = new byte[out.readableBytes()];
+            out.readBytes(body);
+        } finally {
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        ByteBuf out = ALLOCATOR.buffer();
+        try {
+            serializer.serialize(taskDispatchCommand, out);
+            return out.readableBytes();
+        } finally {
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public TaskDispatchCommand decode() {
+        return serializer.deserialize(body, TaskDispatchCommand.class);
+    }
+
+    private TaskDispatchCommand createTaskDispatchCommand() {
+        Map<String, String> definedParams = new HashMap<>();
+        Map<String, Property> prepareParamsMap = new HashMap<>();
+        StringBuilder localParams = new StringBuilder();
+        for (int i = 0; i < paramNum; i++) {
+            definedParams.put("defined_" + i, "value_" + i);
+            prepareParamsMap.put("param_" + i, new Property("param_" + i, Direct.IN, DataType.VARCHAR, "${bizDate}"));
+            localParams.append(i == 0 ? "" : ",")
+                    .append("{\"prop\":\"param_").append(i)
+                    .append("\",\"direct\":\"IN\",\"type\":\"VARCHAR\",\"value\":\"${bizDate}\"}");
+        }
+        String taskParams = "{\"localParams\":[" + localParams + "],\"rawScript\":\"echo ${bizDate}\\n"
+                + "hdfs dfs -ls /user/default/warehouse\\nsleep 10\",\"resourceList\":[]}";
+        TaskExecutionContext taskExecutionContext = TaskExecutionContext.builder()
+                .taskInstanceId(10001)
+                .taskName("shell-task")
+                .firstSubmitTime(System.currentTimeMillis())
+                .startTime(System.currentTimeMillis())
+                .taskType("SHELL")
+                .host("192.168.1.10:1234")
+                .executePath("/tmp/dolphinscheduler/exec/process/default/1/2/3/10001")
+                .logPath("/opt/dolphinscheduler/logs/20221018/1/2/3/10001.log")
+                .processInstanceId(3)
+                .processDefineCode(7103416553472L)
+                .processDefineVersion(2)
+                .projectCode(7103410294528L)
+                .scheduleTime(System.currentTimeMillis())
+                .globalParams("[{\"prop\":\"bizDate\",\"direct\":\"IN\",\"type\":\"VARCHAR\",\"value\":\"20221018\"}]")
+                .executorId(1)
+                .tenantCode("default")
+                .queue("default")
+                .taskParams(taskParams)
+                .definedParams(definedParams)
+                .prepareParamsMap(prepareParamsMap)
+                .taskAppId("3_10001")
+                .taskTimeoutStrategy(TaskTimeoutStrategy.WARN)
+                .taskTimeout(Integer.MAX_VALUE)
+                .workerGroup("default")
+                .currentExecutionStatus(TaskExecutionStatus.DISPATCH)
+                .build();
+        return new TaskDispatchCommand(taskExecutionContext, "192.168.1.1:5678", "192.168.1.10:1234",
+                System.currentTimeMillis());
+    }
+}
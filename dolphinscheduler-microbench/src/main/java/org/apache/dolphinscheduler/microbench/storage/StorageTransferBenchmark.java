@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.storage;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Download the output files of a task from a stand-in of the object store, compare a single sequential stream per
+ * file with the ranged parallel reads of {@link StorageOperateUtils}. The stand-in serves a local file with a fixed
+ * first byte latency and a bandwidth limit per stream, like a connection to a MinIO or HDFS data node.
+ */
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageTransferBenchmark extends AbstractBaseBenchmark {
+
+    private static final long FIRST_BYTE_LATENCY_MILLIS = 20;
+
+    private static final long STREAM_BYTES_PER_SECOND = 64L * 1024 * 1024;
+
+    @Param({"16", "128"})
+    private int fileSizeMB;
+
+    @Param({"1", "4"})
+    private int fileNum;
+
+    private Path workDir;
+
+    private Path remoteFile;
+
+    private long contentLength;
+
+    @Setup
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("storage-transfer-benchmark");
+        remoteFile = workDir.resolve("remote");
+        contentLength = fileSizeMB * 1024L * 1024L;
+        byte[] content = new byte[(int) contentLength];
+        new Random().nextBytes(content);
+        Files.write(remoteFile, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.list(workDir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public void sequentialDownload() throws IOException {
+        for (int i = 0; i < fileNum; i++) {
+            Path dstFile = workDir.resolve("sequential_" + i);
+            try (
+                    InputStream inputStream = openRange(0, contentLength - 1);
+                    OutputStream outputStream = Files.newOutputStream(dstFile)) {
+                byte[] buffer = new byte[64 * 1024];
+                int readLen;
+                while ((readLen = inputStream.read(buffer)) > 0) {
+                    outputStream.write(buffer, 0, readLen);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void parallelDownload() {
+        List<Runnable> downloads = new ArrayList<>();
+        for (int i = 0; i < fileNum; i++) {
+            Path dstFile = workDir.resolve("parallel_" + i);
+            downloads.add(() -> {
+                try {
+                    StorageOperateUtils.downloadInParts(contentLength, dstFile, this::openRange);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        StorageOperateUtils.transferConcurrently(downloads);
+    }
+
+    private InputStream openRange(long start, long end) throws IOException {
+        sleep(FIRST_BYTE_LATENCY_MILLIS);
+        return new ThrottledRangeInputStream(remoteFile, start, end);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read [start, end] of a local file, no faster than {@link #STREAM_BYTES_PER_SECOND}.
+     */
+    private static class ThrottledRangeInputStream extends InputStream {
+
+        private final RandomAccessFile file;
+
+        private final long startNanos = System.nanoTime();
+
+        private long remaining;
+
+        private long readBytes;
+
+        ThrottledRangeInputStream(Path path, long start, long end) throws IOException {
+            this.file = new RandomAccessFile(path.toFile(), "r");
+            this.file.seek(start);
+            this.remaining = end - start + 1;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int readLen = file.read(b, off, (int) Math.min(len, remaining));
+            if (readLen < 0) {
+                return -1;
+            }
+            remaining -= readLen;
+            readBytes += readLen;
+            long expectedNanos = readBytes * TimeUnit.SECONDS.toNanos(1) / STREAM_BYTES_PER_SECOND;
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (expectedNanos > elapsedNanos) {
+                sleep(TimeUnit.NANOSECONDS.toMillis(expectedNanos - elapsedNanos));
+            }
+            return readLen;
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+}
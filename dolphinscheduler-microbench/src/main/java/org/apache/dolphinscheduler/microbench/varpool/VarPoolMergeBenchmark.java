@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.varpool;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.plugin.task.api.model.VarPoolStore;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build the var pool of a downstream task from its upstream tasks, compare re-parsing the var pool json of every
+ * upstream task with merging the parsed var pools in {@link VarPoolStore}.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VarPoolMergeBenchmark extends AbstractBaseBenchmark {
+
+    @Param({"2", "16", "64"})
+    private int upstreamTaskNum;
+
+    @Param({"10", "200"})
+    private int propertyNumPerTask;
+
+    private final List<Long> upstreamTaskCodes = new ArrayList<>();
+
+    private final Map<Long, String> upstreamVarPools = new HashMap<>();
+
+    private final Map<Long, Date> upstreamEndTimes = new HashMap<>();
+
+    private final VarPoolStore varPoolStore = new VarPoolStore();
+
+    @Setup
+    public void setUp() {
+        for (long taskCode = 1; taskCode <= upstreamTaskNum; taskCode++) {
+            List<Property> properties = new ArrayList<>(propertyNumPerTask);
+            for (int i = 0; i < propertyNumPerTask; i++) {
+                // half of the properties are shared by all the upstream tasks
+                String prop = i % 2 == 0 ? "shared_" + i : "task_" + taskCode + "_" + i;
+                properties.add(new Property(prop, Direct.OUT, DataType.VARCHAR, String.valueOf(taskCode)));
+            }
+            String varPool = JSONUtils.toJsonString(properties);
+            Date endTime = new Date(taskCode * 1000);
+            upstreamTaskCodes.add(taskCode);
+            upstreamVarPools.put(taskCode, varPool);
+            upstreamEndTimes.put(taskCode, endTime);
+            varPoolStore.put(taskCode, (int) taskCode, endTime, varPool);
+        }
+    }
+
+    @Benchmark
+    public String reparseJson() {
+        Map<String, Property> allProperty = new HashMap<>();
+        Map<String, Long> allTaskCode = new HashMap<>();
+        for (Long taskCode : upstreamTaskCodes) {
+            for (Property thisProperty : JSONUtils.toList(upstreamVarPools.get(taskCode), Property.class)) {
+                thisProperty.setDirect(Direct.IN);
+                String proName = thisProperty.getProp();
+                Property otherProperty = allProperty.get(proName);
+                if (otherProperty == null) {
+                    allProperty.put(proName, thisProperty);
+                    allTaskCode.put(proName, taskCode);
+                } else if (StringUtils.isNotEmpty(thisProperty.getValue())
+                        && (StringUtils.isEmpty(otherProperty.getValue()) || upstreamEndTimes
+                                .get(allTaskCode.get(proName)).getTime() > upstreamEndTimes.get(taskCode).getTime())) {
+                    allProperty.put(proName, thisProperty);
+                    allTaskCode.put(proName, taskCode);
+                }
+            }
+        }
+        return JSONUtils.toJsonString(allProperty.values());
+    }
+
+    @Benchmark
+    public String mergeVarPoolStore() {
+        for (Long taskCode : upstreamTaskCodes) {
+            // the upstream tasks are not changed, this is only a validation
+            varPoolStore.put(taskCode, taskCode.intValue(), upstreamEndTimes.get(taskCode),
+                    upstreamVarPools.get(taskCode));
+        }
+        return JSONUtils.toJsonString(varPoolStore.merge(upstreamTaskCodes));
+    }
+}
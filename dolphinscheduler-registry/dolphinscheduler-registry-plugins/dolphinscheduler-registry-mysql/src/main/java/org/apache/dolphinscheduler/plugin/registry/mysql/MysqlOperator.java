@@ -18,10 +18,13 @@
 package org.apache.dolphinscheduler.plugin.registry.mysql;
 
 import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryDataMapper;
+import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryEventMapper;
 import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryLockMapper;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.DataType;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryEvent;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryLock;
+import org.apache.dolphinscheduler.registry.api.Event;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -34,7 +37,6 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
@@ -44,16 +46,25 @@ public class MysqlOperator {
 
     private static final Logger logger = LoggerFactory.getLogger(MysqlOperator.class);
 
-    @Autowired
-    private MysqlRegistryDataMapper mysqlRegistryDataMapper;
-    @Autowired
-    private MysqlRegistryLockMapper mysqlRegistryLockMapper;
+    private final MysqlRegistryDataMapper mysqlRegistryDataMapper;
+    private final MysqlRegistryLockMapper mysqlRegistryLockMapper;
+    private final MysqlRegistryEventMapper mysqlRegistryEventMapper;
 
     private final long expireTimeWindow;
-
-    public MysqlOperator(MysqlRegistryProperties registryProperties) {
+    private final boolean incrementalSubscribe;
+    private final long eventExpireTimeWindow;
+
+    public MysqlOperator(MysqlRegistryProperties registryProperties,
+                         MysqlRegistryDataMapper mysqlRegistryDataMapper,
+                         MysqlRegistryLockMapper mysqlRegistryLockMapper,
+                         MysqlRegistryEventMapper mysqlRegistryEventMapper) {
+        this.mysqlRegistryDataMapper = mysqlRegistryDataMapper;
+        this.mysqlRegistryLockMapper = mysqlRegistryLockMapper;
+        this.mysqlRegistryEventMapper = mysqlRegistryEventMapper;
         this.expireTimeWindow =
                 registryProperties.getTermExpireTimes() * registryProperties.getTermRefreshInterval().toMillis();
+        this.incrementalSubscribe = registryProperties.isIncrementalSubscribe();
+        this.eventExpireTimeWindow = 2 * registryProperties.getSubscribeFullSyncInterval().toMillis();
     }
 
     public void healthCheck() {
@@ -71,6 +82,7 @@ public class MysqlOperator {
             if (mysqlRegistryDataMapper.updateDataAndTermById(id, value, System.currentTimeMillis()) <= 0) {
                 throw new SQLException(String.format("update registry value failed, key: %s, value: %s", key, value));
             }
+            insertEvent(key, value, Event.Type.UPDATE);
             return id;
         }
         mysqlRegistryData = MysqlRegistryData.builder()
@@ -80,6 +92,7 @@ public class MysqlOperator {
                 .lastTerm(System.currentTimeMillis())
                 .build();
         mysqlRegistryDataMapper.insert(mysqlRegistryData);
+        insertEvent(key, value, Event.Type.ADD);
         return mysqlRegistryData.getId();
     }
 
@@ -90,6 +103,7 @@ public class MysqlOperator {
             if (mysqlRegistryDataMapper.updateDataAndTermById(id, value, System.currentTimeMillis()) <= 0) {
                 throw new SQLException(String.format("update registry value failed, key: %s, value: %s", key, value));
             }
+            insertEvent(key, value, Event.Type.UPDATE);
             return id;
         }
         mysqlRegistryData = MysqlRegistryData.builder()
@@ -99,15 +113,25 @@ public class MysqlOperator {
                 .lastTerm(System.currentTimeMillis())
                 .build();
         mysqlRegistryDataMapper.insert(mysqlRegistryData);
+        insertEvent(key, value, Event.Type.ADD);
         return mysqlRegistryData.getId();
     }
 
     public void deleteDataByKey(String key) {
-        mysqlRegistryDataMapper.deleteByKey(key);
+        if (mysqlRegistryDataMapper.deleteByKey(key) > 0) {
+            insertEvent(key, "", Event.Type.REMOVE);
+        }
     }
 
     public void deleteDataById(long id) {
-        mysqlRegistryDataMapper.deleteById(id);
+        if (!incrementalSubscribe) {
+            mysqlRegistryDataMapper.deleteById(id);
+            return;
+        }
+        MysqlRegistryData mysqlRegistryData = mysqlRegistryDataMapper.selectById(id);
+        if (mysqlRegistryData != null && mysqlRegistryDataMapper.deleteById(id) > 0) {
+            insertEvent(mysqlRegistryData.getKey(), "", Event.Type.REMOVE);
+        }
     }
 
     public void clearExpireLock() {
@@ -115,8 +139,36 @@ public class MysqlOperator {
     }
 
     public void clearExpireEphemeralDate() {
-        mysqlRegistryDataMapper.clearExpireEphemeralDate(System.currentTimeMillis() - expireTimeWindow,
-                DataType.EPHEMERAL.getTypeValue());
+        long expireTerm = System.currentTimeMillis() - expireTimeWindow;
+        if (!incrementalSubscribe) {
+            mysqlRegistryDataMapper.clearExpireEphemeralDate(expireTerm, DataType.EPHEMERAL.getTypeValue());
+            return;
+        }
+        // delete the expired data one by one, so the servers which delete the same data will not record it twice
+        for (MysqlRegistryData mysqlRegistryData : mysqlRegistryDataMapper.selectExpireEphemeralDate(expireTerm,
+                DataType.EPHEMERAL.getTypeValue())) {
+            if (mysqlRegistryDataMapper.deleteExpireEphemeralDateById(mysqlRegistryData.getId(), expireTerm) > 0) {
+                insertEvent(mysqlRegistryData.getKey(), "", Event.Type.REMOVE);
+            }
+        }
+    }
+
+    public void clearExpireEvent() {
+        if (incrementalSubscribe) {
+            mysqlRegistryEventMapper.clearExpireEvent(System.currentTimeMillis() - eventExpireTimeWindow);
+        }
+    }
+
+    /**
+     * Query the changes after the given revision, in the order of the revision.
+     */
+    public List<MysqlRegistryEvent> queryEventsAfterRevision(long revision, int limit) {
+        return mysqlRegistryEventMapper.selectAfterRevision(revision, limit);
+    }
+
+    public long queryMaxRevision() {
+        Long maxRevision = mysqlRegistryEventMapper.selectMaxRevision();
+        return maxRevision == null ? 0L : maxRevision;
     }
 
     public MysqlRegistryData getData(String key) throws SQLException {
@@ -180,4 +232,15 @@ public class MysqlOperator {
         return mysqlRegistryLockMapper.updateTermByIds(lockIds, System.currentTimeMillis()) > 0;
     }
 
+    private void insertEvent(String key, String value, Event.Type type) {
+        if (!incrementalSubscribe) {
+            return;
+        }
+        mysqlRegistryEventMapper.insert(MysqlRegistryEvent.builder()
+                .key(key)
+                .data(value)
+                .eventType(type.name())
+                .eventTime(System.currentTimeMillis())
+                .build());
+    }
 }
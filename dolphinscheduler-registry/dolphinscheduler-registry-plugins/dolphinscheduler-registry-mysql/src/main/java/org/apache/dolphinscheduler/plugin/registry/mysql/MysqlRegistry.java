@@ -131,6 +131,7 @@ public class MysqlRegistry implements Registry {
             } else {
                 mysqlOperator.insertOrUpdatePersistentData(key, value);
             }
+            subscribeDataManager.wakeUp();
         } catch (Exception ex) {
             throw new RegistryException(String.format("put key:%s, value:%s error", key, value), ex);
         }
@@ -140,6 +141,7 @@ public class MysqlRegistry implements Registry {
     public void delete(String key) {
         try {
             mysqlOperator.deleteDataByKey(key);
+            subscribeDataManager.wakeUp();
         } catch (Exception e) {
             throw new RegistryException(String.format("Delete key: %s error", key), e);
         }
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.plugin.registry.mysql;
 
 import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryDataMapper;
+import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryEventMapper;
 import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryLockMapper;
 
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -45,6 +46,7 @@ public class MysqlRegistryConfiguration {
     public SqlSessionTemplate mysqlRegistrySqlSessionTemplate(SqlSessionFactory mysqlRegistrySqlSessionFactory) {
         mysqlRegistrySqlSessionFactory.getConfiguration().addMapper(MysqlRegistryDataMapper.class);
         mysqlRegistrySqlSessionFactory.getConfiguration().addMapper(MysqlRegistryLockMapper.class);
+        mysqlRegistrySqlSessionFactory.getConfiguration().addMapper(MysqlRegistryEventMapper.class);
         return new SqlSessionTemplate(mysqlRegistrySqlSessionFactory);
     }
 
@@ -58,4 +60,9 @@ public class MysqlRegistryConfiguration {
         return mysqlRegistrySqlSessionTemplate.getMapper(MysqlRegistryLockMapper.class);
     }
 
+    @Bean
+    public MysqlRegistryEventMapper mysqlRegistryEventMapper(SqlSessionTemplate mysqlRegistrySqlSessionTemplate) {
+        return mysqlRegistrySqlSessionTemplate.getMapper(MysqlRegistryEventMapper.class);
+    }
+
 }
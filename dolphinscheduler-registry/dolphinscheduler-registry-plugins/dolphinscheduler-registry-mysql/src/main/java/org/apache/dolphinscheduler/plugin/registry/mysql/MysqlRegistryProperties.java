@@ -42,6 +42,19 @@ public class MysqlRegistryProperties {
      * e.g. if you set 2, and latest two refresh error, then the ephemeral data/lock will be expire.
      */
     private int termExpireTimes = 3;
+    /**
+     * Used to fetch only the data changed since the last revision instead of the full data in every term,
+     * all the servers should use the same value, since the changes are recorded only if it is enabled.
+     */
+    private boolean incrementalSubscribe = false;
+    /**
+     * The max time to wait before fetching the next changes, the wait is ended early once this server changes the data.
+     */
+    private Duration subscribePollInterval = Duration.ofMillis(500);
+    /**
+     * Used to reconcile the incremental subscribe data with the full data, the changes are kept twice as long.
+     */
+    private Duration subscribeFullSyncInterval = Duration.ofMinutes(1);
     private HikariConfig hikariConfig;
 
 }
@@ -44,11 +44,17 @@ public interface MysqlRegistryDataMapper extends BaseMapper<MysqlRegistryData> {
     int updateDataAndTermById(@Param("id") long id, @Param("data") String data, @Param("term") long term);
 
     @Delete("delete from t_ds_mysql_registry_data where `key` = #{key}")
-    void deleteByKey(@Param("key") String key);
+    int deleteByKey(@Param("key") String key);
 
     @Delete("delete from t_ds_mysql_registry_data where `last_term` < #{term} and `type` = #{type}")
     void clearExpireEphemeralDate(@Param("term") long term, @Param("type") int type);
 
+    @Select("select * from t_ds_mysql_registry_data where `last_term` < #{term} and `type` = #{type}")
+    List<MysqlRegistryData> selectExpireEphemeralDate(@Param("term") long term, @Param("type") int type);
+
+    @Delete("delete from t_ds_mysql_registry_data where `id` = #{id} and `last_term` < #{term}")
+    int deleteExpireEphemeralDateById(@Param("id") long id, @Param("term") long term);
+
     @Update({"<script>",
             "update t_ds_mysql_registry_data",
             "set `last_term` = #{term}",
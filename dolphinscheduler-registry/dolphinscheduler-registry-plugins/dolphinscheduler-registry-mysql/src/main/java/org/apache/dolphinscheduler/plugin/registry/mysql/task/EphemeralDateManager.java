@@ -146,6 +146,7 @@ public class EphemeralDateManager implements AutoCloseable {
                     updateEphemeralDateTerm();
                 }
                 mysqlOperator.clearExpireEphemeralDate();
+                mysqlOperator.clearExpireEvent();
                 return ConnectionState.CONNECTED;
             } catch (Exception ex) {
                 LOGGER.error("Get connection state error, meet an unknown exception", ex);
@@ -20,15 +20,20 @@ package org.apache.dolphinscheduler.plugin.registry.mysql.task;
 import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlOperator;
 import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlRegistryProperties;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryEvent;
 import org.apache.dolphinscheduler.registry.api.Event;
 import org.apache.dolphinscheduler.registry.api.SubscribeListener;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -52,6 +57,7 @@ public class SubscribeDataManager implements AutoCloseable {
     private final Map<String, List<SubscribeListener>> dataSubScribeMap = new ConcurrentHashMap<>();
     private final ScheduledExecutorService dataSubscribeCheckThreadPool;
     private final Map<String, MysqlRegistryData> mysqlRegistryDataMap = new ConcurrentHashMap<>();
+    private final Semaphore dataChangedSignal = new Semaphore(0);
 
     public SubscribeDataManager(MysqlRegistryProperties registryProperties, MysqlOperator mysqlOperator) {
         this.registryProperties = registryProperties;
@@ -63,6 +69,11 @@ public class SubscribeDataManager implements AutoCloseable {
     }
 
     public void start() {
+        if (registryProperties.isIncrementalSubscribe()) {
+            dataSubscribeCheckThreadPool.execute(new RegistrySubscribeDataPollTask(
+                    dataSubScribeMap, mysqlOperator, mysqlRegistryDataMap, registryProperties, dataChangedSignal));
+            return;
+        }
         dataSubscribeCheckThreadPool.scheduleWithFixedDelay(
                 new RegistrySubscribeDataCheckTask(dataSubScribeMap, mysqlOperator, mysqlRegistryDataMap),
                 registryProperties.getTermRefreshInterval().toMillis(),
@@ -78,6 +89,15 @@ public class SubscribeDataManager implements AutoCloseable {
         dataSubScribeMap.remove(path);
     }
 
+    /**
+     * Fetch the changes at once, used when this server has changed the data.
+     */
+    public void wakeUp() {
+        if (registryProperties.isIncrementalSubscribe() && dataChangedSignal.availablePermits() == 0) {
+            dataChangedSignal.release();
+        }
+    }
+
     public String getData(String path) {
         MysqlRegistryData mysqlRegistryData = mysqlRegistryDataMap.get(path);
         if (mysqlRegistryData == null) {
@@ -154,4 +174,158 @@ public class SubscribeDataManager implements AutoCloseable {
         }
 
     }
+
+    /**
+     * Fetch the changes after the last revision, and reconcile with the full data every subscribe full sync interval.
+     * <p>
+     * The revisions are allocated before the changes are committed, so a smaller revision may be visible later than a
+     * bigger one. A missing revision is fetched again until it is visible or has been missing for a term.
+     */
+    static class RegistrySubscribeDataPollTask implements Runnable {
+
+        private static final int FETCH_SIZE = 1000;
+
+        private final Map<String, List<SubscribeListener>> dataSubScribeMap;
+        private final MysqlOperator mysqlOperator;
+        private final Map<String, MysqlRegistryData> mysqlRegistryDataMap;
+        private final Semaphore dataChangedSignal;
+        private final long pollInterval;
+        private final long fullSyncInterval;
+        private final long missingRevisionTimeout;
+
+        /**
+         * all the changes up to this revision are applied
+         */
+        private long revision;
+        private long maxAppliedRevision;
+        private long lastFullSyncTime;
+        private final Map<Long, Long> missingRevisions = new HashMap<>();
+        private final Map<String, Long> keyRevisions = new HashMap<>();
+
+        RegistrySubscribeDataPollTask(Map<String, List<SubscribeListener>> dataSubScribeMap,
+                                      MysqlOperator mysqlOperator,
+                                      Map<String, MysqlRegistryData> mysqlRegistryDataMap,
+                                      MysqlRegistryProperties registryProperties,
+                                      Semaphore dataChangedSignal) {
+            this.dataSubScribeMap = dataSubScribeMap;
+            this.mysqlOperator = mysqlOperator;
+            this.mysqlRegistryDataMap = mysqlRegistryDataMap;
+            this.dataChangedSignal = dataChangedSignal;
+            this.pollInterval = registryProperties.getSubscribePollInterval().toMillis();
+            this.fullSyncInterval = registryProperties.getSubscribeFullSyncInterval().toMillis();
+            this.missingRevisionTimeout = registryProperties.getTermRefreshInterval().toMillis();
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    dataChangedSignal.drainPermits();
+                    if (!poll(System.currentTimeMillis())) {
+                        dataChangedSignal.tryAcquire(pollInterval, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    LOGGER.error("Query changed data from mysql registry error", e);
+                    try {
+                        Thread.sleep(pollInterval);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return true if there are more changes to fetch
+         */
+        boolean poll(long now) {
+            if (now - lastFullSyncTime >= fullSyncInterval) {
+                fullSync(now);
+                return false;
+            }
+            List<MysqlRegistryEvent> events = mysqlOperator.queryEventsAfterRevision(revision, FETCH_SIZE);
+            long lastMaxAppliedRevision = maxAppliedRevision;
+            for (MysqlRegistryEvent event : events) {
+                long eventRevision = event.getId();
+                if (eventRevision > maxAppliedRevision) {
+                    if (eventRevision - maxAppliedRevision <= FETCH_SIZE) {
+                        for (long missing = maxAppliedRevision + 1; missing < eventRevision; missing++) {
+                            missingRevisions.put(missing, now);
+                        }
+                    }
+                    maxAppliedRevision = eventRevision;
+                } else if (missingRevisions.remove(eventRevision) == null) {
+                    // applied in the last poll
+                    continue;
+                }
+                applyEvent(event);
+            }
+            missingRevisions.values().removeIf(firstMissingTime -> now - firstMissingTime >= missingRevisionTimeout);
+            revision = missingRevisions.isEmpty()
+                    ? maxAppliedRevision
+                    : Collections.min(missingRevisions.keySet()) - 1;
+            return events.size() >= FETCH_SIZE && maxAppliedRevision > lastMaxAppliedRevision;
+        }
+
+        private void fullSync(long now) {
+            // the changes after the max revision may be applied again, which is harmless
+            long maxRevision = mysqlOperator.queryMaxRevision();
+            Map<String, MysqlRegistryData> currentMysqlDataMap = new HashMap<>();
+            for (MysqlRegistryData data : mysqlOperator.queryAllMysqlRegistryData()) {
+                currentMysqlDataMap.put(data.getKey(), data);
+            }
+            for (MysqlRegistryData oldData : mysqlRegistryDataMap.values()) {
+                if (!currentMysqlDataMap.containsKey(oldData.getKey())
+                        && mysqlRegistryDataMap.remove(oldData.getKey()) != null) {
+                    triggerListener(oldData, Event.Type.REMOVE);
+                }
+            }
+            for (MysqlRegistryData newData : currentMysqlDataMap.values()) {
+                putData(newData);
+            }
+            revision = maxRevision;
+            maxAppliedRevision = maxRevision;
+            missingRevisions.clear();
+            keyRevisions.clear();
+            lastFullSyncTime = now;
+        }
+
+        private void applyEvent(MysqlRegistryEvent event) {
+            String key = event.getKey();
+            Long keyRevision = keyRevisions.get(key);
+            if (keyRevision != null && keyRevision > event.getId()) {
+                // a newer change of the key is applied
+                return;
+            }
+            keyRevisions.put(key, event.getId());
+            if (Event.Type.REMOVE.name().equals(event.getEventType())) {
+                MysqlRegistryData oldData = mysqlRegistryDataMap.remove(key);
+                if (oldData != null) {
+                    triggerListener(oldData, Event.Type.REMOVE);
+                }
+                return;
+            }
+            putData(MysqlRegistryData.builder().key(key).data(event.getData()).build());
+        }
+
+        private void putData(MysqlRegistryData newData) {
+            MysqlRegistryData oldData = mysqlRegistryDataMap.put(newData.getKey(), newData);
+            if (oldData == null) {
+                triggerListener(newData, Event.Type.ADD);
+            } else if (!Objects.equals(oldData.getData(), newData.getData())) {
+                triggerListener(newData, Event.Type.UPDATE);
+            }
+        }
+
+        private void triggerListener(MysqlRegistryData data, Event.Type type) {
+            for (Map.Entry<String, List<SubscribeListener>> entry : dataSubScribeMap.entrySet()) {
+                if (data.getKey().startsWith(entry.getKey())) {
+                    entry.getValue().forEach(subscribeListener -> subscribeListener
+                            .notify(new Event(data.getKey(), data.getKey(), data.getData(), type)));
+                }
+            }
+        }
+    }
 }
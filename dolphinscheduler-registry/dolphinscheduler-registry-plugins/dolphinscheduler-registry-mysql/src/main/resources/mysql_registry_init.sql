@@ -46,3 +46,18 @@ CREATE TABLE `t_ds_mysql_registry_lock`
     unique (`key`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
+
+
+DROP TABLE IF EXISTS `t_ds_mysql_registry_event`;
+CREATE TABLE `t_ds_mysql_registry_event`
+(
+    `id`               bigint(11) NOT NULL AUTO_INCREMENT COMMENT 'primary key, the revision of the change',
+    `key`              varchar(256) NOT NULL COMMENT 'key of the changed data',
+    `data`             text         NOT NULL COMMENT 'data after the change, empty if the key is removed',
+    `event_type`       varchar(16)  NOT NULL COMMENT 'ADD, UPDATE or REMOVE',
+    `event_time`       bigint       NOT NULL COMMENT 'event time, used to clear the expired events',
+    `create_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'create time',
+    PRIMARY KEY (`id`),
+    KEY `idx_event_time` (`event_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.mysql.task;
+
+import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlOperator;
+import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlRegistryConfiguration;
+import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlRegistryProperties;
+import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryDataMapper;
+import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryEventMapper;
+import org.apache.dolphinscheduler.plugin.registry.mysql.mapper.MysqlRegistryLockMapper;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryEvent;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.SubscribeListener;
+
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mybatis.spring.SqlSessionTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+
+public class SubscribeDataManagerTest {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:mysql_registry;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    private static MysqlRegistryProperties registryProperties;
+
+    private static MysqlOperator mysqlOperator;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        try (
+                Connection connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+                Reader reader = new InputStreamReader(
+                        SubscribeDataManagerTest.class.getResourceAsStream("/mysql_registry_h2_init.sql"),
+                        StandardCharsets.UTF_8)) {
+            ScriptRunner scriptRunner = new ScriptRunner(connection);
+            scriptRunner.setLogWriter(null);
+            scriptRunner.runScript(reader);
+        }
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(JDBC_URL);
+        hikariConfig.setUsername("sa");
+        hikariConfig.setPassword("");
+        registryProperties = new MysqlRegistryProperties();
+        registryProperties.setHikariConfig(hikariConfig);
+        registryProperties.setIncrementalSubscribe(true);
+        registryProperties.setSubscribePollInterval(Duration.ofMillis(100));
+
+        MysqlRegistryConfiguration configuration = new MysqlRegistryConfiguration();
+        SqlSessionFactory sqlSessionFactory = configuration.mysqlRegistrySqlSessionFactory(registryProperties);
+        SqlSessionTemplate sqlSessionTemplate = configuration.mysqlRegistrySqlSessionTemplate(sqlSessionFactory);
+        MysqlRegistryDataMapper dataMapper = configuration.mysqlRegistryDataMapper(sqlSessionTemplate);
+        MysqlRegistryLockMapper lockMapper = configuration.mysqlRegistryLockMapper(sqlSessionTemplate);
+        MysqlRegistryEventMapper eventMapper = configuration.mysqlRegistryEventMapper(sqlSessionTemplate);
+        mysqlOperator = new MysqlOperator(registryProperties, dataMapper, lockMapper, eventMapper);
+    }
+
+    @Test
+    public void testIncrementalSubscribe() throws Exception {
+        mysqlOperator.insertOrUpdatePersistentData("/nodes/master", "m0");
+        BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        try (SubscribeDataManager subscribeDataManager = new SubscribeDataManager(registryProperties, mysqlOperator)) {
+            subscribeDataManager.addListener("/nodes", events::add);
+            subscribeDataManager.start();
+            assertEvent(events.poll(5, TimeUnit.SECONDS), "/nodes/master", "m0", Event.Type.ADD);
+
+            mysqlOperator.insertOrUpdatePersistentData("/nodes/worker", "w1");
+            subscribeDataManager.wakeUp();
+            assertEvent(events.poll(5, TimeUnit.SECONDS), "/nodes/worker", "w1", Event.Type.ADD);
+
+            mysqlOperator.insertOrUpdatePersistentData("/nodes/worker", "w2");
+            subscribeDataManager.wakeUp();
+            assertEvent(events.poll(5, TimeUnit.SECONDS), "/nodes/worker", "w2", Event.Type.UPDATE);
+            Assertions.assertEquals("w2", subscribeDataManager.getData("/nodes/worker"));
+
+            mysqlOperator.insertOrUpdatePersistentData("/lock/failover", "f1");
+            mysqlOperator.deleteDataByKey("/nodes/worker");
+            subscribeDataManager.wakeUp();
+            assertEvent(events.poll(5, TimeUnit.SECONDS), "/nodes/worker", "w2", Event.Type.REMOVE);
+            Assertions.assertNull(subscribeDataManager.getData("/nodes/worker"));
+            Assertions.assertEquals("f1", subscribeDataManager.getData("/lock/failover"));
+            Assertions.assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+        }
+        Assertions.assertEquals(5, mysqlOperator.queryMaxRevision());
+    }
+
+    @Test
+    public void testPollMissingRevision() {
+        MysqlOperator operator = Mockito.mock(MysqlOperator.class);
+        Mockito.when(operator.queryAllMysqlRegistryData()).thenReturn(Collections.emptyList());
+        Mockito.when(operator.queryEventsAfterRevision(0L, 1000))
+                .thenReturn(Arrays.asList(event(1, "/nodes/a"), event(3, "/nodes/c")));
+        Mockito.when(operator.queryEventsAfterRevision(1L, 1000))
+                .thenReturn(Arrays.asList(event(2, "/nodes/b"), event(3, "/nodes/c")));
+        Mockito.when(operator.queryEventsAfterRevision(3L, 1000))
+                .thenReturn(Collections.singletonList(event(5, "/nodes/e")));
+
+        Map<String, MysqlRegistryData> dataMap = new ConcurrentHashMap<>();
+        List<String> addedPaths = new ArrayList<>();
+        Map<String, List<SubscribeListener>> subscribeMap = new HashMap<>();
+        subscribeMap.put("/nodes", Collections.singletonList(event -> addedPaths.add(event.path())));
+        SubscribeDataManager.RegistrySubscribeDataPollTask pollTask =
+                new SubscribeDataManager.RegistrySubscribeDataPollTask(subscribeMap, operator, dataMap,
+                        new MysqlRegistryProperties(), new Semaphore(0));
+
+        long now = System.currentTimeMillis();
+        // the first poll is a full sync
+        Assertions.assertFalse(pollTask.poll(now));
+        pollTask.poll(now + 1);
+        Assertions.assertEquals(Arrays.asList("/nodes/a", "/nodes/c"), addedPaths);
+        // the revision 2 is visible later, and the revision 3 is not applied again
+        pollTask.poll(now + 2);
+        Assertions.assertEquals(Arrays.asList("/nodes/a", "/nodes/c", "/nodes/b"), addedPaths);
+        // the revision 4 is missing for a term, skip it
+        pollTask.poll(now + 3);
+        pollTask.poll(now + 3 + new MysqlRegistryProperties().getTermRefreshInterval().toMillis());
+        Mockito.verify(operator, Mockito.times(2)).queryEventsAfterRevision(3L, 1000);
+        pollTask.poll(now + 4 + new MysqlRegistryProperties().getTermRefreshInterval().toMillis());
+        Mockito.verify(operator).queryEventsAfterRevision(5L, 1000);
+        Assertions.assertEquals(Arrays.asList("/nodes/a", "/nodes/c", "/nodes/b", "/nodes/e"), addedPaths);
+        Assertions.assertEquals(4, dataMap.size());
+    }
+
+    private static MysqlRegistryEvent event(long revision, String key) {
+        return MysqlRegistryEvent.builder()
+                .id(revision)
+                .key(key)
+                .data(key)
+                .eventType(Event.Type.ADD.name())
+                .build();
+    }
+
+    private static void assertEvent(Event event, String path, String data, Event.Type type) {
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals(path, event.path());
+        Assertions.assertEquals(data, event.data());
+        Assertions.assertEquals(type, event.type());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+DROP TABLE IF EXISTS `t_ds_mysql_registry_data`;
+CREATE TABLE `t_ds_mysql_registry_data`
+(
+    `id`               bigint       NOT NULL AUTO_INCREMENT,
+    `key`              varchar(256) NOT NULL,
+    `data`             text         NOT NULL,
+    `type`             tinyint      NOT NULL,
+    `last_term`        bigint       NOT NULL,
+    `last_update_time` timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `create_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    UNIQUE (`key`)
+);
+
+DROP TABLE IF EXISTS `t_ds_mysql_registry_lock`;
+CREATE TABLE `t_ds_mysql_registry_lock`
+(
+    `id`               bigint       NOT NULL AUTO_INCREMENT,
+    `key`              varchar(256) NOT NULL,
+    `lock_owner`       varchar(256) NOT NULL,
+    `last_term`        bigint       NOT NULL,
+    `last_update_time` timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `create_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    UNIQUE (`key`)
+);
+
+DROP TABLE IF EXISTS `t_ds_mysql_registry_event`;
+CREATE TABLE `t_ds_mysql_registry_event`
+(
+    `id`               bigint       NOT NULL AUTO_INCREMENT,
+    `key`              varchar(256) NOT NULL,
+    `data`             text         NOT NULL,
+    `event_type`       varchar(16)  NOT NULL,
+    `event_time`       bigint       NOT NULL,
+    `create_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`)
+);
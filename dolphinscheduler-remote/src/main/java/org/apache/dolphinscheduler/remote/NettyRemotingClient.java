@@ -37,6 +37,7 @@ import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.remote.utils.NettyUtils;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -270,6 +271,38 @@ public class NettyRemotingClient implements AutoCloseable {
         }
     }
 
+    /**
+     * send command without blocking the caller thread, the returned future will be completed once the command is
+     * written to the channel
+     *
+     * @param host host
+     * @param command command
+     * @return future of the send result, completed exceptionally with {@link RemotingException} if send failed
+     */
+    public CompletableFuture<Void> sendAsync(final Host host, final Command command) {
+        CompletableFuture<Void> sendFuture = new CompletableFuture<>();
+        Channel channel = getChannel(host);
+        if (channel == null) {
+            sendFuture.completeExceptionally(new RemotingException(String.format("connect to : %s fail", host)));
+            return sendFuture;
+        }
+        try {
+            channel.writeAndFlush(command).addListener(future -> {
+                if (future.isSuccess()) {
+                    logger.debug("send command : {} , to : {} successfully.", command, host.getAddress());
+                    sendFuture.complete(null);
+                } else {
+                    String msg = String.format("send command : %s , to :%s failed", command, host.getAddress());
+                    sendFuture.completeExceptionally(new RemotingException(msg, future.cause()));
+                }
+            });
+        } catch (Exception e) {
+            sendFuture.completeExceptionally(new RemotingException(
+                    String.format("Send command : %s , to :%s encounter error", command, host.getAddress()), e));
+        }
+        return sendFuture;
+    }
+
     /**
      * register processor
      *
@@ -59,7 +59,7 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
                 checkpoint(State.VERSION);
                 // fallthru
             case VERSION:
-                checkVersion(in.readByte());
+                commandHeader.setVersion(checkVersion(in.readByte()));
                 checkpoint(State.COMMAND);
                 // fallthru
             case COMMAND:
@@ -92,6 +92,7 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
                 packet.setType(commandType(commandHeader.getType()));
                 packet.setOpaque(commandHeader.getOpaque());
                 packet.setContext(CommandContext.valueOf(commandHeader.getContext()));
+                packet.setVersion(commandHeader.getVersion());
                 packet.setBody(body);
                 out.add(packet);
                 //
@@ -130,10 +131,11 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
     /**
      * check version
      */
-    private void checkVersion(byte version) {
-        if (version != Command.VERSION) {
+    private byte checkVersion(byte version) {
+        if (version < Command.JSON_VERSION || version > Command.VERSION) {
             throw new IllegalArgumentException("illegal protocol [version]" + version);
         }
+        return version;
     }
 
     enum State {
@@ -19,8 +19,12 @@ package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.serializer.CommandSerializerType;
+
+import java.io.IOException;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
@@ -43,16 +47,52 @@ public class NettyEncoder extends MessageToByteEncoder<Command> {
         if (msg == null) {
             throw new RemotingException("encode msg is null");
         }
+        byte version = msg.getBodyObject() == null
+                ? Command.JSON_VERSION
+                : ProtocolNegotiation.negotiatedVersion(ctx.channel());
+        writeHeader(msg, version, out);
+        writeBody(msg, version, out);
+    }
+
+    /**
+     * Encode the frame header of a command whose body is written to the channel separately,
+     * e.g. by a file region, the body must be written right after the header.
+     *
+     * @param allocator allocator
+     * @param msg command
+     * @param bodyLength byte length of the body
+     * @return frame header
+     */
+    public static ByteBuf encodeHeader(ByteBufAllocator allocator, Command msg, int bodyLength) {
+        ByteBuf out = allocator.ioBuffer();
+        writeHeader(msg, Command.JSON_VERSION, out);
+        out.writeInt(bodyLength);
+        return out;
+    }
+
+    private static void writeHeader(Command msg, byte version, ByteBuf out) {
         out.writeByte(Command.MAGIC);
-        out.writeByte(Command.VERSION);
+        out.writeByte(version);
         out.writeByte(msg.getType().ordinal());
         out.writeLong(msg.getOpaque());
         writeContext(msg, out);
-        out.writeInt(msg.getBody().length);
-        out.writeBytes(msg.getBody());
     }
 
-    private void writeContext(Command msg, ByteBuf out) {
+    private void writeBody(Command msg, byte version, ByteBuf out) throws IOException {
+        if (version == Command.JSON_VERSION) {
+            byte[] body = msg.getBody();
+            out.writeInt(body.length);
+            out.writeBytes(body);
+            return;
+        }
+        // serialize the body in place and backfill the length, so no intermediate byte array is needed
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        CommandSerializerType.getSerializerByVersion(version).serialize(msg.getBodyObject(), out);
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - Integer.BYTES);
+    }
+
+    private static void writeContext(Command msg, ByteBuf out) {
         byte[] headerBytes = msg.getContext().toBytes();
         out.writeInt(headerBytes.length);
         out.writeBytes(headerBytes);
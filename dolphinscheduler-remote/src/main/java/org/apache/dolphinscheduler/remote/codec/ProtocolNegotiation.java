@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.serializer.BodySchemaFingerprint;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * Negotiate the protocol version of a connection, so nodes of different versions can work in one cluster.
+ * <p>
+ * When a client connection is active, the client sends a heart beat which carries the highest protocol version
+ * it speaks in the command context. A server which knows the negotiation records the version on the channel and
+ * replies with its own version, older servers just ignore the heart beat. Until the reply arrives, and forever
+ * with an older peer, the commands are written with the json baseline protocol.
+ * <p>
+ * The binary body is bound to the field layout of the body classes, so the binary protocol is only used when both
+ * sides speak exactly the same version and offer the same {@link BodySchemaFingerprint}, a peer whose body classes
+ * differ falls back to json even if nobody increased {@link Command#BINARY_VERSION}.
+ */
+public final class ProtocolNegotiation {
+
+    public static final String PROTOCOL_VERSION = "protocolVersion";
+
+    public static final String SCHEMA_FINGERPRINT = "schemaFingerprint";
+
+    private static final AttributeKey<Byte> PEER_PROTOCOL_VERSION = AttributeKey.valueOf("peerProtocolVersion");
+
+    private static final byte[] HEART_BEAT_DATA = "heart_beat".getBytes(StandardCharsets.UTF_8);
+
+    private ProtocolNegotiation() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * create the heart beat which offers the protocol version of this node
+     */
+    public static Command offer() {
+        Command command = new Command();
+        command.setType(CommandType.HEART_BEAT);
+        command.getContext().put(PROTOCOL_VERSION, String.valueOf(Command.VERSION));
+        command.getContext().put(SCHEMA_FINGERPRINT, BodySchemaFingerprint.FINGERPRINT);
+        command.setBody(HEART_BEAT_DATA);
+        return command;
+    }
+
+    /**
+     * accept the protocol version offered by the peer
+     *
+     * @param channel channel
+     * @param command received command
+     * @return true if the command carries an offer
+     */
+    public static boolean accept(Channel channel, Command command) {
+        String offered = command.getContext().get(PROTOCOL_VERSION);
+        if (offered == null) {
+            return false;
+        }
+        boolean sameSchema = BodySchemaFingerprint.FINGERPRINT.equals(command.getContext().get(SCHEMA_FINGERPRINT));
+        byte version =
+                Byte.parseByte(offered) == Command.VERSION && sameSchema ? Command.VERSION : Command.JSON_VERSION;
+        channel.attr(PEER_PROTOCOL_VERSION).set(version);
+        return true;
+    }
+
+    /**
+     * the protocol version both sides of the channel speak
+     */
+    public static byte negotiatedVersion(Channel channel) {
+        Byte version = channel.attr(PEER_PROTOCOL_VERSION).get();
+        return version == null ? Command.JSON_VERSION : version;
+    }
+}
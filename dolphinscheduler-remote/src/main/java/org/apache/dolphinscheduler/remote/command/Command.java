@@ -17,6 +17,9 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.serializer.CommandSerializerType;
+
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -31,7 +34,22 @@ public class Command implements Serializable {
     private static final AtomicLong REQUEST_ID = new AtomicLong(1);
 
     public static final byte MAGIC = (byte) 0xbabe;
-    public static final byte VERSION = 0;
+
+    /**
+     * The baseline protocol version, the body is json which every node can read.
+     */
+    public static final byte JSON_VERSION = 0;
+
+    /**
+     * The body is written by the schema based binary serializer.
+     */
+    public static final byte BINARY_VERSION = 1;
+
+    /**
+     * The highest protocol version this node speaks, it is offered to the peer when a connection is set up,
+     * see {@link org.apache.dolphinscheduler.remote.codec.ProtocolNegotiation}.
+     */
+    public static final byte VERSION = BINARY_VERSION;
 
     public Command() {
         this.opaque = REQUEST_ID.getAndIncrement();
@@ -61,6 +79,17 @@ public class Command implements Serializable {
      */
     private byte[] body;
 
+    /**
+     * The message the body is serialized from when the command is written,
+     * the serializer is chosen by the protocol version negotiated on the channel.
+     */
+    private transient Object bodyObject;
+
+    /**
+     * The protocol version of the frame this command is decoded from
+     */
+    private byte version = JSON_VERSION;
+
     public CommandType getType() {
         return type;
     }
@@ -77,7 +106,13 @@ public class Command implements Serializable {
         this.opaque = opaque;
     }
 
+    /**
+     * Get the json body, if the command is built from a body object the json is serialized lazily.
+     */
     public byte[] getBody() {
+        if (body == null && bodyObject != null) {
+            body = JSONUtils.toJsonByteArray(bodyObject);
+        }
         return body;
     }
 
@@ -85,6 +120,41 @@ public class Command implements Serializable {
         this.body = body;
     }
 
+    public Object getBodyObject() {
+        return bodyObject;
+    }
+
+    /**
+     * Set the body object, it is serialized when the command is written,
+     * so it should not be changed after the command is sent.
+     */
+    public void setBodyObject(Object bodyObject) {
+        this.bodyObject = bodyObject;
+        this.body = null;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public void setVersion(byte version) {
+        this.version = version;
+    }
+
+    /**
+     * Deserialize the body with the serializer of the protocol version this command is decoded from.
+     *
+     * @param clazz body class
+     * @param <T> body type
+     * @return body object
+     */
+    public <T> T parseBody(Class<T> clazz) {
+        if (clazz.isInstance(bodyObject)) {
+            return clazz.cast(bodyObject);
+        }
+        return CommandSerializerType.getSerializerByVersion(version).deserialize(getBody(), clazz);
+    }
+
     public CommandContext getContext() {
         return context;
     }
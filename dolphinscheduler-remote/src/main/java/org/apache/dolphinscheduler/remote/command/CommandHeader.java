@@ -27,6 +27,8 @@ import lombok.Data;
 @Data
 public class CommandHeader implements Serializable {
 
+    private byte version;
+
     /**
      * type
      */
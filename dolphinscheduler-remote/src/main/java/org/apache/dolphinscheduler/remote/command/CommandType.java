@@ -134,5 +134,20 @@ public enum CommandType {
     /**
      * workflow executing data response, from master to api
      */
-    WORKFLOW_EXECUTING_DATA_RESPONSE;
+    WORKFLOW_EXECUTING_DATA_RESPONSE,
+
+    /**
+     * new workflow command inserted, from api/scheduler to master
+     */
+    COMMAND_INSERT_NOTIFY,
+
+    /**
+     * get a byte range of the log file, the new command types must be appended since the ordinal is on the wire
+     */
+    GET_LOG_RANGE_REQUEST,
+
+    /**
+     * get log range response, the body is the raw bytes of the range
+     */
+    GET_LOG_RANGE_RESPONSE;
 }
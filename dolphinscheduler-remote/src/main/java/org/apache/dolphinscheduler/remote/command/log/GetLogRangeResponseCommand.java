@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandContext;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *  get log range response command
+ * <p>
+ *  The range is described in the command context, and the body is the raw bytes of the range,
+ *  so the server can send the body straight from the file without copying it into the heap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetLogRangeResponseCommand implements Serializable {
+
+    private static final String OFFSET = "offset";
+
+    private static final String LENGTH = "length";
+
+    private static final String FILE_LENGTH = "fileLength";
+
+    /**
+     *  byte offset of the range
+     */
+    private long offset;
+
+    /**
+     *  byte length of the range
+     */
+    private int length;
+
+    /**
+     *  byte length of the whole file when the range is read
+     */
+    private long fileLength;
+
+    /**
+     * package response command, the body should be written by the caller
+     *
+     * @param opaque request unique identification
+     * @return command
+     */
+    public Command convert2Command(long opaque) {
+        Command command = new Command(opaque);
+        command.setType(CommandType.GET_LOG_RANGE_RESPONSE);
+        CommandContext context = command.getContext();
+        context.put(OFFSET, String.valueOf(offset));
+        context.put(LENGTH, String.valueOf(length));
+        context.put(FILE_LENGTH, String.valueOf(fileLength));
+        return command;
+    }
+
+    /**
+     * parse the range from the response command
+     *
+     * @param command response command
+     * @return range, null if the command is not a range response
+     */
+    public static GetLogRangeResponseCommand valueOf(Command command) {
+        CommandContext context = command.getContext();
+        if (context == null || context.get(FILE_LENGTH) == null) {
+            return null;
+        }
+        return new GetLogRangeResponseCommand(Long.parseLong(context.get(OFFSET)),
+                Integer.parseInt(context.get(LENGTH)), Long.parseLong(context.get(FILE_LENGTH)));
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.remote.handler;
 
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
+import org.apache.dolphinscheduler.remote.codec.ProtocolNegotiation;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
@@ -77,6 +78,18 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
         this.processors = new ConcurrentHashMap<>();
     }
 
+    /**
+     * When the current channel is active, offer the protocol version of this node to the server
+     *
+     * @param ctx channel handler context
+     */
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        ctx.channel().writeAndFlush(ProtocolNegotiation.offer())
+                .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        super.channelActive(ctx);
+    }
+
     /**
      * When the current channel is not active,
      * the current channel has reached the end of its life cycle
@@ -132,6 +145,10 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
      * @param command command
      */
     private void processReceived(final Channel channel, final Command command) {
+        if (CommandType.HEART_BEAT.equals(command.getType())) {
+            ProtocolNegotiation.accept(channel, command);
+            return;
+        }
         ResponseFuture future = ResponseFuture.getFuture(command.getOpaque());
         if (future != null) {
             future.setResponseCommand(command);
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.remote.handler;
 
 import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.codec.ProtocolNegotiation;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
@@ -121,6 +122,9 @@ public class NettyServerHandler extends ChannelInboundHandlerAdapter {
             if (logger.isDebugEnabled()) {
                 logger.debug("server receive heart beat from: host: {}", ChannelUtils.getRemoteAddress(channel));
             }
+            if (ProtocolNegotiation.accept(channel, msg)) {
+                channel.writeAndFlush(ProtocolNegotiation.offer());
+            }
             return;
         }
         final Pair<NettyRequestProcessor, ExecutorService> pair = processors.get(commandType);
@@ -23,37 +23,49 @@ import static org.apache.dolphinscheduler.common.constants.Constants.DEFAULT_COL
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetAppIdRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetAppIdResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.utils.LogLineIndex;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.DefaultFileRegion;
 
 /**
  * logger request process logic
@@ -63,6 +75,21 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final Logger logger = LoggerFactory.getLogger(LoggerRequestProcessor.class);
 
+    /**
+     * max byte length of a log range response
+     */
+    private static final int MAX_RANGE_LENGTH = 4 * 1024 * 1024;
+
+    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+    /**
+     * line offset index of the log files which are viewed recently
+     */
+    private final Cache<String, LogLineIndex> logLineIndexCache = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
     @Override
     public void process(Channel channel, Command command) {
         logger.info("received command : {}", command);
@@ -78,6 +105,11 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
                 channel.writeAndFlush(getLogResponse.convert2Command(command.getOpaque()));
                 break;
+            case GET_LOG_RANGE_REQUEST:
+                GetLogRangeRequestCommand getLogRangeRequest = JSONUtils.parseObject(
+                        command.getBody(), GetLogRangeRequestCommand.class);
+                writeFileRange(channel, command.getOpaque(), getLogRangeRequest);
+                break;
             case VIEW_WHOLE_LOG_REQUEST:
                 ViewLogRequestCommand viewLogRequest = JSONUtils.parseObject(
                         command.getBody(), ViewLogRequestCommand.class);
@@ -124,6 +156,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
                 String taskLogPath = removeTaskLogRequest.getPath();
                 File taskLogFile = new File(taskLogPath);
+                logLineIndexCache.invalidate(taskLogPath);
                 boolean status = true;
                 try {
                     if (taskLogFile.exists()) {
@@ -158,23 +191,48 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
      * @return byte array of file
      */
     private byte[] getFileContentBytes(String filePath) {
-        try (
-                InputStream in = new FileInputStream(filePath);
-                ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-            byte[] buf = new byte[1024];
-            int len;
-            while ((len = in.read(buf)) != -1) {
-                bos.write(buf, 0, len);
-            }
-            return bos.toByteArray();
+        try {
+            return Files.readAllBytes(Paths.get(filePath));
         } catch (IOException e) {
             logger.error("get file bytes error", e);
         }
-        return new byte[0];
+        return EMPTY_BYTE_ARRAY;
+    }
+
+    /**
+     * Write a byte range of the file, the body is transferred from the file channel by a file region,
+     * so it is neither read into the heap nor copied in user space.
+     *
+     * @param channel channel
+     * @param opaque request unique identification
+     * @param request range request
+     */
+    private void writeFileRange(Channel channel, long opaque, GetLogRangeRequestCommand request) {
+        File file = new File(request.getPath());
+        long fileLength = file.isFile() ? file.length() : 0;
+        long offset = Math.min(Math.max(request.getOffset(), 0), fileLength);
+        int length = (int) Math.max(Math.min(Math.min(request.getLength(), MAX_RANGE_LENGTH), fileLength - offset), 0);
+
+        Command response = new GetLogRangeResponseCommand(offset, length, fileLength).convert2Command(opaque);
+        if (length == 0) {
+            response.setBody(EMPTY_BYTE_ARRAY);
+            channel.writeAndFlush(response);
+            return;
+        }
+        ByteBuf header = NettyEncoder.encodeHeader(channel.alloc(), response, length);
+        DefaultFileRegion body = new DefaultFileRegion(file, offset, length);
+        // write the header and the body in one event loop task, so no other command can be written between them
+        channel.eventLoop().execute(() -> {
+            channel.write(header);
+            channel.writeAndFlush(body).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        });
     }
 
     /**
      * read part file content，can skip any line and read some lines
+     * <p>
+     * The lines are skipped by seeking to the nearest offset in the line index of the file,
+     * so a page of a large log file is read without scanning the file from the beginning.
      *
      * @param filePath file path
      * @param skipLine skip line
@@ -186,9 +244,24 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                                              int limit) {
         File file = new File(filePath);
         if (file.exists() && file.isFile()) {
-            try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-                return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
-            } catch (IOException e) {
+            try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                LogLineIndex logLineIndex = logLineIndexCache.get(filePath, LogLineIndex::new);
+                LogLineIndex.Position position = logLineIndex.seek(fileChannel, skipLine);
+                fileChannel.position(position.getOffset());
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(fileChannel), StandardCharsets.UTF_8));
+                for (int i = position.getLineNum(); i < skipLine; i++) {
+                    if (reader.readLine() == null) {
+                        return Collections.emptyList();
+                    }
+                }
+                List<String> lines = new ArrayList<>();
+                String line;
+                while (lines.size() < limit && (line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+                return lines;
+            } catch (Exception e) {
                 logger.error("read file error", e);
             }
         } else {
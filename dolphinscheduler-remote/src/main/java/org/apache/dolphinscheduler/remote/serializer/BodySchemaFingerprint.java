@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.serializer;
+
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResultCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckMessage;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+
+/**
+ * The fingerprint of the field layout of the binary body classes.
+ * <p>
+ * The binary body is bound to the field names, types and order of the body classes and the classes they refer to,
+ * and the enums are written by ordinal. Nodes only speak the binary protocol when their fingerprints are the same,
+ * so a changed body class makes a mixed-version cluster fall back to json instead of mis-decoding the body.
+ * <p>
+ * A field of a polymorphic type is written with the class of its value, so the subclasses declared by
+ * {@link JsonSubTypes}, the ones the json body accepts, are part of the layout too.
+ */
+public final class BodySchemaFingerprint {
+
+    /**
+     * The classes which are sent by {@link org.apache.dolphinscheduler.remote.command.Command#setBodyObject(Object)},
+     * a new body class should be added here.
+     */
+    private static final List<Class<?>> BODY_CLASSES = Arrays.asList(
+            TaskDispatchCommand.class,
+            TaskExecuteAckCommand.class,
+            TaskExecuteResultCommand.class,
+            TaskExecuteRunningAckMessage.class,
+            TaskExecuteRunningCommand.class);
+
+    private static final String PROJECT_PACKAGE_PREFIX = "org.apache.dolphinscheduler.";
+
+    public static final String FINGERPRINT = compute(BODY_CLASSES);
+
+    private BodySchemaFingerprint() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static String compute(List<Class<?>> bodyClasses) {
+        return UUID.nameUUIDFromBytes(layout(bodyClasses).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    static String layout(List<Class<?>> bodyClasses) {
+        StringBuilder layout = new StringBuilder();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> bodyClass : bodyClasses) {
+            appendLayout(bodyClass, layout, visited);
+        }
+        return layout.toString();
+    }
+
+    private static void appendLayout(Class<?> clazz, StringBuilder layout, Set<Class<?>> visited) {
+        if (!visited.add(clazz)) {
+            return;
+        }
+        layout.append(clazz.getName()).append('{');
+        if (clazz.isEnum()) {
+            for (Object constant : clazz.getEnumConstants()) {
+                layout.append(((Enum<?>) constant).name()).append(',');
+            }
+            layout.append('}');
+            return;
+        }
+        List<Class<?>> referredClasses = new ArrayList<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                layout.append(field.getName()).append(':').append(field.getGenericType().getTypeName()).append(';');
+                collectReferredClasses(field.getGenericType(), referredClasses);
+            }
+        }
+        layout.append('}');
+        JsonSubTypes subTypes = clazz.getAnnotation(JsonSubTypes.class);
+        if (subTypes != null) {
+            for (JsonSubTypes.Type subType : subTypes.value()) {
+                layout.append(clazz.getName()).append("<-").append(subType.value().getName()).append(';');
+                referredClasses.add(subType.value());
+            }
+        }
+        for (Class<?> referredClass : referredClasses) {
+            appendLayout(referredClass, layout, visited);
+        }
+    }
+
+    private static void collectReferredClasses(Type type, List<Class<?>> referredClasses) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                collectReferredClasses(clazz.getComponentType(), referredClasses);
+            } else if (clazz.getName().startsWith(PROJECT_PACKAGE_PREFIX)) {
+                referredClasses.add(clazz);
+            }
+        } else if (type instanceof ParameterizedType) {
+            collectReferredClasses(((ParameterizedType) type).getRawType(), referredClasses);
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                collectReferredClasses(argument, referredClasses);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collectReferredClasses(((GenericArrayType) type).getGenericComponentType(), referredClasses);
+        }
+    }
+}
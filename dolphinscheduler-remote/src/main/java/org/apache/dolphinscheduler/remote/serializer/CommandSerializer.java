@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.serializer;
+
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Serialize the body of a remote command, each serializer is bound to the protocol version written in the frame.
+ */
+public interface CommandSerializer {
+
+    /**
+     * Write the body straight into the outbound buffer.
+     *
+     * @param body body object
+     * @param out outbound buffer
+     */
+    void serialize(Object body, ByteBuf out) throws IOException;
+
+    /**
+     * Read the body which is written by {@link #serialize(Object, ByteBuf)}.
+     *
+     * @param body body bytes
+     * @param clazz body class
+     * @param <T> body type
+     * @return body object
+     */
+    <T> T deserialize(byte[] body, Class<T> clazz);
+
+}
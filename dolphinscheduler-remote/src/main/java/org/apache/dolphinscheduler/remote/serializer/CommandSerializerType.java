@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.serializer;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The command body serializers, keyed by the protocol version written in the frame.
+ */
+public enum CommandSerializerType {
+
+    JSON(Command.JSON_VERSION, new JsonCommandSerializer()),
+
+    PROTOSTUFF(Command.BINARY_VERSION, new ProtostuffCommandSerializer());
+
+    private final byte version;
+
+    private final CommandSerializer serializer;
+
+    CommandSerializerType(byte version, CommandSerializer serializer) {
+        this.version = version;
+        this.serializer = serializer;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public CommandSerializer getSerializer() {
+        return serializer;
+    }
+
+    private static final Map<Byte, CommandSerializer> SERIALIZERS_MAP = new HashMap<>();
+
+    static {
+        for (CommandSerializerType serializerType : CommandSerializerType.values()) {
+            SERIALIZERS_MAP.put(serializerType.version, serializerType.serializer);
+        }
+    }
+
+    public static CommandSerializer getSerializerByVersion(byte version) {
+        CommandSerializer serializer = SERIALIZERS_MAP.get(version);
+        if (serializer == null) {
+            throw new IllegalArgumentException("illegal protocol [version]" + version);
+        }
+        return serializer;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A sparse line offset index of a log file, it records the byte offset of every {@link #LINES_PER_ENTRY} lines,
+ * so skipping lines becomes a seek plus reading less than {@link #LINES_PER_ENTRY} lines.
+ * <p>
+ * The log file is only appended, so the index is extended incrementally and only as far as the requested line,
+ * if the file becomes shorter than the scanned length, the index is rebuilt. Lines are split by '\n'.
+ */
+public class LogLineIndex {
+
+    public static final int LINES_PER_ENTRY = 1024;
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * entries[i] is the byte offset of line i * LINES_PER_ENTRY
+     */
+    private long[] entries = new long[16];
+
+    private int entryCount = 1;
+
+    /**
+     * the number of complete lines which have been scanned
+     */
+    private int scannedLines;
+
+    /**
+     * the byte offset right after the last scanned complete line
+     */
+    private long scannedOffset;
+
+    /**
+     * Find the nearest indexed position at or before the line.
+     *
+     * @param fileChannel channel of the log file
+     * @param lineNum line number, starts from 0
+     * @return the indexed position, the caller should skip {@code lineNum - position.getLineNum()} lines from it
+     */
+    public synchronized Position seek(FileChannel fileChannel, int lineNum) throws IOException {
+        long fileLength = fileChannel.size();
+        if (fileLength < scannedOffset) {
+            reset();
+        }
+        if (scannedLines < lineNum && scannedOffset < fileLength) {
+            scan(fileChannel, lineNum, fileLength);
+        }
+        int entry = Math.min(lineNum / LINES_PER_ENTRY, entryCount - 1);
+        return new Position(entries[entry], entry * LINES_PER_ENTRY);
+    }
+
+    private void scan(FileChannel fileChannel, int lineNum, long fileLength) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = scannedOffset;
+        while (scannedLines < lineNum && position < fileLength) {
+            buffer.clear();
+            int read = fileChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read && scannedLines < lineNum; i++) {
+                if (buffer.get(i) == '\n') {
+                    scannedLines++;
+                    scannedOffset = position + i + 1;
+                    if (scannedLines % LINES_PER_ENTRY == 0) {
+                        addEntry(scannedOffset);
+                    }
+                }
+            }
+            position += read;
+        }
+    }
+
+    private void addEntry(long offset) {
+        if (entryCount == entries.length) {
+            entries = Arrays.copyOf(entries, entryCount * 2);
+        }
+        entries[entryCount++] = offset;
+    }
+
+    private void reset() {
+        entries = new long[16];
+        entryCount = 1;
+        scannedLines = 0;
+        scannedOffset = 0;
+    }
+
+    /**
+     * an indexed position of the log file
+     */
+    public static class Position {
+
+        private final long offset;
+
+        private final int lineNum;
+
+        public Position(long offset, int lineNum) {
+            this.offset = offset;
+            this.lineNum = lineNum;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLineNum() {
+            return lineNum;
+        }
+    }
+}
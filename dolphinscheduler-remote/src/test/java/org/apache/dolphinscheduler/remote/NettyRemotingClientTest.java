@@ -28,6 +28,7 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 
 import java.io.Serializable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Assertions;
@@ -114,6 +115,36 @@ public class NettyRemotingClientTest {
         client.close();
     }
 
+    /**
+     *  test send async without response
+     */
+    @Test
+    public void testSendAsyncWithoutResponse() throws Exception {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        CountDownLatch latch = new CountDownLatch(1);
+        server.registerProcessor(CommandType.PING, new NettyRequestProcessor() {
+
+            @Override
+            public void process(Channel channel, Command command) {
+                latch.countDown();
+            }
+        });
+        server.start();
+        //
+        final NettyClientConfig clientConfig = new NettyClientConfig();
+        NettyRemotingClient client = new NettyRemotingClient(clientConfig);
+        try {
+            client.sendAsync(new Host("127.0.0.1", serverConfig.getListenPort()), Ping.create())
+                    .get(2, TimeUnit.SECONDS);
+            Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS));
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
+
     private static class Ping implements Serializable {
 
         /**
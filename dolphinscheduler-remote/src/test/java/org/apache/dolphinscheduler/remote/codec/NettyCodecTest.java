@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ResourceType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.enums.UdfType;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.DataSourceParameters;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.ResourceParametersHelper;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.UdfFuncParameters;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.spi.enums.DbType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class NettyCodecTest {
+
+    @Test
+    public void testJsonBeforeNegotiation() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        TaskDispatchCommand taskDispatchCommand = createTaskDispatchCommand();
+
+        Command command = encodeAndDecode(encodeChannel, taskDispatchCommand.convert2Command());
+        Assertions.assertEquals(Command.JSON_VERSION, command.getVersion());
+        Assertions.assertEquals(CommandType.TASK_DISPATCH_REQUEST, command.getType());
+        Assertions.assertEquals(taskDispatchCommand, command.parseBody(TaskDispatchCommand.class));
+    }
+
+    @Test
+    public void testBinaryAfterNegotiation() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assertions.assertTrue(ProtocolNegotiation.accept(encodeChannel, ProtocolNegotiation.offer()));
+        Assertions.assertEquals(Command.BINARY_VERSION, ProtocolNegotiation.negotiatedVersion(encodeChannel));
+        TaskDispatchCommand taskDispatchCommand = createTaskDispatchCommand();
+
+        Command command = encodeAndDecode(encodeChannel, taskDispatchCommand.convert2Command());
+        Assertions.assertEquals(Command.BINARY_VERSION, command.getVersion());
+        Assertions.assertEquals(taskDispatchCommand, command.parseBody(TaskDispatchCommand.class));
+        Assertions.assertTrue(command.getBody().length < taskDispatchCommand.convert2Command().getBody().length);
+    }
+
+    @Test
+    public void testBinaryWithResourceParameters() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assertions.assertTrue(ProtocolNegotiation.accept(encodeChannel, ProtocolNegotiation.offer()));
+        TaskDispatchCommand taskDispatchCommand = createTaskDispatchCommand();
+        DataSourceParameters dataSourceParameters = new DataSourceParameters();
+        dataSourceParameters.setType(DbType.MYSQL);
+        dataSourceParameters.setConnectionParams("{\"user\":\"root\"}");
+        UdfFuncParameters udfFuncParameters = new UdfFuncParameters();
+        udfFuncParameters.setId(2);
+        udfFuncParameters.setFuncName("to_upper");
+        udfFuncParameters.setClassName("org.apache.dolphinscheduler.ToUpper");
+        udfFuncParameters.setType(UdfType.HIVE);
+        ResourceParametersHelper resourceParametersHelper = new ResourceParametersHelper();
+        resourceParametersHelper.put(ResourceType.DATASOURCE, 1, dataSourceParameters);
+        resourceParametersHelper.put(ResourceType.UDF, 2, udfFuncParameters);
+        taskDispatchCommand.getTaskExecutionContext().setResourceParametersHelper(resourceParametersHelper);
+
+        Command command = encodeAndDecode(encodeChannel, taskDispatchCommand.convert2Command());
+        Assertions.assertEquals(Command.BINARY_VERSION, command.getVersion());
+        ResourceParametersHelper decoded =
+                command.parseBody(TaskDispatchCommand.class).getTaskExecutionContext().getResourceParametersHelper();
+        DataSourceParameters decodedDataSource =
+                (DataSourceParameters) decoded.getResourceParameters(ResourceType.DATASOURCE, 1);
+        Assertions.assertEquals(DbType.MYSQL, decodedDataSource.getType());
+        Assertions.assertEquals(dataSourceParameters.getConnectionParams(), decodedDataSource.getConnectionParams());
+        UdfFuncParameters decodedUdfFunc = (UdfFuncParameters) decoded.getResourceParameters(ResourceType.UDF, 2);
+        Assertions.assertEquals(udfFuncParameters, decodedUdfFunc);
+        Assertions.assertEquals(udfFuncParameters.getClassName(), decodedUdfFunc.getClassName());
+        Assertions.assertEquals(UdfType.HIVE, decodedUdfFunc.getType());
+    }
+
+    @Test
+    public void testNegotiateWithDifferentVersion() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Command offer = ProtocolNegotiation.offer();
+        offer.getContext().put(ProtocolNegotiation.PROTOCOL_VERSION, String.valueOf(Command.VERSION + 1));
+        Assertions.assertTrue(ProtocolNegotiation.accept(encodeChannel, offer));
+        Assertions.assertEquals(Command.JSON_VERSION, ProtocolNegotiation.negotiatedVersion(encodeChannel));
+
+        Command heartBeat = new Command();
+        heartBeat.setType(CommandType.HEART_BEAT);
+        Assertions.assertFalse(ProtocolNegotiation.accept(new EmbeddedChannel(), heartBeat));
+    }
+
+    @Test
+    public void testNegotiateWithDifferentSchema() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Command offer = ProtocolNegotiation.offer();
+        offer.getContext().put(ProtocolNegotiation.SCHEMA_FINGERPRINT, "changed");
+        Assertions.assertTrue(ProtocolNegotiation.accept(encodeChannel, offer));
+        Assertions.assertEquals(Command.JSON_VERSION, ProtocolNegotiation.negotiatedVersion(encodeChannel));
+
+        // the peer which doesn't offer a fingerprint speaks json
+        offer.getContext().getItems().remove(ProtocolNegotiation.SCHEMA_FINGERPRINT);
+        Assertions.assertTrue(ProtocolNegotiation.accept(encodeChannel, offer));
+        Assertions.assertEquals(Command.JSON_VERSION, ProtocolNegotiation.negotiatedVersion(encodeChannel));
+    }
+
+    @Test
+    public void testRawBodyIsAlwaysJson() {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        ProtocolNegotiation.accept(encodeChannel, ProtocolNegotiation.offer());
+
+        Command command = encodeAndDecode(encodeChannel, ProtocolNegotiation.offer());
+        Assertions.assertEquals(Command.JSON_VERSION, command.getVersion());
+        Assertions.assertEquals(String.valueOf(Command.VERSION),
+                command.getContext().get(ProtocolNegotiation.PROTOCOL_VERSION));
+    }
+
+    private Command encodeAndDecode(EmbeddedChannel encodeChannel, Command command) {
+        Assertions.assertTrue(encodeChannel.writeOutbound(command));
+        ByteBuf frame = encodeChannel.readOutbound();
+        EmbeddedChannel decodeChannel = new EmbeddedChannel(new NettyDecoder());
+        Assertions.assertTrue(decodeChannel.writeInbound(frame));
+        Command decoded = decodeChannel.readInbound();
+        Assertions.assertEquals(command.getOpaque(), decoded.getOpaque());
+        return decoded;
+    }
+
+    private TaskDispatchCommand createTaskDispatchCommand() {
+        Map<String, String> definedParams = new HashMap<>();
+        definedParams.put("bizDate", "20221018");
+        Map<String, Property> prepareParamsMap = new HashMap<>();
+        prepareParamsMap.put("output", new Property("output", Direct.OUT, DataType.VARCHAR, "1"));
+        TaskExecutionContext taskExecutionContext = TaskExecutionContext.builder()
+                .taskInstanceId(1)
+                .taskName("shell")
+                .taskType("SHELL")
+                .firstSubmitTime(System.currentTimeMillis())
+                .processInstanceId(2)
+                .processDefineCode(3L)
+                .tenantCode("default")
+                .workerGroup("default")
+                .taskParams("{\"rawScript\":\"echo ${bizDate}\",\"localParams\":[],\"resourceList\":[]}")
+                .definedParams(definedParams)
+                .prepareParamsMap(prepareParamsMap)
+                .currentExecutionStatus(TaskExecutionStatus.DISPATCH)
+                .build();
+        return new TaskDispatchCommand(taskExecutionContext, "127.0.0.1:5678", "127.0.0.1:1234",
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.serializer;
+
+import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.DataSourceParameters;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.UdfFuncParameters;
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+
+public class BodySchemaFingerprintTest {
+
+    @Test
+    public void testLayout() {
+        String layout = BodySchemaFingerprint.layout(Collections.singletonList(Body.class));
+        Assertions.assertTrue(layout.startsWith(Body.class.getName() + "{id:int;nested:"));
+        // the referred classes are included, the fields are kept in order and the enums by their constants
+        Assertions.assertTrue(layout.contains(Nested.class.getName() + "{name:java.lang.String;code:long;kind:"));
+        Assertions.assertTrue(layout.contains(Kind.class.getName() + "{FIRST,SECOND,}"));
+        Assertions.assertFalse(layout.contains("ignored"));
+    }
+
+    @Test
+    public void testLayoutOfSubTypes() {
+        String layout = BodySchemaFingerprint.layout(Collections.singletonList(Holder.class));
+        // the value of a polymorphic field is written with its own class, so the layouts of the subclasses count
+        Assertions.assertTrue(layout.contains(Base.class.getName() + "<-" + Sub.class.getName() + ";"));
+        Assertions.assertTrue(layout.contains(Sub.class.getName() + "{value:java.lang.String;}"));
+
+        String dispatchLayout = BodySchemaFingerprint.layout(Collections.singletonList(TaskDispatchCommand.class));
+        Assertions.assertTrue(dispatchLayout.contains(DataSourceParameters.class.getName() + "{"));
+        Assertions.assertTrue(dispatchLayout.contains(UdfFuncParameters.class.getName() + "{"));
+    }
+
+    @Test
+    public void testFingerprint() {
+        Assertions.assertEquals(BodySchemaFingerprint.compute(Collections.singletonList(Body.class)),
+                BodySchemaFingerprint.compute(Collections.singletonList(Body.class)));
+        Assertions.assertNotEquals(BodySchemaFingerprint.compute(Collections.singletonList(Body.class)),
+                BodySchemaFingerprint.compute(Collections.singletonList(Nested.class)));
+        Assertions.assertNotNull(BodySchemaFingerprint.FINGERPRINT);
+    }
+
+    static class Body {
+
+        private static final int IGNORED_CONSTANT = 0;
+
+        private int id;
+
+        private Nested nested;
+
+        private transient String ignored;
+    }
+
+    static class Nested {
+
+        private String name;
+
+        private long code;
+
+        private Kind kind;
+    }
+
+    enum Kind {
+        FIRST,
+        SECOND
+    }
+
+    static class Holder {
+
+        private Base base;
+    }
+
+    @JsonSubTypes({@JsonSubTypes.Type(value = Sub.class)})
+    abstract static class Base {
+    }
+
+    static class Sub extends Base {
+
+        private String value;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LogLineIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSeek() throws IOException {
+        Path logFile = tempDir.resolve("task.log");
+        appendLines(logFile, 0, 3000);
+        LogLineIndex logLineIndex = new LogLineIndex();
+        try (FileChannel fileChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            LogLineIndex.Position position = logLineIndex.seek(fileChannel, 10);
+            Assertions.assertEquals(0, position.getLineNum());
+            Assertions.assertEquals(0, position.getOffset());
+
+            position = logLineIndex.seek(fileChannel, 2100);
+            Assertions.assertEquals(2 * LogLineIndex.LINES_PER_ENTRY, position.getLineNum());
+            Assertions.assertEquals(lineOffset(2 * LogLineIndex.LINES_PER_ENTRY), position.getOffset());
+
+            // the line is beyond the end of the file
+            position = logLineIndex.seek(fileChannel, 5000);
+            Assertions.assertEquals(2 * LogLineIndex.LINES_PER_ENTRY, position.getLineNum());
+        }
+
+        appendLines(logFile, 3000, 2000);
+        try (FileChannel fileChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            LogLineIndex.Position position = logLineIndex.seek(fileChannel, 4500);
+            Assertions.assertEquals(4 * LogLineIndex.LINES_PER_ENTRY, position.getLineNum());
+            Assertions.assertEquals(lineOffset(4 * LogLineIndex.LINES_PER_ENTRY), position.getOffset());
+        }
+    }
+
+    @Test
+    public void testSeekAfterTruncate() throws IOException {
+        Path logFile = tempDir.resolve("task.log");
+        appendLines(logFile, 0, 3000);
+        LogLineIndex logLineIndex = new LogLineIndex();
+        try (FileChannel fileChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            logLineIndex.seek(fileChannel, 3000);
+        }
+
+        Files.delete(logFile);
+        appendLines(logFile, 0, 10);
+        try (FileChannel fileChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            LogLineIndex.Position position = logLineIndex.seek(fileChannel, 2100);
+            Assertions.assertEquals(0, position.getLineNum());
+            Assertions.assertEquals(0, position.getOffset());
+        }
+    }
+
+    private void appendLines(Path logFile, int from, int count) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < from + count; i++) {
+            builder.append(line(i)).append('\n');
+        }
+        Files.write(logFile, builder.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private long lineOffset(int lineNum) {
+        long offset = 0;
+        for (int i = 0; i < lineNum; i++) {
+            offset += line(i).length() + 1;
+        }
+        return offset;
+    }
+
+    private String line(int lineNum) {
+        return "[INFO] task log line " + lineNum;
+    }
+}
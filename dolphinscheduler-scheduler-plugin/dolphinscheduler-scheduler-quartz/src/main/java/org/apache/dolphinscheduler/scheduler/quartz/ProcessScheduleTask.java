@@ -20,16 +20,17 @@ package org.apache.dolphinscheduler.scheduler.quartz;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
 import org.apache.dolphinscheduler.common.enums.ReleaseState;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.scheduler.quartz.utils.QuartzTaskUtils;
-import org.apache.dolphinscheduler.service.command.CommandService;
-import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
@@ -48,10 +49,10 @@ public class ProcessScheduleTask extends QuartzJobBean {
     private static final Logger logger = LoggerFactory.getLogger(ProcessScheduleTask.class);
 
     @Autowired
-    private ProcessService processService;
+    private ScheduleMetadataCache scheduleMetadataCache;
 
     @Autowired
-    private CommandService commandService;
+    private ScheduleCommandWriter scheduleCommandWriter;
 
     @Counted(value = "ds.master.quartz.job.executed")
     @Timed(value = "ds.master.quartz.job.execution.time", percentiles = {0.5, 0.75, 0.95, 0.99}, histogram = true)
@@ -69,7 +70,7 @@ public class ProcessScheduleTask extends QuartzJobBean {
         logger.info("scheduled fire time :{}, fire time :{}, scheduleId :{}", scheduledFireTime, fireTime, scheduleId);
 
         // query schedule
-        Schedule schedule = processService.querySchedule(scheduleId);
+        Schedule schedule = scheduleMetadataCache.getSchedule(scheduleId);
         if (schedule == null || ReleaseState.OFFLINE == schedule.getReleaseState()) {
             logger.warn(
                     "process schedule does not exist in db or process schedule offline，delete schedule job in quartz, projectId:{}, scheduleId:{}",
@@ -79,7 +80,7 @@ public class ProcessScheduleTask extends QuartzJobBean {
         }
 
         ProcessDefinition processDefinition =
-                processService.findProcessDefinitionByCode(schedule.getProcessDefinitionCode());
+                scheduleMetadataCache.getProcessDefinition(schedule.getProcessDefinitionCode());
         // release state : online/offline
         ReleaseState releaseState = processDefinition.getReleaseState();
         if (releaseState == ReleaseState.OFFLINE) {
@@ -104,8 +105,12 @@ public class ProcessScheduleTask extends QuartzJobBean {
         command.setWarningType(schedule.getWarningType());
         command.setProcessInstancePriority(schedule.getProcessInstancePriority());
         command.setProcessDefinitionVersion(processDefinition.getVersion());
+        // set the timezone of the schedule, then the command service need not query the schedule again
+        Map<String, String> commandParams = new HashMap<>();
+        commandParams.put(Constants.SCHEDULE_TIMEZONE, schedule.getTimezoneId());
+        command.setCommandParam(JSONUtils.toJsonString(commandParams));
 
-        commandService.createCommand(command);
+        scheduleCommandWriter.write(command);
     }
 
     private void deleteJob(JobExecutionContext context, int projectId, int scheduleId) {
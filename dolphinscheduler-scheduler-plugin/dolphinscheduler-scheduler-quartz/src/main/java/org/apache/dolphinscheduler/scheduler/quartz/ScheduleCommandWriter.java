@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.scheduler.quartz;
+
+import org.apache.dolphinscheduler.dao.entity.Command;
+import org.apache.dolphinscheduler.service.command.CommandService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write the commands created by the fired quartz jobs in batches.
+ * <p>The job thread holding the write lock inserts the commands waiting in the queue in one batch, and the other
+ * job threads wait for their commands written by it, so the commands created at the same time are inserted together,
+ * and each job still returns after its command is inserted.
+ */
+@Component
+public class ScheduleCommandWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleCommandWriter.class);
+
+    private static final long LOCK_RETRY_INTERVAL_MILLIS = 10L;
+
+    private final CommandService commandService;
+
+    private final int batchSize;
+
+    private final BlockingQueue<PendingCommand> pendingCommands = new LinkedBlockingQueue<>();
+
+    private final Lock writeLock = new ReentrantLock();
+
+    public ScheduleCommandWriter(CommandService commandService,
+                                 @Value("${scheduler.quartz.command-batch-size:100}") int batchSize) {
+        this.commandService = commandService;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Insert the command, and wait until it is inserted by this thread or other threads.
+     */
+    public void write(Command command) {
+        if (batchSize == 1) {
+            commandService.createCommand(command);
+            return;
+        }
+        PendingCommand pendingCommand = new PendingCommand(command);
+        pendingCommands.add(pendingCommand);
+        while (pendingCommand.written.getCount() > 0) {
+            if (writeLock.tryLock()) {
+                try {
+                    while (pendingCommand.written.getCount() > 0) {
+                        writeBatch();
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+            } else {
+                awaitWritten(pendingCommand);
+            }
+        }
+        if (pendingCommand.exception != null) {
+            throw pendingCommand.exception;
+        }
+    }
+
+    /**
+     * Wait for the command written by the thread holding the lock, and retry to get the lock after a while in case
+     * of the command is not in the batch of that thread.
+     */
+    private void awaitWritten(PendingCommand pendingCommand) {
+        try {
+            pendingCommand.written.await(LOCK_RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the schedule command written", e);
+        }
+    }
+
+    private void writeBatch() {
+        List<PendingCommand> batch = new ArrayList<>(batchSize);
+        pendingCommands.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            commandService.batchCreateCommand(batch.stream().map(pending -> pending.command)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            logger.warn("Batch insert {} schedule commands failed, will insert them one by one", batch.size(), e);
+            for (PendingCommand pendingCommand : batch) {
+                try {
+                    commandService.createCommand(pendingCommand.command);
+                } catch (RuntimeException ex) {
+                    pendingCommand.exception = ex;
+                }
+            }
+        }
+        for (PendingCommand pendingCommand : batch) {
+            pendingCommand.written.countDown();
+        }
+    }
+
+    private static final class PendingCommand {
+
+        private final Command command;
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        private volatile RuntimeException exception;
+
+        private PendingCommand(Command command) {
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.scheduler.quartz;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.Schedule;
+import org.apache.dolphinscheduler.service.cache.CacheExpireListener;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache the schedules and process definitions used by the fired quartz jobs, so the jobs firing at the same time
+ * will not query them from database one by one.
+ * <p>The entries are evicted by the cache expire commands sent by api when the schedules or process definitions are
+ * updated, and expired after the given seconds in case of the lost commands.
+ */
+@Component
+public class ScheduleMetadataCache implements CacheExpireListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleMetadataCache.class);
+
+    private final ProcessService processService;
+
+    private final boolean enabled;
+
+    private final Cache<Integer, Schedule> scheduleCache;
+
+    private final Cache<Long, ProcessDefinition> processDefinitionCache;
+
+    public ScheduleMetadataCache(ProcessService processService,
+                                 @Value("${scheduler.quartz.metadata-cache-expire-seconds:60}") long expireSeconds) {
+        this.processService = processService;
+        this.enabled = expireSeconds > 0;
+        this.scheduleCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(expireSeconds, 0), TimeUnit.SECONDS)
+                .build();
+        this.processDefinitionCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(expireSeconds, 0), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public Schedule getSchedule(int scheduleId) {
+        if (!enabled) {
+            return processService.querySchedule(scheduleId);
+        }
+        Schedule schedule = scheduleCache.getIfPresent(scheduleId);
+        if (schedule == null) {
+            schedule = processService.querySchedule(scheduleId);
+            if (schedule != null) {
+                scheduleCache.put(scheduleId, schedule);
+            }
+        }
+        return schedule;
+    }
+
+    public ProcessDefinition getProcessDefinition(long processDefinitionCode) {
+        if (!enabled) {
+            return processService.findProcessDefinitionByCode(processDefinitionCode);
+        }
+        ProcessDefinition processDefinition = processDefinitionCache.getIfPresent(processDefinitionCode);
+        if (processDefinition == null) {
+            processDefinition = processService.findProcessDefinitionByCode(processDefinitionCode);
+            if (processDefinition != null) {
+                processDefinitionCache.put(processDefinitionCode, processDefinition);
+            }
+        }
+        return processDefinition;
+    }
+
+    @Override
+    public void onCacheExpire(CacheType cacheType, String cacheKey) {
+        if (cacheType != CacheType.SCHEDULE && cacheType != CacheType.PROCESS_DEFINITION) {
+            return;
+        }
+        long processDefinitionCode;
+        try {
+            processDefinitionCode = Long.parseLong(cacheKey);
+        } catch (NumberFormatException e) {
+            logger.warn("Unknown {} cache key: {}, invalidate all the cached entries", cacheType, cacheKey);
+            scheduleCache.invalidateAll();
+            processDefinitionCache.invalidateAll();
+            return;
+        }
+        // both the schedule cache key and the process definition cache key are the process definition code
+        if (cacheType == CacheType.SCHEDULE) {
+            scheduleCache.asMap().values()
+                    .removeIf(schedule -> schedule.getProcessDefinitionCode() == processDefinitionCode);
+        } else {
+            processDefinitionCache.invalidate(processDefinitionCode);
+        }
+        logger.debug("Schedule metadata cache evict, type: {}, key: {}", cacheType, cacheKey);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.cache;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+
+/**
+ * Listener of the cache expire commands received by master, used by the caches which are not spring caches.
+ */
+public interface CacheExpireListener {
+
+    /**
+     * Expire the cache entries of the given cache key.
+     *
+     * @param cacheType cache type
+     * @param cacheKey cache key, e.g. the process definition code of the schedule cache
+     */
+    void onCacheExpire(CacheType cacheType, String cacheKey);
+}
@@ -22,4 +22,12 @@ import org.apache.dolphinscheduler.remote.command.Command;
 public interface CacheNotifyService {
 
     void notifyMaster(Command command);
+
+    /**
+     * notify the masters after the current transaction is committed, so the masters reloading the changed data see
+     * the committed one, notify them at once if there is no transaction
+     *
+     * @param command command
+     */
+    void notifyMasterAfterCommit(Command command);
 }
@@ -36,6 +36,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import io.netty.channel.Channel;
 
@@ -113,7 +115,7 @@ public class CacheNotifyServiceImpl implements CacheNotifyService {
      */
     @Override
     public void notifyMaster(Command command) {
-        logger.info("send result, command:{}", command.toString());
+        logger.debug("send result, command:{}", command);
         try {
             List<Server> serverList = registryClient.getServerList(NodeType.MASTER);
             if (CollectionUtils.isEmpty(serverList)) {
@@ -132,4 +134,19 @@ public class CacheNotifyServiceImpl implements CacheNotifyService {
             logger.error("notify master error", e);
         }
     }
+
+    @Override
+    public void notifyMasterAfterCommit(Command command) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyMaster(command);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                notifyMaster(command);
+            }
+        });
+    }
 }
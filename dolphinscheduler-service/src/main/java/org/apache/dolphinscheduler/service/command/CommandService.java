@@ -44,6 +44,13 @@ public interface CommandService {
      */
     int createCommand(Command command);
 
+    /**
+     * Create new commands in one batch insert
+     * @param commands commands
+     * @return result
+     */
+    int batchCreateCommand(List<Command> commands);
+
     /**
      * Get command page
      * @param pageSize page size
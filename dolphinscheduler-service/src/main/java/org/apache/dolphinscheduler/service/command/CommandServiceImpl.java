@@ -23,8 +23,11 @@ import static org.apache.dolphinscheduler.common.constants.CommandKeyConstants.C
 
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.FailureStrategy;
 import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.TaskDependType;
+import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.ErrorCommand;
@@ -39,6 +42,8 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
 import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.remote.command.CommandInsertNotifyCommand;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 import org.apache.dolphinscheduler.service.utils.ParamUtils;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -80,6 +85,9 @@ public class CommandServiceImpl implements CommandService {
     @Autowired
     private ProcessDefinitionMapper processDefineMapper;
 
+    @Autowired
+    private CacheNotifyService cacheNotifyService;
+
     @Override
     public void moveToErrorCommand(Command command, String message) {
         ErrorCommand errorCommand = new ErrorCommand(command, message);
@@ -105,9 +113,72 @@ public class CommandServiceImpl implements CommandService {
         }
         command.setId(null);
         result = commandMapper.insert(command);
+        if (result > 0 && command.getId() != null) {
+            notifyCommandInserted(command.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public int batchCreateCommand(List<Command> commands) {
+        if (CollectionUtils.isEmpty(commands)) {
+            return 0;
+        }
+        Map<Long, Schedule> schedules = new HashMap<>();
+        for (Command command : commands) {
+            Map<String, String> commandParams =
+                    StringUtils.isNotBlank(command.getCommandParam()) ? JSONUtils.toMap(command.getCommandParam())
+                            : new HashMap<>();
+            // the schedule timezone may be set by the caller already
+            if (!commandParams.containsKey(Constants.SCHEDULE_TIMEZONE)) {
+                Schedule schedule = schedules.computeIfAbsent(command.getProcessDefinitionCode(),
+                        scheduleMapper::queryByProcessDefinitionCode);
+                if (schedule != null) {
+                    commandParams.put(Constants.SCHEDULE_TIMEZONE, schedule.getTimezoneId());
+                    command.setCommandParam(JSONUtils.toJsonString(commandParams));
+                }
+            }
+            fillDefaultValues(command);
+            command.setId(null);
+        }
+        int result = commandMapper.batchInsert(commands);
+        for (Command command : commands) {
+            if (command.getId() != null) {
+                notifyCommandInserted(command.getId());
+            }
+        }
         return result;
     }
 
+    /**
+     * The batch insert writes null fields as they are, so fill the column default values like the single insert.
+     */
+    private void fillDefaultValues(Command command) {
+        if (command.getFailureStrategy() == null) {
+            command.setFailureStrategy(FailureStrategy.END);
+        }
+        if (command.getWarningType() == null) {
+            command.setWarningType(WarningType.NONE);
+        }
+        if (command.getProcessInstancePriority() == null) {
+            command.setProcessInstancePriority(Priority.MEDIUM);
+        }
+        if (command.getEnvironmentCode() == null) {
+            command.setEnvironmentCode(-1L);
+        }
+    }
+
+    /**
+     * Wake up the masters once the command is visible to them, the master who owns the command slot will fetch it
+     * immediately. If the notification is lost, the command will still be fetched by the master's fallback poll.
+     *
+     * @param commandId inserted command id
+     */
+    private void notifyCommandInserted(int commandId) {
+        // the command is not visible to the master until the transaction is committed
+        cacheNotifyService.notifyMasterAfterCommit(new CommandInsertNotifyCommand(commandId).convert2Command());
+    }
+
     @Override
     public List<Command> findCommandPageBySlot(int pageSize, int masterCount, int thisMasterSlot) {
         if (masterCount <= 0) {
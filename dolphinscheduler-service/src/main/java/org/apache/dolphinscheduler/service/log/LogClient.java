@@ -30,6 +30,8 @@ import org.apache.dolphinscheduler.remote.command.log.GetAppIdRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetAppIdResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
@@ -41,6 +43,9 @@ import org.apache.dolphinscheduler.remote.factory.NettyRemotingClientFactory;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -62,6 +67,8 @@ public class LogClient implements AutoCloseable {
 
     private static final long LOG_REQUEST_TIMEOUT = 10 * 1000L;
 
+    private static final int LOG_RANGE_LENGTH = 1024 * 1024;
+
     public LogClient() {
         client = NettyRemotingClientFactory.buildNettyRemotingClient();
     }
@@ -149,17 +156,9 @@ public class LogClient implements AutoCloseable {
      */
     public byte[] getLogBytes(String host, int port, String path) {
         logger.info("Get log bytes from host: {}, port: {}, logPath {}", host, port, path);
-        GetLogBytesRequestCommand request = new GetLogBytesRequestCommand(path);
-        final Host address = new Host(host, port);
-        try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
-                GetLogBytesResponseCommand getLog =
-                        JSONUtils.parseObject(response.getBody(), GetLogBytesResponseCommand.class);
-                return getLog.getData() == null ? EMPTY_BYTE_ARRAY : getLog.getData();
-            }
-            return EMPTY_BYTE_ARRAY;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            getLogBytes(host, port, path, out);
+            return out.toByteArray();
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             logger.error(
@@ -172,6 +171,64 @@ public class LogClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Stream the log into the output stream range by range, so neither the server nor a single rpc frame
+     * holds the whole log file. If the server doesn't serve log ranges, the whole file is requested instead.
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param out output stream
+     */
+    public void getLogBytes(String host, int port, String path,
+                            OutputStream out) throws RemotingException, InterruptedException, IOException {
+        final Host address = new Host(host, port);
+        long offset = 0;
+        long fileLength;
+        do {
+            Command command = new GetLogRangeRequestCommand(path, offset, LOG_RANGE_LENGTH).convert2Command();
+            GetLogRangeResponseCommand range;
+            Command response;
+            try {
+                response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+                range = response == null ? null : GetLogRangeResponseCommand.valueOf(response);
+            } catch (RemotingException e) {
+                if (offset > 0) {
+                    throw e;
+                }
+                logger.warn("Get log range from host: {}, port: {} error, fallback to get the whole log", host, port,
+                        e);
+                range = null;
+                response = null;
+            }
+            if (range == null) {
+                if (offset == 0) {
+                    getWholeLogBytes(address, path, out);
+                }
+                return;
+            }
+            if (range.getLength() == 0) {
+                return;
+            }
+            out.write(response.getBody(), 0, range.getLength());
+            offset = range.getOffset() + range.getLength();
+            fileLength = range.getFileLength();
+        } while (offset < fileLength);
+    }
+
+    private void getWholeLogBytes(Host address, String path,
+                                  OutputStream out) throws RemotingException, InterruptedException, IOException {
+        Command command = new GetLogBytesRequestCommand(path).convert2Command();
+        Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+        if (response != null) {
+            GetLogBytesResponseCommand getLog =
+                    JSONUtils.parseObject(response.getBody(), GetLogBytesResponseCommand.class);
+            if (getLog.getData() != null) {
+                out.write(getLog.getData());
+            }
+        }
+    }
+
     /**
      * remove task log
      *
@@ -43,6 +43,7 @@ import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
 import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
@@ -67,6 +68,10 @@ public interface ProcessService {
     ProcessInstance handleCommand(String host,
                                   Command command) throws CronParseException, CodeGenerateUtils.CodeGenerateException;
 
+    @Transactional
+    List<ProcessInstance> handleCommands(String host,
+                                         List<Command> commands) throws CronParseException, CodeGenerateUtils.CodeGenerateException;
+
     Optional<ProcessInstance> findProcessInstanceDetailById(int processId);
 
     ProcessInstance findProcessInstanceById(int processId);
@@ -177,6 +182,10 @@ public interface ProcessService {
 
     boolean isTaskOnline(long taskCode);
 
+    /**
+     * generate the dag graph of the process definition version, the relations and task definitions of the version are
+     * cached, each call gets a new graph which can be modified by the caller.
+     */
     DAG<String, TaskNode, TaskNodeRelation> genDagGraph(ProcessDefinition processDefinition);
 
     DagData genDagData(ProcessDefinition processDefinition);
@@ -206,15 +215,23 @@ public interface ProcessService {
 
     DqComparisonType getComparisonTypeById(int id);
 
-    boolean acquireTaskGroup(int taskId,
-                             String taskName, int groupId,
-                             int processId, int priority);
+    TaskGroupQueue enqueueTaskGroupQueue(int taskId,
+                                         String taskName, int groupId,
+                                         int processId, int priority);
+
+    boolean grantTaskGroupResource(TaskGroupQueue taskGroupQueue, int currentUseSize, boolean wakeUp);
+
+    List<TaskGroupQueue> releaseAllTaskGroup(int processInstanceId);
+
+    TaskGroupQueue releaseTaskGroupResource(TaskInstance taskInstance);
+
+    TaskGroup findTaskGroupById(int taskGroupId);
 
-    boolean robTaskGroupResource(TaskGroupQueue taskGroupQueue);
+    List<TaskGroup> queryAllTaskGroup();
 
-    void releaseAllTaskGroup(int processInstanceId);
+    List<TaskGroupQueue> queryTaskGroupQueueByStatus(TaskGroupQueueStatus status, int afterId);
 
-    TaskInstance releaseTaskGroup(TaskInstance taskInstance);
+    boolean updateTaskGroupQueueInQueue(int queueId, int oldInQueue, int newInQueue);
 
     void changeTaskGroupQueueStatus(int taskId, TaskGroupQueueStatus status);
 
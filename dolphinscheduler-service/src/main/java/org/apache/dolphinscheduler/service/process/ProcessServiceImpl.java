@@ -112,6 +112,7 @@ import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.mapper.WorkFlowLineageMapper;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceMapDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionLogDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
@@ -158,6 +159,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -165,6 +167,7 @@ import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -174,6 +177,8 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 /**
@@ -184,6 +189,16 @@ public class ProcessServiceImpl implements ProcessService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    /**
+     * The task relations and definitions of a process definition version never change, so they are loaded once for
+     * the following views of the version. The dag graph itself is built for every call since the callers may change
+     * it.
+     */
+    private final Cache<String, DagGraphSource> dagGraphCache = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
     @Autowired
     private UserMapper userMapper;
 
@@ -212,6 +227,9 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private ProcessInstanceMapDao processInstanceMapDao;
 
+    @Autowired
+    private StateRollupDao stateRollupDao;
+
     @Autowired
     private DataSourceMapper dataSourceMapper;
 
@@ -319,32 +337,77 @@ public class ProcessServiceImpl implements ProcessService {
     @Transactional
     public ProcessInstance handleCommand(String host,
                                          Command command) throws CronParseException, CodeGenerateException {
-        ProcessInstance processInstance = constructProcessInstance(command, host);
+        Map<String, ProcessDefinition> processDefinitionCache = new HashMap<>();
+        ProcessInstance processInstance = constructProcessInstance(command, host, processDefinitionCache);
         // cannot construct process instance, return null
         if (processInstance == null) {
             logger.error("scan command, command parameter is error: {}", command);
             commandService.moveToErrorCommand(command, "process instance is null");
             return null;
         }
+        boolean submitted = saveProcessInstanceByCommand(processInstance, command, processDefinitionCache);
+        deleteCommandWithCheck(command.getId());
+        return submitted ? processInstance : null;
+    }
+
+    /**
+     * handle a batch of commands (construct ProcessInstances from Commands) in one transaction.
+     * The process definitions are loaded once per (code, version) in the batch and the handled commands are deleted
+     * by one statement. If any command fails, the whole batch will be rolled back, the caller should fall back to
+     * {@link #handleCommand(String, Command)} to isolate the failed command.
+     *
+     * @param host     host
+     * @param commands found commands
+     * @return the process instances need to be executed
+     */
+    @Override
+    @Transactional
+    public List<ProcessInstance> handleCommands(String host,
+                                                List<Command> commands) throws CronParseException, CodeGenerateException {
+        Map<String, ProcessDefinition> processDefinitionCache = new HashMap<>();
+        List<ProcessInstance> processInstances = new ArrayList<>(commands.size());
+        List<Integer> handledCommandIds = new ArrayList<>(commands.size());
+        for (Command command : commands) {
+            ProcessInstance processInstance = constructProcessInstance(command, host, processDefinitionCache);
+            if (processInstance == null) {
+                logger.error("scan command, command parameter is error: {}", command);
+                commandService.moveToErrorCommand(command, "process instance is null");
+                continue;
+            }
+            if (saveProcessInstanceByCommand(processInstance, command, processDefinitionCache)) {
+                processInstances.add(processInstance);
+            }
+            handledCommandIds.add(command.getId());
+        }
+        deleteCommandsWithCheck(handledCommandIds);
+        return processInstances;
+    }
+
+    /**
+     * save the process instance constructed from the command, the serial strategy will be applied if needed.
+     *
+     * @return true if the process instance is submitted and need to be executed
+     */
+    private boolean saveProcessInstanceByCommand(ProcessInstance processInstance,
+                                                 Command command,
+                                                 Map<String, ProcessDefinition> processDefinitionCache) {
         processInstance.setCommandType(command.getCommandType());
         processInstance.addHistoryCmd(command.getCommandType());
         processInstance.setTestFlag(command.getTestFlag());
         // if the processDefinition is serial
         ProcessDefinition processDefinition = this.findProcessDefinition(processInstance.getProcessDefinitionCode(),
-                processInstance.getProcessDefinitionVersion());
+                processInstance.getProcessDefinitionVersion(), processDefinitionCache);
         if (processDefinition.getExecutionType().typeIsSerial()) {
             saveSerialProcess(processInstance, processDefinition);
             if (processInstance.getState() != WorkflowExecutionStatus.SUBMITTED_SUCCESS) {
                 setSubProcessParam(processInstance);
-                deleteCommandWithCheck(command.getId());
-                return null;
+                return false;
             }
         } else {
             processInstanceDao.upsertProcessInstance(processInstance);
         }
         setSubProcessParam(processInstance);
-        deleteCommandWithCheck(command.getId());
-        return processInstance;
+        return true;
     }
 
     protected void saveSerialProcess(ProcessInstance processInstance, ProcessDefinition processDefinition) {
@@ -461,6 +524,27 @@ public class ProcessServiceImpl implements ProcessService {
         return processDefinition;
     }
 
+    /**
+     * find process define by code and version, the query result will be cached in the given cache.
+     * Each call returns its own copy, since the global params of the definition are changed by the start params of
+     * the command and must not leak into the other commands of the batch.
+     */
+    private ProcessDefinition findProcessDefinition(Long processDefinitionCode, int version,
+                                                    Map<String, ProcessDefinition> processDefinitionCache) {
+        ProcessDefinition cachedProcessDefinition =
+                processDefinitionCache.computeIfAbsent(processDefinitionCode + "-" + version,
+                        key -> findProcessDefinition(processDefinitionCode, version));
+        if (cachedProcessDefinition == null) {
+            return null;
+        }
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        BeanUtils.copyProperties(cachedProcessDefinition, processDefinition);
+        // rebuild the global params instead of sharing the list and map of the cached one
+        processDefinition.setGlobalParamMap(null);
+        processDefinition.setGlobalParams(cachedProcessDefinition.getGlobalParams());
+        return processDefinition;
+    }
+
     /**
      * find process define by code.
      *
@@ -755,12 +839,18 @@ public class ProcessServiceImpl implements ProcessService {
      */
     protected @Nullable ProcessInstance constructProcessInstance(Command command,
                                                                  String host) throws CronParseException, CodeGenerateException {
+        return constructProcessInstance(command, host, new HashMap<>());
+    }
+
+    private @Nullable ProcessInstance constructProcessInstance(Command command,
+                                                               String host,
+                                                               Map<String, ProcessDefinition> processDefinitionCache) throws CronParseException, CodeGenerateException {
         ProcessInstance processInstance;
         ProcessDefinition processDefinition;
         CommandType commandType = command.getCommandType();
 
-        processDefinition =
-                this.findProcessDefinition(command.getProcessDefinitionCode(), command.getProcessDefinitionVersion());
+        processDefinition = this.findProcessDefinition(command.getProcessDefinitionCode(),
+                command.getProcessDefinitionVersion(), processDefinitionCache);
         if (processDefinition == null) {
             logger.error("cannot find the work process define! define code : {}", command.getProcessDefinitionCode());
             throw new IllegalArgumentException("Cannot find the process definition for this workflowInstance");
@@ -777,6 +867,8 @@ public class ProcessServiceImpl implements ProcessService {
             if (processInstance == null) {
                 return null;
             }
+            // the finished state will be changed, and the start time will be reset when repeat running
+            stateRollupDao.markDirty(processInstance);
         }
 
         CommandType commandTypeIfComplement = getCommandTypeIfComplement(processInstance, command);
@@ -2222,14 +2314,42 @@ public class ProcessServiceImpl implements ProcessService {
      */
     @Override
     public DAG<String, TaskNode, TaskNodeRelation> genDagGraph(ProcessDefinition processDefinition) {
-        List<ProcessTaskRelation> taskRelations =
-                this.findRelationByCode(processDefinition.getCode(), processDefinition.getVersion());
-        List<TaskNode> taskNodeList = transformTask(taskRelations, Lists.newArrayList());
-        ProcessDag processDag = DagHelper.getProcessDag(taskNodeList, new ArrayList<>(taskRelations));
+        String dagGraphKey = processDefinition.getCode() + "_" + processDefinition.getVersion();
+        DagGraphSource dagGraphSource = dagGraphCache.getIfPresent(dagGraphKey);
+        if (dagGraphSource == null) {
+            List<ProcessTaskRelation> taskRelations =
+                    this.findRelationByCode(processDefinition.getCode(), processDefinition.getVersion());
+            List<TaskDefinitionLog> taskDefinitionLogs = taskRelations.isEmpty()
+                    ? Collections.emptyList()
+                    : taskDefinitionLogDao.getTaskDefineLogList(taskRelations);
+            dagGraphSource = new DagGraphSource(taskRelations, taskDefinitionLogs);
+            if (CollectionUtils.isNotEmpty(taskDefinitionLogs)) {
+                dagGraphCache.put(dagGraphKey, dagGraphSource);
+            }
+        }
+        // the task nodes and the graph are new objects, only the cached relations and definitions are shared
+        List<TaskNode> taskNodeList =
+                transformTask(dagGraphSource.taskRelations, new ArrayList<>(dagGraphSource.taskDefinitionLogs));
+        ProcessDag processDag =
+                DagHelper.getProcessDag(taskNodeList, new ArrayList<>(dagGraphSource.taskRelations));
         // Generate concrete Dag to be executed
         return DagHelper.buildDagGraph(processDag);
     }
 
+    private static final class DagGraphSource {
+
+        private final List<ProcessTaskRelation> taskRelations;
+
+        private final List<TaskDefinitionLog> taskDefinitionLogs;
+
+        private DagGraphSource(List<ProcessTaskRelation> taskRelations, List<TaskDefinitionLog> taskDefinitionLogs) {
+            this.taskRelations = Collections.unmodifiableList(taskRelations);
+            this.taskDefinitionLogs = taskDefinitionLogs == null
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(taskDefinitionLogs);
+        }
+    }
+
     /**
      * generate DagData
      */
@@ -2421,106 +2541,90 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * the first time (when submit the task ) get the resource of the task group
+     * Record the task as waiting in the task group queue, it is the write-ahead record of the task group resource,
+     * the existing record is returned directly if it has already acquired the resource.
      */
     @Override
-    public boolean acquireTaskGroup(int taskInstanceId,
-                                    String taskName,
-                                    int taskGroupId,
-                                    int workflowInstanceId,
-                                    int taskGroupPriority) {
-        TaskGroup taskGroup = taskGroupMapper.selectById(taskGroupId);
-        if (taskGroup == null) {
-            // we don't throw exception here, to avoid the task group has been deleted during workflow running
-            return true;
-        }
-        // if task group is not applicable
-        if (taskGroup.getStatus() == Flag.NO.getCode()) {
-            return true;
-        }
-        // Create a waiting taskGroupQueue, after acquire resource, we can update the status to ACQUIRE_SUCCESS
+    public TaskGroupQueue enqueueTaskGroupQueue(int taskInstanceId,
+                                                String taskName,
+                                                int taskGroupId,
+                                                int workflowInstanceId,
+                                                int taskGroupPriority) {
         TaskGroupQueue taskGroupQueue = this.taskGroupQueueMapper.queryByTaskId(taskInstanceId);
         if (taskGroupQueue == null) {
-            taskGroupQueue = insertIntoTaskGroupQueue(
+            return insertIntoTaskGroupQueue(
                     taskInstanceId,
                     taskName,
                     taskGroupId,
                     workflowInstanceId,
                     taskGroupPriority,
                     TaskGroupQueueStatus.WAIT_QUEUE);
-        } else {
-            logger.info("The task queue is already exist, taskId: {}", taskInstanceId);
-            if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
-                return true;
-            }
-            taskGroupQueue.setInQueue(Flag.NO.getCode());
-            taskGroupQueue.setStatus(TaskGroupQueueStatus.WAIT_QUEUE);
-            this.taskGroupQueueMapper.updateById(taskGroupQueue);
-        }
-        // check if there already exist higher priority tasks
-        List<TaskGroupQueue> highPriorityTasks = taskGroupQueueMapper.queryHighPriorityTasks(
-                taskGroupId,
-                taskGroupPriority,
-                TaskGroupQueueStatus.WAIT_QUEUE.getCode());
-        if (CollectionUtils.isNotEmpty(highPriorityTasks)) {
-            return false;
         }
-        // try to get taskGroup
-        int count = taskGroupMapper.selectAvailableCountById(taskGroupId);
-        if (count == 1 && robTaskGroupResource(taskGroupQueue)) {
-            logger.info("Success acquire taskGroup, taskInstanceId: {}, taskGroupId: {}", taskInstanceId, taskGroupId);
-            return true;
+        logger.info("The task queue is already exist, taskId: {}", taskInstanceId);
+        if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+            return taskGroupQueue;
         }
-        logger.info("Failed to acquire taskGroup, taskInstanceId: {}, taskGroupId: {}", taskInstanceId, taskGroupId);
-        this.taskGroupQueueMapper.updateInQueue(Flag.NO.getCode(), taskGroupQueue.getId());
-        return false;
+        taskGroupQueue.setInQueue(Flag.NO.getCode());
+        taskGroupQueue.setStatus(TaskGroupQueueStatus.WAIT_QUEUE);
+        taskGroupQueue.setUpdateTime(new Date());
+        this.taskGroupQueueMapper.updateById(taskGroupQueue);
+        return taskGroupQueue;
     }
 
     /**
-     * try to get the task group resource(when other task release the resource)
+     * Take one resource of the task group for the waiting task in one attempt, the task is marked in queue when it
+     * needs to be woken up, so that a lost wake up can be sent again.
+     *
+     * @param currentUseSize the use size of the task group which the resource is taken from
+     * @param wakeUp         whether the task will be woken up
+     * @return true if the resource is taken, false if the use size has changed or the task is no longer waiting, a
+     * force started task runs without the resource so it's never granted
      */
     @Override
-    public boolean robTaskGroupResource(TaskGroupQueue taskGroupQueue) {
-        // set the default max size to avoid dead loop
-        for (int i = 0; i < 10; i++) {
-            TaskGroup taskGroup = taskGroupMapper.selectById(taskGroupQueue.getGroupId());
-            if (taskGroup.getGroupSize() <= taskGroup.getUseSize()) {
-                logger.info("The current task Group is full, taskGroup: {}", taskGroup);
-                return false;
-            }
-            int affectedCount = taskGroupMapper.robTaskGroupResource(taskGroup.getId(),
-                    taskGroup.getUseSize(),
-                    taskGroupQueue.getId(),
-                    TaskGroupQueueStatus.WAIT_QUEUE.getCode());
-            if (affectedCount > 0) {
-                logger.info("Success rob taskGroup, taskInstanceId: {}, taskGroupId: {}", taskGroupQueue.getTaskId(),
-                        taskGroupQueue.getId());
-                taskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
-                this.taskGroupQueueMapper.updateById(taskGroupQueue);
-                this.taskGroupQueueMapper.updateInQueue(Flag.NO.getCode(), taskGroupQueue.getId());
-                return true;
-            }
+    @Transactional
+    public boolean grantTaskGroupResource(TaskGroupQueue taskGroupQueue, int currentUseSize, boolean wakeUp) {
+        int affectedCount = taskGroupMapper.robTaskGroupResource(taskGroupQueue.getGroupId(),
+                currentUseSize,
+                taskGroupQueue.getId(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
+                Flag.NO.getCode());
+        if (affectedCount == 0) {
+            return false;
         }
-        logger.info("Failed to rob taskGroup, taskGroupQueue: {}", taskGroupQueue);
-        return false;
+        taskGroupQueueMapper.updateStatusByTaskId(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode());
+        taskGroupQueueMapper.updateInQueue(wakeUp ? Flag.YES.getCode() : Flag.NO.getCode(), taskGroupQueue.getId());
+        taskGroupQueue.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        taskGroupQueue.setInQueue(wakeUp ? Flag.YES.getCode() : Flag.NO.getCode());
+        return true;
     }
 
+    /**
+     * release the TGQ resources of all tasks in the workflow instance, the waiting tasks are not woken up here.
+     *
+     * @return the released task group queues
+     */
     @Override
-    public void releaseAllTaskGroup(int processInstanceId) {
+    public List<TaskGroupQueue> releaseAllTaskGroup(int processInstanceId) {
         List<TaskInstance> taskInstances = this.taskInstanceMapper.loadAllInfosNoRelease(processInstanceId,
                 TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode());
+        List<TaskGroupQueue> releasedTaskGroupQueues = new ArrayList<>();
         for (TaskInstance info : taskInstances) {
-            releaseTaskGroup(info);
+            TaskGroupQueue releasedTaskGroupQueue = releaseTaskGroupResource(info);
+            if (releasedTaskGroupQueue != null) {
+                releasedTaskGroupQueues.add(releasedTaskGroupQueue);
+            }
         }
+        return releasedTaskGroupQueues;
     }
 
     /**
      * release the TGQ resource when the corresponding task is finished.
      *
-     * @return the result code and msg
+     * @return the task group queue before released, null if there is nothing to release
      */
     @Override
-    public TaskInstance releaseTaskGroup(TaskInstance taskInstance) {
+    public TaskGroupQueue releaseTaskGroupResource(TaskInstance taskInstance) {
 
         TaskGroup taskGroup;
         TaskGroupQueue thisTaskGroupQueue;
@@ -2551,25 +2655,28 @@ public class ProcessServiceImpl implements ProcessService {
             return null;
         }
         logger.info("Finished to release task group, taskGroupId: {}", taskInstance.getTaskGroupId());
-
-        logger.info("Begin to release task group queue, taskGroupId: {}", taskInstance.getTaskGroupId());
         changeTaskGroupQueueStatus(taskInstance.getId(), TaskGroupQueueStatus.RELEASE);
-        TaskGroupQueue taskGroupQueue;
-        do {
-            taskGroupQueue = this.taskGroupQueueMapper.queryTheHighestPriorityTasks(taskGroup.getId(),
-                    TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
-                    Flag.NO.getCode(),
-                    Flag.NO.getCode());
-            if (taskGroupQueue == null) {
-                logger.info("The taskGroupQueue is null, taskGroup: {}", taskGroup.getId());
-                return null;
-            }
-        } while (this.taskGroupQueueMapper.updateInQueueCAS(Flag.NO.getCode(),
-                Flag.YES.getCode(),
-                taskGroupQueue.getId()) != 1);
-        logger.info("Finished to release task group queue: taskGroupId: {}, taskGroupQueueId: {}",
-                taskInstance.getTaskGroupId(), taskGroupQueue.getId());
-        return this.taskInstanceMapper.selectById(taskGroupQueue.getTaskId());
+        return thisTaskGroupQueue;
+    }
+
+    @Override
+    public TaskGroup findTaskGroupById(int taskGroupId) {
+        return taskGroupMapper.selectById(taskGroupId);
+    }
+
+    @Override
+    public List<TaskGroup> queryAllTaskGroup() {
+        return taskGroupMapper.selectList(null);
+    }
+
+    @Override
+    public List<TaskGroupQueue> queryTaskGroupQueueByStatus(TaskGroupQueueStatus status, int afterId) {
+        return taskGroupQueueMapper.queryByStatusAfterId(status.getCode(), afterId);
+    }
+
+    @Override
+    public boolean updateTaskGroupQueueInQueue(int queueId, int oldInQueue, int newInQueue) {
+        return taskGroupQueueMapper.updateInQueueCAS(oldInQueue, newInQueue, queueId) == 1;
     }
 
     /**
@@ -2647,6 +2754,16 @@ public class ProcessServiceImpl implements ProcessService {
         }
     }
 
+    protected void deleteCommandsWithCheck(List<Integer> commandIds) {
+        if (CollectionUtils.isEmpty(commandIds)) {
+            return;
+        }
+        int delete = this.commandMapper.deleteBatchIds(commandIds);
+        if (delete != commandIds.size()) {
+            throw new ServiceException("delete command fail, ids:" + commandIds);
+        }
+    }
+
     /**
      * find k8s config yaml by clusterName
      *
@@ -2693,6 +2810,7 @@ public class ProcessServiceImpl implements ProcessService {
                         .filter(instance -> instance.getState().isFailure() || instance.getState().isKill())
                         .map(TaskInstance::getId).collect(Collectors.toList());
                 if (failTaskList.size() == 1 && failTaskList.contains(taskInstanceId)) {
+                    stateRollupDao.markDirty(processInstance);
                     processInstance.setStateWithDesc(WorkflowExecutionStatus.SUCCESS, "success by task force success");
                     processInstanceDao.updateProcessInstance(processInstance);
                 }
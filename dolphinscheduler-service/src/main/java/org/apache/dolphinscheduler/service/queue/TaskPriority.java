@@ -72,8 +72,14 @@ public class TaskPriority implements Comparable<TaskPriority> {
 
     private int taskGroupPriority;
 
+    /**
+     * the time when the task is put into the queue at the first time, will not be changed if the task is re-queued
+     */
+    private long enqueueTime;
+
     public TaskPriority() {
         this.checkpoint = System.currentTimeMillis();
+        this.enqueueTime = this.checkpoint;
     }
 
     public TaskPriority(int processInstancePriority,
@@ -88,6 +94,7 @@ public class TaskPriority implements Comparable<TaskPriority> {
         this.taskGroupPriority = taskGroupPriority;
         this.groupName = groupName;
         this.checkpoint = System.currentTimeMillis();
+        this.enqueueTime = this.checkpoint;
     }
 
     public int getProcessInstancePriority() {
@@ -154,6 +161,14 @@ public class TaskPriority implements Comparable<TaskPriority> {
         this.checkpoint = checkpoint;
     }
 
+    public long getEnqueueTime() {
+        return enqueueTime;
+    }
+
+    public void setEnqueueTime(long enqueueTime) {
+        this.enqueueTime = enqueueTime;
+    }
+
     public int getTaskGroupPriority() {
         return taskGroupPriority;
     }
@@ -19,6 +19,10 @@ package org.apache.dolphinscheduler.service.queue;
 
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +57,74 @@ public interface TaskPriorityQueue<T> {
      */
     T poll(long timeout, TimeUnit unit) throws TaskPriorityQueueException, InterruptedException;
 
+    /**
+     * put task info if the queue is not full, never wait
+     *
+     * @param taskInfo taskInfo
+     * @return true if the task info is put, false if the queue is full
+     */
+    default boolean offer(T taskInfo) {
+        put(taskInfo);
+        return true;
+    }
+
+    /**
+     * put task info, wait up to the timeout if the queue is full
+     *
+     * @param taskInfo taskInfo
+     * @param timeout max time to wait for the queue to have free capacity
+     * @param unit time unit
+     * @return true if the task info is put, false if the queue is still full after the timeout
+     * @throws InterruptedException
+     */
+    default boolean offer(T taskInfo, long timeout, TimeUnit unit) throws InterruptedException {
+        put(taskInfo);
+        return true;
+    }
+
+    /**
+     * poll a batch of taskInfo, wait up to the timeout if the queue is empty
+     *
+     * @param maxElements max size of the batch
+     * @param timeout max time to wait for the first taskInfo
+     * @param unit time unit
+     * @return taskInfo list, empty if there is no taskInfo after the timeout
+     * @throws TaskPriorityQueueException
+     * @throws InterruptedException
+     */
+    default List<T> poll(int maxElements, long timeout, TimeUnit unit) throws TaskPriorityQueueException,
+            InterruptedException {
+        List<T> taskInfos = new ArrayList<>();
+        T taskInfo = poll(timeout, unit);
+        if (taskInfo != null) {
+            taskInfos.add(taskInfo);
+        }
+        return taskInfos;
+    }
+
+    /**
+     * set the soft bound of the queue
+     *
+     * @param capacity capacity
+     */
+    default void setCapacity(int capacity) {
+    }
+
+    /**
+     * @return the names of the partitions, the queue without partitions has no partition names
+     */
+    default Set<String> getPartitionNames() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @param partitionName partition name
+     * @return the size of the partition, 0 if the partition doesn't exist
+     */
+    default int getPartitionSize(String partitionName) {
+        return 0;
+    }
+
     /**
      * size
      *
@@ -17,33 +17,128 @@
 
 package org.apache.dolphinscheduler.service.queue;
 
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.stereotype.Service;
 
 /**
- * A singleton of a task queue implemented using PriorityBlockingQueue
+ * A singleton of a task queue, the tasks are partitioned by worker group, each partition is a PriorityBlockingQueue.
+ * <p>
+ * The producers of different worker groups don't contend on the same lock, and the partitions are drained in a
+ * round-robin way, so a worker group without capacity will not block the tasks of other worker groups.
  */
 @Service
 public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
 
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private static final int DEFAULT_PARTITION_CAPACITY = 1000;
+
     /**
-     * Task queue, this queue is unbounded, this means it will cause OutOfMemoryError.
-     * The master will stop to generate the task if memory is too high.
+     * Task queue partitions, worker group as key.
      */
-    private final PriorityBlockingQueue<TaskPriority> queue = new PriorityBlockingQueue<>(3000);
+    private final Map<String, PriorityBlockingQueue<TaskPriority>> partitions = new ConcurrentHashMap<>();
 
     /**
-     * put task takePriorityInfo
+     * The partition names in creation order, used to drain the partitions by round-robin.
+     */
+    private final List<String> partitionNames = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger drainCursor = new AtomicInteger();
+
+    /**
+     * The total size of all the partitions, it's increased before the task is put into the partition.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Only used to wait for the queue to be not empty or not full, the put/poll of the partitions don't need it.
+     */
+    private final ReentrantLock signalLock = new ReentrantLock();
+
+    private final Condition notEmpty = signalLock.newCondition();
+
+    private final Condition notFull = signalLock.newCondition();
+
+    /**
+     * The soft bound of the queue, only the offer methods respect it.
+     */
+    private volatile int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * put task takePriorityInfo, this method will not be blocked even if the queue is full, so that the consumer can
+     * put the dispatch failed tasks back without deadlock
      *
      * @param taskPriorityInfo takePriorityInfo
      */
     @Override
     public void put(TaskPriority taskPriorityInfo) {
-        queue.put(taskPriorityInfo);
+        PriorityBlockingQueue<TaskPriority> partition = getOrCreatePartition(getPartitionName(taskPriorityInfo));
+        int sizeBefore = size.getAndIncrement();
+        partition.put(taskPriorityInfo);
+        if (sizeBefore == 0) {
+            signalAll(notEmpty);
+        }
+    }
+
+    /**
+     * put task takePriorityInfo if the queue is not full, never wait
+     *
+     * @param taskPriorityInfo takePriorityInfo
+     * @return true if the task is put, false if the queue is full
+     */
+    @Override
+    public boolean offer(TaskPriority taskPriorityInfo) {
+        if (size.get() >= capacity) {
+            return false;
+        }
+        put(taskPriorityInfo);
+        return true;
+    }
+
+    /**
+     * put task takePriorityInfo, wait up to the timeout if the queue is full
+     *
+     * @param taskPriorityInfo takePriorityInfo
+     * @param timeout          max time to wait
+     * @param unit             time unit
+     * @return true if the task is put, false if the queue is still full after the timeout
+     */
+    @Override
+    public boolean offer(TaskPriority taskPriorityInfo, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        signalLock.lockInterruptibly();
+        try {
+            while (size.get() >= capacity) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                notFull.awaitNanos(remaining);
+            }
+        } finally {
+            signalLock.unlock();
+        }
+        put(taskPriorityInfo);
+        return true;
     }
 
     /**
@@ -54,7 +149,20 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority take() throws TaskPriorityQueueException, InterruptedException {
-        return queue.take();
+        while (true) {
+            TaskPriority taskPriority = pollFairly();
+            if (taskPriority != null) {
+                return taskPriority;
+            }
+            signalLock.lockInterruptibly();
+            try {
+                while (size.get() == 0) {
+                    notEmpty.await();
+                }
+            } finally {
+                signalLock.unlock();
+            }
+        }
     }
 
     /**
@@ -68,7 +176,41 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority poll(long timeout, TimeUnit unit) throws TaskPriorityQueueException, InterruptedException {
-        return queue.poll(timeout, unit);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            TaskPriority taskPriority = pollFairly();
+            if (taskPriority != null) {
+                return taskPriority;
+            }
+            if (!awaitNotEmpty(deadline)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * poll a batch of taskInfo with timeout, each partition can provide at most its fair share of the batch in one
+     * round, the tasks in one partition are polled by priority
+     *
+     * @param maxElements max size of the batch
+     * @param timeout     max time to wait for the first taskInfo
+     * @param unit        time unit
+     * @return taskInfo list
+     */
+    @Override
+    public List<TaskPriority> poll(int maxElements, long timeout, TimeUnit unit) throws TaskPriorityQueueException,
+            InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<TaskPriority> taskPriorities = new ArrayList<>(maxElements);
+        while (true) {
+            drainFairly(taskPriorities, maxElements);
+            if (!taskPriorities.isEmpty()) {
+                return taskPriorities;
+            }
+            if (!awaitNotEmpty(deadline)) {
+                return taskPriorities;
+            }
+        }
     }
 
     /**
@@ -79,6 +221,131 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public int size() throws TaskPriorityQueueException {
-        return queue.size();
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+        signalAll(notFull);
+    }
+
+    /**
+     * @return the names of the partitions which has been created
+     */
+    @Override
+    public Set<String> getPartitionNames() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(partitionNames));
+    }
+
+    @Override
+    public int getPartitionSize(String partitionName) {
+        PriorityBlockingQueue<TaskPriority> partition = partitions.get(partitionName);
+        return partition == null ? 0 : partition.size();
+    }
+
+    private String getPartitionName(TaskPriority taskPriority) {
+        TaskExecutionContext taskExecutionContext = taskPriority.getTaskExecutionContext();
+        if (taskExecutionContext != null && StringUtils.isNotEmpty(taskExecutionContext.getWorkerGroup())) {
+            return taskExecutionContext.getWorkerGroup();
+        }
+        if (StringUtils.isNotEmpty(taskPriority.getGroupName())) {
+            return taskPriority.getGroupName();
+        }
+        return Constants.DEFAULT_WORKER_GROUP;
+    }
+
+    private PriorityBlockingQueue<TaskPriority> getOrCreatePartition(String partitionName) {
+        PriorityBlockingQueue<TaskPriority> partition = partitions.get(partitionName);
+        if (partition != null) {
+            return partition;
+        }
+        PriorityBlockingQueue<TaskPriority> newPartition = new PriorityBlockingQueue<>(DEFAULT_PARTITION_CAPACITY);
+        partition = partitions.putIfAbsent(partitionName, newPartition);
+        if (partition != null) {
+            return partition;
+        }
+        // the name is published after the partition, so the fair loops always find the partition of a name
+        partitionNames.add(partitionName);
+        return newPartition;
+    }
+
+    private TaskPriority pollFairly() {
+        List<String> names = partitionNames;
+        int partitionCount = names.size();
+        if (partitionCount == 0 || size.get() == 0) {
+            return null;
+        }
+        int start = Math.floorMod(drainCursor.getAndIncrement(), partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            TaskPriority taskPriority = partitions.get(names.get((start + i) % partitionCount)).poll();
+            if (taskPriority != null) {
+                afterRemove(1);
+                return taskPriority;
+            }
+        }
+        return null;
+    }
+
+    private void drainFairly(List<TaskPriority> taskPriorities, int maxElements) {
+        List<String> names = partitionNames;
+        int partitionCount = names.size();
+        if (partitionCount == 0 || size.get() == 0) {
+            return;
+        }
+        int start = Math.floorMod(drainCursor.getAndIncrement(), partitionCount);
+        int drained = 0;
+        while (taskPriorities.size() < maxElements) {
+            int sizeBeforeRound = taskPriorities.size();
+            // each partition can take at most its fair share of the remaining slots in one round
+            int fairShare = Math.max(1, (maxElements - sizeBeforeRound + partitionCount - 1) / partitionCount);
+            for (int i = 0; i < partitionCount && taskPriorities.size() < maxElements; i++) {
+                PriorityBlockingQueue<TaskPriority> partition = partitions.get(names.get((start + i) % partitionCount));
+                drained += partition.drainTo(taskPriorities,
+                        Math.min(fairShare, maxElements - taskPriorities.size()));
+            }
+            if (taskPriorities.size() == sizeBeforeRound) {
+                break;
+            }
+        }
+        if (drained > 0) {
+            afterRemove(drained);
+        }
+    }
+
+    private void afterRemove(int count) {
+        int sizeBefore = size.getAndAdd(-count);
+        if (sizeBefore >= capacity) {
+            signalAll(notFull);
+        }
+    }
+
+    private boolean awaitNotEmpty(long deadline) throws InterruptedException {
+        signalLock.lockInterruptibly();
+        try {
+            while (size.get() == 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                notEmpty.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private void signalAll(Condition condition) {
+        signalLock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
     }
 }
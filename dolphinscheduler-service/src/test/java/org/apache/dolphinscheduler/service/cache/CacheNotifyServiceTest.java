@@ -39,6 +39,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * tenant cache proxy test
@@ -78,4 +80,23 @@ public class CacheNotifyServiceTest {
 
         nettyRemotingServer.close();
     }
+
+    @Test
+    public void testNotifyMasterAfterCommit() {
+        Command cacheExpireCommand = new CacheExpireCommand(CacheType.USER, "100").convert2Command();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheNotifyService.notifyMasterAfterCommit(cacheExpireCommand);
+            Mockito.verify(registryClient, Mockito.never()).getServerList(NodeType.MASTER);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(registryClient, Mockito.times(1)).getServerList(NodeType.MASTER);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // there is no transaction, notify at once
+        cacheNotifyService.notifyMasterAfterCommit(cacheExpireCommand);
+        Mockito.verify(registryClient, Mockito.times(2)).getServerList(NodeType.MASTER);
+    }
 }
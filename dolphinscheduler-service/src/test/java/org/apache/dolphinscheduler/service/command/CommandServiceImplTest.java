@@ -22,6 +22,7 @@ import static org.apache.dolphinscheduler.common.constants.CommandKeyConstants.C
 import static org.apache.dolphinscheduler.common.constants.CommandKeyConstants.CMD_PARAM_RECOVER_PROCESS_ID_STRING;
 import static org.mockito.ArgumentMatchers.anyString;
 
+import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.WarningType;
@@ -35,6 +36,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.mapper.CommandMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.service.cache.CacheNotifyService;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -53,6 +55,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -70,6 +73,9 @@ class CommandServiceImplTest {
     @Mock
     private ScheduleMapper scheduleMapper;
 
+    @Mock
+    private CacheNotifyService cacheNotifyService;
+
     @Test
     public void testCreateSubCommand() {
         ProcessInstance parentInstance = new ProcessInstance();
@@ -208,10 +214,34 @@ class CommandServiceImplTest {
         command.setCommandParam("{\"ProcessInstanceId\":222}");
         command.setCommandType(CommandType.START_PROCESS);
         int mockResult = 1;
-        Mockito.when(commandMapper.insert(command)).thenReturn(mockResult);
+        Mockito.when(commandMapper.insert(command)).thenAnswer(invocation -> {
+            command.setId(1);
+            return mockResult;
+        });
         int exeMethodResult = commandService.createCommand(command);
         Assertions.assertEquals(mockResult, exeMethodResult);
         Mockito.verify(commandMapper, Mockito.times(1)).insert(command);
+        Mockito.verify(cacheNotifyService, Mockito.times(1))
+                .notifyMasterAfterCommit(Mockito.any(org.apache.dolphinscheduler.remote.command.Command.class));
+    }
+
+    @Test
+    public void testBatchCreateCommand() {
+        Command command = new Command();
+        command.setProcessDefinitionCode(123);
+        command.setCommandType(CommandType.SCHEDULER);
+        command.setCommandParam("{\"" + Constants.SCHEDULE_TIMEZONE + "\":\"Asia/Shanghai\"}");
+        List<Command> commands = Lists.newArrayList(command);
+        Mockito.when(commandMapper.batchInsert(commands)).thenAnswer(invocation -> {
+            command.setId(1);
+            return 1;
+        });
+
+        Assertions.assertEquals(1, commandService.batchCreateCommand(commands));
+        Assertions.assertEquals(-1L, command.getEnvironmentCode());
+        Mockito.verify(scheduleMapper, Mockito.never()).queryByProcessDefinitionCode(123);
+        Mockito.verify(cacheNotifyService, Mockito.times(1))
+                .notifyMasterAfterCommit(Mockito.any(org.apache.dolphinscheduler.remote.command.Command.class));
     }
 
     @Test
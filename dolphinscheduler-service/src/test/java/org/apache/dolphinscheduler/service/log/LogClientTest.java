@@ -22,6 +22,8 @@ import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogRangeResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.factory.NettyRemotingClientFactory;
@@ -29,6 +31,7 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -134,6 +137,38 @@ public class LogClientTest {
         }
     }
 
+    @Test
+    public void testGetLogBytesByRange() throws Exception {
+        try (
+                MockedStatic<NettyRemotingClientFactory> mockedNettyRemotingClientFactory =
+                        Mockito.mockStatic(NettyRemotingClientFactory.class)) {
+            NettyRemotingClient remotingClient = Mockito.mock(NettyRemotingClient.class);
+            mockedNettyRemotingClientFactory.when(NettyRemotingClientFactory::buildNettyRemotingClient)
+                    .thenReturn(remotingClient);
+            byte[] log = "task log content".getBytes(StandardCharsets.UTF_8);
+            Mockito.when(
+                    remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                    .thenAnswer(invocation -> {
+                        Command request = invocation.getArgument(1);
+                        GetLogRangeRequestCommand rangeRequest =
+                                JSONUtils.parseObject(request.getBody(), GetLogRangeRequestCommand.class);
+                        // serve at most 5 bytes for each range
+                        int offset = (int) rangeRequest.getOffset();
+                        int length = Math.min(5, log.length - offset);
+                        Command response = new GetLogRangeResponseCommand(offset, length, log.length)
+                                .convert2Command(request.getOpaque());
+                        response.setBody(Arrays.copyOfRange(log, offset, offset + length));
+                        return response;
+                    });
+
+            LogClient logClient = new LogClient();
+            byte[] logBytes = logClient.getLogBytes("localhost", 1234, "/tmp/log");
+            Assertions.assertArrayEquals(log, logBytes);
+            Mockito.verify(remotingClient, Mockito.times(4))
+                    .sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong());
+        }
+    }
+
     @Test
     public void testRemoveTaskLog() {
 
@@ -20,14 +20,23 @@ package org.apache.dolphinscheduler.service.log;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.processor.LoggerRequestProcessor;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -39,6 +48,9 @@ public class LoggerRequestProcessorTest {
 
     private MockedStatic<LoggerUtils> mockedStaticLoggerUtils;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     public void setUp() {
         mockedStaticLoggerUtils = Mockito.mockStatic(LoggerUtils.class);
@@ -112,4 +124,35 @@ public class LoggerRequestProcessorTest {
         LoggerRequestProcessor loggerRequestProcessor = new LoggerRequestProcessor();
         loggerRequestProcessor.process(channel, command);
     }
+
+    @Test
+    public void testProcessRollViewLogRequest() throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            log.append("line ").append(i).append('\n');
+        }
+        Path logPath = tempDir.resolve("a.log");
+        Files.write(logPath, log.toString().getBytes(StandardCharsets.UTF_8));
+        LoggerRequestProcessor loggerRequestProcessor = new LoggerRequestProcessor();
+        Channel channel = Mockito.mock(Channel.class);
+
+        Assertions.assertEquals("line 2050\r\nline 2051\r\n",
+                rollViewLog(loggerRequestProcessor, channel, logPath.toString(), 2050, 2));
+        Assertions.assertEquals("line 10\r\n",
+                rollViewLog(loggerRequestProcessor, channel, logPath.toString(), 10, 1));
+        Assertions.assertEquals("line 2999\r\n",
+                rollViewLog(loggerRequestProcessor, channel, logPath.toString(), 2999, 10));
+        Assertions.assertEquals("",
+                rollViewLog(loggerRequestProcessor, channel, logPath.toString(), 5000, 10));
+    }
+
+    private String rollViewLog(LoggerRequestProcessor loggerRequestProcessor, Channel channel, String path,
+                               int skipLineNum, int limit) {
+        Mockito.clearInvocations(channel);
+        Command command = new RollViewLogRequestCommand(path, skipLineNum, limit).convert2Command();
+        loggerRequestProcessor.process(channel, command);
+        ArgumentCaptor<Command> responseCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel).writeAndFlush(responseCaptor.capture());
+        return JSONUtils.parseObject(responseCaptor.getValue().getBody(), RollViewLogResponseCommand.class).getMsg();
+    }
 }
@@ -68,6 +68,7 @@ import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
+import org.apache.dolphinscheduler.dao.repository.StateRollupDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionDao;
 import org.apache.dolphinscheduler.dao.repository.TaskDefinitionLogDao;
 import org.apache.dolphinscheduler.dao.repository.TaskInstanceDao;
@@ -127,6 +128,9 @@ public class ProcessServiceTest {
     @Mock
     private ProcessInstanceDao processInstanceDao;
 
+    @Mock
+    private StateRollupDao stateRollupDao;
+
     @Mock
     private TaskInstanceDao taskInstanceDao;
 
@@ -282,8 +286,9 @@ public class ProcessServiceTest {
         command5.setCommandType(CommandType.START_PROCESS);
         command5.setDryRun(Constants.DRY_RUN_FLAG_NO);
         Mockito.when(commandMapper.deleteById(5)).thenReturn(1);
+        // the start param overwrites the global param of the command's own copy of the definition
         Mockito.when(curingGlobalParamsService.curingGlobalParams(null,
-                processDefinition.getGlobalParamMap(),
+                Collections.singletonMap("startParam1", "testStartParam1"),
                 processDefinition.getGlobalParamList(),
                 CommandType.START_PROCESS,
                 processInstance.getScheduleTime(), null)).thenReturn("\"testStartParam1\"");
@@ -373,6 +378,60 @@ public class ProcessServiceTest {
         Assertions.assertNotNull(processInstance10);
     }
 
+    @Test
+    public void testHandleCommands() throws CronParseException, CodeGenerateUtils.CodeGenerateException {
+        String host = "127.0.0.1";
+        int definitionVersion = 1;
+        long definitionCode = 123;
+
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(123);
+        processDefinition.setName("test");
+        processDefinition.setVersion(definitionVersion);
+        processDefinition.setCode(definitionCode);
+        processDefinition.setExecutionType(ProcessExecutionTypeEnum.PARALLEL);
+        Mockito.when(processDefineMapper.queryByCode(definitionCode)).thenReturn(processDefinition);
+
+        List<Command> commands = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Command command = new Command();
+            command.setId(i);
+            command.setProcessDefinitionCode(definitionCode);
+            command.setProcessDefinitionVersion(definitionVersion);
+            command.setCommandType(CommandType.START_PROCESS);
+            commands.add(command);
+        }
+        Mockito.when(commandMapper.deleteBatchIds(Mockito.anyCollection())).thenReturn(commands.size());
+
+        List<ProcessInstance> processInstances = processService.handleCommands(host, commands);
+        Assertions.assertEquals(commands.size(), processInstances.size());
+        // the process definition is only loaded once in a batch
+        Mockito.verify(processDefineMapper, Mockito.times(1)).queryByCode(definitionCode);
+        Mockito.verify(commandMapper, Mockito.times(1)).deleteBatchIds(Mockito.anyCollection());
+
+        // the start params of a command do not leak into the cached definition or the other commands in the batch
+        processDefinition
+                .setGlobalParams("[{\"prop\":\"startParam1\",\"direct\":\"IN\",\"type\":\"VARCHAR\",\"value\":\"\"}]");
+        HashMap<String, String> startParams = new HashMap<>();
+        startParams.put("startParam1", "testStartParam1");
+        startParams.put("startParam2", "testStartParam2");
+        commands.get(0).setCommandParam(JSONUtils.toJsonString(
+                Collections.singletonMap(CMD_PARAM_START_PARAMS, JSONUtils.toJsonString(startParams))));
+        processService.handleCommands(host, commands);
+        Mockito.verify(curingGlobalParamsService, Mockito.times(1)).curingGlobalParams(Mockito.any(),
+                Mockito.eq(startParams), Mockito.argThat(list -> list != null && list.size() == 2),
+                Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(curingGlobalParamsService, Mockito.times(commands.size() - 1)).curingGlobalParams(
+                Mockito.any(), Mockito.eq(Collections.singletonMap("startParam1", "")),
+                Mockito.argThat(list -> list != null && list.size() == 1),
+                Mockito.any(), Mockito.any(), Mockito.any());
+        Assertions.assertEquals(Collections.singletonMap("startParam1", ""), processDefinition.getGlobalParamMap());
+
+        // the whole batch will be rolled back if the commands cannot be deleted
+        Mockito.when(commandMapper.deleteBatchIds(Mockito.anyCollection())).thenReturn(commands.size() - 1);
+        Assertions.assertThrows(ServiceException.class, () -> processService.handleCommands(host, commands));
+    }
+
     @Test
     public void testDeleteNotExistCommand() throws CronParseException, CodeGenerateUtils.CodeGenerateException {
         String host = "127.0.0.1";
@@ -681,6 +740,17 @@ public class ProcessServiceTest {
         DAG<String, TaskNode, TaskNodeRelation> stringTaskNodeTaskNodeRelationDAG =
                 processService.genDagGraph(processDefinition);
         Assertions.assertEquals(1, stringTaskNodeTaskNodeRelationDAG.getNodesCount());
+
+        // the relations of the same version are loaded only once, but every caller gets its own graph
+        stringTaskNodeTaskNodeRelationDAG.addNode("4", new TaskNode());
+        stringTaskNodeTaskNodeRelationDAG.getNode("3").setName("changed");
+        DAG<String, TaskNode, TaskNodeRelation> cachedDag = processService.genDagGraph(processDefinition);
+        Assertions.assertNotSame(stringTaskNodeTaskNodeRelationDAG, cachedDag);
+        Assertions.assertEquals(1, cachedDag.getNodesCount());
+        Assertions.assertEquals("1-test", cachedDag.getNode("3").getName());
+        Mockito.verify(processTaskRelationLogMapper, Mockito.times(1))
+                .queryByProcessCodeAndVersion(Mockito.anyLong(), Mockito.anyInt());
+        Mockito.verify(taskDefinitionLogDao, Mockito.times(1)).getTaskDefineLogList(any());
     }
 
     @Test
@@ -745,7 +815,7 @@ public class ProcessServiceTest {
         Mockito.when(taskGroupQueueMapper.queryByTaskId(1)).thenReturn(taskGroupQueue);
         Mockito.when(taskGroupQueueMapper.updateById(taskGroupQueue)).thenReturn(1);
 
-        processService.releaseTaskGroup(taskInstance);
+        processService.releaseTaskGroupResource(taskInstance);
 
     }
 
@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.common.enums.Priority;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
@@ -128,6 +129,80 @@ public class TaskPriorityQueueImplTest {
         queue.poll(1000, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    public void pollBatchFairly() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        for (int i = 0; i < 4; i++) {
+            queue.put(new TaskPriority(0, 0, 0, i, 1, "busy"));
+        }
+        queue.put(new TaskPriority(0, 0, 0, 10, 1, "idle"));
+        Assertions.assertEquals(2, queue.getPartitionNames().size());
+        Assertions.assertEquals(4, queue.getPartitionSize("busy"));
+
+        List<TaskPriority> taskPriorities = queue.poll(2, 1000, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(2, taskPriorities.size());
+        // the task of the idle worker group should not be blocked by the busy one
+        Assertions.assertTrue(taskPriorities.stream().anyMatch(task -> "idle".equals(task.getGroupName())));
+        Assertions.assertEquals(3, queue.size());
+
+        taskPriorities = queue.poll(10, 1000, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(3, taskPriorities.size());
+        // the tasks in one partition are polled by priority
+        Assertions.assertEquals(1, taskPriorities.get(0).getTaskId());
+        Assertions.assertEquals(0, queue.size());
+        Assertions.assertTrue(queue.poll(10, 10, TimeUnit.MILLISECONDS).isEmpty());
+    }
+
+    @Test
+    public void offer() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        queue.setCapacity(1);
+        Assertions.assertTrue(queue.offer(new TaskPriority(0, 0, 0, 1, 1, "default"), 10, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(queue.offer(new TaskPriority(0, 0, 0, 2, 1, "default"), 10, TimeUnit.MILLISECONDS));
+        // put is not bounded
+        queue.put(new TaskPriority(0, 0, 0, 3, 1, "default"));
+        Assertions.assertEquals(2, queue.size());
+
+        queue.poll(2, 10, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(queue.offer(new TaskPriority(0, 0, 0, 2, 1, "default"), 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void offerWithoutWait() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        queue.setCapacity(1);
+        Assertions.assertTrue(queue.offer(new TaskPriority(0, 0, 0, 1, 1, "default")));
+        Assertions.assertFalse(queue.offer(new TaskPriority(0, 0, 0, 2, 1, "default")));
+        Assertions.assertEquals(1, queue.size());
+
+        queue.poll(1, 10, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(queue.offer(new TaskPriority(0, 0, 0, 2, 1, "default")));
+    }
+
+    @Test
+    public void pollWhilePartitionsAreCreated() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        int taskCount = 2000;
+        // each task creates a new partition while the consumer is polling the existing ones
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < taskCount; i++) {
+                queue.put(new TaskPriority(0, 0, 0, i, 1, "group-" + i));
+            }
+        });
+        int polled = 0;
+        while (polled < taskCount) {
+            Assertions.assertFalse(producer.isCompletedExceptionally());
+            if (polled % 2 == 0) {
+                polled += queue.poll(10, 1000, TimeUnit.MILLISECONDS).size();
+            } else if (queue.poll(1000, TimeUnit.MILLISECONDS) != null) {
+                polled++;
+            }
+        }
+        producer.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(taskCount, queue.getPartitionNames().size());
+        Assertions.assertEquals(0, queue.size());
+    }
+
     @Test
     public void size() throws Exception {
         Assertions.assertEquals(2, getPriorityQueue().size());
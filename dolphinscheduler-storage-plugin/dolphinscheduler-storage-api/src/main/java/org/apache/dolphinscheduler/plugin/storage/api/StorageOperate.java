@@ -186,6 +186,13 @@ public interface StorageOperate {
     List<StorageEntity> listFilesStatus(String path, String defaultPath, String tenantCode,
                                         ResourceType type) throws Exception;
 
+    /**
+     * return a page of files and folders in the current directory, starting from the continuation token which is
+     * returned by the previous page, or from the beginning if the continuation token is empty
+     * */
+    StorageEntityPage listFilesStatus(String path, String defaultPath, String tenantCode, ResourceType type,
+                                      String continuationToken, int pageSize) throws Exception;
+
     /**
      * return a file status
      * */
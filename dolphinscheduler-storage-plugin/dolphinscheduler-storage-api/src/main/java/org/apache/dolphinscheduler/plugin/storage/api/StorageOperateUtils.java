@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.storage.api;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import lombok.experimental.UtilityClass;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UtilityClass
+public class StorageOperateUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageOperateUtils.class);
+
+    private static final ExecutorService LIST_EXECUTOR = ThreadUtils.newDaemonFixedThreadExecutor(
+            "StorageListThread", PropertyUtils.getInt(Constants.RESOURCE_STORAGE_LIST_PARALLELISM, 8));
+
+    /**
+     * the size of a part when a file is downloaded by ranges or uploaded by multipart
+     */
+    public static final long TRANSFER_PART_SIZE =
+            PropertyUtils.getInt(Constants.RESOURCE_STORAGE_TRANSFER_PART_SIZE, 16) * 1024L * 1024L;
+
+    /**
+     * the number of threads that transfer the parts of files, and the number of threads that transfer the files
+     */
+    public static final int TRANSFER_PARALLELISM =
+            PropertyUtils.getInt(Constants.RESOURCE_STORAGE_TRANSFER_PARALLELISM, 8);
+
+    /**
+     * the number of parts of a file, or the number of files, that one transfer runs in parallel. The executors are
+     * shared by all the tasks of a worker, so one transfer never takes all their threads.
+     */
+    public static final int TRANSFER_PARALLELISM_PER_TRANSFER = Math.min(TRANSFER_PARALLELISM,
+            PropertyUtils.getInt(Constants.RESOURCE_STORAGE_TRANSFER_PARALLELISM_PER_TRANSFER, 4));
+
+    /**
+     * the times a download is tried when the remote file is changed during the download
+     */
+    public static final int MAX_DOWNLOAD_ATTEMPTS = 3;
+
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    // the files and the parts of a file use different executors, so a file waiting for its parts never holds a
+    // thread that its parts need
+    private static final ExecutorService FILE_TRANSFER_EXECUTOR =
+            ThreadUtils.newDaemonFixedThreadExecutor("StorageFileTransferThread", TRANSFER_PARALLELISM);
+
+    private static final ExecutorService PART_TRANSFER_EXECUTOR =
+            ThreadUtils.newDaemonFixedThreadExecutor("StoragePartTransferThread", TRANSFER_PARALLELISM);
+
+    /**
+     * Open a stream of the bytes in [start, end] of a remote file, both ends are inclusive.
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+
+        InputStream open(long start, long end) throws IOException;
+    }
+
+    /**
+     * A download that fails with {@link RemoteFileChangedException} if the remote file is changed during it.
+     */
+    @FunctionalInterface
+    public interface DownloadAttempt {
+
+        void download() throws IOException;
+    }
+
+    /**
+     * Return files and folders in the path and its subdirectories. The directories are walked level by level, and
+     * the directories of the same level are listed in parallel. The result keeps the breadth-first order, and the
+     * resources fetched before an error occurs are returned if any directory fails to be listed.
+     */
+    public static List<StorageEntity> listFilesStatusRecursively(StorageOperate storageOperate, String path,
+                                                                 String defaultPath, String tenantCode,
+                                                                 ResourceType type) {
+        List<StorageEntity> storageEntityList = new ArrayList<>();
+        List<String> foldersToFetch = Collections.singletonList(path);
+
+        while (!foldersToFetch.isEmpty()) {
+            List<CompletableFuture<List<StorageEntity>>> futures = foldersToFetch.stream()
+                    .map(folder -> CompletableFuture.supplyAsync(
+                            () -> listFilesStatus(storageOperate, folder, defaultPath, tenantCode, type),
+                            LIST_EXECUTOR))
+                    .collect(Collectors.toList());
+
+            List<String> nextFoldersToFetch = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                List<StorageEntity> tempList;
+                try {
+                    tempList = futures.get(i).join();
+                } catch (CompletionException e) {
+                    logger.error("Resource path: {}", foldersToFetch.get(i), e.getCause());
+                    // return the resources fetched before error occurs.
+                    return storageEntityList;
+                }
+                for (StorageEntity temp : tempList) {
+                    if (temp.isDirectory()) {
+                        nextFoldersToFetch.add(temp.getFullName());
+                    }
+                }
+                storageEntityList.addAll(tempList);
+            }
+            foldersToFetch = nextFoldersToFetch;
+        }
+        return storageEntityList;
+    }
+
+    private static List<StorageEntity> listFilesStatus(StorageOperate storageOperate, String path,
+                                                       String defaultPath, String tenantCode, ResourceType type) {
+        try {
+            List<StorageEntity> storageEntities = storageOperate.listFilesStatus(path, defaultPath, tenantCode, type);
+            return storageEntities == null ? Collections.emptyList() : storageEntities;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Download a remote file of the given length to the local file. The file is split into parts of
+     * {@link #TRANSFER_PART_SIZE}, and the parts are fetched by ranged reads in parallel and written to their own
+     * offsets of the local file. The local file is deleted if any part fails.
+     */
+    public static void downloadInParts(long contentLength, Path dstFile, RangeReader rangeReader) throws IOException {
+        downloadInParts(contentLength, dstFile, rangeReader, TRANSFER_PART_SIZE, TRANSFER_PARALLELISM_PER_TRANSFER,
+                PART_TRANSFER_EXECUTOR);
+    }
+
+    static void downloadInParts(long contentLength, Path dstFile, RangeReader rangeReader, long partSize,
+                                int maxParallelism, ExecutorService executor) throws IOException {
+        try (
+                FileChannel channel = FileChannel.open(dstFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (contentLength <= partSize) {
+                if (contentLength > 0) {
+                    copyRange(rangeReader, channel, 0, contentLength - 1);
+                }
+                return;
+            }
+            List<Runnable> parts = new ArrayList<>();
+            for (long start = 0; start < contentLength; start += partSize) {
+                long partStart = start;
+                long partEnd = Math.min(start + partSize, contentLength) - 1;
+                parts.add(() -> {
+                    try {
+                        copyRange(rangeReader, channel, partStart, partEnd);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+            }
+            // all the started parts are waited for, so that no part is still writing when the channel is closed
+            runInParallel(parts, maxParallelism, executor);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(dstFile);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(String.format("download to %s failed", dstFile), cause);
+        }
+    }
+
+    /**
+     * Run the download, and run it again if the remote file is changed during it, at most
+     * {@link #MAX_DOWNLOAD_ATTEMPTS} times in all. Each attempt reads the length and the version of the remote file
+     * again.
+     */
+    public static void downloadUnchanged(String srcFilePath, DownloadAttempt downloadAttempt) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                downloadAttempt.download();
+                return;
+            } catch (RemoteFileChangedException e) {
+                if (attempt >= MAX_DOWNLOAD_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("{} is changed during the download, download it again, attempt: {}", srcFilePath,
+                        attempt);
+            }
+        }
+    }
+
+    /**
+     * Run the transfers of several files concurrently and wait for all of them. At most
+     * {@link #TRANSFER_PARALLELISM_PER_TRANSFER} files are transferred at a time, and no more transfer is started
+     * after one fails. The failure is rethrown after the started transfers are done. The transfers run with the name
+     * of the calling thread, since the task logs are routed by the thread name.
+     */
+    public static void transferConcurrently(List<Runnable> transfers) {
+        if (transfers.size() == 1) {
+            transfers.get(0).run();
+            return;
+        }
+        String callerThreadName = Thread.currentThread().getName();
+        List<Runnable> namedTransfers = transfers.stream()
+                .map(transfer -> (Runnable) () -> {
+                    Thread thread = Thread.currentThread();
+                    String threadName = thread.getName();
+                    thread.setName(callerThreadName);
+                    try {
+                        transfer.run();
+                    } finally {
+                        thread.setName(threadName);
+                    }
+                })
+                .collect(Collectors.toList());
+        try {
+            runInParallel(namedTransfers, TRANSFER_PARALLELISM_PER_TRANSFER, FILE_TRANSFER_EXECUTOR);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run the actions on the executor, at most maxParallelism of them at a time, and wait for all the started ones.
+     * No more action is started after one fails or the calling thread is interrupted, and the failure is thrown as a
+     * {@link CompletionException}.
+     */
+    static void runInParallel(List<Runnable> actions, int maxParallelism, ExecutorService executor) {
+        Semaphore permits = new Semaphore(Math.max(1, maxParallelism));
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        boolean interrupted = false;
+        for (Runnable action : actions) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            }
+            if (failed.get()) {
+                break;
+            }
+            futures.add(CompletableFuture.runAsync(action, executor).whenComplete((result, e) -> {
+                if (e != null) {
+                    failed.set(true);
+                }
+                permits.release();
+            }));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (interrupted) {
+            throw new CompletionException(new InterruptedIOException("transfer is interrupted"));
+        }
+    }
+
+    private static void copyRange(RangeReader rangeReader, FileChannel channel, long start,
+                                  long end) throws IOException {
+        long position = start;
+        try (InputStream inputStream = rangeReader.open(start, end)) {
+            byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+            int readLen;
+            while ((readLen = inputStream.read(buffer)) > 0) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, readLen);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+        }
+        if (position != end + 1) {
+            throw new IOException(String.format("range [%d, %d] is incomplete, only %d bytes are read", start, end,
+                    position - start));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.storage.api;
+
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class StorageOperateUtilsTest {
+
+    private static final String ROOT = "/dolphinscheduler/tenant/resources/";
+
+    @Mock
+    private StorageOperate storageOperate;
+
+    @Test
+    public void testListFilesStatusRecursively() throws Exception {
+        Mockito.when(storageOperate.listFilesStatus(ROOT, ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Arrays.asList(directory(ROOT + "a/"), file(ROOT + "1.sh"), directory(ROOT + "b/")));
+        Mockito.when(storageOperate.listFilesStatus(ROOT + "a/", ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Arrays.asList(file(ROOT + "a/2.sh"), directory(ROOT + "a/c/")));
+        Mockito.when(storageOperate.listFilesStatus(ROOT + "b/", ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Collections.singletonList(file(ROOT + "b/3.sh")));
+        Mockito.when(storageOperate.listFilesStatus(ROOT + "a/c/", ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Collections.emptyList());
+
+        List<String> fullNames = StorageOperateUtils
+                .listFilesStatusRecursively(storageOperate, ROOT, ROOT, "tenant", ResourceType.FILE)
+                .stream()
+                .map(StorageEntity::getFullName)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList(ROOT + "a/", ROOT + "1.sh", ROOT + "b/", ROOT + "a/2.sh",
+                ROOT + "a/c/", ROOT + "b/3.sh"), fullNames);
+    }
+
+    @Test
+    public void testListFilesStatusRecursivelyWithError() throws Exception {
+        Mockito.when(storageOperate.listFilesStatus(ROOT, ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Arrays.asList(directory(ROOT + "a/"), directory(ROOT + "b/")));
+        Mockito.when(storageOperate.listFilesStatus(ROOT + "a/", ROOT, "tenant", ResourceType.FILE))
+                .thenThrow(new IOException("list error"));
+        Mockito.lenient().when(storageOperate.listFilesStatus(ROOT + "b/", ROOT, "tenant", ResourceType.FILE))
+                .thenReturn(Collections.singletonList(file(ROOT + "b/3.sh")));
+
+        List<StorageEntity> storageEntities = StorageOperateUtils
+                .listFilesStatusRecursively(storageOperate, ROOT, ROOT, "tenant", ResourceType.FILE);
+        // the resources fetched before error occurs are returned
+        Assertions.assertEquals(2, storageEntities.size());
+    }
+
+    @Test
+    public void testDownloadInParts(@TempDir Path tempDir) throws Exception {
+        byte[] content = new byte[1000];
+        new Random().nextBytes(content);
+        List<Long> starts = Collections.synchronizedList(new ArrayList<>());
+        StorageOperateUtils.RangeReader rangeReader = (start, end) -> {
+            starts.add(start);
+            return new ByteArrayInputStream(content, (int) start, (int) (end - start + 1));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Path dstFile = tempDir.resolve("parts");
+            StorageOperateUtils.downloadInParts(content.length, dstFile, rangeReader, 128, 4, executor);
+            Assertions.assertArrayEquals(content, Files.readAllBytes(dstFile));
+            Assertions.assertEquals(8, starts.size());
+
+            // a file not larger than a part is downloaded by a single read
+            starts.clear();
+            Path singleFile = tempDir.resolve("single");
+            StorageOperateUtils.downloadInParts(content.length, singleFile, rangeReader, 1000, 4, executor);
+            Assertions.assertArrayEquals(content, Files.readAllBytes(singleFile));
+            Assertions.assertEquals(Collections.singletonList(0L), starts);
+
+            Path emptyFile = tempDir.resolve("empty");
+            StorageOperateUtils.downloadInParts(0, emptyFile, rangeReader, 128, 4, executor);
+            Assertions.assertEquals(0, Files.size(emptyFile));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDownloadInPartsWithError(@TempDir Path tempDir) {
+        byte[] content = new byte[1000];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // a part fails
+            Path failedFile = tempDir.resolve("failed");
+            IOException exception = Assertions.assertThrows(IOException.class,
+                    () -> StorageOperateUtils.downloadInParts(content.length, failedFile, (start, end) -> {
+                        if (start == 256) {
+                            throw new IOException("read error");
+                        }
+                        return new ByteArrayInputStream(content, (int) start, (int) (end - start + 1));
+                    }, 128, 4, executor));
+            Assertions.assertEquals("read error", exception.getMessage());
+            Assertions.assertFalse(Files.exists(failedFile));
+
+            // a part is shorter than its range
+            Path incompleteFile = tempDir.resolve("incomplete");
+            Assertions.assertThrows(IOException.class,
+                    () -> StorageOperateUtils.downloadInParts(content.length, incompleteFile,
+                            (start, end) -> new ByteArrayInputStream(content, (int) start, 1), 128, 4, executor));
+            Assertions.assertFalse(Files.exists(incompleteFile));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDownloadInPartsWithParallelismLimit(@TempDir Path tempDir) throws Exception {
+        byte[] content = new byte[1000];
+        new Random().nextBytes(content);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        StorageOperateUtils.RangeReader rangeReader = (start, end) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new ByteArrayInputStream(content, (int) start, (int) (end - start + 1));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Path dstFile = tempDir.resolve("limited");
+            StorageOperateUtils.downloadInParts(content.length, dstFile, rangeReader, 64, 2, executor);
+            Assertions.assertArrayEquals(content, Files.readAllBytes(dstFile));
+            // a transfer takes no more threads of the shared executor than its limit
+            Assertions.assertTrue(maxRunning.get() <= 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRunInParallelStopsAfterFailure() {
+        AtomicInteger started = new AtomicInteger();
+        List<Runnable> actions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            actions.add(() -> {
+                started.incrementAndGet();
+                throw new IllegalStateException("action error");
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                    () -> StorageOperateUtils.runInParallel(actions, 1, executor));
+            Assertions.assertEquals("action error", exception.getCause().getMessage());
+            Assertions.assertEquals(1, started.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDownloadUnchanged() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        // the remote file is changed during the first download
+        StorageOperateUtils.downloadUnchanged("file", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new RemoteFileChangedException("file");
+            }
+        });
+        Assertions.assertEquals(2, attempts.get());
+
+        // the remote file keeps changing
+        attempts.set(0);
+        Assertions.assertThrows(RemoteFileChangedException.class,
+                () -> StorageOperateUtils.downloadUnchanged("file", () -> {
+                    attempts.incrementAndGet();
+                    throw new RemoteFileChangedException("file");
+                }));
+        Assertions.assertEquals(StorageOperateUtils.MAX_DOWNLOAD_ATTEMPTS, attempts.get());
+
+        // other errors are not retried
+        attempts.set(0);
+        Assertions.assertThrows(IOException.class,
+                () -> StorageOperateUtils.downloadUnchanged("file", () -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("read error");
+                }));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testTransferConcurrently() {
+        List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+        String callerThreadName = Thread.currentThread().getName();
+        StorageOperateUtils.transferConcurrently(Arrays.asList(
+                () -> threadNames.add(Thread.currentThread().getName()),
+                () -> threadNames.add(Thread.currentThread().getName())));
+        // the transfers run with the name of the calling thread
+        Assertions.assertEquals(Arrays.asList(callerThreadName, callerThreadName), threadNames);
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> StorageOperateUtils.transferConcurrently(Arrays.asList(() -> {
+                }, () -> {
+                    throw new IllegalStateException("transfer error");
+                })));
+        Assertions.assertEquals("transfer error", exception.getMessage());
+    }
+
+    private StorageEntity directory(String fullName) {
+        StorageEntity entity = file(fullName);
+        entity.setDirectory(true);
+        return entity;
+    }
+
+    private StorageEntity file(String fullName) {
+        StorageEntity entity = new StorageEntity();
+        entity.setFullName(fullName);
+        return entity;
+    }
+}
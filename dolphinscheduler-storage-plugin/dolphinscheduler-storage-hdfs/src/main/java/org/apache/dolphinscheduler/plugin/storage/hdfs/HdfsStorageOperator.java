@@ -30,11 +30,15 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.KerberosHttpClient;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.datasource.api.utils.CommonUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.RemoteFileChangedException;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -42,6 +46,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.hdfs.HdfsConfiguration;
 import org.apache.hadoop.security.UserGroupInformation;
 
@@ -58,7 +63,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -107,6 +111,14 @@ public class HdfsStorageOperator implements Closeable, StorageOperate {
         initHdfsPath();
     }
 
+    /**
+     * operate the given file system, only used by tests
+     */
+    HdfsStorageOperator(FileSystem fs) {
+        this.fs = fs;
+        this.configuration = fs.getConf();
+    }
+
     public static HdfsStorageOperator getInstance() {
         return cache.getUnchecked(HADOOP_UTILS_KEY);
     }
@@ -412,7 +424,35 @@ public class HdfsStorageOperator implements Closeable, StorageOperate {
             return false;
         }
 
-        return FileUtil.copy(fs, srcPath, dstPath, deleteSource, fs.getConf());
+        FileStatus srcStatus = fs.getFileStatus(srcPath);
+        if (srcStatus.isDirectory()) {
+            return FileUtil.copy(fs, srcPath, dstPath, deleteSource, fs.getConf());
+        }
+        StorageOperateUtils.downloadUnchanged(srcHdfsFilePath, () -> {
+            FileStatus status = fs.getFileStatus(srcPath);
+            // the parts of the file are read from their own offsets by separate streams in parallel
+            StorageOperateUtils.downloadInParts(status.getLen(), dstPath.toPath(), (start, end) -> {
+                FSDataInputStream in = fs.open(srcPath);
+                try {
+                    in.seek(start);
+                } catch (IOException e) {
+                    in.close();
+                    throw e;
+                }
+                return new BoundedInputStream(in, end - start + 1);
+            });
+            // each part opens the file again, the parts may mix two versions if it's overwritten meanwhile
+            FileStatus latestStatus = fs.getFileStatus(srcPath);
+            if (latestStatus.getModificationTime() != status.getModificationTime()
+                    || latestStatus.getLen() != status.getLen()) {
+                Files.deleteIfExists(dstPath.toPath());
+                throw new RemoteFileChangedException(srcHdfsFilePath);
+            }
+        });
+        if (deleteSource) {
+            fs.delete(srcPath, false);
+        }
+        return true;
     }
 
     /**
@@ -471,59 +511,13 @@ public class HdfsStorageOperator implements Closeable, StorageOperate {
     @Override
     public List<StorageEntity> listFilesStatus(String path, String defaultPath, String tenantCode,
                                                ResourceType type) throws IOException {
-        // TODO: Does listStatus truncate resultList if its size goes above certain threshold (like a 1000 in S3)
-        // TODO: add hdfs prefix getFile
         List<StorageEntity> storageEntityList = new ArrayList<>();
         try {
             FileStatus[] fileStatuses = fs.listStatus(new Path(path));
 
             // transform FileStatusArray into the StorageEntity List
             for (FileStatus fileStatus : fileStatuses) {
-                if (fileStatus.isDirectory()) {
-                    // the path is a directory
-                    String fullName = fileStatus.getPath().toString();
-                    fullName = addFolderSeparatorIfNotExisted(fullName);
-
-                    String suffix = StringUtils.difference(path, fullName);
-                    String fileName = StringUtils.difference(defaultPath, fullName);
-
-                    StorageEntity entity = new StorageEntity();
-                    entity.setAlias(suffix);
-                    entity.setFileName(fileName);
-                    entity.setFullName(fullName);
-                    entity.setDirectory(true);
-                    entity.setDescription("");
-                    entity.setUserName(tenantCode);
-                    entity.setType(type);
-                    entity.setSize(fileStatus.getLen());
-                    entity.setCreateTime(new Date(fileStatus.getModificationTime()));
-                    entity.setUpdateTime(new Date(fileStatus.getModificationTime()));
-                    entity.setPfullName(path);
-
-                    storageEntityList.add(entity);
-                } else {
-                    // the path is a file
-                    String fullName = fileStatus.getPath().toString();
-                    String[] aliasArr = fullName.split("/");
-                    String alias = aliasArr[aliasArr.length - 1];
-
-                    String fileName = StringUtils.difference(defaultPath, fullName);
-
-                    StorageEntity entity = new StorageEntity();
-                    entity.setAlias(alias);
-                    entity.setFileName(fileName);
-                    entity.setFullName(fullName);
-                    entity.setDirectory(false);
-                    entity.setDescription("");
-                    entity.setUserName(tenantCode);
-                    entity.setType(type);
-                    entity.setSize(fileStatus.getLen());
-                    entity.setCreateTime(new Date(fileStatus.getModificationTime()));
-                    entity.setUpdateTime(new Date(fileStatus.getModificationTime()));
-                    entity.setPfullName(path);
-
-                    storageEntityList.add(entity);
-                }
+                storageEntityList.add(transformFileStatus(fileStatus, path, defaultPath, tenantCode, type));
             }
         } catch (FileNotFoundException e) {
             throw new FileNotFoundException("The path does not exist.");
@@ -534,6 +528,68 @@ public class HdfsStorageOperator implements Closeable, StorageOperate {
         return storageEntityList;
     }
 
+    /**
+     * Gets a page of files in the directory, the continuation token is the name of the last entry of the previous
+     * page since hdfs lists the entries of a directory in the order of their names
+     */
+    @Override
+    public StorageEntityPage listFilesStatus(String path, String defaultPath, String tenantCode, ResourceType type,
+                                             String continuationToken, int pageSize) throws IOException {
+        List<StorageEntity> storageEntityList = new ArrayList<>();
+        String nextContinuationToken = null;
+        try {
+            // the iterator fetches the entries from namenode in batches instead of loading the whole directory
+            RemoteIterator<FileStatus> iterator = fs.listStatusIterator(new Path(path));
+            String lastName = null;
+            while (iterator.hasNext()) {
+                FileStatus fileStatus = iterator.next();
+                String name = fileStatus.getPath().getName();
+                if (StringUtils.isNotEmpty(continuationToken) && name.compareTo(continuationToken) <= 0) {
+                    continue;
+                }
+                if (storageEntityList.size() >= pageSize) {
+                    // there are more entries after this page
+                    nextContinuationToken = lastName;
+                    break;
+                }
+                storageEntityList.add(transformFileStatus(fileStatus, path, defaultPath, tenantCode, type));
+                lastName = name;
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("The path does not exist.");
+        } catch (IOException e) {
+            throw new IOException("Get file list exception.", e);
+        }
+
+        return new StorageEntityPage(storageEntityList, nextContinuationToken);
+    }
+
+    private StorageEntity transformFileStatus(FileStatus fileStatus, String path, String defaultPath,
+                                              String tenantCode, ResourceType type) {
+        StorageEntity entity = new StorageEntity();
+        String fullName = fileStatus.getPath().toString();
+        if (fileStatus.isDirectory()) {
+            // the path is a directory
+            fullName = addFolderSeparatorIfNotExisted(fullName);
+            entity.setAlias(StringUtils.difference(path, fullName));
+        } else {
+            // the path is a file
+            String[] aliasArr = fullName.split("/");
+            entity.setAlias(aliasArr[aliasArr.length - 1]);
+        }
+        entity.setFileName(StringUtils.difference(defaultPath, fullName));
+        entity.setFullName(fullName);
+        entity.setDirectory(fileStatus.isDirectory());
+        entity.setDescription("");
+        entity.setUserName(tenantCode);
+        entity.setType(type);
+        entity.setSize(fileStatus.getLen());
+        entity.setCreateTime(new Date(fileStatus.getModificationTime()));
+        entity.setUpdateTime(new Date(fileStatus.getModificationTime()));
+        entity.setPfullName(path);
+        return entity;
+    }
+
     @Override
     public StorageEntity getFileStatus(String path, String prefix, String tenantCode,
                                        ResourceType type) throws IOException {
@@ -828,42 +884,7 @@ public class HdfsStorageOperator implements Closeable, StorageOperate {
     @Override
     public List<StorageEntity> listFilesStatusRecursively(String path, String defaultPath, String tenantCode,
                                                           ResourceType type) {
-        List<StorageEntity> storageEntityList = new ArrayList<>();
-
-        LinkedList<StorageEntity> foldersToFetch = new LinkedList<>();
-
-        do {
-            String pathToExplore = "";
-            if (foldersToFetch.size() == 0) {
-                pathToExplore = path;
-            } else {
-                pathToExplore = foldersToFetch.pop().getFullName();
-            }
-
-            try {
-                List<StorageEntity> tempList = listFilesStatus(pathToExplore, defaultPath, tenantCode, type);
-
-                for (StorageEntity temp : tempList) {
-                    if (temp.isDirectory()) {
-                        foldersToFetch.add(temp);
-                    }
-                }
-
-                storageEntityList.addAll(tempList);
-            } catch (FileNotFoundException e) {
-                logger.error("Resource path: {}", pathToExplore, e);
-                // return the resources fetched before error occurs.
-                return storageEntityList;
-            } catch (IOException e) {
-                logger.error("Resource path: {}", pathToExplore, e);
-                // return the resources fetched before error occurs.
-                return storageEntityList;
-            }
-
-        } while (foldersToFetch.size() != 0);
-
-        return storageEntityList;
-
+        return StorageOperateUtils.listFilesStatusRecursively(this, path, defaultPath, tenantCode, type);
     }
 
     /**
@@ -18,11 +18,31 @@
 package org.apache.dolphinscheduler.plugin.storage.hdfs;
 
 import org.apache.dolphinscheduler.common.utils.HttpUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -71,4 +91,73 @@ public class HdfsStorageOperatorTest {
         }
     }
 
+    @Test
+    public void copyHdfsToLocalWhenFileChanged(@TempDir File tempDir) throws Exception {
+        File srcFile = new File(tempDir, "src.txt");
+        Files.write(srcFile.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        File dstFile = new File(tempDir, "dst.txt");
+        FileSystem fs = Mockito.spy(FileSystem.getLocal(new Configuration()));
+        AtomicBoolean changed = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            // the file is overwritten while the first download is reading it
+            if (changed.compareAndSet(false, true)) {
+                Assertions.assertTrue(srcFile.setLastModified(srcFile.lastModified() + 10000));
+            }
+            return invocation.callRealMethod();
+        }).when(fs).open(Mockito.any(Path.class));
+
+        HdfsStorageOperator hdfsStorageOperator = new HdfsStorageOperator(fs);
+        Assertions.assertTrue(hdfsStorageOperator.copyHdfsToLocal(srcFile.getPath(), dstFile.getPath(), false, true));
+
+        // the file is downloaded again after the change is found
+        Mockito.verify(fs, Mockito.times(2)).open(Mockito.any(Path.class));
+        Assertions.assertEquals("content", new String(Files.readAllBytes(dstFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void listFilesStatusByPage(@TempDir File tempDir) throws Exception {
+        for (String name : new String[]{"c.sh", "a.sh", "b.sh"}) {
+            Assertions.assertTrue(new File(tempDir, name).createNewFile());
+        }
+        FileSystem fs = Mockito.spy(FileSystem.getLocal(new Configuration()));
+        // hdfs lists the entries of a directory in the order of their names
+        Mockito.doAnswer(invocation -> {
+            Iterator<FileStatus> iterator = Arrays.stream(fs.listStatus((Path) invocation.getArgument(0)))
+                    .sorted(Comparator.comparing(fileStatus -> fileStatus.getPath().getName()))
+                    .iterator();
+            return new RemoteIterator<FileStatus>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public FileStatus next() {
+                    return iterator.next();
+                }
+            };
+        }).when(fs).listStatusIterator(Mockito.any(Path.class));
+        HdfsStorageOperator hdfsStorageOperator = new HdfsStorageOperator(fs);
+        String path = tempDir.getPath();
+
+        StorageEntityPage page = hdfsStorageOperator.listFilesStatus(path, path, "admin", ResourceType.FILE, null, 2);
+        Assertions.assertEquals(Arrays.asList("a.sh", "b.sh"), aliasesOf(page));
+        Assertions.assertEquals("b.sh", page.getNextContinuationToken());
+
+        // the next page starts after the token, and the last page has no token
+        page = hdfsStorageOperator.listFilesStatus(path, path, "admin", ResourceType.FILE,
+                page.getNextContinuationToken(), 2);
+        Assertions.assertEquals(Collections.singletonList("c.sh"), aliasesOf(page));
+        Assertions.assertNull(page.getNextContinuationToken());
+
+        // a page exactly holding the rest of the entries is the last page too
+        page = hdfsStorageOperator.listFilesStatus(path, path, "admin", ResourceType.FILE, null, 3);
+        Assertions.assertEquals(3, page.getStorageEntities().size());
+        Assertions.assertNull(page.getNextContinuationToken());
+    }
+
+    private List<String> aliasesOf(StorageEntityPage page) {
+        return page.getStorageEntities().stream().map(StorageEntity::getAlias).collect(Collectors.toList());
+    }
 }
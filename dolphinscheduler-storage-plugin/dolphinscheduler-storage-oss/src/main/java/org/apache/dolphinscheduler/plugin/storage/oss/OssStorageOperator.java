@@ -27,8 +27,11 @@ import org.apache.dolphinscheduler.common.enums.ResUploadType;
 import org.apache.dolphinscheduler.common.factory.OssClientFactory;
 import org.apache.dolphinscheduler.common.model.OssConnection;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.RemoteFileChangedException;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
@@ -38,12 +41,11 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -55,17 +57,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSErrorCode;
 import com.aliyun.oss.OSSException;
 import com.aliyun.oss.model.Bucket;
+import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.ListObjectsV2Request;
+import com.aliyun.oss.model.ListObjectsV2Result;
 import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.OSSObjectSummary;
 import com.aliyun.oss.model.ObjectMetadata;
 import com.aliyun.oss.model.PutObjectRequest;
+import com.aliyun.oss.model.UploadFileRequest;
+import com.google.common.base.Throwables;
 
 @Data
 public class OssStorageOperator implements Closeable, StorageOperate {
 
     private static final Logger logger = LoggerFactory.getLogger(OssStorageOperator.class);
 
+    /**
+     * the max keys that OSS returns in a single list request
+     */
+    private static final int MAX_KEYS_PER_LIST_REQUEST = 1000;
+
     private String accessKeyId;
 
     private String accessKeySecret;
@@ -203,20 +217,27 @@ public class OssStorageOperator implements Closeable, StorageOperate {
         } else {
             Files.createDirectories(dstFile.getParentFile().toPath());
         }
-        OSSObject ossObject = ossClient.getObject(bucketName, srcFilePath);
-        try (
-                InputStream ossInputStream = ossObject.getObjectContent();
-                FileOutputStream fos = new FileOutputStream(dstFilePath)) {
-            byte[] readBuf = new byte[1024];
-            int readLen;
-            while ((readLen = ossInputStream.read(readBuf)) > 0) {
-                fos.write(readBuf, 0, readLen);
-            }
+        try {
+            StorageOperateUtils.downloadUnchanged(srcFilePath, () -> {
+                ObjectMetadata metadata = ossClient.getObjectMetadata(bucketName, srcFilePath);
+                // every range is read from the version whose length is read, or the parts may mix two versions
+                List<String> eTags = Collections.singletonList(metadata.getETag());
+                StorageOperateUtils.downloadInParts(metadata.getContentLength(), dstFile.toPath(), (start, end) -> {
+                    GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, srcFilePath);
+                    getObjectRequest.setRange(start, end);
+                    getObjectRequest.setMatchingETagConstraints(eTags);
+                    try {
+                        return ossClient.getObject(getObjectRequest).getObjectContent();
+                    } catch (OSSException e) {
+                        if (OSSErrorCode.PRECONDITION_FAILED.equals(e.getErrorCode())) {
+                            throw new RemoteFileChangedException(srcFilePath);
+                        }
+                        throw e;
+                    }
+                });
+            });
         } catch (OSSException e) {
             throw new IOException(e);
-        } catch (FileNotFoundException e) {
-            logger.error("cannot fin the destination file {}", dstFilePath);
-            throw e;
         }
     }
 
@@ -258,12 +279,23 @@ public class OssStorageOperator implements Closeable, StorageOperate {
     @Override
     public boolean upload(String tenantCode, String srcFile, String dstPath, boolean deleteSource,
                           boolean overwrite) throws IOException {
+        // files larger than a part are uploaded by multipart, and the parts are uploaded in parallel
+        UploadFileRequest uploadFileRequest = new UploadFileRequest(bucketName, dstPath, srcFile,
+                StorageOperateUtils.TRANSFER_PART_SIZE, StorageOperateUtils.TRANSFER_PARALLELISM_PER_TRANSFER);
         try {
-            ossClient.putObject(bucketName, dstPath, new File(srcFile));
+            ossClient.uploadFile(uploadFileRequest);
             return true;
-        } catch (OSSException e) {
-            logger.error("upload failed, the bucketName is {}, the filePath is {}", bucketName, dstPath, e);
-            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("upload interrupted, the bucketName is %s, the filePath is %s",
+                    bucketName, dstPath), e);
+        } catch (Exception e) {
+            throw new IOException(String.format("upload failed, the bucketName is %s, the filePath is %s",
+                    bucketName, dstPath), e);
+        } catch (Throwable e) {
+            // uploadFile declares Throwable, errors are not handled here
+            Throwables.throwIfUnchecked(e);
+            throw new IOException(e);
         }
     }
 
@@ -293,8 +325,68 @@ public class OssStorageOperator implements Closeable, StorageOperate {
 
     @Override
     public List<StorageEntity> listFilesStatus(String path, String defaultPath, String tenantCode,
-                                               ResourceType type) throws Exception {
-        return null;
+                                               ResourceType type) throws OSSException {
+        List<StorageEntity> storageEntityList = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            StorageEntityPage page = listFilesStatus(path, defaultPath, tenantCode, type, continuationToken,
+                    MAX_KEYS_PER_LIST_REQUEST);
+            storageEntityList.addAll(page.getStorageEntities());
+            continuationToken = page.getNextContinuationToken();
+        } while (continuationToken != null);
+        return storageEntityList;
+    }
+
+    @Override
+    public StorageEntityPage listFilesStatus(String path, String defaultPath, String tenantCode, ResourceType type,
+                                             String continuationToken, int pageSize) throws OSSException {
+        ListObjectsV2Request request = new ListObjectsV2Request(bucketName);
+        request.setPrefix(path);
+        request.setDelimiter(FOLDER_SEPARATOR);
+        request.setMaxKeys(Math.min(pageSize, MAX_KEYS_PER_LIST_REQUEST));
+        if (StringUtils.isNotEmpty(continuationToken)) {
+            request.setContinuationToken(continuationToken);
+        }
+        ListObjectsV2Result v2Result = ossClient.listObjectsV2(request);
+
+        List<StorageEntity> storageEntityList = new ArrayList<>();
+        for (OSSObjectSummary summary : v2Result.getObjectSummaries()) {
+            if (summary.getKey().endsWith(FOLDER_SEPARATOR)) {
+                // the placeholder object of a directory
+                continue;
+            }
+            String[] aliasArr = summary.getKey().split(FOLDER_SEPARATOR);
+            StorageEntity entity = new StorageEntity();
+            entity.setAlias(aliasArr[aliasArr.length - 1]);
+            entity.setFileName(StringUtils.difference(defaultPath, summary.getKey()));
+            entity.setFullName(summary.getKey());
+            entity.setDirectory(false);
+            entity.setDescription("");
+            entity.setUserName(tenantCode);
+            entity.setType(type);
+            entity.setSize(summary.getSize());
+            entity.setCreateTime(summary.getLastModified());
+            entity.setUpdateTime(summary.getLastModified());
+            entity.setPfullName(path);
+            storageEntityList.add(entity);
+        }
+        for (String commonPrefix : v2Result.getCommonPrefixes()) {
+            // the paths in commonPrefix are directories
+            StorageEntity entity = new StorageEntity();
+            entity.setAlias(StringUtils.difference(path, commonPrefix));
+            entity.setFileName(StringUtils.difference(defaultPath, commonPrefix));
+            entity.setFullName(commonPrefix);
+            entity.setDirectory(true);
+            entity.setDescription("");
+            entity.setUserName(tenantCode);
+            entity.setType(type);
+            entity.setSize(0);
+            entity.setPfullName(path);
+            storageEntityList.add(entity);
+        }
+
+        String nextContinuationToken = v2Result.isTruncated() ? v2Result.getNextContinuationToken() : null;
+        return new StorageEntityPage(storageEntityList, nextContinuationToken);
     }
 
     @Override
@@ -21,24 +21,42 @@ import static org.apache.dolphinscheduler.common.constants.Constants.FOLDER_SEPA
 import static org.apache.dolphinscheduler.common.constants.Constants.FORMAT_S_S;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSErrorCode;
+import com.aliyun.oss.OSSException;
+import com.aliyun.oss.internal.OSSHeaders;
+import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.ListObjectsV2Request;
+import com.aliyun.oss.model.ListObjectsV2Result;
+import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.OSSObjectSummary;
+import com.aliyun.oss.model.ObjectMetadata;
 
 @ExtendWith(MockitoExtension.class)
 public class OssStorageOperatorTest {
@@ -248,4 +266,74 @@ public class OssStorageOperatorTest {
         ossOperator.deleteDir(DIR_MOCK);
         verify(ossClientMock, times(1)).deleteObject(anyString(), anyString());
     }
+
+    @Test
+    public void downloadWhenObjectChanged(@TempDir Path tempDir) throws Exception {
+        byte[] content = "changed content".getBytes(StandardCharsets.UTF_8);
+        ObjectMetadata oldMetadata = new ObjectMetadata();
+        oldMetadata.setContentLength(content.length - 1);
+        oldMetadata.setHeader(OSSHeaders.ETAG, "old");
+        ObjectMetadata newMetadata = new ObjectMetadata();
+        newMetadata.setContentLength(content.length);
+        newMetadata.setHeader(OSSHeaders.ETAG, "new");
+        doReturn(oldMetadata).doReturn(newMetadata).when(ossClientMock).getObjectMetadata(BUCKET_NAME_MOCK,
+                FILE_PATH_MOCK);
+        OSSObject ossObject = new OSSObject();
+        ossObject.setObjectContent(new ByteArrayInputStream(content));
+        // the object is overwritten after its metadata is read
+        doAnswer(invocation -> {
+            GetObjectRequest request = invocation.getArgument(0);
+            if (request.getMatchingETagConstraints().contains("old")) {
+                throw new OSSException("precondition failed", OSSErrorCode.PRECONDITION_FAILED, null, null, null,
+                        null, null);
+            }
+            return ossObject;
+        }).when(ossClientMock).getObject(any(GetObjectRequest.class));
+
+        Path dstFile = tempDir.resolve(FILE_NAME_MOCK);
+        ossOperator.download(TENANT_CODE_MOCK, FILE_PATH_MOCK, dstFile.toString(), false, true);
+
+        Assertions.assertArrayEquals(content, Files.readAllBytes(dstFile));
+        verify(ossClientMock, times(2)).getObjectMetadata(BUCKET_NAME_MOCK, FILE_PATH_MOCK);
+    }
+
+    @Test
+    public void listFilesStatusByPage() {
+        String dir = DIR_MOCK + FOLDER_SEPARATOR;
+        ListObjectsV2Result firstPage = new ListObjectsV2Result();
+        firstPage.setTruncated(true);
+        firstPage.setNextContinuationToken("token-1");
+        firstPage.addObjectSummary(createObjectSummary(dir + FILE_NAME_MOCK));
+        firstPage.addCommonPrefix(dir + "sub" + FOLDER_SEPARATOR);
+        ListObjectsV2Result lastPage = new ListObjectsV2Result();
+        lastPage.setTruncated(false);
+        lastPage.addObjectSummary(createObjectSummary(dir + FILE_PATH_MOCK));
+        doReturn(firstPage).doReturn(lastPage).when(ossClientMock).listObjectsV2(any(ListObjectsV2Request.class));
+
+        StorageEntityPage page = ossOperator.listFilesStatus(dir, "", TENANT_CODE_MOCK, ResourceType.FILE, null, 2);
+        Assertions.assertEquals("token-1", page.getNextContinuationToken());
+        Assertions.assertEquals(2, page.getStorageEntities().size());
+        Assertions.assertEquals(FILE_NAME_MOCK, page.getStorageEntities().get(0).getAlias());
+        Assertions.assertTrue(page.getStorageEntities().get(1).isDirectory());
+
+        // the token of the previous page is sent to fetch the next page, and the last page has no token
+        page = ossOperator.listFilesStatus(dir, "", TENANT_CODE_MOCK, ResourceType.FILE,
+                page.getNextContinuationToken(), 2);
+        Assertions.assertNull(page.getNextContinuationToken());
+        Assertions.assertEquals(FILE_PATH_MOCK, page.getStorageEntities().get(0).getAlias());
+
+        ArgumentCaptor<ListObjectsV2Request> requestCaptor = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+        verify(ossClientMock, times(2)).listObjectsV2(requestCaptor.capture());
+        Assertions.assertEquals(BUCKET_NAME_MOCK, requestCaptor.getAllValues().get(0).getBucketName());
+        Assertions.assertNull(requestCaptor.getAllValues().get(0).getContinuationToken());
+        Assertions.assertEquals("token-1", requestCaptor.getAllValues().get(1).getContinuationToken());
+    }
+
+    private OSSObjectSummary createObjectSummary(String key) {
+        OSSObjectSummary summary = new OSSObjectSummary();
+        summary.setKey(key);
+        summary.setSize(1);
+        summary.setLastModified(new Date());
+        return summary;
+    }
 }
@@ -25,9 +25,13 @@ import static org.apache.dolphinscheduler.common.constants.Constants.RESOURCE_TY
 
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.ResUploadType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.RemoteFileChangedException;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
@@ -38,7 +42,6 @@ import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -46,7 +49,6 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -54,6 +56,7 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
@@ -64,12 +67,12 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.TransferManager;
@@ -89,8 +92,15 @@ public class S3StorageOperator implements Closeable, StorageOperate {
 
     private static final String BUCKET_NAME = PropertyUtils.getString(Constants.AWS_S3_BUCKET_NAME);
 
+    /**
+     * the max keys that S3 returns in a single list request
+     */
+    private static final int MAX_KEYS_PER_LIST_REQUEST = 1000;
+
     private final AmazonS3 s3Client;
 
+    private final TransferManager transferManager;
+
     public S3StorageOperator() {
         if (!StringUtils.isEmpty(PropertyUtils.getString(AWS_END_POINT))) {
             s3Client = AmazonS3ClientBuilder
@@ -109,11 +119,32 @@ public class S3StorageOperator implements Closeable, StorageOperate {
                     .withRegion(Regions.fromName(REGION))
                     .build();
         }
+        transferManager = buildTransferManager(s3Client);
         checkBucketNameExists(BUCKET_NAME);
     }
 
+    /**
+     * operate the given s3 client, only used by tests
+     */
+    S3StorageOperator(AmazonS3 s3Client) {
+        this.s3Client = s3Client;
+        this.transferManager = buildTransferManager(s3Client);
+    }
+
+    private static TransferManager buildTransferManager(AmazonS3 s3Client) {
+        return TransferManagerBuilder.standard()
+                .withS3Client(s3Client)
+                .withMultipartUploadThreshold(StorageOperateUtils.TRANSFER_PART_SIZE)
+                .withMinimumUploadPartSize(StorageOperateUtils.TRANSFER_PART_SIZE)
+                .withExecutorFactory(() -> ThreadUtils.newDaemonFixedThreadExecutor("S3TransferThread",
+                        StorageOperateUtils.TRANSFER_PARALLELISM))
+                .build();
+    }
+
     @Override
     public void close() throws IOException {
+        // the s3 client is shared with the transfer manager, and it is shut down below
+        transferManager.shutdownNow(false);
         s3Client.shutdown();
     }
 
@@ -191,20 +222,24 @@ public class S3StorageOperator implements Closeable, StorageOperate {
         } else {
             Files.createDirectories(dstFile.getParentFile().toPath());
         }
-        S3Object o = s3Client.getObject(BUCKET_NAME, srcFilePath);
-        try (
-                S3ObjectInputStream s3is = o.getObjectContent();
-                FileOutputStream fos = new FileOutputStream(dstFilePath)) {
-            byte[] readBuf = new byte[1024];
-            int readLen;
-            while ((readLen = s3is.read(readBuf)) > 0) {
-                fos.write(readBuf, 0, readLen);
-            }
+        try {
+            StorageOperateUtils.downloadUnchanged(srcFilePath, () -> {
+                ObjectMetadata metadata = s3Client.getObjectMetadata(BUCKET_NAME, srcFilePath);
+                // every range is read from the version whose length is read, or the parts may mix two versions
+                String eTag = metadata.getETag();
+                StorageOperateUtils.downloadInParts(metadata.getContentLength(), dstFile.toPath(), (start, end) -> {
+                    S3Object s3Object = s3Client.getObject(new GetObjectRequest(BUCKET_NAME, srcFilePath)
+                            .withRange(start, end)
+                            .withMatchingETagConstraint(eTag));
+                    // null is returned when the constraint is not met
+                    if (s3Object == null) {
+                        throw new RemoteFileChangedException(srcFilePath);
+                    }
+                    return s3Object.getObjectContent();
+                });
+            });
         } catch (AmazonServiceException e) {
             throw new IOException(e.getMessage());
-        } catch (FileNotFoundException e) {
-            logger.error("the destination file {} not found", dstFilePath);
-            throw e;
         }
     }
 
@@ -265,10 +300,15 @@ public class S3StorageOperator implements Closeable, StorageOperate {
     public boolean upload(String tenantCode, String srcFile, String dstPath, boolean deleteSource,
                           boolean overwrite) throws IOException {
         try {
-            s3Client.putObject(BUCKET_NAME, dstPath, new File(srcFile));
+            // files larger than a part are uploaded by multipart, and the parts are uploaded in parallel
+            transferManager.upload(BUCKET_NAME, dstPath, new File(srcFile)).waitForCompletion();
             return true;
-        } catch (AmazonServiceException e) {
-            logger.error("upload failed,the bucketName is {},the filePath is {}", BUCKET_NAME, dstPath);
+        } catch (AmazonClientException e) {
+            logger.error("upload failed,the bucketName is {},the filePath is {}", BUCKET_NAME, dstPath, e);
+            return false;
+        } catch (InterruptedException e) {
+            logger.error("upload interrupted,the bucketName is {},the filePath is {}", BUCKET_NAME, dstPath);
+            Thread.currentThread().interrupt();
             return false;
         }
     }
@@ -408,111 +448,91 @@ public class S3StorageOperator implements Closeable, StorageOperate {
     @Override
     public List<StorageEntity> listFilesStatusRecursively(String path, String defaultPath, String tenantCode,
                                                           ResourceType type) {
-        List<StorageEntity> storageEntityList = new ArrayList<>();
-
-        LinkedList<StorageEntity> foldersToFetch = new LinkedList<>();
-
-        do {
-            String pathToExplore = "";
-            if (foldersToFetch.size() == 0) {
-                pathToExplore = path;
-            } else {
-                pathToExplore = foldersToFetch.pop().getFullName();
-            }
-
-            try {
-                List<StorageEntity> tempList = listFilesStatus(pathToExplore, defaultPath, tenantCode, type);
-
-                for (StorageEntity temp : tempList) {
-                    if (temp.isDirectory()) {
-                        foldersToFetch.add(temp);
-                    }
-                }
-
-                storageEntityList.addAll(tempList);
-            } catch (AmazonServiceException e) {
-                logger.error("Resource path: {}", pathToExplore, e);
-                // return the resources fetched before error occurs.
-                return storageEntityList;
-            }
-
-        } while (foldersToFetch.size() != 0);
-
-        return storageEntityList;
-
+        return StorageOperateUtils.listFilesStatusRecursively(this, path, defaultPath, tenantCode, type);
     }
 
     @Override
     public List<StorageEntity> listFilesStatus(String path, String defaultPath, String tenantCode,
                                                ResourceType type) throws AmazonServiceException {
         List<StorageEntity> storageEntityList = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            StorageEntityPage page = listFilesStatus(path, defaultPath, tenantCode, type, continuationToken,
+                    MAX_KEYS_PER_LIST_REQUEST);
+            storageEntityList.addAll(page.getStorageEntities());
+            continuationToken = page.getNextContinuationToken();
+        } while (continuationToken != null);
+        return storageEntityList;
+    }
 
-        // TODO: optimize pagination
+    @Override
+    public StorageEntityPage listFilesStatus(String path, String defaultPath, String tenantCode, ResourceType type,
+                                             String continuationToken,
+                                             int pageSize) throws AmazonServiceException {
         ListObjectsV2Request request = new ListObjectsV2Request();
         request.setBucketName(BUCKET_NAME);
         request.setPrefix(path);
         request.setDelimiter("/");
+        request.setMaxKeys(Math.min(pageSize, MAX_KEYS_PER_LIST_REQUEST));
+        if (StringUtils.isNotEmpty(continuationToken)) {
+            request.setContinuationToken(continuationToken);
+        }
 
         ListObjectsV2Result v2Result;
-        do {
-            try {
-                v2Result = s3Client.listObjectsV2(request);
-            } catch (AmazonServiceException e) {
-                throw new AmazonServiceException("Get S3 file list exception, error type:" + e.getErrorType(), e);
-            }
-
-            List<S3ObjectSummary> summaries = v2Result.getObjectSummaries();
-
-            for (S3ObjectSummary summary : summaries) {
-                if (!summary.getKey().endsWith("/")) {
-                    // the path is a file
-                    String[] aliasArr = summary.getKey().split("/");
-                    String alias = aliasArr[aliasArr.length - 1];
-                    String fileName = StringUtils.difference(defaultPath, summary.getKey());
-
-                    StorageEntity entity = new StorageEntity();
-                    entity.setAlias(alias);
-                    entity.setFileName(fileName);
-                    entity.setFullName(summary.getKey());
-                    entity.setDirectory(false);
-                    entity.setDescription("");
-                    entity.setUserName(tenantCode);
-                    entity.setType(type);
-                    entity.setSize(summary.getSize());
-                    entity.setCreateTime(summary.getLastModified());
-                    entity.setUpdateTime(summary.getLastModified());
-                    entity.setPfullName(path);
-
-                    storageEntityList.add(entity);
-                }
-            }
+        try {
+            v2Result = s3Client.listObjectsV2(request);
+        } catch (AmazonServiceException e) {
+            throw new AmazonServiceException("Get S3 file list exception, error type:" + e.getErrorType(), e);
+        }
 
-            for (String commonPrefix : v2Result.getCommonPrefixes()) {
-                // the paths in commonPrefix are directories
-                String suffix = StringUtils.difference(path, commonPrefix);
-                String fileName = StringUtils.difference(defaultPath, commonPrefix);
+        List<StorageEntity> storageEntityList = new ArrayList<>();
+        for (S3ObjectSummary summary : v2Result.getObjectSummaries()) {
+            if (!summary.getKey().endsWith("/")) {
+                // the path is a file
+                String[] aliasArr = summary.getKey().split("/");
+                String alias = aliasArr[aliasArr.length - 1];
+                String fileName = StringUtils.difference(defaultPath, summary.getKey());
 
                 StorageEntity entity = new StorageEntity();
-                entity.setAlias(suffix);
+                entity.setAlias(alias);
                 entity.setFileName(fileName);
-                entity.setFullName(commonPrefix);
-                entity.setDirectory(true);
+                entity.setFullName(summary.getKey());
+                entity.setDirectory(false);
                 entity.setDescription("");
                 entity.setUserName(tenantCode);
                 entity.setType(type);
-                entity.setSize(0);
-                entity.setCreateTime(null);
-                entity.setUpdateTime(null);
+                entity.setSize(summary.getSize());
+                entity.setCreateTime(summary.getLastModified());
+                entity.setUpdateTime(summary.getLastModified());
                 entity.setPfullName(path);
 
                 storageEntityList.add(entity);
             }
+        }
 
-            request.setContinuationToken(v2Result.getContinuationToken());
+        for (String commonPrefix : v2Result.getCommonPrefixes()) {
+            // the paths in commonPrefix are directories
+            String suffix = StringUtils.difference(path, commonPrefix);
+            String fileName = StringUtils.difference(defaultPath, commonPrefix);
+
+            StorageEntity entity = new StorageEntity();
+            entity.setAlias(suffix);
+            entity.setFileName(fileName);
+            entity.setFullName(commonPrefix);
+            entity.setDirectory(true);
+            entity.setDescription("");
+            entity.setUserName(tenantCode);
+            entity.setType(type);
+            entity.setSize(0);
+            entity.setCreateTime(null);
+            entity.setUpdateTime(null);
+            entity.setPfullName(path);
 
-        } while (v2Result.isTruncated());
+            storageEntityList.add(entity);
+        }
 
-        return storageEntityList;
+        String nextContinuationToken = v2Result.isTruncated() ? v2Result.getNextContinuationToken() : null;
+        return new StorageEntityPage(storageEntityList, nextContinuationToken);
     }
 
     @Override
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.storage.s3;
+
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntityPage;
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+@ExtendWith(MockitoExtension.class)
+public class S3StorageOperatorTest {
+
+    private static final String DIR = "tenant/resources/";
+
+    @Mock
+    private AmazonS3 s3Client;
+
+    private S3StorageOperator s3StorageOperator;
+
+    @BeforeEach
+    public void setUp() {
+        s3StorageOperator = new S3StorageOperator(s3Client);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        s3StorageOperator.close();
+    }
+
+    @Test
+    public void listFilesStatusByPage() {
+        ListObjectsV2Result firstPage = createResult(true, "token-1", DIR + "a.sh", DIR + "b.sh");
+        ListObjectsV2Result lastPage = createResult(false, null, DIR + "c.sh");
+        Mockito.when(s3Client.listObjectsV2(Mockito.any(ListObjectsV2Request.class)))
+                .thenReturn(firstPage, lastPage);
+
+        StorageEntityPage page =
+                s3StorageOperator.listFilesStatus(DIR, "tenant/", "tenant", ResourceType.FILE, null, 2);
+        Assertions.assertEquals("token-1", page.getNextContinuationToken());
+        Assertions.assertEquals(2, page.getStorageEntities().size());
+        Assertions.assertEquals("a.sh", page.getStorageEntities().get(0).getAlias());
+
+        // the token of the previous page is sent to fetch the next page, and the last page has no token
+        page = s3StorageOperator.listFilesStatus(DIR, "tenant/", "tenant", ResourceType.FILE,
+                page.getNextContinuationToken(), 2);
+        Assertions.assertNull(page.getNextContinuationToken());
+        Assertions.assertEquals("c.sh", page.getStorageEntities().get(0).getAlias());
+
+        ArgumentCaptor<ListObjectsV2Request> requestCaptor = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+        Mockito.verify(s3Client, Mockito.times(2)).listObjectsV2(requestCaptor.capture());
+        Assertions.assertNull(requestCaptor.getAllValues().get(0).getContinuationToken());
+        Assertions.assertEquals("token-1", requestCaptor.getAllValues().get(1).getContinuationToken());
+        Assertions.assertEquals(2, requestCaptor.getAllValues().get(1).getMaxKeys());
+    }
+
+    @Test
+    public void listFilesStatusOfAllPages() {
+        ListObjectsV2Result firstPage = createResult(true, "token-1", DIR + "a.sh", DIR + "b.sh");
+        ListObjectsV2Result lastPage = createResult(false, null, DIR + "c.sh");
+        Mockito.when(s3Client.listObjectsV2(Mockito.any(ListObjectsV2Request.class)))
+                .thenReturn(firstPage, lastPage);
+
+        List<StorageEntity> storageEntities =
+                s3StorageOperator.listFilesStatus(DIR, "tenant/", "tenant", ResourceType.FILE);
+        Assertions.assertEquals("a.sh,b.sh,c.sh",
+                storageEntities.stream().map(StorageEntity::getAlias).collect(Collectors.joining(",")));
+        Mockito.verify(s3Client, Mockito.times(2)).listObjectsV2(Mockito.any(ListObjectsV2Request.class));
+    }
+
+    private ListObjectsV2Result createResult(boolean truncated, String nextContinuationToken, String... keys) {
+        ListObjectsV2Result result = new ListObjectsV2Result();
+        result.setTruncated(truncated);
+        result.setNextContinuationToken(nextContinuationToken);
+        for (String key : keys) {
+            S3ObjectSummary summary = new S3ObjectSummary();
+            summary.setKey(key);
+            summary.setSize(1);
+            summary.setLastModified(new Date());
+            result.getObjectSummaries().add(summary);
+        }
+        return result;
+    }
+}
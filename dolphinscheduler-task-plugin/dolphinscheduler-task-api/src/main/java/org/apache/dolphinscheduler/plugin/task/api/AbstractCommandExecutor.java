@@ -22,6 +22,7 @@ import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_COD
 import static org.apache.dolphinscheduler.plugin.task.api.utils.ProcessUtils.getPidsStr;
 
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.plugin.task.api.log.ProcessOutputPump;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskResponse;
 import org.apache.dolphinscheduler.plugin.task.api.utils.AbstractCommandExecutorConstants;
 import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
@@ -30,17 +31,13 @@ import org.apache.dolphinscheduler.plugin.task.api.utils.ProcessUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -48,18 +45,23 @@ import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 /**
  * abstract command executor
  */
 public abstract class AbstractCommandExecutor {
 
+    /**
+     * the max seconds to wait for the output to be drained after the process exits
+     */
+    private static final long OUTPUT_FINISH_TIMEOUT_SECONDS = 60;
+
     /**
      * rules for extracting Var Pool
      */
     protected static final Pattern SETVALUE_REGEX = Pattern.compile(TaskConstants.SETVALUE_REGEX);
 
+    private static final int SETVALUE_PREFIX_LENGTH = "${setValue(".length();
+
     protected StringBuilder varPool = new StringBuilder();
     /**
      * process
@@ -83,6 +85,11 @@ public abstract class AbstractCommandExecutor {
 
     protected boolean logOutputIsSuccess = false;
 
+    /**
+     * counted down once the process output is drained and flushed by the pump
+     */
+    private final CountDownLatch logOutputFinished = new CountDownLatch(1);
+
     /*
      * SHELL result string
      */
@@ -235,6 +242,11 @@ public abstract class AbstractCommandExecutor {
             ProcessUtils.kill(taskRequest);
             result.setExitStatusCode(EXIT_CODE_FAILURE);
         }
+        // the trailing lines may still be pumped after the process exits, the var pool is only complete after that
+        if (!logOutputFinished.await(OUTPUT_FINISH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("The process output is not drained after {}s, the var pool may be incomplete",
+                    OUTPUT_FINISH_TIMEOUT_SECONDS);
+        }
         int exitCode = process.exitValue();
         String exitLogMessage = EXIT_CODE_KILL == exitCode ? "process has killed." : "process has exited.";
         logger.info(exitLogMessage
@@ -338,53 +350,43 @@ public abstract class AbstractCommandExecutor {
     }
 
     /**
-     * get the standard output of the process
+     * get the standard output of the process, the output is read by the worker wide {@link ProcessOutputPump}
      *
      * @param process process
      */
     private void parseProcessOutput(Process process) {
-        String threadLoggerInfoName = taskRequest.getTaskLogName();
-        ExecutorService getOutputLogService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        getOutputLogService.submit(() -> {
-            try (BufferedReader inReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = inReader.readLine()) != null) {
-                    if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
-                        varPool.append(findVarPool(line));
-                        varPool.append("$VarPool$");
-                    } else {
-                        logBuffer.add(line);
-                        taskResultString = line;
+        ProcessOutputPump.getInstance().register(process, taskRequest.getTaskLogName(),
+                new ProcessOutputPump.OutputHandler() {
+
+                    @Override
+                    public void onLine(String line) {
+                        if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
+                            varPool.append(findVarPool(line));
+                            varPool.append("$VarPool$");
+                        } else {
+                            logBuffer.add(line);
+                            taskResultString = line;
+                        }
                     }
-                }
-                logOutputIsSuccess = true;
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                logOutputIsSuccess = true;
-            }
-        });
 
-        getOutputLogService.shutdown();
+                    @Override
+                    public void onFlush() {
+                        if (!logBuffer.isEmpty()) {
+                            logHandler.accept(logBuffer);
+                            logBuffer.clear();
+                        }
+                    }
 
-        ExecutorService parseProcessOutputExecutorService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        parseProcessOutputExecutorService.submit(() -> {
-            try {
-                long lastFlushTime = System.currentTimeMillis();
-                while (logBuffer.size() > 0 || !logOutputIsSuccess) {
-                    if (logBuffer.size() > 0) {
-                        lastFlushTime = flush(lastFlushTime);
-                    } else {
-                        Thread.sleep(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
+                    @Override
+                    public void onFinish() {
+                        try {
+                            logOutputIsSuccess = true;
+                            clear();
+                        } finally {
+                            logOutputFinished.countDown();
+                        }
                     }
-                }
-            } catch (Exception e) {
-                Thread.currentThread().interrupt();
-                logger.error(e.getMessage(), e);
-            } finally {
-                clear();
-            }
-        });
-        parseProcessOutputExecutorService.shutdown();
+                });
     }
 
     /**
@@ -394,6 +396,11 @@ public abstract class AbstractCommandExecutor {
      * @return
      */
     private String findVarPool(String line) {
+        // the common line is exactly ${setValue(...)}, the regex is only used for the other lines
+        int end = line.indexOf(')', SETVALUE_PREFIX_LENGTH);
+        if (end > 0 && line.length() > end + 1 && line.charAt(end + 1) == '}') {
+            return line.substring(SETVALUE_PREFIX_LENGTH, end);
+        }
         Matcher matcher = SETVALUE_REGEX.matcher(line);
         if (matcher.find()) {
             return matcher.group(1);
@@ -438,39 +445,9 @@ public abstract class AbstractCommandExecutor {
         return processId;
     }
 
-    /**
-     * when log buffer siz or flush time reach condition , then flush
-     *
-     * @param lastFlushTime last flush time
-     * @return last flush time
-     */
-    private long flush(long lastFlushTime) {
-        long now = System.currentTimeMillis();
-
-        /*
-         * when log buffer siz or flush time reach condition , then flush
-         */
-        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM
-                || now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
-            lastFlushTime = now;
-            logHandler.accept(logBuffer);
-
-            logBuffer.clear();
-        }
-        return lastFlushTime;
-    }
-
     protected abstract String buildCommandFilePath();
 
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
 
-    ExecutorService newDaemonSingleThreadExecutor(String threadName) {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                .setDaemon(true)
-                .setNameFormat(threadName)
-                .build();
-        return Executors.newSingleThreadExecutor(threadFactory);
-    }
-
     protected abstract String commandInterpreter();
 }
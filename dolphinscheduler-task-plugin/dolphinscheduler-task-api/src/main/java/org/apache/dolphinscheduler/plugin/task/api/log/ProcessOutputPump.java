@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.plugin.task.api.utils.AbstractCommandExecutorConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A worker wide pump which reads the output of all the running task processes with a few threads,
+ * instead of a reader thread and a flush thread for each task.
+ * <p>
+ * Only the bytes which are available are read, so a pump thread never blocks on a process and can serve many
+ * processes. The lines of a process are flushed once {@link TaskConstants#DEFAULT_LOG_ROWS_NUM} lines are pending
+ * or the oldest pending line has waited {@link TaskConstants#DEFAULT_LOG_FLUSH_INTERVAL} ms. The task log is routed
+ * by thread name, so the pump thread takes the thread name of the task while it flushes.
+ */
+public class ProcessOutputPump {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessOutputPump.class);
+
+    private static final int DEFAULT_PUMP_THREADS = 2;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long DEFAULT_EXIT_GRACE_MILLIS = 200;
+
+    private static class Holder {
+
+        private static final ProcessOutputPump INSTANCE = new ProcessOutputPump(
+                PropertyUtils.getInt(AbstractCommandExecutorConstants.TASK_LOG_PUMP_THREADS, DEFAULT_PUMP_THREADS),
+                PropertyUtils.getLong(AbstractCommandExecutorConstants.TASK_LOG_PUMP_EXIT_GRACE_MILLIS,
+                        DEFAULT_EXIT_GRACE_MILLIS));
+    }
+
+    /**
+     * the output is still polled until it has been idle for this long after the process exits, then it's read until
+     * EOF, the pipe has been closed and its remaining bytes buffered by the JDK by then, so the read doesn't block
+     */
+    private final long exitGraceMillis;
+
+    private final PumpThread[] pumpThreads;
+
+    private final AtomicInteger nextPumpThread = new AtomicInteger();
+
+    private final AtomicInteger activeOutputCount = new AtomicInteger();
+
+    private volatile LongConsumer flushLatencyListener = latency -> {
+    };
+
+    ProcessOutputPump(int threadNum) {
+        this(threadNum, DEFAULT_EXIT_GRACE_MILLIS);
+    }
+
+    ProcessOutputPump(int threadNum, long exitGraceMillis) {
+        this.exitGraceMillis = exitGraceMillis;
+        this.pumpThreads = new PumpThread[Math.max(threadNum, 1)];
+        for (int i = 0; i < pumpThreads.length; i++) {
+            pumpThreads[i] = new PumpThread("TaskLogPump-" + i);
+            pumpThreads[i].start();
+        }
+    }
+
+    public static ProcessOutputPump getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * pump the output of the process until the process exits and the output is drained
+     *
+     * @param process process
+     * @param threadName the thread name the handler is flushed with
+     * @param handler output handler
+     */
+    public void register(Process process, String threadName, OutputHandler handler) {
+        PumpThread pumpThread = pumpThreads[Math.floorMod(nextPumpThread.getAndIncrement(), pumpThreads.length)];
+        activeOutputCount.incrementAndGet();
+        pumpThread.register(new PumpedOutput(process, Charset.defaultCharset(), threadName, handler));
+    }
+
+    public int getThreadCount() {
+        return pumpThreads.length;
+    }
+
+    public int getActiveOutputCount() {
+        return activeOutputCount.get();
+    }
+
+    /**
+     * listen the milliseconds the oldest line waits before it is flushed
+     */
+    public void setFlushLatencyListener(LongConsumer flushLatencyListener) {
+        this.flushLatencyListener = flushLatencyListener;
+    }
+
+    /**
+     * handle the output of a process, all the methods are called in the pump thread
+     */
+    public interface OutputHandler {
+
+        void onLine(String line);
+
+        void onFlush();
+
+        /**
+         * the output is drained and flushed
+         */
+        void onFinish();
+    }
+
+    private class PumpThread extends BaseDaemonThread {
+
+        private final Queue<PumpedOutput> registrations = new ConcurrentLinkedQueue<>();
+
+        private final List<PumpedOutput> outputs = new ArrayList<>();
+
+        private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+
+        PumpThread(String threadName) {
+            super(threadName);
+        }
+
+        void register(PumpedOutput output) {
+            registrations.offer(output);
+            LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                PumpedOutput registration;
+                while ((registration = registrations.poll()) != null) {
+                    outputs.add(registration);
+                }
+                boolean busy = false;
+                Iterator<PumpedOutput> iterator = outputs.iterator();
+                while (iterator.hasNext()) {
+                    PumpedOutput output = iterator.next();
+                    try {
+                        busy |= output.pump(readBuffer, System.currentTimeMillis());
+                    } catch (Throwable e) {
+                        logger.error("Pump process output error, thread name: {}", output.threadName, e);
+                        finishQuietly(output);
+                    }
+                    if (output.finished) {
+                        iterator.remove();
+                        activeOutputCount.decrementAndGet();
+                    }
+                }
+                if (!busy) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private void finishQuietly(PumpedOutput output) {
+            try {
+                output.finish(System.currentTimeMillis());
+            } catch (Throwable e) {
+                logger.error("Finish process output error, thread name: {}", output.threadName, e);
+            }
+        }
+    }
+
+    private class PumpedOutput {
+
+        private final Process process;
+
+        private final InputStream inputStream;
+
+        private final Charset charset;
+
+        private final String threadName;
+
+        private final OutputHandler handler;
+
+        private byte[] lineBytes = new byte[256];
+
+        private int lineLength;
+
+        private boolean lastIsCarriageReturn;
+
+        private int pendingLines;
+
+        private long firstPendingTime;
+
+        /**
+         * the time since the output has been idle after the process exited
+         */
+        private long exitIdleTime = -1;
+
+        private boolean finished;
+
+        PumpedOutput(Process process, Charset charset, String threadName, OutputHandler handler) {
+            this.process = process;
+            this.inputStream = process.getInputStream();
+            this.charset = charset;
+            this.threadName = threadName;
+            this.handler = handler;
+        }
+
+        /**
+         * read the available output without blocking
+         *
+         * @return true if any byte is read
+         */
+        boolean pump(byte[] buffer, long now) throws IOException {
+            boolean read = false;
+            int available = inputStream.available();
+            if (available > 0) {
+                int length = inputStream.read(buffer, 0, Math.min(available, buffer.length));
+                if (length < 0) {
+                    finish(now);
+                    return false;
+                }
+                consume(buffer, length, now);
+                read = length > 0;
+                if (exitIdleTime >= 0) {
+                    // the output is still arriving, wait another grace
+                    exitIdleTime = now;
+                }
+            } else if (!process.isAlive()) {
+                if (exitIdleTime < 0) {
+                    exitIdleTime = now;
+                } else if (now - exitIdleTime >= exitGraceMillis) {
+                    drainToEof(buffer, now);
+                    finish(now);
+                    return false;
+                }
+            }
+            if (pendingLines >= TaskConstants.DEFAULT_LOG_ROWS_NUM
+                    || (pendingLines > 0 && now - firstPendingTime >= TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL)) {
+                flush(now);
+            }
+            return read;
+        }
+
+        private void drainToEof(byte[] buffer, long now) {
+            int drained = 0;
+            try {
+                int length;
+                while ((length = inputStream.read(buffer, 0, buffer.length)) >= 0) {
+                    consume(buffer, length, now);
+                    drained += length;
+                }
+            } catch (IOException e) {
+                logger.warn("The output is cut off since it can't be read to the end, thread name: {}", threadName, e);
+                return;
+            }
+            if (drained > 0) {
+                logger.warn("The output was still arriving {} ms after the process exited, the output written after "
+                        + "that may be cut off, thread name: {}", exitGraceMillis, threadName);
+            }
+        }
+
+        /**
+         * split the lines like {@link java.io.BufferedReader#readLine()}, by '\n', '\r' or "\r\n"
+         */
+        private void consume(byte[] buffer, int length, long now) {
+            for (int i = 0; i < length; i++) {
+                byte b = buffer[i];
+                if (b == '\n' && lastIsCarriageReturn) {
+                    lastIsCarriageReturn = false;
+                    continue;
+                }
+                lastIsCarriageReturn = b == '\r';
+                if (b == '\n' || b == '\r') {
+                    emitLine(now);
+                    continue;
+                }
+                if (lineLength == lineBytes.length) {
+                    lineBytes = Arrays.copyOf(lineBytes, lineLength * 2);
+                }
+                lineBytes[lineLength++] = b;
+            }
+        }
+
+        private void emitLine(long now) {
+            String line = new String(lineBytes, 0, lineLength, charset);
+            lineLength = 0;
+            if (pendingLines++ == 0) {
+                firstPendingTime = now;
+            }
+            handler.onLine(line);
+        }
+
+        private void flush(long now) {
+            Thread thread = Thread.currentThread();
+            String pumpThreadName = thread.getName();
+            thread.setName(threadName);
+            try {
+                handler.onFlush();
+            } finally {
+                thread.setName(pumpThreadName);
+            }
+            flushLatencyListener.accept(now - firstPendingTime);
+            pendingLines = 0;
+        }
+
+        void finish(long now) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (lineLength > 0) {
+                emitLine(now);
+            }
+            Thread thread = Thread.currentThread();
+            String pumpThreadName = thread.getName();
+            thread.setName(threadName);
+            try {
+                if (pendingLines > 0) {
+                    handler.onFlush();
+                }
+            } finally {
+                try {
+                    handler.onFinish();
+                } finally {
+                    thread.setName(pumpThreadName);
+                    closeQuietly();
+                }
+            }
+            if (pendingLines > 0) {
+                flushLatencyListener.accept(now - firstPendingTime);
+                pendingLines = 0;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                logger.warn("Close process output error, thread name: {}", threadName, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.model;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parsed var pools of the completed tasks in one workflow instance.
+ * <p>
+ * The var pool json of a task is parsed only once when it's put into the store, the var pools of the upstream tasks
+ * are merged without json parsing, the json is only written when the merged var pool is persisted or dispatched.
+ * This class is not thread safe, it should be used by the thread which handles the workflow.
+ */
+public class VarPoolStore {
+
+    /**
+     * taskCode -> the parsed var pool of the task
+     */
+    private final Map<Long, TaskVarPool> taskVarPools = new HashMap<>();
+
+    /**
+     * Put the var pool of the task, the var pool is parsed again only if the task instance or the var pool changed.
+     *
+     * @param taskCode task code
+     * @param taskInstanceId task instance id
+     * @param endTime the end time of the task instance
+     * @param varPool var pool json of the task instance
+     */
+    public void put(long taskCode, int taskInstanceId, Date endTime, String varPool) {
+        TaskVarPool taskVarPool = taskVarPools.get(taskCode);
+        if (taskVarPool != null && taskVarPool.taskInstanceId == taskInstanceId
+                && StringUtils.equals(taskVarPool.varPool, varPool)) {
+            taskVarPool.endTime = endTime;
+            return;
+        }
+        taskVarPools.put(taskCode, new TaskVarPool(taskInstanceId, endTime, varPool, parse(varPool)));
+    }
+
+    public void remove(long taskCode) {
+        taskVarPools.remove(taskCode);
+    }
+
+    public void clear() {
+        taskVarPools.clear();
+    }
+
+    public boolean contains(long taskCode) {
+        return taskVarPools.containsKey(taskCode);
+    }
+
+    public int size() {
+        return taskVarPools.size();
+    }
+
+    /**
+     * Merge the var pools of the given tasks, all the merged properties are IN. If more than one task has the property
+     * with the same name, the not empty value is used, and if both values are not empty, the value of the task which
+     * ended earlier is used.
+     *
+     * @param taskCodes the task codes in merge order, the tasks not in the store are ignored
+     * @return merged properties
+     */
+    public Collection<Property> merge(Collection<Long> taskCodes) {
+        Map<String, Property> allProperty = new LinkedHashMap<>();
+        Map<String, TaskVarPool> allTaskVarPool = new HashMap<>();
+        for (Long taskCode : taskCodes) {
+            TaskVarPool taskVarPool = taskVarPools.get(taskCode);
+            if (taskVarPool == null) {
+                continue;
+            }
+            for (Property thisProperty : taskVarPool.properties) {
+                String proName = thisProperty.getProp();
+                Property otherProperty = allProperty.get(proName);
+                if (otherProperty == null) {
+                    allProperty.put(proName, thisProperty);
+                    allTaskVarPool.put(proName, taskVarPool);
+                } else if (StringUtils.isEmpty(thisProperty.getValue())) {
+                    // keep the other property, whether its value is empty or not
+                    continue;
+                } else if (StringUtils.isNotEmpty(otherProperty.getValue())) {
+                    if (allTaskVarPool.get(proName).getEndTimeMillis() > taskVarPool.getEndTimeMillis()) {
+                        allProperty.put(proName, thisProperty);
+                        allTaskVarPool.put(proName, taskVarPool);
+                    }
+                } else {
+                    allProperty.put(proName, thisProperty);
+                    allTaskVarPool.put(proName, taskVarPool);
+                }
+            }
+        }
+        return allProperty.values();
+    }
+
+    private List<Property> parse(String varPool) {
+        if (StringUtils.isEmpty(varPool)) {
+            return Collections.emptyList();
+        }
+        List<Property> properties = JSONUtils.toList(varPool, Property.class);
+        // for the downstream tasks all the properties are IN
+        for (Property property : properties) {
+            property.setDirect(Direct.IN);
+        }
+        return properties;
+    }
+
+    private static class TaskVarPool {
+
+        private final int taskInstanceId;
+
+        private Date endTime;
+
+        private final String varPool;
+
+        private final List<Property> properties;
+
+        TaskVarPool(int taskInstanceId, Date endTime, String varPool, List<Property> properties) {
+            this.taskInstanceId = taskInstanceId;
+            this.endTime = endTime;
+            this.varPool = varPool;
+            this.properties = properties;
+        }
+
+        long getEndTimeMillis() {
+            return endTime == null ? 0L : endTime.getTime();
+        }
+    }
+}
@@ -24,4 +24,8 @@ public class AbstractCommandExecutorConstants {
     }
 
     public static final String TASK_RESOURCE_LIMIT_STATE = "task.resource.limit.state";
+
+    public static final String TASK_LOG_PUMP_THREADS = "task.log.pump.threads";
+
+    public static final String TASK_LOG_PUMP_EXIT_GRACE_MILLIS = "task.log.pump.exit.grace.millis";
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class ProcessOutputPumpTest {
+
+    @Test
+    public void testPumpProcessOutput() throws Exception {
+        ProcessOutputPump processOutputPump = new ProcessOutputPump(1);
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        List<String> flushThreadNames = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(2);
+
+        for (int i = 0; i < 2; i++) {
+            Process process = new ProcessBuilder("sh", "-c", "printf 'a\\r\\nb\\rc\\nd'").start();
+            processOutputPump.register(process, "TaskLogInfo-" + i, new ProcessOutputPump.OutputHandler() {
+
+                @Override
+                public void onLine(String line) {
+                    lines.add(line);
+                }
+
+                @Override
+                public void onFlush() {
+                    flushThreadNames.add(Thread.currentThread().getName());
+                }
+
+                @Override
+                public void onFinish() {
+                    finished.countDown();
+                }
+            });
+        }
+
+        Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(8, lines.size());
+        Assertions.assertEquals(2, Collections.frequency(lines, "a"));
+        Assertions.assertEquals(2, Collections.frequency(lines, "b"));
+        Assertions.assertEquals(2, Collections.frequency(lines, "c"));
+        Assertions.assertEquals(2, Collections.frequency(lines, "d"));
+        Assertions.assertTrue(flushThreadNames.contains("TaskLogInfo-0"));
+        Assertions.assertTrue(flushThreadNames.contains("TaskLogInfo-1"));
+    }
+
+    @Test
+    public void testPumpTrailingOutput() throws Exception {
+        ProcessOutputPump processOutputPump = new ProcessOutputPump(1, 50);
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // the last lines are written after a pause, close to the process exit
+        Process process = new ProcessBuilder("sh", "-c", "seq 1 1000; sleep 0.2; echo '${setValue(a=1)}'").start();
+        processOutputPump.register(process, "TaskLogInfo", new ProcessOutputPump.OutputHandler() {
+
+            @Override
+            public void onLine(String line) {
+                lines.add(line);
+            }
+
+            @Override
+            public void onFlush() {
+            }
+
+            @Override
+            public void onFinish() {
+                finished.countDown();
+            }
+        });
+
+        Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1001, lines.size());
+        Assertions.assertEquals("${setValue(a=1)}", lines.get(1000));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.model;
+
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class VarPoolStoreTest {
+
+    @Test
+    public void testMerge() {
+        VarPoolStore varPoolStore = new VarPoolStore();
+        varPoolStore.put(1L, 1, new Date(2000L),
+                "[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"1\"},"
+                        + "{\"direct\":\"OUT\",\"prop\":\"b\",\"type\":\"VARCHAR\",\"value\":\"\"}]");
+        varPoolStore.put(2L, 2, new Date(1000L),
+                "[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"2\"},"
+                        + "{\"direct\":\"OUT\",\"prop\":\"b\",\"type\":\"VARCHAR\",\"value\":\"2\"},"
+                        + "{\"direct\":\"OUT\",\"prop\":\"c\",\"type\":\"VARCHAR\",\"value\":\"\"}]");
+        varPoolStore.put(3L, 3, new Date(500L), null);
+
+        Map<String, Property> merged = toMap(varPoolStore.merge(Arrays.asList(1L, 2L, 3L, 4L)));
+        Assertions.assertEquals(3, merged.size());
+        // the task ended earlier wins
+        Assertions.assertEquals("2", merged.get("a").getValue());
+        // the not empty value wins
+        Assertions.assertEquals("2", merged.get("b").getValue());
+        Assertions.assertEquals("", merged.get("c").getValue());
+        merged.values().forEach(property -> Assertions.assertEquals(Direct.IN, property.getDirect()));
+    }
+
+    @Test
+    public void testPutChangedVarPool() {
+        VarPoolStore varPoolStore = new VarPoolStore();
+        varPoolStore.put(1L, 1, new Date(),
+                "[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"1\"}]");
+        varPoolStore.put(1L, 2, new Date(),
+                "[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"2\"}]");
+        Assertions.assertEquals(1, varPoolStore.size());
+        Assertions.assertEquals("2", toMap(varPoolStore.merge(Arrays.asList(1L))).get("a").getValue());
+
+        varPoolStore.remove(1L);
+        Assertions.assertFalse(varPoolStore.contains(1L));
+        Assertions.assertTrue(varPoolStore.merge(Arrays.asList(1L)).isEmpty());
+    }
+
+    private Map<String, Property> toMap(Collection<Property> properties) {
+        return properties.stream().collect(Collectors.toMap(Property::getProp, Function.identity()));
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.utils.FileUtils;
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
+import org.apache.dolphinscheduler.spi.enums.ResourceType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+
+/**
+ * The resource files cached on worker and shared by the tasks.
+ * <p>
+ * A cached file is keyed by the tenant, the full name, the modification time and the size of the resource, so a
+ * resource is downloaded again once it is changed in the storage. The tasks get hard links of the cached files in
+ * their execute paths, the cached files are read only since they share the content with the tasks. The hard links are
+ * only used when sudo is enabled, otherwise the tasks run as the owner of the cached files and could change them, so
+ * the tasks get copies instead. The least recently used files which are not being linked are evicted once the cache
+ * size exceeds {@link WorkerConfig#getResourceCacheMaxSize()}, the hard links of the running tasks are not affected.
+ */
+@Component
+public class WorkerResourceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerResourceCache.class);
+
+    private static final Pattern CACHE_FILE_NAME_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path cacheDir;
+
+    private final long maxCacheBytes;
+
+    /**
+     * whether the tasks get hard links of the cached files, otherwise they get copies
+     */
+    private final boolean linkEnabled;
+
+    /**
+     * the cached files in the order of access, guarded by this
+     */
+    private final LinkedHashMap<String, CachedResource> cachedResources = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+
+    /**
+     * the resources being downloaded, so that the concurrent requests of the same resource download it only once
+     */
+    private final Map<String, CompletableFuture<Path>> downloadingResources = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkerResourceCache(WorkerConfig workerConfig) {
+        this(Paths.get(FileUtils.DATA_BASEDIR, "resource-cache"), workerConfig.getResourceCacheMaxSize().toBytes(),
+                OSUtils.isSudoEnable());
+    }
+
+    @VisibleForTesting
+    WorkerResourceCache(Path cacheDir, long maxCacheBytes, boolean linkEnabled) {
+        this.cacheDir = cacheDir;
+        this.maxCacheBytes = maxCacheBytes;
+        this.linkEnabled = linkEnabled;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Files.createDirectories(cacheDir);
+        // load the files cached before the worker restarts, and remove the files not downloaded completely
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            List<Path> cachedFiles = files.sorted(Comparator.comparing(this::getLastModifiedTime))
+                    .collect(Collectors.toList());
+            synchronized (this) {
+                for (Path cachedFile : cachedFiles) {
+                    String key = cachedFile.getFileName().toString();
+                    if (CACHE_FILE_NAME_PATTERN.matcher(key).matches() && Files.isRegularFile(cachedFile)) {
+                        long size = Files.size(cachedFile);
+                        cachedResources.put(key, new CachedResource(cachedFile, size, 0));
+                        cachedBytes += size;
+                    } else {
+                        org.apache.commons.io.FileUtils.deleteQuietly(cachedFile.toFile());
+                    }
+                }
+                evictIfNeeded();
+            }
+        }
+        WorkerServerMetrics.registerWorkerResourceCacheGauge(this::getCachedBytes);
+        logger.info("Worker resource cache loaded, cacheDir: {}, cachedFiles: {}, cachedBytes: {}, linkEnabled: {}",
+                cacheDir, cachedResources.size(), cachedBytes, linkEnabled);
+    }
+
+    public boolean isEnabled() {
+        return maxCacheBytes > 0;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Put the resource into the dstFile, the resource is linked or copied from the cache if it is cached or could be
+     * cached, otherwise it is downloaded from the storage directly.
+     */
+    public void fetchResource(@NonNull StorageOperate storageOperate, String tenantCode, String fullName,
+                              @NonNull Path dstFile) throws Exception {
+        StorageEntity resource = null;
+        if (isEnabled()) {
+            try {
+                resource = storageOperate.getFileStatus(fullName, "", tenantCode, ResourceType.FILE);
+            } catch (Exception e) {
+                logger.warn("Get the status of resource: {} failed, will download it without cache", fullName, e);
+            }
+        }
+        if (resource == null || resource.getUpdateTime() == null || resource.getSize() > maxCacheBytes) {
+            downloadResource(storageOperate, tenantCode, fullName, dstFile);
+            return;
+        }
+
+        String key = Hashing.sha256().hashString(String.join("\n", tenantCode, fullName,
+                String.valueOf(resource.getUpdateTime().getTime()), String.valueOf(resource.getSize())),
+                StandardCharsets.UTF_8).toString();
+        CachedResource cachedResource = pinCachedResource(key);
+        if (cachedResource != null) {
+            WorkerServerMetrics.incWorkerResourceCacheHitCount();
+        } else {
+            WorkerServerMetrics.incWorkerResourceCacheMissCount();
+            cachedResource = loadCachedResource(storageOperate, tenantCode, fullName, key);
+        }
+        try {
+            linkCachedFile(cachedResource.file, dstFile);
+        } finally {
+            unpinCachedResource(cachedResource);
+        }
+    }
+
+    private synchronized CachedResource pinCachedResource(String key) {
+        CachedResource cachedResource = cachedResources.get(key);
+        if (cachedResource == null) {
+            return null;
+        }
+        if (!Files.exists(cachedResource.file)) {
+            // the cached file is removed by someone else
+            cachedResources.remove(key);
+            cachedBytes -= cachedResource.size;
+            return null;
+        }
+        cachedResource.pinCount++;
+        return cachedResource;
+    }
+
+    private synchronized void unpinCachedResource(CachedResource cachedResource) {
+        cachedResource.pinCount--;
+        evictIfNeeded();
+    }
+
+    /**
+     * Download the resource into the cache and pin it, only one of the concurrent requests of the same resource
+     * downloads it, the others wait for it.
+     */
+    private CachedResource loadCachedResource(StorageOperate storageOperate, String tenantCode, String fullName,
+                                              String key) throws Exception {
+        CompletableFuture<Path> downloadFuture = new CompletableFuture<>();
+        CompletableFuture<Path> existingDownloadFuture = downloadingResources.putIfAbsent(key, downloadFuture);
+        if (existingDownloadFuture != null) {
+            try {
+                existingDownloadFuture.get();
+            } catch (ExecutionException e) {
+                throw new IOException(String.format("Download resource: %s failed", fullName), e.getCause());
+            }
+            CachedResource cachedResource = pinCachedResource(key);
+            if (cachedResource != null) {
+                return cachedResource;
+            }
+            // the downloaded file has been evicted already, download it again
+            return loadCachedResource(storageOperate, tenantCode, fullName, key);
+        }
+
+        Path cachedFile = cacheDir.resolve(key);
+        Path downloadingFile = cacheDir.resolve(key + ".downloading-" + UUID.randomUUID());
+        try {
+            downloadResource(storageOperate, tenantCode, fullName, downloadingFile);
+            if (!downloadingFile.toFile().setReadOnly()) {
+                logger.warn("Set cached resource file: {} read only failed", downloadingFile);
+            }
+            Files.move(downloadingFile, cachedFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            CachedResource cachedResource = new CachedResource(cachedFile, Files.size(cachedFile), 1);
+            synchronized (this) {
+                CachedResource replaced = cachedResources.put(key, cachedResource);
+                if (replaced != null) {
+                    cachedBytes -= replaced.size;
+                }
+                cachedBytes += cachedResource.size;
+            }
+            downloadFuture.complete(cachedFile);
+            return cachedResource;
+        } catch (Exception e) {
+            Files.deleteIfExists(downloadingFile);
+            downloadFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            downloadingResources.remove(key, downloadFuture);
+        }
+    }
+
+    /**
+     * Evict the least recently used files which are not pinned, until the cache size is below the max size.
+     */
+    private synchronized void evictIfNeeded() {
+        Iterator<CachedResource> iterator = cachedResources.values().iterator();
+        while (cachedBytes > maxCacheBytes && iterator.hasNext()) {
+            CachedResource cachedResource = iterator.next();
+            if (cachedResource.pinCount > 0) {
+                continue;
+            }
+            iterator.remove();
+            cachedBytes -= cachedResource.size;
+            try {
+                Files.deleteIfExists(cachedResource.file);
+                logger.info("Evicted cached resource file: {}, size: {}", cachedResource.file, cachedResource.size);
+            } catch (IOException e) {
+                logger.warn("Delete cached resource file: {} failed", cachedResource.file, e);
+            }
+        }
+    }
+
+    private void linkCachedFile(Path cachedFile, Path dstFile) throws IOException {
+        Files.createDirectories(dstFile.getParent());
+        Files.deleteIfExists(dstFile);
+        if (linkEnabled) {
+            try {
+                Files.createLink(dstFile, cachedFile);
+            } catch (IOException | UnsupportedOperationException e) {
+                // the execute path is on another file system
+                logger.warn("Link cached resource file: {} to {} failed, will copy it", cachedFile, dstFile, e);
+                copyCachedFile(cachedFile, dstFile);
+            }
+        } else {
+            copyCachedFile(cachedFile, dstFile);
+        }
+        try {
+            Files.setLastModifiedTime(cachedFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Touch cached resource file: {} failed", cachedFile, e);
+        }
+    }
+
+    private void copyCachedFile(Path cachedFile, Path dstFile) throws IOException {
+        Files.copy(cachedFile, dstFile, StandardCopyOption.REPLACE_EXISTING);
+        // the copy belongs to the task only, it is writable like a downloaded file
+        if (!dstFile.toFile().setWritable(true, true)) {
+            logger.warn("Set resource file: {} writable failed", dstFile);
+        }
+    }
+
+    private void downloadResource(StorageOperate storageOperate, String tenantCode, String fullName,
+                                  Path dstFile) throws IOException {
+        long resourceDownloadStartTime = System.currentTimeMillis();
+        storageOperate.download(tenantCode, fullName, dstFile.toString(), false, true);
+        WorkerServerMetrics.recordWorkerResourceDownloadTime(System.currentTimeMillis() - resourceDownloadStartTime);
+        WorkerServerMetrics.recordWorkerResourceDownloadSize(Files.size(dstFile));
+        WorkerServerMetrics.incWorkerResourceDownloadSuccessCount();
+    }
+
+    private FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class CachedResource {
+
+        private final Path file;
+
+        private final long size;
+
+        /**
+         * the number of the tasks linking the file, the file is not evicted if it is pinned
+         */
+        private int pinCount;
+    }
+}
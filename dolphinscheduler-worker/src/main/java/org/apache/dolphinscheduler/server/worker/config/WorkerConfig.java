@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 import org.springframework.validation.annotation.Validated;
@@ -45,6 +46,19 @@ public class WorkerConfig implements Validator {
     private int listenPort = 1234;
     private int execThreads = 10;
     private Duration heartbeatInterval = Duration.ofSeconds(10);
+    /**
+     * The heartbeat is written into registry only if it is changed, or it has not been written for this duration.
+     */
+    private Duration heartbeatMaxStaleness = Duration.ofSeconds(60);
+    /**
+     * The relative change of a heartbeat metric, e.g. load average, which makes the heartbeat changed.
+     */
+    private double heartbeatMetricDelta = 0.1;
+    /**
+     * The max size of the resource files cached on worker and shared by the tasks, the resources are downloaded for
+     * each task if it is zero.
+     */
+    private DataSize resourceCacheMaxSize = DataSize.ofGigabytes(10);
     private int hostWeight = 100;
     private boolean tenantAutoCreate = true;
     private boolean tenantDistributedUser = false;
@@ -76,6 +90,15 @@ public class WorkerConfig implements Validator {
         if (workerConfig.getHeartbeatInterval().getSeconds() <= 0) {
             errors.rejectValue("heartbeat-interval", null, "shoule be a valid duration");
         }
+        if (workerConfig.getHeartbeatMaxStaleness().isNegative()) {
+            errors.rejectValue("heartbeat-max-staleness", null, "should not be negative");
+        }
+        if (workerConfig.getHeartbeatMetricDelta() < 0) {
+            errors.rejectValue("heartbeat-metric-delta", null, "should not be negative");
+        }
+        if (workerConfig.getResourceCacheMaxSize().isNegative()) {
+            errors.rejectValue("resource-cache-max-size", null, "should not be negative");
+        }
         if (workerConfig.getMaxCpuLoadAvg() <= 0) {
             workerConfig.setMaxCpuLoadAvg(Runtime.getRuntime().availableProcessors() * 2);
         }
@@ -89,6 +112,9 @@ public class WorkerConfig implements Validator {
         logger.info("Worker config: listenPort -> {}", listenPort);
         logger.info("Worker config: execThreads -> {}", execThreads);
         logger.info("Worker config: heartbeatInterval -> {}", heartbeatInterval);
+        logger.info("Worker config: heartbeatMaxStaleness -> {}", heartbeatMaxStaleness);
+        logger.info("Worker config: heartbeatMetricDelta -> {}", heartbeatMetricDelta);
+        logger.info("Worker config: resourceCacheMaxSize -> {}", resourceCacheMaxSize);
         logger.info("Worker config: hostWeight -> {}", hostWeight);
         logger.info("Worker config: tenantAutoCreate -> {}", tenantAutoCreate);
         logger.info("Worker config: tenantDistributedUser -> {}", tenantDistributedUser);
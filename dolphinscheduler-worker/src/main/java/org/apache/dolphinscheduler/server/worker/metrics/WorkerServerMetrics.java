@@ -17,6 +17,8 @@
 
 package org.apache.dolphinscheduler.server.worker.metrics;
 
+import org.apache.dolphinscheduler.plugin.task.api.log.ProcessOutputPump;
+
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -67,6 +69,37 @@ public class WorkerServerMetrics {
                     .description("size of downloaded resource files on worker")
                     .register(Metrics.globalRegistry);
 
+    private final Counter workerResourceCacheHitCounter =
+            Counter.builder("ds.worker.resource.cache.count")
+                    .tag("result", "hit")
+                    .description("worker resource files got from the local cache count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerResourceCacheMissCounter =
+            Counter.builder("ds.worker.resource.cache.count")
+                    .tag("result", "miss")
+                    .description("worker resource files not in the local cache count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerHeartBeatWriteCounter =
+            Counter.builder("ds.worker.heartbeat.count")
+                    .tag("status", "written")
+                    .description("worker heartbeats written into registry count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerHeartBeatSkipCounter =
+            Counter.builder("ds.worker.heartbeat.count")
+                    .tag("status", "skipped")
+                    .description("worker heartbeats skipped since they are not changed count")
+                    .register(Metrics.globalRegistry);
+
+    private final Timer workerLogFlushLatencyTimer =
+            Timer.builder("ds.worker.log.flush.latency")
+                    .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .description("time a task log line waits before it is flushed on workers")
+                    .register(Metrics.globalRegistry);
+
     public void incWorkerOverloadCount() {
         workerOverloadCounter.increment();
     }
@@ -83,6 +116,22 @@ public class WorkerServerMetrics {
         workerResourceDownloadFailCounter.increment();
     }
 
+    public void incWorkerResourceCacheHitCount() {
+        workerResourceCacheHitCounter.increment();
+    }
+
+    public void incWorkerResourceCacheMissCount() {
+        workerResourceCacheMissCounter.increment();
+    }
+
+    public void incWorkerHeartBeatWriteCount() {
+        workerHeartBeatWriteCounter.increment();
+    }
+
+    public void incWorkerHeartBeatSkipCount() {
+        workerHeartBeatSkipCounter.increment();
+    }
+
     public void recordWorkerResourceDownloadTime(final long milliseconds) {
         workerResourceDownloadDurationTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
@@ -97,4 +146,24 @@ public class WorkerServerMetrics {
                 .register(Metrics.globalRegistry);
     }
 
+    public void registerWorkerResourceCacheGauge(final Supplier<Number> supplier) {
+        Gauge.builder("ds.worker.resource.cache.size", supplier)
+                .baseUnit("bytes")
+                .description("size of the resource files cached on workers")
+                .register(Metrics.globalRegistry);
+    }
+
+    public void registerWorkerLogPumpMetrics(final ProcessOutputPump processOutputPump) {
+        Gauge.builder("ds.worker.log.pump.streams", processOutputPump::getActiveOutputCount)
+                .description("number of task process outputs read by the log pump on workers")
+                .register(Metrics.globalRegistry);
+        // a task used to read its output with a reader thread and a flush thread
+        Gauge.builder("ds.worker.log.pump.saved.threads",
+                () -> Math.max(0, 2 * processOutputPump.getActiveOutputCount() - processOutputPump.getThreadCount()))
+                .description("number of threads saved by the log pump on workers")
+                .register(Metrics.globalRegistry);
+        processOutputPump.setFlushLatencyListener(
+                latency -> workerLogFlushLatencyTimer.record(latency, TimeUnit.MILLISECONDS));
+    }
+
 }
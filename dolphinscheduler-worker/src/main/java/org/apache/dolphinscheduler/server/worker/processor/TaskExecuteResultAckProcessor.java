@@ -49,8 +49,7 @@ public class TaskExecuteResultAckProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_RESULT_ACK == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskExecuteAckCommand taskExecuteAckMessage = JSONUtils.parseObject(command.getBody(),
-                TaskExecuteAckCommand.class);
+        TaskExecuteAckCommand taskExecuteAckMessage = command.parseBody(TaskExecuteAckCommand.class);
 
         if (taskExecuteAckMessage == null) {
             logger.error("task execute response ack command is null");
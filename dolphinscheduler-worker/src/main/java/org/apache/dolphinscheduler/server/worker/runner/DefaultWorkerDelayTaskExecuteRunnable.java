@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.plugin.task.api.TaskCallBack;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcClient;
@@ -38,14 +39,16 @@ public class DefaultWorkerDelayTaskExecuteRunnable extends WorkerDelayTaskExecut
                                                  @NonNull WorkerMessageSender workerMessageSender,
                                                  @NonNull WorkerRpcClient workerRpcClient,
                                                  @NonNull TaskPluginManager taskPluginManager,
-                                                 @Nullable StorageOperate storageOperate) {
+                                                 @Nullable StorageOperate storageOperate,
+                                                 @NonNull WorkerResourceCache workerResourceCache) {
         super(taskExecutionContext,
                 workerConfig,
                 workflowMaster,
                 workerMessageSender,
                 workerRpcClient,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                workerResourceCache);
     }
 
     @Override
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcClient;
@@ -38,14 +39,16 @@ public class DefaultWorkerDelayTaskExecuteRunnableFactory
                                                            @NonNull WorkerMessageSender workerMessageSender,
                                                            @NonNull WorkerRpcClient workerRpcClient,
                                                            @NonNull TaskPluginManager taskPluginManager,
-                                                           @Nullable StorageOperate storageOperate) {
+                                                           @Nullable StorageOperate storageOperate,
+                                                           @NonNull WorkerResourceCache workerResourceCache) {
         super(taskExecutionContext,
                 workerConfig,
                 workflowMasterAddress,
                 workerMessageSender,
                 workerRpcClient,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                workerResourceCache);
     }
 
     @Override
@@ -57,6 +60,7 @@ public class DefaultWorkerDelayTaskExecuteRunnableFactory
                 workerMessageSender,
                 workerRpcClient,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                workerResourceCache);
     }
 }
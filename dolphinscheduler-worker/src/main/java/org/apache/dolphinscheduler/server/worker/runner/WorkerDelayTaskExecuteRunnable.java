@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcClient;
@@ -40,14 +41,16 @@ public abstract class WorkerDelayTaskExecuteRunnable extends WorkerTaskExecuteRu
                                              @NonNull WorkerMessageSender workerMessageSender,
                                              @NonNull WorkerRpcClient workerRpcClient,
                                              @NonNull TaskPluginManager taskPluginManager,
-                                             @Nullable StorageOperate storageOperate) {
+                                             @Nullable StorageOperate storageOperate,
+                                             @NonNull WorkerResourceCache workerResourceCache) {
         super(taskExecutionContext,
                 workerConfig,
                 masterAddress,
                 workerMessageSender,
                 workerRpcClient,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                workerResourceCache);
     }
 
     @Override
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.server.worker.runner;
 
+import org.apache.dolphinscheduler.plugin.task.api.log.ProcessOutputPump;
 import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 
 import java.util.Map;
@@ -58,6 +59,7 @@ public class WorkerExecService {
         this.listeningExecutorService = MoreExecutors.listeningDecorator(this.execService);
         this.taskExecuteThreadMap = taskExecuteThreadMap;
         WorkerServerMetrics.registerWorkerRunningTaskGauge(taskExecuteThreadMap::size);
+        WorkerServerMetrics.registerWorkerLogPumpMetrics(ProcessOutputPump.getInstance());
     }
 
     public void submit(final WorkerTaskExecuteRunnable taskExecuteThread) {
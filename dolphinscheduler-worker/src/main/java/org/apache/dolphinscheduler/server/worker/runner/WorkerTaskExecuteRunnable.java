@@ -45,6 +45,7 @@ import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendRequestCommand;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcClient;
@@ -78,6 +79,7 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
     protected final WorkerMessageSender workerMessageSender;
     protected final TaskPluginManager taskPluginManager;
     protected final @Nullable StorageOperate storageOperate;
+    protected final WorkerResourceCache workerResourceCache;
     protected final WorkerRpcClient workerRpcClient;
 
     protected @Nullable AbstractTask task;
@@ -89,7 +91,8 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
                                         @NonNull WorkerMessageSender workerMessageSender,
                                         @NonNull WorkerRpcClient workerRpcClient,
                                         @NonNull TaskPluginManager taskPluginManager,
-                                        @Nullable StorageOperate storageOperate) {
+                                        @Nullable StorageOperate storageOperate,
+                                        @NonNull WorkerResourceCache workerResourceCache) {
         this.taskExecutionContext = taskExecutionContext;
         this.workerConfig = workerConfig;
         this.masterAddress = masterAddress;
@@ -97,6 +100,7 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
         this.workerRpcClient = workerRpcClient;
         this.taskPluginManager = taskPluginManager;
         this.storageOperate = storageOperate;
+        this.workerResourceCache = workerResourceCache;
         String taskLogName =
                 LogUtils.buildTaskId(DateUtils.timeStampToDate(taskExecutionContext.getFirstSubmitTime()),
                         taskExecutionContext.getProcessDefineCode(),
@@ -218,7 +222,8 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
         TaskExecutionCheckerUtils.createProcessLocalPathIfAbsent(taskExecutionContext);
         logger.info("ProcessExecDir:{} check success", taskExecutionContext.getExecutePath());
 
-        TaskExecutionCheckerUtils.downloadResourcesIfNeeded(storageOperate, taskExecutionContext, logger);
+        TaskExecutionCheckerUtils.downloadResourcesIfNeeded(storageOperate, workerResourceCache, taskExecutionContext,
+                logger);
         logger.info("Resources:{} check success", taskExecutionContext.getResources());
 
         TaskFilesTransferUtils.downloadUpstreamFiles(taskExecutionContext, storageOperate);
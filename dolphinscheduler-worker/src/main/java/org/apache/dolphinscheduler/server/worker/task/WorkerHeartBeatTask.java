@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.registry.api.RegistryClient;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 
 import java.util.function.Supplier;
 
@@ -41,6 +42,15 @@ public class WorkerHeartBeatTask extends BaseHeartBeatTask<WorkerHeartBeat> {
 
     private final int processId;
 
+    private final long heartbeatMaxStaleness;
+
+    private final double heartbeatMetricDelta;
+
+    /**
+     * the heartbeat written into registry last time, null if the next heartbeat should be written
+     */
+    private volatile WorkerHeartBeat lastWrittenHeartBeat;
+
     public WorkerHeartBeatTask(@NonNull WorkerConfig workerConfig,
                                @NonNull RegistryClient registryClient,
                                @NonNull Supplier<Integer> workerWaitingTaskCount) {
@@ -49,6 +59,8 @@ public class WorkerHeartBeatTask extends BaseHeartBeatTask<WorkerHeartBeat> {
         this.registryClient = registryClient;
         this.workerWaitingTaskCount = workerWaitingTaskCount;
         this.processId = OSUtils.getProcessID();
+        this.heartbeatMaxStaleness = workerConfig.getHeartbeatMaxStaleness().toMillis();
+        this.heartbeatMetricDelta = workerConfig.getHeartbeatMetricDelta();
     }
 
     @Override
@@ -82,12 +94,60 @@ public class WorkerHeartBeatTask extends BaseHeartBeatTask<WorkerHeartBeat> {
 
     @Override
     public void writeHeartBeat(WorkerHeartBeat workerHeartBeat) {
+        if (!isHeartBeatChanged(lastWrittenHeartBeat, workerHeartBeat)) {
+            WorkerServerMetrics.incWorkerHeartBeatSkipCount();
+            log.debug("Skip writing worker heartBeatInfo into registry, since it is not changed");
+            return;
+        }
         String workerHeartBeatJson = JSONUtils.toJsonString(workerHeartBeat);
         String workerRegistryPath = workerConfig.getWorkerRegistryPath();
         registryClient.persistEphemeral(workerRegistryPath, workerHeartBeatJson);
         log.debug(
                 "Success write worker group heartBeatInfo into registry, workerRegistryPath: {} workerHeartBeatInfo: {}",
                 workerRegistryPath, workerHeartBeatJson);
+        lastWrittenHeartBeat = workerHeartBeat;
+        WorkerServerMetrics.incWorkerHeartBeatWriteCount();
+    }
+
+    /**
+     * Write the next heartbeat even if it is not changed, e.g. the registry data may be lost after reconnecting.
+     */
+    public void forceWriteNextHeartBeat() {
+        lastWrittenHeartBeat = null;
+    }
+
+    /**
+     * The heartbeat is changed if the server status or the worker config is changed, a metric is changed more than
+     * heartbeat-metric-delta, or the last written heartbeat is older than heartbeat-max-staleness.
+     */
+    boolean isHeartBeatChanged(WorkerHeartBeat lastHeartBeat, WorkerHeartBeat heartBeat) {
+        if (lastHeartBeat == null
+                || heartBeat.getReportTime() - lastHeartBeat.getReportTime() >= heartbeatMaxStaleness) {
+            return true;
+        }
+        if (heartBeat.getServerStatus() != lastHeartBeat.getServerStatus()
+                || heartBeat.getWorkerWaitingTaskCount() != lastHeartBeat.getWorkerWaitingTaskCount()
+                || heartBeat.getStartupTime() != lastHeartBeat.getStartupTime()
+                || heartBeat.getProcessId() != lastHeartBeat.getProcessId()
+                || heartBeat.getWorkerHostWeight() != lastHeartBeat.getWorkerHostWeight()
+                || heartBeat.getWorkerExecThreadCount() != lastHeartBeat.getWorkerExecThreadCount()
+                || heartBeat.getMaxCpuloadAvg() != lastHeartBeat.getMaxCpuloadAvg()
+                || heartBeat.getReservedMemory() != lastHeartBeat.getReservedMemory()) {
+            return true;
+        }
+        return isMetricChanged(lastHeartBeat.getCpuUsage(), heartBeat.getCpuUsage())
+                || isMetricChanged(lastHeartBeat.getMemoryUsage(), heartBeat.getMemoryUsage())
+                || isMetricChanged(lastHeartBeat.getLoadAverage(), heartBeat.getLoadAverage())
+                || isMetricChanged(lastHeartBeat.getAvailablePhysicalMemorySize(),
+                        heartBeat.getAvailablePhysicalMemorySize())
+                || isMetricChanged(lastHeartBeat.getDiskAvailable(), heartBeat.getDiskAvailable());
+    }
+
+    /**
+     * The delta is relative to the last value, and the values less than 1, e.g. the usages, are compared absolutely.
+     */
+    private boolean isMetricChanged(double lastValue, double value) {
+        return Math.abs(value - lastValue) > heartbeatMetricDelta * Math.max(Math.abs(lastValue), 1);
     }
 
     public int getServerStatus(double loadAverage,
@@ -22,8 +22,10 @@ import org.apache.dolphinscheduler.common.utils.FileUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 
@@ -97,6 +99,7 @@ public class TaskExecutionCheckerUtils {
     }
 
     public static void downloadResourcesIfNeeded(StorageOperate storageOperate,
+                                                 WorkerResourceCache workerResourceCache,
                                                  TaskExecutionContext taskExecutionContext, Logger logger) {
         String execLocalPath = taskExecutionContext.getExecutePath();
         Map<String, String> projectRes = taskExecutionContext.getResources();
@@ -118,28 +121,31 @@ public class TaskExecutionCheckerUtils {
         }
 
         if (CollectionUtils.isNotEmpty(downloadFiles)) {
+            // the resource files are fetched concurrently
+            List<Runnable> downloads = new ArrayList<>();
             for (Pair<String, String> fileDownload : downloadFiles) {
-                try {
-                    String fullName = fileDownload.getLeft();
-                    // we do not actually get & need tenantCode with this implementation right now.
-                    String tenantCode = fileDownload.getRight();
-                    // TODO: Need a better way to get fileName because this implementation is tricky.
-                    String fileName = storageOperate.getResourceFileName(fullName);
-                    logger.info("get resource file from path:{}", fullName);
-
-                    long resourceDownloadStartTime = System.currentTimeMillis();
-                    storageOperate.download(tenantCode, fullName, execLocalPath + File.separator + fileName, false,
-                            true);
-                    WorkerServerMetrics
-                            .recordWorkerResourceDownloadTime(System.currentTimeMillis() - resourceDownloadStartTime);
-                    WorkerServerMetrics.recordWorkerResourceDownloadSize(
-                            Files.size(Paths.get(execLocalPath, fileName)));
-                    WorkerServerMetrics.incWorkerResourceDownloadSuccessCount();
-                } catch (Exception e) {
-                    WorkerServerMetrics.incWorkerResourceDownloadFailureCount();
-                    throw new TaskException(String.format("Download resource file: %s error", fileDownload), e);
-                }
+                downloads.add(() -> fetchResource(storageOperate, workerResourceCache, execLocalPath, fileDownload,
+                        logger));
             }
+            StorageOperateUtils.transferConcurrently(downloads);
+        }
+    }
+
+    private static void fetchResource(StorageOperate storageOperate, WorkerResourceCache workerResourceCache,
+                                      String execLocalPath, Pair<String, String> fileDownload, Logger logger) {
+        try {
+            String fullName = fileDownload.getLeft();
+            // we do not actually get & need tenantCode with this implementation right now.
+            String tenantCode = fileDownload.getRight();
+            // TODO: Need a better way to get fileName because this implementation is tricky.
+            String fileName = storageOperate.getResourceFileName(fullName);
+            logger.info("get resource file from path:{}", fullName);
+
+            workerResourceCache.fetchResource(storageOperate, tenantCode, fullName,
+                    Paths.get(execLocalPath, fileName));
+        } catch (Exception e) {
+            WorkerServerMetrics.incWorkerResourceDownloadFailureCount();
+            throw new TaskException(String.format("Download resource file: %s error", fileDownload), e);
         }
     }
 
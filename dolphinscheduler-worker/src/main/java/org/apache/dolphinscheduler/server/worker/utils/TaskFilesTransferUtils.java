@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.FileUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
@@ -85,37 +86,18 @@ public class TaskFilesTransferUtils {
         }
 
         logger.info("Upload output files ...");
-        for (Property property : localParamsProperty) {
-            // get local file path
-            String path = String.format("%s/%s", taskExecutionContext.getExecutePath(), property.getValue());
-            String srcPath = packIfDir(path);
-
-            // get crc file path
-            String srcCRCPath = srcPath + CRC_SUFFIX;
-            try {
-                FileUtils.writeContent2File(FileUtils.getFileChecksum(path), srcCRCPath);
-            } catch (IOException ex) {
-                throw new TaskException(ex.getMessage(), ex);
-            }
-
-            // get remote file path
-            String resourcePath = getResourcePath(taskExecutionContext, new File(srcPath).getName());
-            String resourceCRCPath = resourcePath + CRC_SUFFIX;
-            try {
-                // upload file to storage
-                String resourceWholePath =
-                        storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourcePath);
-                String resourceCRCWholePath =
-                        storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourceCRCPath);
-                logger.info("{} --- Local:{} to Remote:{}", property, srcPath, resourceWholePath);
-                storageOperate.upload(taskExecutionContext.getTenantCode(), srcPath, resourceWholePath, false, true);
-                logger.info("{} --- Local:{} to Remote:{}", "CRC file", srcCRCPath, resourceCRCWholePath);
-                storageOperate.upload(taskExecutionContext.getTenantCode(), srcCRCPath, resourceCRCWholePath, false,
-                        true);
-            } catch (IOException ex) {
-                throw new TaskException("Upload file to storage error", ex);
-            }
+        // the files are uploaded concurrently, and the var pool is updated after all of them are uploaded
+        String[] resourcePaths = new String[localParamsProperty.size()];
+        List<Runnable> uploads = new ArrayList<>();
+        for (int i = 0; i < localParamsProperty.size(); i++) {
+            int index = i;
+            Property property = localParamsProperty.get(i);
+            uploads.add(() -> resourcePaths[index] = uploadOutputFile(taskExecutionContext, storageOperate, property));
+        }
+        StorageOperateUtils.transferConcurrently(uploads);
 
+        for (int i = 0; i < localParamsProperty.size(); i++) {
+            Property property = localParamsProperty.get(i);
             // update varPool
             Property oriProperty;
             // if the property is not in varPool, add it
@@ -126,7 +108,7 @@ public class TaskFilesTransferUtils {
                 varPools.add(oriProperty);
             }
             oriProperty.setProp(String.format("%s.%s", taskExecutionContext.getTaskName(), oriProperty.getProp()));
-            oriProperty.setValue(resourcePath);
+            oriProperty.setValue(resourcePaths[i]);
         }
         taskExecutionContext.setVarPool(JSONUtils.toJsonString(varPools));
     }
@@ -156,6 +138,7 @@ public class TaskFilesTransferUtils {
         String downloadTmpPath = String.format("%s/%s", executePath, DOWNLOAD_TMP);
 
         logger.info("Download upstream files...");
+        List<Runnable> downloads = new ArrayList<>();
         for (Property property : localParamsProperty) {
             Property inVarPool = varPoolsMap.get(property.getValue());
             if (inVarPool == null) {
@@ -163,37 +146,11 @@ public class TaskFilesTransferUtils {
                 throw new TaskException(String.format("Can not find upstream file using %s, please check the key",
                         property.getValue()));
             }
-
-            String resourcePath = inVarPool.getValue();
-            String targetPath = String.format("%s/%s", executePath, property.getProp());
-
-            String downloadPath;
-            // If the data is packaged, download it to a special directory (DOWNLOAD_TMP) and unpack it to the
-            // targetPath
-            boolean isPack = resourcePath.endsWith(PACK_SUFFIX);
-            if (isPack) {
-                downloadPath = String.format("%s/%s", downloadTmpPath, new File(resourcePath).getName());
-            } else {
-                downloadPath = targetPath;
-            }
-
-            try {
-                String resourceWholePath =
-                        storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourcePath);
-                logger.info("{} --- Remote:{} to Local:{}", property, resourceWholePath, downloadPath);
-                storageOperate.download(taskExecutionContext.getTenantCode(), resourceWholePath, downloadPath, false,
-                        true);
-            } catch (IOException ex) {
-                throw new TaskException("Download file from storage error", ex);
-            }
-
-            // unpack if the data is packaged
-            if (isPack) {
-                File downloadFile = new File(downloadPath);
-                logger.info("Unpack {} to {}", downloadPath, targetPath);
-                ZipUtil.unpack(downloadFile, new File(targetPath));
-            }
+            downloads.add(() -> downloadUpstreamFile(taskExecutionContext, storageOperate, property,
+                    inVarPool.getValue(), downloadTmpPath));
         }
+        // the files are downloaded concurrently
+        StorageOperateUtils.transferConcurrently(downloads);
 
         // delete DownloadTmp Folder if DownloadTmpPath exists
         try {
@@ -203,6 +160,80 @@ public class TaskFilesTransferUtils {
         }
     }
 
+    /**
+     * pack the output file if it is a directory, and upload it with its crc file to resource storage
+     *
+     * @return the resource path of the uploaded file
+     */
+    private static String uploadOutputFile(TaskExecutionContext taskExecutionContext, StorageOperate storageOperate,
+                                           Property property) {
+        // get local file path
+        String path = String.format("%s/%s", taskExecutionContext.getExecutePath(), property.getValue());
+        String srcPath = packIfDir(path);
+
+        // get crc file path
+        String srcCRCPath = srcPath + CRC_SUFFIX;
+        try {
+            FileUtils.writeContent2File(FileUtils.getFileChecksum(path), srcCRCPath);
+        } catch (IOException ex) {
+            throw new TaskException(ex.getMessage(), ex);
+        }
+
+        // get remote file path
+        String resourcePath = getResourcePath(taskExecutionContext, new File(srcPath).getName());
+        String resourceCRCPath = resourcePath + CRC_SUFFIX;
+        try {
+            // upload file to storage
+            String resourceWholePath =
+                    storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourcePath);
+            String resourceCRCWholePath =
+                    storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourceCRCPath);
+            logger.info("{} --- Local:{} to Remote:{}", property, srcPath, resourceWholePath);
+            storageOperate.upload(taskExecutionContext.getTenantCode(), srcPath, resourceWholePath, false, true);
+            logger.info("{} --- Local:{} to Remote:{}", "CRC file", srcCRCPath, resourceCRCWholePath);
+            storageOperate.upload(taskExecutionContext.getTenantCode(), srcCRCPath, resourceCRCWholePath, false,
+                    true);
+        } catch (IOException ex) {
+            throw new TaskException("Upload file to storage error", ex);
+        }
+        return resourcePath;
+    }
+
+    /**
+     * download an upstream file from storage, and unpack it to the target path if it is packaged
+     */
+    private static void downloadUpstreamFile(TaskExecutionContext taskExecutionContext, StorageOperate storageOperate,
+                                             Property property, String resourcePath, String downloadTmpPath) {
+        String targetPath = String.format("%s/%s", taskExecutionContext.getExecutePath(), property.getProp());
+
+        String downloadPath;
+        // If the data is packaged, download it to a special directory (DOWNLOAD_TMP) and unpack it to the
+        // targetPath
+        boolean isPack = resourcePath.endsWith(PACK_SUFFIX);
+        if (isPack) {
+            downloadPath = String.format("%s/%s", downloadTmpPath, new File(resourcePath).getName());
+        } else {
+            downloadPath = targetPath;
+        }
+
+        try {
+            String resourceWholePath =
+                    storageOperate.getResourceFileName(taskExecutionContext.getTenantCode(), resourcePath);
+            logger.info("{} --- Remote:{} to Local:{}", property, resourceWholePath, downloadPath);
+            storageOperate.download(taskExecutionContext.getTenantCode(), resourceWholePath, downloadPath, false,
+                    true);
+        } catch (IOException ex) {
+            throw new TaskException("Download file from storage error", ex);
+        }
+
+        // unpack if the data is packaged
+        if (isPack) {
+            File downloadFile = new File(downloadPath);
+            logger.info("Unpack {} to {}", downloadPath, targetPath);
+            ZipUtil.unpack(downloadFile, new File(targetPath));
+        }
+    }
+
     /**
      * get local parameters property which type is FILE and direction is equal to direct
      *
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.plugin.storage.api.StorageEntity;
+import org.apache.dolphinscheduler.plugin.storage.api.StorageOperate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+public class WorkerResourceCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StorageOperate storageOperate;
+
+    @BeforeEach
+    public void before() throws Exception {
+        storageOperate = Mockito.mock(StorageOperate.class);
+        Mockito.doAnswer(invocation -> {
+            String fullName = invocation.getArgument(1);
+            Files.write(Paths.get((String) invocation.getArgument(2)), fullName.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+        mockFileStatus("/dolphinscheduler/tenant/resources/a.jar", 1000L);
+        mockFileStatus("/dolphinscheduler/tenant/resources/b.jar", 1000L);
+    }
+
+    @Test
+    public void testFetchResourceFromCache() throws Exception {
+        WorkerResourceCache workerResourceCache = new WorkerResourceCache(tempDir.resolve("cache"), 1024, true);
+        workerResourceCache.init();
+
+        Path task1File = tempDir.resolve("task1").resolve("a.jar");
+        Path task2File = tempDir.resolve("task2").resolve("a.jar");
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                task1File);
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                task2File);
+
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        Assertions.assertEquals("/dolphinscheduler/tenant/resources/a.jar",
+                new String(Files.readAllBytes(task2File), StandardCharsets.UTF_8));
+        Assertions.assertEquals(Files.size(task1File), workerResourceCache.getCachedBytes());
+        // the tasks share the cached file
+        Assertions.assertTrue(Files.isSameFile(task1File, task2File));
+
+        // the resource is downloaded again after it is changed
+        mockFileStatus("/dolphinscheduler/tenant/resources/a.jar", 2000L);
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                tempDir.resolve("task3").resolve("a.jar"));
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testFetchResourceCopyWithoutSudo() throws Exception {
+        WorkerResourceCache workerResourceCache = new WorkerResourceCache(tempDir.resolve("cache"), 1024, false);
+        workerResourceCache.init();
+
+        Path task1File = tempDir.resolve("task1").resolve("a.jar");
+        Path task2File = tempDir.resolve("task2").resolve("a.jar");
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                task1File);
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                task2File);
+
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        // the tasks run as the owner of the cached file, a task changing its copy does not affect the others
+        Assertions.assertFalse(Files.isSameFile(task1File, task2File));
+        Files.write(task1File, "changed".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("/dolphinscheduler/tenant/resources/a.jar",
+                new String(Files.readAllBytes(task2File), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFetchResourceConcurrently() throws Exception {
+        AtomicInteger downloadCount = new AtomicInteger();
+        CountDownLatch fetchingLatch = new CountDownLatch(2);
+        StorageEntity storageEntity = new StorageEntity();
+        storageEntity.setFullName("/dolphinscheduler/tenant/resources/a.jar");
+        storageEntity.setSize(storageEntity.getFullName().length());
+        storageEntity.setUpdateTime(new Date(1000L));
+        Mockito.when(storageOperate.getFileStatus(Mockito.eq(storageEntity.getFullName()), Mockito.anyString(),
+                Mockito.anyString(), Mockito.any())).thenAnswer(invocation -> {
+                    fetchingLatch.countDown();
+                    return storageEntity;
+                });
+        Mockito.doAnswer(invocation -> {
+            downloadCount.incrementAndGet();
+            // the download is slow, the other task fetches the same resource meanwhile
+            Assertions.assertTrue(fetchingLatch.await(10, TimeUnit.SECONDS));
+            TimeUnit.MILLISECONDS.sleep(200);
+            String fullName = invocation.getArgument(1);
+            Files.write(Paths.get((String) invocation.getArgument(2)), fullName.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+        WorkerResourceCache workerResourceCache = new WorkerResourceCache(tempDir.resolve("cache"), 1024, true);
+        workerResourceCache.init();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 1; i <= 2; i++) {
+                Path taskFile = tempDir.resolve("task" + i).resolve("a.jar");
+                futures.add(executorService.submit(() -> {
+                    workerResourceCache.fetchResource(storageOperate, "tenant",
+                            "/dolphinscheduler/tenant/resources/a.jar", taskFile);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, downloadCount.get());
+        Assertions.assertEquals("/dolphinscheduler/tenant/resources/a.jar",
+                new String(Files.readAllBytes(tempDir.resolve("task2").resolve("a.jar")), StandardCharsets.UTF_8));
+        Assertions.assertEquals(storageEntity.getSize(), workerResourceCache.getCachedBytes());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedResource() throws Exception {
+        long resourceSize = "/dolphinscheduler/tenant/resources/a.jar".length();
+        WorkerResourceCache workerResourceCache = new WorkerResourceCache(tempDir.resolve("cache"), resourceSize, true);
+        workerResourceCache.init();
+
+        Path taskFile = tempDir.resolve("task1").resolve("a.jar");
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                taskFile);
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/b.jar",
+                tempDir.resolve("task2").resolve("b.jar"));
+
+        Assertions.assertEquals(resourceSize, workerResourceCache.getCachedBytes());
+        Assertions.assertEquals(1, tempDir.resolve("cache").toFile().list().length);
+        // the evicted resource is still available to the task
+        Assertions.assertTrue(Files.exists(taskFile));
+    }
+
+    @Test
+    public void testFetchResourceWithoutCache() throws Exception {
+        WorkerResourceCache workerResourceCache = new WorkerResourceCache(tempDir.resolve("cache"), 0, true);
+        workerResourceCache.init();
+
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                tempDir.resolve("task1").resolve("a.jar"));
+        workerResourceCache.fetchResource(storageOperate, "tenant", "/dolphinscheduler/tenant/resources/a.jar",
+                tempDir.resolve("task2").resolve("a.jar"));
+
+        Mockito.verify(storageOperate, Mockito.never()).getFileStatus(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.any());
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    private void mockFileStatus(String fullName, long updateTime) throws Exception {
+        StorageEntity storageEntity = new StorageEntity();
+        storageEntity.setFullName(fullName);
+        storageEntity.setSize(fullName.length());
+        storageEntity.setUpdateTime(new Date(updateTime));
+        Mockito.when(storageOperate.getFileStatus(Mockito.eq(fullName), Mockito.anyString(), Mockito.anyString(),
+                Mockito.any())).thenReturn(storageEntity);
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.plugin.task.api.TaskPluginManager;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcClient;
@@ -64,6 +65,9 @@ public class TaskDispatchProcessorTest {
     @Mock
     private StorageOperate storageOperate;
 
+    @Mock
+    private WorkerResourceCache workerResourceCache;
+
     @Test
     public void process() {
         Channel channel = Mockito.mock(Channel.class);
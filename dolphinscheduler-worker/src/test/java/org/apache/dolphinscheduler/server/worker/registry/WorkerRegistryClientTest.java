@@ -83,6 +83,7 @@ public class WorkerRegistryClientTest {
 
         given(workerConfig.getWorkerAddress()).willReturn(NetUtils.getAddr(1234));
         given(workerConfig.getHeartbeatInterval()).willReturn(Duration.ofSeconds(1));
+        given(workerConfig.getHeartbeatMaxStaleness()).willReturn(Duration.ofSeconds(60));
         given(registryClient.checkNodeExists(Mockito.anyString(), Mockito.any(NodeType.class))).willReturn(true);
 
         workerRegistryClient.initWorkRegistry();
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.dolphinscheduler.common.model.WorkerHeartBeat;
+import org.apache.dolphinscheduler.registry.api.RegistryClient;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkerHeartBeatTaskTest {
+
+    private static final String WORKER_REGISTRY_PATH = "/nodes/worker/127.0.0.1:1234";
+
+    @Mock
+    private RegistryClient registryClient;
+
+    @Test
+    public void testWriteHeartBeatOnlyIfChanged() {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setWorkerRegistryPath(WORKER_REGISTRY_PATH);
+        WorkerHeartBeatTask workerHeartBeatTask = new WorkerHeartBeatTask(workerConfig, registryClient, () -> 0);
+
+        long now = System.currentTimeMillis();
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now, 0.2, 4.0, 0));
+        verifyWriteTimes(1);
+
+        // the small changes of the metrics are skipped
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now + 10_000, 0.25, 4.3, 0));
+        verifyWriteTimes(1);
+
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now + 20_000, 0.2, 4.5, 0));
+        verifyWriteTimes(2);
+
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now + 30_000, 0.2, 4.5, 1));
+        verifyWriteTimes(3);
+
+        // the last written heartbeat is too stale
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now + 90_000, 0.2, 4.5, 1));
+        verifyWriteTimes(4);
+
+        workerHeartBeatTask.forceWriteNextHeartBeat();
+        workerHeartBeatTask.writeHeartBeat(heartBeat(now + 100_000, 0.2, 4.5, 1));
+        verifyWriteTimes(5);
+    }
+
+    private void verifyWriteTimes(int times) {
+        Mockito.verify(registryClient, Mockito.times(times))
+                .persistEphemeral(Mockito.eq(WORKER_REGISTRY_PATH), Mockito.anyString());
+    }
+
+    private WorkerHeartBeat heartBeat(long reportTime, double cpuUsage, double loadAverage, int waitingTaskCount) {
+        return WorkerHeartBeat.builder()
+                .reportTime(reportTime)
+                .cpuUsage(cpuUsage)
+                .memoryUsage(0.5)
+                .loadAverage(loadAverage)
+                .availablePhysicalMemorySize(16)
+                .diskAvailable(100)
+                .workerWaitingTaskCount(waitingTaskCount)
+                .build();
+    }
+}
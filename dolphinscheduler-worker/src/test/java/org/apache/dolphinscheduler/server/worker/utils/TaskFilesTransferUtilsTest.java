@@ -122,7 +122,7 @@ public class TaskFilesTransferUtilsTest {
     }
 
     @Test
-    void testDownloadUpstreamFiles() {
+    void testDownloadUpstreamFiles() throws IOException {
         File executePath = Files.createTempDir();
         String folderPath = exceptTemplate + "_folder" + TaskFilesTransferUtils.PACK_SUFFIX;
         String filePath = exceptTemplate + "_file";
@@ -154,10 +154,24 @@ public class TaskFilesTransferUtilsTest {
                 .endTime(endTime)
                 .build();
 
+        // the files are downloaded concurrently, so the packaged file is really packed and unpacked here
+        File packFolder = Files.createTempDir();
+        Assertions.assertTrue(new File(packFolder, "test.txt").createNewFile());
         StorageOperate storageOperate = Mockito.mock(StorageOperate.class);
-        Mockito.mockStatic(ZipUtil.class);
+        Mockito.doAnswer(invocation -> {
+            File downloadFile = new File(invocation.getArgument(2, String.class));
+            downloadFile.getParentFile().mkdirs();
+            if (downloadFile.getName().endsWith(TaskFilesTransferUtils.PACK_SUFFIX)) {
+                ZipUtil.pack(packFolder, downloadFile);
+            }
+            return null;
+        }).when(storageOperate).download(Mockito.any(), Mockito.any(), Mockito.anyString(), Mockito.anyBoolean(),
+                Mockito.anyBoolean());
         Assertions.assertDoesNotThrow(
                 () -> TaskFilesTransferUtils.downloadUpstreamFiles(taskExecutionContext, storageOperate));
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.any(), Mockito.any(), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+        Assertions.assertTrue(new File(executePath, "folder/test.txt").exists());
     }
 
     @Test